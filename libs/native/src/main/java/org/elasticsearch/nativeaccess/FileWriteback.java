@@ -0,0 +1,32 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.nativeaccess;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * A handle on a file that starts writing back its dirty pages to disk without waiting for the writes to complete, so that a
+ * later fsync of the file has less to flush. This is purely advisory and doesn't give any durability guarantee.
+ */
+public interface FileWriteback extends Closeable {
+
+    /**
+     * Starts writing back the dirty pages of the given range of the file.
+     *
+     * @param offset the offset of the first byte to write back
+     * @param length the number of bytes to write back
+     * @return {@code true} if writeback was started, {@code false} if it failed
+     */
+    boolean startWriteback(long offset, long length);
+
+    @Override
+    void close() throws IOException;
+}
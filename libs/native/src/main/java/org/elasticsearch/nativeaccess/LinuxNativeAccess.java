@@ -15,12 +15,18 @@ import org.elasticsearch.nativeaccess.lib.LinuxCLibrary.SockFilter;
 import org.elasticsearch.nativeaccess.lib.NativeLibraryProvider;
 import org.elasticsearch.nativeaccess.lib.PosixCLibrary;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 class LinuxNativeAccess extends PosixNativeAccess {
 
     private static final int STATX_BLOCKS = 0x400; /* Want/got stx_blocks */
 
+    /** initiates writeback of the dirty pages in the range that aren't already submitted for write */
+    private static final int SYNC_FILE_RANGE_WRITE = 2;
+
     /** the preferred method is seccomp(2), since we can apply to all threads of the process */
     static final int SECCOMP_SET_MODE_FILTER = 1;   // since Linux 3.17
     static final int SECCOMP_FILTER_FLAG_TSYNC = 1;   // since Linux 3.17
@@ -140,6 +146,44 @@ class LinuxNativeAccess extends PosixNativeAccess {
         return true;
     }
 
+    @Override
+    public FileWriteback openFileWriteback(Path file) {
+        final int fd = libc.open(file.toAbsolutePath().toString(), O_WRONLY);
+        if (fd == -1) {
+            logger.warn("Could not open file [" + file + "] for writeback: " + libc.strerror(libc.errno()));
+            return null;
+        }
+        return new LinuxFileWriteback(file, fd);
+    }
+
+    private class LinuxFileWriteback implements FileWriteback {
+        private final Path file;
+        private final int fd;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        LinuxFileWriteback(Path file, int fd) {
+            this.file = file;
+            this.fd = fd;
+        }
+
+        @Override
+        public boolean startWriteback(long offset, long length) {
+            assert closed.get() == false : "writeback of [" + file + "] is already closed";
+            if (linuxLibc.sync_file_range(fd, offset, length, SYNC_FILE_RANGE_WRITE) != 0) {
+                logger.debug("sync_file_range failed for file [" + file + "]: " + libc.strerror(libc.errno()));
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed.compareAndSet(false, true) && libc.close(fd) != 0) {
+                throw new IOException("Could not close file [" + file + "] after writeback: " + libc.strerror(libc.errno()));
+            }
+        }
+    }
+
     /**
      * Installs exec system call filtering for Linux.
      * <p>
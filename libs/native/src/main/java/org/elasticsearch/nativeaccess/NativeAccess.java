@@ -75,6 +75,16 @@ public interface NativeAccess {
 
     void tryPreallocate(Path file, long size);
 
+    /**
+     * Opens the given file to start writing back its dirty pages to disk without waiting for the writes to complete.
+     *
+     * @param file the file to write back
+     * @return a handle on the file, or {@code null} if starting asynchronous writeback isn't supported on this platform
+     */
+    default FileWriteback openFileWriteback(Path file) {
+        return null;
+    }
+
     /**
      * Returns an accessor for native functions only available on Windows, or {@code null} if not on Windows.
      */
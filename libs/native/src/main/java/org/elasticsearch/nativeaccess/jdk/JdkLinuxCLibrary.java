@@ -54,6 +54,10 @@ class JdkLinuxCLibrary implements LinuxCLibrary {
         "fallocate",
         FunctionDescriptor.of(JAVA_INT, JAVA_INT, JAVA_INT, JAVA_LONG, JAVA_LONG)
     );
+    private static final MethodHandle sync_file_range$mh = downcallHandleWithErrno(
+        "sync_file_range",
+        FunctionDescriptor.of(JAVA_INT, JAVA_INT, JAVA_LONG, JAVA_LONG, JAVA_INT)
+    );
 
     private static class JdkSockFProg implements SockFProg {
         private static final MemoryLayout layout = MemoryLayout.structLayout(JAVA_SHORT, paddingLayout(6), ADDRESS);
@@ -114,4 +118,13 @@ class JdkLinuxCLibrary implements LinuxCLibrary {
             throw new AssertionError(t);
         }
     }
+
+    @Override
+    public int sync_file_range(int fd, long offset, long nbytes, int flags) {
+        try {
+            return (int) sync_file_range$mh.invokeExact(errnoState, fd, offset, nbytes, flags);
+        } catch (Throwable t) {
+            throw new AssertionError(t);
+        }
+    }
 }
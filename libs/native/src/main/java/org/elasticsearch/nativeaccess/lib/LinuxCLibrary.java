@@ -38,4 +38,9 @@ public non-sealed interface LinuxCLibrary extends NativeLibrary {
     long syscall(long number, int operation, int flags, long address);
 
     int fallocate(int fd, int mode, long offset, long length);
+
+    /**
+     * maps to sync_file_range(2)
+     */
+    int sync_file_range(int fd, long offset, long nbytes, int flags);
 }
@@ -193,6 +193,10 @@ public class TransportVersions {
     public static final TransportVersion INTRODUCE_LIFECYCLE_TEMPLATE = def(9_033_0_00);
     public static final TransportVersion INDEXING_STATS_INCLUDES_RECENT_WRITE_LOAD = def(9_034_0_00);
     public static final TransportVersion ESQL_AGGREGATE_METRIC_DOUBLE_LITERAL = def(9_035_0_00);
+    public static final TransportVersion SEARCH_QUERY_PHASE_PER_NODE = def(9_036_0_00);
+    public static final TransportVersion TRANSPORT_COMPRESSION_ZSTD = def(9_037_0_00);
+    public static final TransportVersion MERGE_DEBT_BACK_PRESSURE = def(9_038_0_00);
+    public static final TransportVersion RECOVERY_FILE_CHUNK_CONTENT_LAST = def(9_039_0_00);
 
     /*
      * STOP! READ THIS FIRST! No, really,
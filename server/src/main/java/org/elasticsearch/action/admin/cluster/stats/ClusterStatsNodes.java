@@ -797,6 +797,9 @@ public class ClusterStatsNodes implements ToXContentFragment {
             long highWaterMarkSplits = 0;
             long largeOpsRejections = 0;
             long totalLargeRejectedOpsBytes = 0;
+            long mergeDebtRejections = 0;
+            long mergeDebtDelays = 0;
+            long totalMergeDebtDelayTimeInMillis = 0;
             for (NodeStats nodeStat : nodeStats) {
                 IndexingPressureStats nodeStatIndexingPressureStats = nodeStat.getIndexingPressureStats();
                 if (nodeStatIndexingPressureStats != null) {
@@ -824,6 +827,9 @@ public class ClusterStatsNodes implements ToXContentFragment {
                     highWaterMarkSplits += nodeStatIndexingPressureStats.getHighWaterMarkSplits();
                     largeOpsRejections += nodeStatIndexingPressureStats.getLargeOpsRejections();
                     totalLargeRejectedOpsBytes += nodeStatIndexingPressureStats.getTotalLargeRejectedOpsBytes();
+                    mergeDebtRejections += nodeStatIndexingPressureStats.getMergeDebtRejections();
+                    mergeDebtDelays += nodeStatIndexingPressureStats.getMergeDebtDelays();
+                    totalMergeDebtDelayTimeInMillis += nodeStatIndexingPressureStats.getTotalMergeDebtDelayTimeInMillis();
                 }
             }
             indexingPressureStats = new IndexingPressureStats(
@@ -850,7 +856,10 @@ public class ClusterStatsNodes implements ToXContentFragment {
                 lowWaterMarkSplits,
                 highWaterMarkSplits,
                 largeOpsRejections,
-                totalLargeRejectedOpsBytes
+                totalLargeRejectedOpsBytes,
+                mergeDebtRejections,
+                mergeDebtDelays,
+                totalMergeDebtDelayTimeInMillis
             );
         }
 
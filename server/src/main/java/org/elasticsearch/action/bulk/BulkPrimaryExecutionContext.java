@@ -20,6 +20,7 @@ import org.elasticsearch.index.engine.Engine;
 import org.elasticsearch.index.shard.IndexShard;
 import org.elasticsearch.index.translog.Translog;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -135,6 +136,25 @@ class BulkPrimaryExecutionContext {
         return currentIndex < request.items().length;
     }
 
+    /**
+     * returns the current request and the requests that directly follow it, up to {@code maxRequests} of them, as long as they are
+     * index requests with an auto-generated id that aren't retried. Aborted items are skipped, like {@link #advance()} does.
+     */
+    public List<IndexRequest> getAppendOnlyIndexRequests(int maxRequests) {
+        assert assertInvariants(ItemProcessingState.INITIAL);
+        final List<IndexRequest> requests = new ArrayList<>();
+        for (int i = currentIndex; i < request.items().length && requests.size() < maxRequests; i = findNextNonAborted(i + 1)) {
+            if (request.items()[i].request() instanceof IndexRequest indexRequest
+                && indexRequest.getAutoGeneratedTimestamp() != IndexRequest.UNSET_AUTO_GENERATED_TIMESTAMP
+                && indexRequest.isRetry() == false) {
+                requests.add(indexRequest);
+            } else {
+                break;
+            }
+        }
+        return requests;
+    }
+
     /** returns the name of the index the current request used */
     public String getConcreteIndex() {
         return getCurrentItem().index();
@@ -39,11 +39,14 @@ import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.compress.CompressedXContent;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.util.concurrent.AbstractRunnable;
 import org.elasticsearch.common.xcontent.XContentHelper;
 import org.elasticsearch.core.Nullable;
 import org.elasticsearch.core.Strings;
 import org.elasticsearch.core.TimeValue;
 import org.elasticsearch.core.Tuple;
+import org.elasticsearch.index.IndexService;
+import org.elasticsearch.index.IndexSettings;
 import org.elasticsearch.index.IndexingPressure;
 import org.elasticsearch.index.engine.Engine;
 import org.elasticsearch.index.engine.VersionConflictEngineException;
@@ -65,12 +68,16 @@ import org.elasticsearch.injection.guice.Inject;
 import org.elasticsearch.node.NodeClosedException;
 import org.elasticsearch.plugins.internal.DocumentParsingProvider;
 import org.elasticsearch.plugins.internal.XContentMeteringParserDecorator;
+import org.elasticsearch.tasks.CancellableTask;
+import org.elasticsearch.tasks.Task;
 import org.elasticsearch.threadpool.ThreadPool;
 import org.elasticsearch.transport.TransportRequestOptions;
 import org.elasticsearch.transport.TransportService;
 import org.elasticsearch.xcontent.XContentType;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Executor;
 import java.util.function.Consumer;
@@ -155,6 +162,49 @@ public class TransportShardBulkAction extends TransportWriteAction<BulkShardRequ
         return new BulkShardResponse(in);
     }
 
+    @Override
+    protected void runPrimaryAction(ConcreteShardRequest<BulkShardRequest> request, ActionListener<BulkShardResponse> listener, Task task) {
+        // give merges a chance to catch up with indexing before adding even more to the shard's merge debt. The request already holds
+        // its primary indexing pressure bytes, so that a delayed request still pushes back on the requests that follow it, but not
+        // an operation permit on the shard, so that it doesn't hold back relocations and primary handoffs, which wait for all the
+        // operation permits to be released.
+        final TimeValue delay;
+        try {
+            delay = checkMergeDebt(request.getRequest());
+        } catch (Exception e) {
+            listener.onFailure(e);
+            return;
+        }
+        if (delay.millis() > 0) {
+            threadPool.schedule(new AbstractRunnable() {
+                @Override
+                protected void doRun() {
+                    if (task instanceof CancellableTask cancellableTask && cancellableTask.notifyIfCancelled(listener)) {
+                        return;
+                    }
+                    TransportShardBulkAction.super.runPrimaryAction(request, listener, task);
+                }
+
+                @Override
+                public void onFailure(Exception e) {
+                    listener.onFailure(e);
+                }
+            }, delay, threadPool.generic());
+        } else {
+            super.runPrimaryAction(request, listener, task);
+        }
+    }
+
+    private TimeValue checkMergeDebt(BulkShardRequest request) {
+        final IndexService indexService = indicesService.indexService(request.shardId().getIndex());
+        final IndexShard primary = indexService == null ? null : indexService.getShardOrNull(request.shardId().id());
+        if (primary == null) {
+            // the primary action fails on its own if the shard is gone
+            return TimeValue.ZERO;
+        }
+        return indexingPressure.checkMergeDebt(primary.shardId(), primary.pendingMergesSizeInBytes(), force(request));
+    }
+
     @Override
     protected void shardOperationOnPrimary(
         BulkShardRequest request,
@@ -274,6 +324,9 @@ public class TransportShardBulkAction extends TransportWriteAction<BulkShardRequ
             @Override
             protected void doRun() throws Exception {
                 while (context.hasMoreOperationsToExecute()) {
+                    if (executeAppendOnlyBatch(context, documentParsingProvider)) {
+                        continue;
+                    }
                     if (executeBulkItemRequest(
                         context,
                         updateHelper,
@@ -345,6 +398,52 @@ public class TransportShardBulkAction extends TransportWriteAction<BulkShardRequ
         }.run();
     }
 
+    /**
+     * Indexes the current item together with the index requests with auto-generated ids that directly follow it, handing them over
+     * to the engine in a single batch, see {@link IndexShard#applyIndexOperationsOnPrimary}. The size of the batch is bounded by
+     * {@link IndexSettings#BULK_APPEND_ONLY_BATCH_SIZE_SETTING}, which disables batching by default.
+     * @return {@code true} if all the items of the batch were executed, {@code false} if the current item can't be part of a batch or if
+     *                      it is the one the batch stopped at because it requires a mapping update, and it has to be executed on its own
+     */
+    static boolean executeAppendOnlyBatch(BulkPrimaryExecutionContext context, DocumentParsingProvider documentParsingProvider)
+        throws Exception {
+        final int maxBatchSize = context.getPrimary().indexSettings().getBulkAppendOnlyBatchSize();
+        if (maxBatchSize < 2) {
+            return false;
+        }
+        final List<IndexRequest> requests = context.getAppendOnlyIndexRequests(maxBatchSize);
+        if (requests.size() < 2) {
+            return false;
+        }
+        final List<SourceToParse> sources = new ArrayList<>(requests.size());
+        final long[] versions = new long[requests.size()];
+        final long[] autoGeneratedTimestamps = new long[requests.size()];
+        for (int i = 0; i < requests.size(); i++) {
+            final IndexRequest request = requests.get(i);
+            sources.add(
+                new SourceToParse(
+                    request.id(),
+                    request.source(),
+                    request.getContentType(),
+                    request.routing(),
+                    request.getDynamicTemplates(),
+                    request.getIncludeSourceOnError(),
+                    documentParsingProvider.newMeteringParserDecorator(request)
+                )
+            );
+            versions[i] = request.version();
+            autoGeneratedTimestamps[i] = request.getAutoGeneratedTimestamp();
+        }
+        final List<Engine.IndexResult> results = context.getPrimary()
+            .applyIndexOperationsOnPrimary(sources, versions, autoGeneratedTimestamps);
+        for (int i = 0; i < results.size(); i++) {
+            assert context.getCurrent() == requests.get(i);
+            context.setRequestToExecute(context.getCurrent());
+            onComplete(results.get(i), context, null);
+        }
+        return results.size() == requests.size();
+    }
+
     /**
      * Executes bulk item requests and handles request execution exceptions.
      * @return {@code true} if request completed on this thread and the listener was invoked, {@code false} if the request triggered
@@ -27,6 +27,8 @@ import org.elasticsearch.common.io.stream.NamedWriteableRegistry;
 import org.elasticsearch.common.util.Maps;
 import org.elasticsearch.common.util.concurrent.AtomicArray;
 import org.elasticsearch.core.Releasable;
+import org.elasticsearch.core.Releasables;
+import org.elasticsearch.core.TimeValue;
 import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.search.SearchContextMissingException;
 import org.elasticsearch.search.SearchPhaseResult;
@@ -36,10 +38,14 @@ import org.elasticsearch.search.internal.AliasFilter;
 import org.elasticsearch.search.internal.SearchContext;
 import org.elasticsearch.search.internal.ShardSearchContextId;
 import org.elasticsearch.search.internal.ShardSearchRequest;
+import org.elasticsearch.search.query.QuerySearchResult;
+import org.elasticsearch.threadpool.Scheduler;
+import org.elasticsearch.threadpool.ThreadPool;
 import org.elasticsearch.transport.Transport;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -97,6 +103,10 @@ abstract class AbstractSearchAsyncAction<Result extends SearchPhaseResult> exten
     private final boolean throttleConcurrentRequests;
     private final AtomicBoolean requestCancelled = new AtomicBoolean();
     private final int skippedCount;
+    // set before the phase starts, see #hedgeShardRequestsAfter
+    private HedgedShard[] hedgedShards;
+    private TimeValue hedgeAfter;
+    private ThreadPool threadPool;
 
     // protected for tests
     protected final SubscribableListener<Void> doneFuture = new SubscribableListener<>();
@@ -196,6 +206,21 @@ abstract class AbstractSearchAsyncAction<Result extends SearchPhaseResult> exten
         }
     }
 
+    /**
+     * Sends the request for a shard to another copy of the shard if the first copy hasn't answered within {@code hedgeAfter}.
+     * Whichever copy answers first is used and the other response is discarded. Must be called before {@link #start()}.
+     */
+    void hedgeShardRequestsAfter(TimeValue hedgeAfter, ThreadPool threadPool) {
+        assert hedgedShards == null : "hedging already enabled";
+        assert hedgeAfter.nanos() >= 0 : hedgeAfter;
+        this.hedgeAfter = hedgeAfter;
+        this.threadPool = threadPool;
+        this.hedgedShards = new HedgedShard[shardIterators.length];
+        for (int i = 0; i < hedgedShards.length; i++) {
+            hedgedShards[i] = new HedgedShard();
+        }
+    }
+
     /**
      * Builds how long it took to execute the search.
      */
@@ -235,6 +260,7 @@ abstract class AbstractSearchAsyncAction<Result extends SearchPhaseResult> exten
             shardIndexMap.put(shardIterators[i], i);
         }
         doCheckNoMissingShards(getName(), request, shardsIts);
+        final Map<String, List<ShardToQuery>> shardsPerNode = hedgedShards == null && canExecutePhaseOnNode() ? new HashMap<>() : null;
         for (int i = 0; i < shardsIts.size(); i++) {
             final SearchShardIterator shardRoutings = shardsIts.get(i);
             assert shardRoutings.skip() == false;
@@ -243,10 +269,59 @@ abstract class AbstractSearchAsyncAction<Result extends SearchPhaseResult> exten
             final SearchShardTarget routing = shardRoutings.nextOrNull();
             if (routing == null) {
                 failOnUnavailable(shardIndex, shardRoutings);
+            } else if (shardsPerNode != null && routing.getClusterAlias() == null) {
+                shardsPerNode.computeIfAbsent(routing.getNodeId(), n -> new ArrayList<>())
+                    .add(new ShardToQuery(shardIndex, shardRoutings, routing));
             } else {
+                if (hedgedShards != null) {
+                    hedgedShards[shardIndex].inFlight = 1;
+                }
                 performPhaseOnShard(shardIndex, shardRoutings, routing);
             }
         }
+        if (shardsPerNode != null) {
+            for (Map.Entry<String, List<ShardToQuery>> entry : shardsPerNode.entrySet()) {
+                final List<ShardToQuery> shards = entry.getValue();
+                if (shards.size() == 1) {
+                    performPhaseOnShard(shards.get(0).shardIndex(), shards.get(0).shardIt(), shards.get(0).target());
+                } else {
+                    performPhaseOnNode(entry.getKey(), shards);
+                }
+            }
+        }
+    }
+
+    private record ShardToQuery(int shardIndex, SearchShardIterator shardIt, SearchShardTarget target) {}
+
+    private void performPhaseOnNode(String nodeId, List<ShardToQuery> shards) {
+        if (throttleConcurrentRequests) {
+            var pendingExecutions = pendingExecutionsPerNode.computeIfAbsent(
+                nodeId,
+                n -> new PendingExecutions(maxConcurrentRequestsPerNode)
+            );
+            pendingExecutions.submit(l -> doPerformPhaseOnNode(nodeId, shards, l));
+        } else {
+            doPerformPhaseOnNode(nodeId, shards, () -> {});
+        }
+    }
+
+    private void doPerformPhaseOnNode(String nodeId, List<ShardToQuery> shards, Releasable releasable) {
+        // all shards answer at once, the first one to do so frees the slot of the node request
+        final Releasable releaseOnce = Releasables.releaseOnce(releasable);
+        final List<SearchShardIterator> shardIts = new ArrayList<>(shards.size());
+        final List<SearchActionListener<Result>> listeners = new ArrayList<>(shards.size());
+        for (ShardToQuery shard : shards) {
+            shardIts.add(shard.shardIt());
+            listeners.add(newShardListener(shard.shardIndex(), shard.shardIt(), shard.target(), releaseOnce));
+        }
+        final Transport.Connection connection;
+        try {
+            connection = getConnection(null, nodeId);
+        } catch (Exception e) {
+            listeners.forEach(l -> l.onFailure(e));
+            return;
+        }
+        executePhaseOnNode(shardIts, connection, listeners);
     }
 
     private void performPhaseOnShard(final int shardIndex, final SearchShardIterator shardIt, final SearchShardTarget shard) {
@@ -262,7 +337,28 @@ abstract class AbstractSearchAsyncAction<Result extends SearchPhaseResult> exten
     }
 
     private void doPerformPhaseOnShard(int shardIndex, SearchShardIterator shardIt, SearchShardTarget shard, Releasable releasable) {
-        var shardListener = new SearchActionListener<Result>(shard, shardIndex) {
+        if (hedgedShards != null) {
+            doPerformHedgedPhaseOnShard(shardIndex, shardIt, shard, releasable);
+            return;
+        }
+        var shardListener = newShardListener(shardIndex, shardIt, shard, releasable);
+        final Transport.Connection connection;
+        try {
+            connection = getConnection(shard.getClusterAlias(), shard.getNodeId());
+        } catch (Exception e) {
+            shardListener.onFailure(e);
+            return;
+        }
+        executePhaseOnShard(shardIt, connection, shardListener);
+    }
+
+    private SearchActionListener<Result> newShardListener(
+        int shardIndex,
+        SearchShardIterator shardIt,
+        SearchShardTarget shard,
+        Releasable releasable
+    ) {
+        return new SearchActionListener<>(shard, shardIndex) {
             @Override
             public void innerOnResponse(Result result) {
                 try {
@@ -279,6 +375,92 @@ abstract class AbstractSearchAsyncAction<Result extends SearchPhaseResult> exten
                 onShardFailure(shardIndex, shard, shardIt, e);
             }
         };
+    }
+
+    /**
+     * The state of the requests for a single shard when hedging is enabled. All access is guarded by the instance's monitor.
+     */
+    private static final class HedgedShard {
+        // the number of copies of this shard that we're waiting on
+        int inFlight;
+        // set once a copy has answered or all copies have failed
+        boolean done;
+        Scheduler.ScheduledCancellable hedgeTimer;
+        // the tasks that the requests to the copies in flight are sent under, so that the losing ones can be cancelled
+        final List<SearchTask> copyTasks = new ArrayList<>();
+    }
+
+    private void doPerformHedgedPhaseOnShard(int shardIndex, SearchShardIterator shardIt, SearchShardTarget shard, Releasable releasable) {
+        final HedgedShard hedgedShard = hedgedShards[shardIndex];
+        final SearchTask copyTask;
+        try {
+            copyTask = searchTransportService.registerShardCopyTask(task, shard);
+        } catch (Exception e) {
+            // the search task was cancelled in the meantime
+            releasable.close();
+            onHedgedShardFailure(shardIndex, shard, shardIt, e);
+            return;
+        }
+        synchronized (hedgedShard) {
+            hedgedShard.copyTasks.add(copyTask);
+            if (hedgedShard.hedgeTimer == null && hedgedShard.done == false) {
+                hedgedShard.hedgeTimer = threadPool.schedule(() -> maybeHedge(shardIndex, shardIt), hedgeAfter, executor);
+            }
+        }
+        var shardListener = new SearchActionListener<Result>(shard, shardIndex) {
+            @Override
+            public void innerOnResponse(Result result) {
+                releasable.close();
+                searchTransportService.unregisterShardCopyTask(copyTask);
+                final boolean first;
+                synchronized (hedgedShard) {
+                    hedgedShard.copyTasks.remove(copyTask);
+                    hedgedShard.inFlight--;
+                    first = hedgedShard.done == false;
+                    hedgedShard.done = true;
+                    if (hedgedShard.hedgeTimer != null) {
+                        hedgedShard.hedgeTimer.cancel();
+                    }
+                }
+                if (first == false) {
+                    // another copy already answered for this shard
+                    releaseHedgedResult(result);
+                    return;
+                }
+                try {
+                    onShardResult(result);
+                } catch (Exception exc) {
+                    synchronized (hedgedShard) {
+                        hedgedShard.done = false;
+                        hedgedShard.inFlight++;
+                    }
+                    onHedgedShardFailure(shardIndex, shard, shardIt, exc);
+                    return;
+                }
+                // the other copies are still working on a result that is going to be discarded
+                final List<SearchTask> losingCopyTasks;
+                synchronized (hedgedShard) {
+                    losingCopyTasks = List.copyOf(hedgedShard.copyTasks);
+                }
+                for (SearchTask losingCopyTask : losingCopyTasks) {
+                    try {
+                        searchTransportService.cancelShardCopyTask(losingCopyTask, "another copy of the shard answered first");
+                    } catch (Exception cancelFailure) {
+                        logger.debug("Failed to cancel the request to another copy of the shard", cancelFailure);
+                    }
+                }
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                releasable.close();
+                searchTransportService.unregisterShardCopyTask(copyTask);
+                synchronized (hedgedShard) {
+                    hedgedShard.copyTasks.remove(copyTask);
+                }
+                onHedgedShardFailure(shardIndex, shard, shardIt, e);
+            }
+        };
         final Transport.Connection connection;
         try {
             connection = getConnection(shard.getClusterAlias(), shard.getNodeId());
@@ -286,7 +468,75 @@ abstract class AbstractSearchAsyncAction<Result extends SearchPhaseResult> exten
             shardListener.onFailure(e);
             return;
         }
-        executePhaseOnShard(shardIt, connection, shardListener);
+        executePhaseOnShard(shardIt, connection, shardListener, copyTask);
+    }
+
+    private void maybeHedge(int shardIndex, SearchShardIterator shardIt) {
+        final HedgedShard hedgedShard = hedgedShards[shardIndex];
+        final SearchShardTarget hedgeShard;
+        synchronized (hedgedShard) {
+            if (hedgedShard.done || requestCancelled.get() || task.isCancelled()) {
+                return;
+            }
+            hedgeShard = shardIt.nextOrNull();
+            if (hedgeShard == null) {
+                return;
+            }
+            hedgedShard.inFlight++;
+        }
+        logger.debug("{}: no response after [{}], sending hedged request to [{}]", shardIt.shardId(), hedgeAfter, hedgeShard);
+        performPhaseOnShard(shardIndex, shardIt, hedgeShard);
+    }
+
+    private void onHedgedShardFailure(int shardIndex, SearchShardTarget shard, SearchShardIterator shardIt, Exception e) {
+        final HedgedShard hedgedShard = hedgedShards[shardIndex];
+        final SearchShardTarget nextShard;
+        synchronized (hedgedShard) {
+            hedgedShard.inFlight--;
+            if (hedgedShard.done) {
+                // another copy already answered for this shard
+                return;
+            }
+            onShardFailure(shardIndex, shard, e);
+            if (hedgedShard.inFlight > 0) {
+                // wait for the other copy, it might still succeed
+                return;
+            }
+            nextShard = shardIt.nextOrNull();
+            if (nextShard == null) {
+                hedgedShard.done = true;
+                if (hedgedShard.hedgeTimer != null) {
+                    hedgedShard.hedgeTimer.cancel();
+                }
+            } else {
+                hedgedShard.inFlight++;
+            }
+        }
+        final boolean lastShard = nextShard == null;
+        logger.debug(() -> format("%s: Failed to execute [%s] lastShard [%s]", shard, request, lastShard), e);
+        if (lastShard) {
+            onShardGroupFailed(shardIndex, shard, e);
+        } else {
+            performPhaseOnShard(shardIndex, shardIt, nextShard);
+        }
+    }
+
+    private void releaseHedgedResult(Result result) {
+        final QuerySearchResult queryResult = result.queryResult();
+        if (queryResult != null) {
+            // the aggregations may still be held in a network buffer
+            queryResult.releaseAggs();
+        }
+        final ShardSearchContextId contextId = result.getContextId();
+        if (contextId != null && isPartOfPointInTime(contextId) == false) {
+            try {
+                SearchShardTarget searchShardTarget = result.getSearchShardTarget();
+                Transport.Connection connection = getConnection(searchShardTarget.getClusterAlias(), searchShardTarget.getNodeId());
+                sendReleaseSearchContext(contextId, connection);
+            } catch (Exception e) {
+                logger.trace("failed to release context", e);
+            }
+        }
     }
 
     private void failOnUnavailable(int shardIndex, SearchShardIterator shardIt) {
@@ -306,6 +556,45 @@ abstract class AbstractSearchAsyncAction<Result extends SearchPhaseResult> exten
         SearchActionListener<Result> listener
     );
 
+    /**
+     * Sends the request to the actual shard as a child of {@code parentTask} rather than of the search task. Hedged requests are sent
+     * this way so that the request to a copy of the shard can be cancelled on its own once another copy answered. Phases that don't
+     * override it send the request under the search task, so the request to the losing copy runs to completion.
+     */
+    protected void executePhaseOnShard(
+        SearchShardIterator shardIt,
+        Transport.Connection connection,
+        SearchActionListener<Result> listener,
+        SearchTask parentTask
+    ) {
+        executePhaseOnShard(shardIt, connection, listener);
+    }
+
+    /**
+     * Returns {@code true} if the shards of this phase that are located on the same node should be sent to that node with a
+     * single request, see {@link #executePhaseOnNode}. Only shards of the local cluster are grouped and a failed shard is retried
+     * on its other copies with {@link #executePhaseOnShard}.
+     */
+    protected boolean canExecutePhaseOnNode() {
+        return false;
+    }
+
+    /**
+     * Sends the requests for several shards located on the same node at once. Sends one request per shard by default.
+     * @param shardIts the shards iterators
+     * @param connection to the node that the shards are located on
+     * @param listeners the listeners to notify on response, one per shard in the same order as the iterators
+     */
+    protected void executePhaseOnNode(
+        List<SearchShardIterator> shardIts,
+        Transport.Connection connection,
+        List<SearchActionListener<Result>> listeners
+    ) {
+        for (int i = 0; i < shardIts.size(); i++) {
+            executePhaseOnShard(shardIts.get(i), connection, listeners.get(i));
+        }
+    }
+
     /**
      * Processes the phase transition from on phase to another. This method handles all errors that happen during the initial run execution
      * of the next phase. If there are no successful operations in the context when this method is executed the search is aborted and
@@ -403,28 +692,30 @@ abstract class AbstractSearchAsyncAction<Result extends SearchPhaseResult> exten
         final SearchShardTarget nextShard = shardIt.nextOrNull();
         final boolean lastShard = nextShard == null;
         logger.debug(() -> format("%s: Failed to execute [%s] lastShard [%s]", shard, request, lastShard), e);
-        if (lastShard) {
-            if (request.allowPartialSearchResults() == false) {
-                if (requestCancelled.compareAndSet(false, true)) {
-                    try {
-                        searchTransportService.cancelSearchTask(task, "partial results are not allowed and at least one shard has failed");
-                    } catch (Exception cancelFailure) {
-                        logger.debug("Failed to cancel search request", cancelFailure);
-                    }
-                }
-            }
-            onShardGroupFailure(shardIndex, shard, e);
-        }
         if (lastShard == false) {
             performPhaseOnShard(shardIndex, shardIt, nextShard);
         } else {
-            // count down outstanding shards, we're done with this shard as there's no more copies to try
-            final int outstanding = outstandingShards.decrementAndGet();
-            assert outstanding >= 0 : "outstanding: " + outstanding;
-            if (outstanding == 0) {
-                onPhaseDone();
+            onShardGroupFailed(shardIndex, shard, e);
+        }
+    }
+
+    private void onShardGroupFailed(int shardIndex, SearchShardTarget shard, Exception e) {
+        if (request.allowPartialSearchResults() == false) {
+            if (requestCancelled.compareAndSet(false, true)) {
+                try {
+                    searchTransportService.cancelSearchTask(task, "partial results are not allowed and at least one shard has failed");
+                } catch (Exception cancelFailure) {
+                    logger.debug("Failed to cancel search request", cancelFailure);
+                }
             }
         }
+        onShardGroupFailure(shardIndex, shard, e);
+        // count down outstanding shards, we're done with this shard as there's no more copies to try
+        final int outstanding = outstandingShards.decrementAndGet();
+        assert outstanding >= 0 : "outstanding: " + outstanding;
+        if (outstanding == 0) {
+            onPhaseDone();
+        }
     }
 
     /**
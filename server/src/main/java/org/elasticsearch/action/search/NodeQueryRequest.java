@@ -0,0 +1,77 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.action.search;
+
+import org.elasticsearch.action.IndicesRequest;
+import org.elasticsearch.action.support.IndicesOptions;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.search.internal.ShardSearchRequest;
+import org.elasticsearch.tasks.Task;
+import org.elasticsearch.tasks.TaskId;
+import org.elasticsearch.transport.TransportRequest;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Node-level request used during the query phase. It runs the query phase for all the shards of a search that are located on
+ * the same node and partially reduces their aggregations on that node.
+ */
+public class NodeQueryRequest extends TransportRequest implements IndicesRequest {
+
+    private final List<ShardSearchRequest> shards;
+    private final String[] indices;
+
+    public NodeQueryRequest(List<ShardSearchRequest> shards) {
+        assert shards.isEmpty() == false : "no shards to query";
+        this.shards = shards;
+        this.indices = shards.stream().map(ShardSearchRequest::indices).flatMap(Arrays::stream).distinct().toArray(String[]::new);
+    }
+
+    public NodeQueryRequest(StreamInput in) throws IOException {
+        super(in);
+        shards = in.readCollectionAsList(ShardSearchRequest::new);
+        indices = shards.stream().map(ShardSearchRequest::indices).flatMap(Arrays::stream).distinct().toArray(String[]::new);
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        super.writeTo(out);
+        out.writeCollection(shards);
+    }
+
+    public List<ShardSearchRequest> getShardRequests() {
+        return shards;
+    }
+
+    @Override
+    public String[] indices() {
+        return indices;
+    }
+
+    @Override
+    public IndicesOptions indicesOptions() {
+        return shards.get(0).indicesOptions();
+    }
+
+    @Override
+    public Task createTask(long id, String type, String action, TaskId parentTaskId, Map<String, String> headers) {
+        return new SearchShardTask(id, type, action, getDescription(), parentTaskId, headers);
+    }
+
+    @Override
+    public String getDescription() {
+        // Shard id is enough here, the request itself can be found by looking at the parent task description
+        return "shardIds[" + shards.stream().map(ShardSearchRequest::shardId).toList() + "]";
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.action.search;
+
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.core.AbstractRefCounted;
+import org.elasticsearch.core.Nullable;
+import org.elasticsearch.core.RefCounted;
+import org.elasticsearch.search.query.QuerySearchResult;
+import org.elasticsearch.transport.LeakTracker;
+import org.elasticsearch.transport.TransportResponse;
+
+import java.io.IOException;
+
+/**
+ * Node-level response used during the query phase, holding either a result or a failure for every shard of the
+ * {@link NodeQueryRequest} in the same order. The aggregations of all the shards of the node are partially reduced
+ * and only attached to one of the results.
+ */
+public class NodeQueryResponse extends TransportResponse {
+
+    private final QuerySearchResult[] results;
+    private final Exception[] failures;
+    private final RefCounted refCounted = LeakTracker.wrap(AbstractRefCounted.of(this::releaseResults));
+
+    /**
+     * Takes ownership of a reference to each of the {@code results}.
+     */
+    public NodeQueryResponse(QuerySearchResult[] results, Exception[] failures) {
+        assert results.length == failures.length : results.length + " != " + failures.length;
+        this.results = results;
+        this.failures = failures;
+    }
+
+    public NodeQueryResponse(StreamInput in) throws IOException {
+        int size = in.readVInt();
+        results = new QuerySearchResult[size];
+        failures = new Exception[size];
+        boolean success = false;
+        try {
+            for (int i = 0; i < size; i++) {
+                if (in.readBoolean()) {
+                    results[i] = new QuerySearchResult(in, true);
+                } else {
+                    failures[i] = in.readException();
+                }
+            }
+            success = true;
+        } finally {
+            if (success == false) {
+                for (QuerySearchResult result : results) {
+                    if (result != null) {
+                        result.releaseAggs();
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        out.writeVInt(results.length);
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] != null) {
+                out.writeBoolean(true);
+                results[i].writeTo(out);
+            } else {
+                out.writeBoolean(false);
+                out.writeException(failures[i]);
+            }
+        }
+    }
+
+    public int size() {
+        return results.length;
+    }
+
+    /**
+     * The result of the shard at {@code index} in the request or {@code null} if it failed.
+     */
+    @Nullable
+    public QuerySearchResult getResult(int index) {
+        return results[index];
+    }
+
+    /**
+     * The failure of the shard at {@code index} in the request or {@code null} if it succeeded.
+     */
+    @Nullable
+    public Exception getFailure(int index) {
+        return failures[index];
+    }
+
+    private void releaseResults() {
+        for (QuerySearchResult result : results) {
+            if (result != null) {
+                result.decRef();
+            }
+        }
+    }
+
+    @Override
+    public void incRef() {
+        refCounted.incRef();
+    }
+
+    @Override
+    public boolean tryIncRef() {
+        return refCounted.tryIncRef();
+    }
+
+    @Override
+    public boolean decRef() {
+        return refCounted.decRef();
+    }
+
+    @Override
+    public boolean hasReferences() {
+        return refCounted.hasReferences();
+    }
+}
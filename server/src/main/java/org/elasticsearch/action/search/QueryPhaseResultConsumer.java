@@ -199,9 +199,8 @@ public class QueryPhaseResultConsumer extends ArraySearchPhaseResults<SearchPhas
                 // Add an estimate of the final reduce size
                 breakerSize = addEstimateAndMaybeBreak(estimateRamBytesUsedForReduce(breakerSize));
                 aggs = aggregate(
-                    buffer.iterator(),
+                    buffer,
                     mergeResult,
-                    resultSize,
                     performFinalReduce ? aggReduceContextBuilder.forFinalReduction() : aggReduceContextBuilder.forPartialReduction()
                 );
             } else {
@@ -279,7 +278,7 @@ public class QueryPhaseResultConsumer extends ArraySearchPhaseResults<SearchPhas
             // we have to merge here in the same way we collect on a shard
             newTopDocs = topDocsList == null ? null : mergeTopDocs(topDocsList, topNSize, 0);
             newAggs = hasAggs
-                ? aggregate(toConsume.iterator(), lastMerge, resultSetSize, aggReduceContextBuilder.forPartialReduction())
+                ? aggregate(toConsume, lastMerge, aggReduceContextBuilder.forPartialReduction())
                 : null;
             toConsume = null;
         } finally {
@@ -297,11 +296,23 @@ public class QueryPhaseResultConsumer extends ArraySearchPhaseResults<SearchPhas
     }
 
     private static InternalAggregations aggregate(
-        Iterator<QuerySearchResult> toConsume,
+        List<QuerySearchResult> results,
         MergeResult lastMerge,
-        int resultSetSize,
         AggregationReduceContext reduceContext
     ) {
+        // the shards of a node level query phase send their partially reduced aggregations along with just one of them
+        final List<QuerySearchResult> resultsWithAggs = new ArrayList<>(results.size());
+        for (QuerySearchResult result : results) {
+            if (result.aggregations() != null) {
+                resultsWithAggs.add(result);
+            }
+        }
+        if (lastMerge != null && lastMerge.reducedAggs == null) {
+            // none of the results of the last merge had aggregations
+            lastMerge = null;
+        }
+        final int resultSetSize = resultsWithAggs.size() + (lastMerge != null ? 1 : 0);
+        final Iterator<QuerySearchResult> toConsume = resultsWithAggs.iterator();
         interface ReleasableIterator extends Iterator<InternalAggregations>, Releasable {}
         try (var aggsIter = new ReleasableIterator() {
 
@@ -365,7 +376,7 @@ public class QueryPhaseResultConsumer extends ArraySearchPhaseResults<SearchPhas
      * provided {@link QuerySearchResult}.
      */
     private long ramBytesUsedQueryResult(QuerySearchResult result) {
-        return hasAggs ? result.aggregations().getSerializedSize() : 0;
+        return hasAggs && result.aggregations() != null ? result.aggregations().getSerializedSize() : 0;
     }
 
     /**
@@ -376,7 +387,7 @@ public class QueryPhaseResultConsumer extends ArraySearchPhaseResults<SearchPhas
      * off for some aggregations but it is corrected with the real size after
      * the reduce completes.
      */
-    private static long estimateRamBytesUsedForReduce(long size) {
+    public static long estimateRamBytesUsedForReduce(long size) {
         return Math.round(1.5d * size - size);
     }
 
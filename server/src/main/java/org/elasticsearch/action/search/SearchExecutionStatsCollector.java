@@ -11,6 +11,8 @@ package org.elasticsearch.action.search;
 
 import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.action.DelegatingActionListener;
+import org.elasticsearch.core.Nullable;
+import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.node.ResponseCollectorService;
 import org.elasticsearch.search.SearchPhaseResult;
 import org.elasticsearch.search.query.QuerySearchResult;
@@ -27,6 +29,8 @@ import java.util.function.BiFunction;
 public final class SearchExecutionStatsCollector extends DelegatingActionListener<SearchPhaseResult, SearchPhaseResult> {
 
     private final String nodeId;
+    @Nullable
+    private final ShardId shardId;
     private final ResponseCollectorService collector;
     private final long startNanos;
 
@@ -35,6 +39,10 @@ public final class SearchExecutionStatsCollector extends DelegatingActionListene
         this.collector = Objects.requireNonNull(collector, "response collector cannot be null");
         this.startNanos = System.nanoTime();
         this.nodeId = nodeId;
+        // responses from remote nodes only get their shard target once they reach the search action listener
+        this.shardId = listener instanceof SearchActionListener<?> searchActionListener && searchActionListener.searchShardTarget != null
+            ? searchActionListener.searchShardTarget.getShardId()
+            : null;
     }
 
     @SuppressWarnings("unchecked")
@@ -58,6 +66,9 @@ public final class SearchExecutionStatsCollector extends DelegatingActionListene
             // EWMA/queue size may be -1 if the query node doesn't support capturing it
             if (serviceTimeEWMA > 0 && queueSize >= 0) {
                 collector.addNodeStatistics(nodeId, queueSize, responseDuration, serviceTimeEWMA);
+                if (shardId != null) {
+                    collector.addShardResponseTime(nodeId, shardId, responseDuration);
+                }
             }
         }
         delegate.onResponse(response);
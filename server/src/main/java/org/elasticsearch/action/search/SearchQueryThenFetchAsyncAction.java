@@ -24,6 +24,7 @@ import org.elasticsearch.search.internal.ShardSearchRequest;
 import org.elasticsearch.search.query.QuerySearchResult;
 import org.elasticsearch.transport.Transport;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Executor;
@@ -40,6 +41,8 @@ class SearchQueryThenFetchAsyncAction extends AbstractSearchAsyncAction<SearchPh
     private final int trackTotalHitsUpTo;
     private volatile BottomSortValuesCollector bottomSortCollector;
     private final Client client;
+    // set before the phase starts, see #executeQueryPhasePerNode
+    private boolean queryPhasePerNode;
 
     SearchQueryThenFetchAsyncAction(
         Logger logger,
@@ -93,9 +96,52 @@ class SearchQueryThenFetchAsyncAction extends AbstractSearchAsyncAction<SearchPh
         final SearchShardIterator shardIt,
         final Transport.Connection connection,
         final SearchActionListener<SearchPhaseResult> listener
+    ) {
+        executePhaseOnShard(shardIt, connection, listener, getTask());
+    }
+
+    @Override
+    protected void executePhaseOnShard(
+        final SearchShardIterator shardIt,
+        final Transport.Connection connection,
+        final SearchActionListener<SearchPhaseResult> listener,
+        final SearchTask parentTask
     ) {
         ShardSearchRequest request = rewriteShardSearchRequest(super.buildShardSearchRequest(shardIt, listener.requestIndex));
-        getSearchTransport().sendExecuteQuery(connection, request, getTask(), listener);
+        getSearchTransport().sendExecuteQuery(connection, request, parentTask, listener);
+    }
+
+    /**
+     * Sends the query phase for all shards located on the same node with a single request so that their aggregations are
+     * partially reduced on the data node. Must be called before {@link #start()}.
+     */
+    void executeQueryPhasePerNode() {
+        this.queryPhasePerNode = true;
+    }
+
+    @Override
+    protected boolean canExecutePhaseOnNode() {
+        final SearchRequest request = getRequest();
+        // only aggregations are reduced on the data node, single shard searches fetch along with the query phase
+        return queryPhasePerNode
+            && getNumShards() > 1
+            && request.scroll() == null
+            && request.source() != null
+            && request.source().aggregations() != null
+            && request.source().rankBuilder() == null;
+    }
+
+    @Override
+    protected void executePhaseOnNode(
+        List<SearchShardIterator> shardIts,
+        Transport.Connection connection,
+        List<SearchActionListener<SearchPhaseResult>> listeners
+    ) {
+        final List<ShardSearchRequest> requests = new ArrayList<>(shardIts.size());
+        for (int i = 0; i < shardIts.size(); i++) {
+            requests.add(rewriteShardSearchRequest(super.buildShardSearchRequest(shardIts.get(i), listeners.get(i).requestIndex)));
+        }
+        getSearchTransport().sendExecuteNodeQuery(connection, new NodeQueryRequest(requests), getTask(), listeners);
     }
 
     @Override
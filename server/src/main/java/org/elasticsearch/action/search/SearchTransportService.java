@@ -29,8 +29,10 @@ import org.elasticsearch.common.util.concurrent.EsExecutors;
 import org.elasticsearch.common.util.concurrent.ThrottledTaskRunner;
 import org.elasticsearch.core.Nullable;
 import org.elasticsearch.core.Releasable;
+import org.elasticsearch.core.Releasables;
 import org.elasticsearch.search.SearchPhaseResult;
 import org.elasticsearch.search.SearchService;
+import org.elasticsearch.search.SearchShardTarget;
 import org.elasticsearch.search.dfs.DfsSearchResult;
 import org.elasticsearch.search.fetch.FetchSearchResult;
 import org.elasticsearch.search.fetch.QueryFetchSearchResult;
@@ -45,7 +47,10 @@ import org.elasticsearch.search.query.QuerySearchResult;
 import org.elasticsearch.search.query.ScrollQuerySearchResult;
 import org.elasticsearch.search.rank.feature.RankFeatureResult;
 import org.elasticsearch.search.rank.feature.RankFeatureShardRequest;
+import org.elasticsearch.tasks.Task;
+import org.elasticsearch.tasks.TaskAwareRequest;
 import org.elasticsearch.tasks.TaskId;
+import org.elasticsearch.tasks.TaskManager;
 import org.elasticsearch.threadpool.ThreadPool;
 import org.elasticsearch.transport.RemoteClusterService;
 import org.elasticsearch.transport.Transport;
@@ -59,11 +64,14 @@ import org.elasticsearch.transport.TransportResponseHandler;
 import org.elasticsearch.transport.TransportService;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.Executor;
 import java.util.function.BiFunction;
+import java.util.function.Supplier;
 
 /**
  * An encapsulation of {@link org.elasticsearch.search.SearchService} operations exposed through
@@ -80,6 +88,15 @@ public class SearchTransportService {
      */
     public static final String DFS_ACTION_NAME = "indices:data/read/search[phase/dfs]";
     public static final String QUERY_ACTION_NAME = "indices:data/read/search[phase/query]";
+    /**
+     * The name of the tasks that the requests to each copy of a shard are sent under when they are hedged.
+     */
+    public static final String SHARD_COPY_TASK_NAME = "indices:data/read/search[shard_copy]";
+
+    /**
+     * The query phase for all the shards of a search located on the same node, partially reducing their aggregations on that node.
+     */
+    public static final String QUERY_NODE_ACTION_NAME = "indices:data/read/search[phase/query][n]";
 
     /**
      * Part of DFS_QUERY_THEN_FETCH, which fetches distributed term frequencies and executes KNN.
@@ -198,6 +215,49 @@ public class SearchTransportService {
         );
     }
 
+    /**
+     * Executes the query phase for several shards located on the node of the given connection. {@code shardListeners} are notified
+     * with the result or failure of each shard of the request in the same order.
+     */
+    public void sendExecuteNodeQuery(
+        Transport.Connection connection,
+        final NodeQueryRequest request,
+        SearchTask task,
+        final List<? extends ActionListener<SearchPhaseResult>> shardListeners
+    ) {
+        assert request.getShardRequests().size() == shardListeners.size();
+        final List<ActionListener<? super SearchPhaseResult>> handlers = new ArrayList<>(shardListeners.size());
+        for (ActionListener<SearchPhaseResult> shardListener : shardListeners) {
+            handlers.add(responseWrapper.apply(connection, shardListener));
+        }
+        transportService.sendChildRequest(
+            connection,
+            QUERY_NODE_ACTION_NAME,
+            request,
+            task,
+            new ConnectionCountingHandler<>(new ActionListener<NodeQueryResponse>() {
+                @Override
+                public void onResponse(NodeQueryResponse response) {
+                    for (int i = 0; i < handlers.size(); i++) {
+                        QuerySearchResult result = response.getResult(i);
+                        if (result != null) {
+                            handlers.get(i).onResponse(result);
+                        } else {
+                            handlers.get(i).onFailure(response.getFailure(i));
+                        }
+                    }
+                }
+
+                @Override
+                public void onFailure(Exception e) {
+                    for (ActionListener<? super SearchPhaseResult> handler : handlers) {
+                        handler.onFailure(e);
+                    }
+                }
+            }, NodeQueryResponse::new, connection)
+        );
+    }
+
     public void sendExecuteQuery(
         Transport.Connection connection,
         final QuerySearchRequest request,
@@ -449,6 +509,18 @@ public class SearchTransportService {
             (request) -> ((ShardSearchRequest) request).numberOfShards() == 1 ? QueryFetchSearchResult::new : QuerySearchResult::new
         );
 
+        transportService.registerRequestHandler(
+            QUERY_NODE_ACTION_NAME,
+            EsExecutors.DIRECT_EXECUTOR_SERVICE,
+            NodeQueryRequest::new,
+            (request, channel, task) -> searchService.executeQueryPhase(
+                request,
+                (SearchShardTask) task,
+                new ChannelActionListener<>(channel)
+            )
+        );
+        TransportActionProxy.registerProxyAction(transportService, QUERY_NODE_ACTION_NAME, true, NodeQueryResponse::new);
+
         transportService.registerRequestHandler(
             QUERY_ID_ACTION_NAME,
             EsExecutors.DIRECT_EXECUTOR_SERVICE,
@@ -617,4 +689,74 @@ public class SearchTransportService {
         // force the origin to execute the cancellation as a system user
         new OriginSettingClient(client, TransportGetTaskAction.TASKS_ORIGIN).admin().cluster().cancelTasks(req, ActionListener.noop());
     }
+
+    /**
+     * Registers a child task of the search task to send the request for a single copy of a shard under, so that the request to that
+     * copy can be cancelled on its own with {@link #cancelShardCopyTask}. The task is a child of the search task on the local node,
+     * so cancelling the search bans and cancels it together with the shard requests sent under it. It must be unregistered with
+     * {@link #unregisterShardCopyTask} once the copy answered.
+     */
+    public SearchTask registerShardCopyTask(SearchTask parentTask, SearchShardTarget shard) {
+        final TaskManager taskManager = transportService.getTaskManager();
+        final TaskId parentTaskId = new TaskId(transportService.getLocalNode().getId(), parentTask.getId());
+        final Releasable childConnection = taskManager.registerChildConnection(
+            parentTask.getId(),
+            transportService.getLocalNodeConnection()
+        );
+        try {
+            return (SearchTask) taskManager.register("transport", SHARD_COPY_TASK_NAME, new TaskAwareRequest() {
+                @Override
+                public void setParentTask(TaskId taskId) {}
+
+                @Override
+                public void setRequestId(long requestId) {}
+
+                @Override
+                public TaskId getParentTask() {
+                    return parentTaskId;
+                }
+
+                @Override
+                public Task createTask(long id, String type, String action, TaskId parentTaskId, Map<String, String> headers) {
+                    return new ShardCopyTask(id, type, action, () -> "shard copy " + shard, parentTaskId, headers, childConnection);
+                }
+            });
+        } catch (Exception e) {
+            Releasables.close(childConnection);
+            throw e;
+        }
+    }
+
+    public void cancelShardCopyTask(SearchTask task, String reason) {
+        CancelTasksRequest req = new CancelTasksRequest().setTargetTaskId(new TaskId(client.getLocalNodeId(), task.getId()))
+            .setReason(reason);
+        // force the origin to execute the cancellation as a system user
+        new OriginSettingClient(client, TransportGetTaskAction.TASKS_ORIGIN).admin().cluster().cancelTasks(req, ActionListener.noop());
+    }
+
+    public void unregisterShardCopyTask(SearchTask task) {
+        transportService.getTaskManager().unregister(task);
+        if (task instanceof ShardCopyTask shardCopyTask) {
+            Releasables.close(shardCopyTask.childConnection);
+        }
+    }
+
+    private static final class ShardCopyTask extends SearchTask {
+        // the registration of this task as a child of the search task, released once the copy answered
+        @Nullable
+        private final Releasable childConnection;
+
+        ShardCopyTask(
+            long id,
+            String type,
+            String action,
+            Supplier<String> descriptionSupplier,
+            TaskId parentTaskId,
+            Map<String, String> headers,
+            @Nullable Releasable childConnection
+        ) {
+            super(id, type, action, descriptionSupplier, parentTaskId, headers);
+            this.childConnection = childConnection;
+        }
+    }
 }
@@ -143,6 +143,29 @@ public class TransportSearchAction extends HandledTransportAction<SearchRequest,
         Property.NodeScope
     );
 
+    /**
+     * How long to wait for a shard copy to answer the query phase before sending the same request to another copy of the shard.
+     * The first response wins and the other one is discarded. {@code -1}, the default, disables hedging.
+     */
+    public static final Setting<TimeValue> HEDGE_SHARD_REQUESTS_AFTER_SETTING = Setting.timeSetting(
+        "action.search.hedge_shard_requests_after",
+        TimeValue.MINUS_ONE,
+        TimeValue.MINUS_ONE,
+        Property.Dynamic,
+        Property.NodeScope
+    );
+
+    /**
+     * Whether the query phase of searches with aggregations is sent once per data node for all of its shards, so that the
+     * aggregations of those shards are partially reduced on the data node before being sent to the coordinating node.
+     */
+    public static final Setting<Boolean> BATCHED_QUERY_PHASE_SETTING = Setting.boolSetting(
+        "action.search.batched_query_phase",
+        false,
+        Property.Dynamic,
+        Property.NodeScope
+    );
+
     public static final Setting<Integer> DEFAULT_PRE_FILTER_SHARD_SIZE = Setting.intSetting(
         "action.search.pre_filter_shard_size.default",
         SearchRequest.DEFAULT_PRE_FILTER_SHARD_SIZE,
@@ -1556,7 +1579,7 @@ public class TransportSearchAction extends HandledTransportAction<SearchRequest,
                     );
                 } else {
                     assert searchRequest.searchType() == QUERY_THEN_FETCH : searchRequest.searchType();
-                    searchPhase = new SearchQueryThenFetchAsyncAction(
+                    final SearchQueryThenFetchAsyncAction queryThenFetch = new SearchQueryThenFetchAsyncAction(
                         logger,
                         namedWriteableRegistry,
                         searchTransportService,
@@ -1574,6 +1597,18 @@ public class TransportSearchAction extends HandledTransportAction<SearchRequest,
                         clusters,
                         client
                     );
+                    if (clusterService.getClusterSettings().get(BATCHED_QUERY_PHASE_SETTING)
+                        && clusterState.getMinTransportVersion().onOrAfter(TransportVersions.SEARCH_QUERY_PHASE_PER_NODE)) {
+                        queryThenFetch.executeQueryPhasePerNode();
+                    }
+                    searchPhase = queryThenFetch;
+                }
+                final TimeValue hedgeAfter = clusterService.getClusterSettings().get(HEDGE_SHARD_REQUESTS_AFTER_SETTING);
+                if (hedgeAfter.nanos() >= 0
+                    && searchRequest.searchType() == QUERY_THEN_FETCH
+                    && searchRequest.scroll() == null
+                    && searchRequest.pointInTimeBuilder() == null) {
+                    searchPhase.hedgeShardRequestsAfter(hedgeAfter, threadPool);
                 }
                 success = true;
                 searchPhase.start();
@@ -383,7 +383,14 @@ public abstract class TransportReplicationAction<
             request.localRerouteInitiatedByNodeClient()
         );
         ActionListener<Response> listener = ActionListener.runBefore(new ChannelActionListener<>(channel), releasable::close);
+        runPrimaryAction(request, listener, task);
+    }
 
+    /**
+     * Runs the primary action of a request that was accounted for by {@link #checkPrimaryLimits}, starting with the acquisition of an
+     * operation permit on the primary. Subclasses may delay it, and then must either call this method or fail the listener.
+     */
+    protected void runPrimaryAction(final ConcreteShardRequest<Request> request, final ActionListener<Response> listener, final Task task) {
         try {
             new AsyncPrimaryAction(request, listener, (ReplicationTask) task).run();
         } catch (RuntimeException e) {
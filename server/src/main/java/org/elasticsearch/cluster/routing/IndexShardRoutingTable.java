@@ -33,6 +33,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalDouble;
 import java.util.Set;
 import java.util.stream.Stream;
 
@@ -247,13 +248,21 @@ public class IndexShardRoutingTable {
     ) {
         final int seed = shuffler.nextSeed();
         if (allInitializingShards.isEmpty()) {
-            return new ShardIterator(shardId, rankShardsAndUpdateStats(shuffler.shuffle(activeShards, seed), collector, nodeSearchCounts));
+            return new ShardIterator(
+                shardId,
+                rankShardsAndUpdateStats(shardId, shuffler.shuffle(activeShards, seed), collector, nodeSearchCounts)
+            );
         }
 
         ArrayList<ShardRouting> ordered = new ArrayList<>(activeShards.size() + allInitializingShards.size());
-        List<ShardRouting> rankedActiveShards = rankShardsAndUpdateStats(shuffler.shuffle(activeShards, seed), collector, nodeSearchCounts);
+        List<ShardRouting> rankedActiveShards = rankShardsAndUpdateStats(
+            shardId,
+            shuffler.shuffle(activeShards, seed),
+            collector,
+            nodeSearchCounts
+        );
         ordered.addAll(rankedActiveShards);
-        List<ShardRouting> rankedInitializingShards = rankShardsAndUpdateStats(allInitializingShards, collector, nodeSearchCounts);
+        List<ShardRouting> rankedInitializingShards = rankShardsAndUpdateStats(shardId, allInitializingShards, collector, nodeSearchCounts);
         ordered.addAll(rankedInitializingShards);
         return new ShardIterator(shardId, ordered);
     }
@@ -278,8 +287,33 @@ public class IndexShardRoutingTable {
         return nodeStats;
     }
 
+    /**
+     * Get the response time of this shard's copy on each node. Returns {@code null} unless we have the response time
+     * for the copy on every node that has node level statistics, because ranking some copies by their own response
+     * time and some by their node's would compare apples to oranges.
+     */
+    @Nullable
+    private static Map<String, Double> getShardResponseTimes(
+        final ShardId shardId,
+        final Map<String, Optional<ResponseCollectorService.ComputedNodeStats>> nodeStats,
+        final ResponseCollectorService collector
+    ) {
+        final Map<String, Double> shardResponseTimes = Maps.newMapWithExpectedSize(nodeStats.size());
+        for (Map.Entry<String, Optional<ResponseCollectorService.ComputedNodeStats>> entry : nodeStats.entrySet()) {
+            if (entry.getValue().isPresent()) {
+                OptionalDouble responseTime = collector.getShardResponseTime(entry.getKey(), shardId);
+                if (responseTime.isEmpty()) {
+                    return null;
+                }
+                shardResponseTimes.put(entry.getKey(), responseTime.getAsDouble());
+            }
+        }
+        return shardResponseTimes;
+    }
+
     private static Map<String, Double> rankNodes(
         final Map<String, Optional<ResponseCollectorService.ComputedNodeStats>> nodeStats,
+        @Nullable final Map<String, Double> shardResponseTimes,
         final Map<String, Long> nodeSearchCounts
     ) {
         final Map<String, Double> nodeRanks = Maps.newMapWithExpectedSize(nodeStats.size());
@@ -287,7 +321,10 @@ public class IndexShardRoutingTable {
             Optional<ResponseCollectorService.ComputedNodeStats> maybeStats = entry.getValue();
             maybeStats.ifPresent(stats -> {
                 final String nodeId = entry.getKey();
-                nodeRanks.put(nodeId, stats.rank(nodeSearchCounts.getOrDefault(nodeId, 0L)));
+                final ResponseCollectorService.ComputedNodeStats rankedStats = shardResponseTimes == null
+                    ? stats
+                    : stats.withResponseTime(shardResponseTimes.get(nodeId));
+                nodeRanks.put(nodeId, rankedStats.rank(nodeSearchCounts.getOrDefault(nodeId, 0L)));
             });
         }
         return nodeRanks;
@@ -303,10 +340,13 @@ public class IndexShardRoutingTable {
      * This adjustment takes the "winning" node's statistics and adds the average of those statistics with each non-winning node. Let's say
      * the winning node had a queue size of 10 and a non-winning node had a queue of 18. The average queue size is (10 + 18) / 2 = 14 so the
      * non-winning node will have statistics added for a queue size of 14. This is repeated for the response time and service times as well.
+     * If we ranked the copies by their shard level response times then those are adjusted in the same way.
      */
     private static void adjustStats(
         final ResponseCollectorService collector,
+        final ShardId shardId,
         final Map<String, Optional<ResponseCollectorService.ComputedNodeStats>> nodeStats,
+        @Nullable final Map<String, Double> shardResponseTimes,
         final String minNodeId,
         final ResponseCollectorService.ComputedNodeStats minStats
     ) {
@@ -327,12 +367,17 @@ public class IndexShardRoutingTable {
                     final long updatedService = (long) avgServiceTime.getAverage();
 
                     collector.addNodeStatistics(nodeId, updatedQueue, updatedResponse, updatedService);
+                    if (shardResponseTimes != null) {
+                        final long updatedShardResponse = (long) (shardResponseTimes.get(minNodeId) + shardResponseTimes.get(nodeId)) / 2;
+                        collector.addShardResponseTime(nodeId, shardId, updatedShardResponse);
+                    }
                 }
             }
         }
     }
 
     private static List<ShardRouting> rankShardsAndUpdateStats(
+        final ShardId shardId,
         List<ShardRouting> shards,
         final ResponseCollectorService collector,
         final Map<String, Long> nodeSearchCounts
@@ -345,8 +390,11 @@ public class IndexShardRoutingTable {
         final Set<String> nodeIds = getAllNodeIds(shards);
         final Map<String, Optional<ResponseCollectorService.ComputedNodeStats>> nodeStats = getNodeStats(nodeIds, collector);
 
+        // Prefer ranking by how quickly each copy of this particular shard responds, if we know that for all of them
+        final Map<String, Double> shardResponseTimes = getShardResponseTimes(shardId, nodeStats, collector);
+
         // Retrieve all the nodes the shards exist on
-        final Map<String, Double> nodeRanks = rankNodes(nodeStats, nodeSearchCounts);
+        final Map<String, Double> nodeRanks = rankNodes(nodeStats, shardResponseTimes, nodeSearchCounts);
 
         // sort all shards based on the shard rank
         ArrayList<ShardRouting> sortedShards = new ArrayList<>(shards);
@@ -361,7 +409,7 @@ public class IndexShardRoutingTable {
                 String minNodeId = minShard.currentNodeId();
                 Optional<ResponseCollectorService.ComputedNodeStats> maybeMinStats = nodeStats.get(minNodeId);
                 if (maybeMinStats.isPresent()) {
-                    adjustStats(collector, nodeStats, minNodeId, maybeMinStats.get());
+                    adjustStats(collector, shardId, nodeStats, shardResponseTimes, minNodeId, maybeMinStats.get());
                     // Increase the number of searches for the "winning" node by one.
                     // Note that this doesn't actually affect the "real" counts, instead
                     // it only affects the captured node search counts, which is
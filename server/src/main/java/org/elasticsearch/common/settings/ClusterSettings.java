@@ -88,6 +88,7 @@ import org.elasticsearch.index.IndexModule;
 import org.elasticsearch.index.IndexSettings;
 import org.elasticsearch.index.IndexingPressure;
 import org.elasticsearch.index.MergePolicyConfig;
+import org.elasticsearch.index.engine.ThreadPoolMergeExecutorService;
 import org.elasticsearch.index.engine.ThreadPoolMergeScheduler;
 import org.elasticsearch.index.shard.IndexingStatsSettings;
 import org.elasticsearch.indices.IndexingMemoryController;
@@ -122,6 +123,7 @@ import org.elasticsearch.script.ScriptService;
 import org.elasticsearch.search.SearchModule;
 import org.elasticsearch.search.SearchService;
 import org.elasticsearch.search.aggregations.MultiBucketConsumerService;
+import org.elasticsearch.search.aggregations.bucket.filter.SegmentCountCache;
 import org.elasticsearch.search.aggregations.metrics.TDigestExecutionHint;
 import org.elasticsearch.search.fetch.subphase.highlight.FastVectorHighlighter;
 import org.elasticsearch.snapshots.InternalSnapshotsInfoService;
@@ -264,6 +266,7 @@ public final class ClusterSettings extends AbstractScopedSettings {
         RecoverySettings.INDICES_RECOVERY_INTERNAL_LONG_ACTION_TIMEOUT_SETTING,
         RecoverySettings.INDICES_RECOVERY_INTERNAL_ACTION_RETRY_TIMEOUT_SETTING,
         RecoverySettings.INDICES_RECOVERY_MAX_CONCURRENT_FILE_CHUNKS_SETTING,
+        RecoverySettings.INDICES_RECOVERY_MAX_CONCURRENT_FILES_SETTING,
         RecoverySettings.INDICES_RECOVERY_MAX_CONCURRENT_OPERATIONS_SETTING,
         RecoverySettings.INDICES_RECOVERY_USE_SNAPSHOTS_SETTING,
         RecoverySettings.INDICES_RECOVERY_MAX_CONCURRENT_SNAPSHOT_FILE_DOWNLOADS,
@@ -363,6 +366,8 @@ public final class ClusterSettings extends AbstractScopedSettings {
         SearchService.DEFAULT_SEARCH_TIMEOUT_SETTING,
         SearchService.DEFAULT_ALLOW_PARTIAL_SEARCH_RESULTS,
         TransportSearchAction.SHARD_COUNT_LIMIT_SETTING,
+        TransportSearchAction.HEDGE_SHARD_REQUESTS_AFTER_SETTING,
+        TransportSearchAction.BATCHED_QUERY_PHASE_SETTING,
         TransportSearchAction.DEFAULT_PRE_FILTER_SHARD_SIZE,
         RemoteClusterService.REMOTE_CLUSTER_SKIP_UNAVAILABLE,
         SniffConnectionStrategy.REMOTE_CONNECTIONS_PER_CLUSTER,
@@ -441,6 +446,9 @@ public final class ClusterSettings extends AbstractScopedSettings {
         ThreadWatchdog.NETWORK_THREAD_WATCHDOG_QUIET_TIME,
         IndexSettings.QUERY_STRING_ANALYZE_WILDCARD,
         IndexSettings.QUERY_STRING_ALLOW_LEADING_WILDCARD,
+        IndexSettings.TRANSLOG_GROUP_COMMIT_WINDOW_SETTING,
+        IndexSettings.BULK_MAX_PARSING_THREADS_SETTING,
+        IndexSettings.ASYNC_WRITEBACK_SETTING,
         ScriptService.SCRIPT_CACHE_SIZE_SETTING,
         ScriptService.SCRIPT_CACHE_EXPIRE_SETTING,
         ScriptService.SCRIPT_DISABLE_MAX_COMPILATIONS_RATE_SETTING,
@@ -485,6 +493,7 @@ public final class ClusterSettings extends AbstractScopedSettings {
         SearchService.LOW_LEVEL_CANCELLATION_SETTING,
         SearchService.MAX_OPEN_SCROLL_CONTEXT,
         SearchService.ENABLE_REWRITE_AGGS_TO_FILTER_BY_FILTER,
+        SegmentCountCache.SIZE_SETTING,
         SearchService.MAX_ASYNC_SEARCH_RESPONSE_SIZE_SETTING,
         Node.WRITE_PORTS_FILE_SETTING,
         Node.NODE_EXTERNAL_ID_SETTING,
@@ -587,6 +596,9 @@ public final class ClusterSettings extends AbstractScopedSettings {
         IndexingPressure.SPLIT_BULK_HIGH_WATERMARK_SIZE,
         IndexingPressure.SPLIT_BULK_LOW_WATERMARK,
         IndexingPressure.SPLIT_BULK_LOW_WATERMARK_SIZE,
+        IndexingPressure.MERGE_DEBT_DELAY_THRESHOLD,
+        IndexingPressure.MERGE_DEBT_REJECT_THRESHOLD,
+        IndexingPressure.MERGE_DEBT_MAX_DELAY,
         ShardLimitValidator.SETTING_CLUSTER_MAX_SHARDS_PER_NODE_FROZEN,
         DataTier.ENFORCE_DEFAULT_TIER_PREFERENCE_SETTING,
         CoordinationDiagnosticsService.IDENTITY_CHANGES_THRESHOLD_SETTING,
@@ -628,6 +640,9 @@ public final class ClusterSettings extends AbstractScopedSettings {
         MergePolicyConfig.DEFAULT_MAX_MERGED_SEGMENT_SETTING,
         MergePolicyConfig.DEFAULT_MAX_TIME_BASED_MERGED_SEGMENT_SETTING,
         ThreadPoolMergeScheduler.USE_THREAD_POOL_MERGE_SCHEDULER_SETTING,
+        ThreadPoolMergeExecutorService.MAX_IO_RATE_SETTING,
+        ThreadPoolMergeExecutorService.SEARCH_PRESSURE_QUEUE_SIZE_SETTING,
+        ThreadPoolMergeExecutorService.SEARCH_PRESSURE_MIN_MERGE_SIZE_SETTING,
         TransportService.ENABLE_STACK_OVERFLOW_AVOIDANCE,
         DataStreamGlobalRetentionSettings.DATA_STREAMS_DEFAULT_RETENTION_SETTING,
         DataStreamGlobalRetentionSettings.DATA_STREAMS_MAX_RETENTION_SETTING,
@@ -139,6 +139,7 @@ public final class IndexScopedSettings extends AbstractScopedSettings {
                 IndexSettings.ALLOW_UNMAPPED,
                 IndexSettings.INDEX_CHECK_ON_STARTUP,
                 IndexSettings.MAX_REFRESH_LISTENERS_PER_SHARD,
+                IndexSettings.BULK_APPEND_ONLY_BATCH_SIZE_SETTING,
                 IndexSettings.MAX_SLICES_PER_SCROLL,
                 IndexSettings.MAX_REGEX_LENGTH_SETTING,
                 ShardsLimitAllocationDecider.INDEX_TOTAL_SHARDS_PER_NODE_SETTING,
@@ -177,6 +178,7 @@ public final class IndexScopedSettings extends AbstractScopedSettings {
                 IndexModule.INDEX_QUERY_CACHE_ENABLED_SETTING,
                 FsDirectoryFactory.INDEX_LOCK_FACTOR_SETTING,
                 EngineConfig.INDEX_CODEC_SETTING,
+                EngineConfig.INDEX_PAGED_VERSION_MAP_SETTING,
                 IndexMetadata.SETTING_WAIT_FOR_ACTIVE_SHARDS,
                 IndexSettings.DEFAULT_PIPELINE,
                 IndexSettings.FINAL_PIPELINE,
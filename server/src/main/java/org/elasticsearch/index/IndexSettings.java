@@ -97,6 +97,40 @@ public final class IndexSettings {
         Property.Dynamic,
         Property.IndexScope
     );
+    /**
+     * How long a shard's translog sync waits for more operations to be written before it fsyncs the translog. Operations written
+     * while it waits are made durable by the same fsync so concurrent writes to a shard using {@link Translog.Durability#REQUEST}
+     * durability share fewer, larger, syncs at the cost of a little more latency for each. Disabled by default.
+     */
+    public static final Setting<TimeValue> TRANSLOG_GROUP_COMMIT_WINDOW_SETTING = Setting.timeSetting(
+        "indices.translog.group_commit_window",
+        TimeValue.ZERO,
+        TimeValue.ZERO,
+        TimeValue.timeValueMillis(100),
+        Property.NodeScope
+    );
+    /**
+     * The maximum number of threads that parse the documents of a batch of index requests with auto-generated ids on a primary shard.
+     * The write thread that executes the bulk shard request parses documents too and is joined by up to this number minus one threads
+     * of the write thread pool, so that bulk requests to a few shards can use more cores. Parsing is sequential by default.
+     */
+    public static final Setting<Integer> BULK_MAX_PARSING_THREADS_SETTING = Setting.intSetting(
+        "indices.bulk.max_parsing_threads",
+        1,
+        1,
+        64,
+        Property.NodeScope
+    );
+    /**
+     * Whether translog and peer recovery writes ask the OS to start writing back the pages they dirty as soon as they are written,
+     * rather than leaving it all to the next fsync. This spreads the disk writes over time and makes fsyncs shorter, which helps
+     * nodes with many active shards and recoveries of large files. Only supported on Linux, disabled by default.
+     */
+    public static final Setting<Boolean> ASYNC_WRITEBACK_SETTING = Setting.boolSetting(
+        "indices.store.async_writeback",
+        false,
+        Property.NodeScope
+    );
     public static final Setting<TimeValue> INDEX_SEARCH_IDLE_AFTER = Setting.timeSetting(
         "index.search.idle.after",
         TimeValue.timeValueSeconds(30),
@@ -500,6 +534,19 @@ public final class IndexSettings {
         Property.IndexScope
     );
 
+    /**
+     * The maximum number of consecutive index requests with auto-generated ids of a bulk request that are handed over to the engine
+     * together. All the documents of a batch are parsed before any of them is indexed. Batching is disabled if it is lower than 2.
+     */
+    public static final Setting<Integer> BULK_APPEND_ONLY_BATCH_SIZE_SETTING = Setting.intSetting(
+        "index.bulk.append_only_batch_size",
+        0,
+        0,
+        1024,
+        Property.Dynamic,
+        Property.IndexScope
+    );
+
     /**
      * The maximum number of slices allowed in a scroll request
      */
@@ -850,10 +897,13 @@ public final class IndexSettings {
     private volatile List<String> defaultFields;
     private final boolean queryStringLenient;
     private final boolean queryStringAnalyzeWildcard;
+    private final int bulkMaxParsingThreads;
+    private final boolean asyncWriteback;
     private final boolean queryStringAllowLeadingWildcard;
     private final boolean defaultAllowUnmappedFields;
     private volatile Translog.Durability durability;
     private volatile TimeValue syncInterval;
+    private final TimeValue translogGroupCommitWindow;
     private volatile TimeValue refreshInterval;
     private final boolean fastRefresh;
     private volatile ByteSizeValue flushThresholdSize;
@@ -920,6 +970,10 @@ public final class IndexSettings {
      * The maximum number of refresh listeners allows on this shard.
      */
     private volatile int maxRefreshListeners;
+    /**
+     * The maximum number of index requests with auto-generated ids of a bulk request that are indexed together.
+     */
+    private volatile int bulkAppendOnlyBatchSize;
     /**
      * The maximum number of slices allowed in a scroll request.
      */
@@ -1032,11 +1086,14 @@ public final class IndexSettings {
         }
         this.queryStringLenient = QUERY_STRING_LENIENT_SETTING.get(settings);
         this.queryStringAnalyzeWildcard = QUERY_STRING_ANALYZE_WILDCARD.get(nodeSettings);
+        this.bulkMaxParsingThreads = BULK_MAX_PARSING_THREADS_SETTING.get(nodeSettings);
+        this.asyncWriteback = ASYNC_WRITEBACK_SETTING.get(nodeSettings);
         this.queryStringAllowLeadingWildcard = QUERY_STRING_ALLOW_LEADING_WILDCARD.get(nodeSettings);
         this.defaultAllowUnmappedFields = scopedSettings.get(ALLOW_UNMAPPED);
         this.durability = scopedSettings.get(INDEX_TRANSLOG_DURABILITY_SETTING);
         defaultFields = scopedSettings.get(DEFAULT_FIELD_SETTING);
         syncInterval = INDEX_TRANSLOG_SYNC_INTERVAL_SETTING.get(settings);
+        translogGroupCommitWindow = TRANSLOG_GROUP_COMMIT_WINDOW_SETTING.get(nodeSettings);
         refreshInterval = scopedSettings.get(INDEX_REFRESH_INTERVAL_SETTING);
         fastRefresh = scopedSettings.get(INDEX_FAST_REFRESH_SETTING);
         if (fastRefresh) {
@@ -1067,6 +1124,7 @@ public final class IndexSettings {
         maxNgramDiff = scopedSettings.get(MAX_NGRAM_DIFF_SETTING);
         maxShingleDiff = scopedSettings.get(MAX_SHINGLE_DIFF_SETTING);
         maxRefreshListeners = scopedSettings.get(MAX_REFRESH_LISTENERS_PER_SHARD);
+        bulkAppendOnlyBatchSize = scopedSettings.get(BULK_APPEND_ONLY_BATCH_SIZE_SETTING);
         maxSlicesPerScroll = scopedSettings.get(MAX_SLICES_PER_SCROLL);
         maxAnalyzedOffset = scopedSettings.get(MAX_ANALYZED_OFFSET_SETTING);
         weightMatchesEnabled = scopedSettings.get(WEIGHT_MATCHES_MODE_ENABLED_SETTING);
@@ -1177,6 +1235,7 @@ public final class IndexSettings {
         scopedSettings.addSettingsUpdateConsumer(INDEX_TRANSLOG_GENERATION_THRESHOLD_SIZE_SETTING, this::setGenerationThresholdSize);
         scopedSettings.addSettingsUpdateConsumer(INDEX_REFRESH_INTERVAL_SETTING, this::setRefreshInterval);
         scopedSettings.addSettingsUpdateConsumer(MAX_REFRESH_LISTENERS_PER_SHARD, this::setMaxRefreshListeners);
+        scopedSettings.addSettingsUpdateConsumer(BULK_APPEND_ONLY_BATCH_SIZE_SETTING, this::setBulkAppendOnlyBatchSize);
         scopedSettings.addSettingsUpdateConsumer(MAX_ANALYZED_OFFSET_SETTING, this::setHighlightMaxAnalyzedOffset);
         scopedSettings.addSettingsUpdateConsumer(WEIGHT_MATCHES_MODE_ENABLED_SETTING, this::setWeightMatchesEnabled);
         scopedSettings.addSettingsUpdateConsumer(MAX_TERMS_COUNT_SETTING, this::setMaxTermsCount);
@@ -1413,6 +1472,28 @@ public final class IndexSettings {
         return syncInterval;
     }
 
+    /**
+     * Returns how long a translog sync waits for more operations before fsyncing, {@link TimeValue#ZERO} if it doesn't wait.
+     */
+    public TimeValue getTranslogGroupCommitWindow() {
+        return translogGroupCommitWindow;
+    }
+
+    /**
+     * Returns the maximum number of threads that parse the documents of a batch of index requests, {@code 1} if they are parsed
+     * on the calling thread only.
+     */
+    public int getBulkMaxParsingThreads() {
+        return bulkMaxParsingThreads;
+    }
+
+    /**
+     * Returns {@code true} if translog and peer recovery writes should start writing back dirty pages to disk asynchronously.
+     */
+    public boolean isAsyncWriteback() {
+        return asyncWriteback;
+    }
+
     public void setTranslogSyncInterval(TimeValue translogSyncInterval) {
         this.syncInterval = translogSyncInterval;
     }
@@ -1630,6 +1711,17 @@ public final class IndexSettings {
         this.maxRefreshListeners = maxRefreshListeners;
     }
 
+    /**
+     * The maximum number of index requests with auto-generated ids of a bulk request that are indexed together.
+     */
+    public int getBulkAppendOnlyBatchSize() {
+        return bulkAppendOnlyBatchSize;
+    }
+
+    private void setBulkAppendOnlyBatchSize(int bulkAppendOnlyBatchSize) {
+        this.bulkAppendOnlyBatchSize = bulkAppendOnlyBatchSize;
+    }
+
     /**
      * The maximum number of slices allowed in a scroll request.
      */
@@ -17,6 +17,8 @@ import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
 import org.elasticsearch.core.Releasable;
+import org.elasticsearch.core.TimeValue;
+import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.index.stats.IndexingPressureStats;
 
 import java.util.Optional;
@@ -86,6 +88,36 @@ public class IndexingPressure {
         Setting.Property.NodeScope
     );
 
+    /**
+     * Merge debt of a shard, i.e. the size of the merges that are running or waiting to run, above which primary operations on
+     * that shard start to be delayed. Disabled by default.
+     */
+    public static final Setting<ByteSizeValue> MERGE_DEBT_DELAY_THRESHOLD = Setting.byteSizeSetting(
+        "indexing_pressure.merge_debt.delay_threshold",
+        ByteSizeValue.MINUS_ONE,
+        Setting.Property.NodeScope
+    );
+
+    /**
+     * Merge debt of a shard above which primary operations on that shard are rejected. Disabled by default.
+     */
+    public static final Setting<ByteSizeValue> MERGE_DEBT_REJECT_THRESHOLD = Setting.byteSizeSetting(
+        "indexing_pressure.merge_debt.reject_threshold",
+        ByteSizeValue.MINUS_ONE,
+        Setting.Property.NodeScope
+    );
+
+    /**
+     * The longest a primary operation is delayed because of merge debt. Operations are delayed proportionally to how far the merge
+     * debt is between the delay threshold and the reject threshold.
+     */
+    public static final Setting<TimeValue> MERGE_DEBT_MAX_DELAY = Setting.timeSetting(
+        "indexing_pressure.merge_debt.max_delay",
+        TimeValue.timeValueSeconds(1),
+        TimeValue.ZERO,
+        Setting.Property.NodeScope
+    );
+
     private static final Logger logger = LogManager.getLogger(IndexingPressure.class);
 
     private final AtomicLong currentCombinedCoordinatingAndPrimaryBytes = new AtomicLong(0);
@@ -118,6 +150,10 @@ public class IndexingPressure {
     private final AtomicLong largeOpsRejections = new AtomicLong(0);
     private final AtomicLong totalRejectedLargeOpsBytes = new AtomicLong(0);
 
+    private final AtomicLong mergeDebtRejections = new AtomicLong(0);
+    private final AtomicLong mergeDebtDelays = new AtomicLong(0);
+    private final AtomicLong totalMergeDebtDelayTimeInMillis = new AtomicLong(0);
+
     private final long lowWatermark;
     private final long lowWatermarkSize;
     private final long highWatermark;
@@ -126,6 +162,9 @@ public class IndexingPressure {
     private final long primaryLimit;
     private final long replicaLimit;
     private final long operationLimit;
+    private final long mergeDebtDelayThreshold;
+    private final long mergeDebtRejectThreshold;
+    private final TimeValue mergeDebtMaxDelay;
 
     public IndexingPressure(Settings settings) {
         this.lowWatermark = SPLIT_BULK_LOW_WATERMARK.get(settings).getBytes();
@@ -136,6 +175,9 @@ public class IndexingPressure {
         this.primaryLimit = MAX_PRIMARY_BYTES.get(settings).getBytes();
         this.replicaLimit = MAX_REPLICA_BYTES.get(settings).getBytes();
         this.operationLimit = MAX_OPERATION_SIZE.get(settings).getBytes();
+        this.mergeDebtDelayThreshold = MERGE_DEBT_DELAY_THRESHOLD.get(settings).getBytes();
+        this.mergeDebtRejectThreshold = MERGE_DEBT_REJECT_THRESHOLD.get(settings).getBytes();
+        this.mergeDebtMaxDelay = MERGE_DEBT_MAX_DELAY.get(settings);
     }
 
     private static Releasable wrapReleasable(Releasable releasable) {
@@ -422,6 +464,60 @@ public class IndexingPressure {
         });
     }
 
+    /**
+     * Checks the merge debt of a shard before executing a primary operation on it. Throws an {@link EsRejectedExecutionException} if
+     * the debt is above the reject threshold, otherwise returns how long the operation should be delayed to give merges a chance to
+     * catch up, which is {@link TimeValue#ZERO} as long as the debt is below the delay threshold.
+     *
+     * @param shardId        the shard the operation targets
+     * @param mergeDebtBytes the size of the merges that are running or queued on the shard
+     * @param forceExecution whether the operation must execute regardless of back-pressure
+     */
+    public TimeValue checkMergeDebt(ShardId shardId, long mergeDebtBytes, boolean forceExecution) {
+        if (forceExecution) {
+            return TimeValue.ZERO;
+        }
+        if (mergeDebtRejectThreshold >= 0 && mergeDebtBytes > mergeDebtRejectThreshold) {
+            mergeDebtRejections.getAndIncrement();
+            throw new EsRejectedExecutionException(
+                "rejected execution of primary operation on "
+                    + shardId
+                    + " ["
+                    + "merge_debt_bytes="
+                    + mergeDebtBytes
+                    + ", "
+                    + "max_merge_debt_bytes="
+                    + mergeDebtRejectThreshold
+                    + "]",
+                false
+            );
+        }
+        if (mergeDebtDelayThreshold < 0 || mergeDebtBytes <= mergeDebtDelayThreshold || mergeDebtMaxDelay.millis() == 0) {
+            return TimeValue.ZERO;
+        }
+        // the delay grows linearly from the delay threshold up to the reject threshold, or up to twice the delay threshold if
+        // rejections are disabled
+        final long fullDelayDebt = mergeDebtRejectThreshold > mergeDebtDelayThreshold
+            ? mergeDebtRejectThreshold
+            : 2 * mergeDebtDelayThreshold;
+        final double fraction = Math.min(
+            1.0,
+            (double) (mergeDebtBytes - mergeDebtDelayThreshold) / (fullDelayDebt - mergeDebtDelayThreshold)
+        );
+        final long delayMillis = Math.max(1L, (long) (mergeDebtMaxDelay.millis() * fraction));
+        mergeDebtDelays.getAndIncrement();
+        totalMergeDebtDelayTimeInMillis.getAndAdd(delayMillis);
+        logger.trace(
+            () -> Strings.format(
+                "delaying primary operation on %s by [%d] ms, merge debt is [%d] bytes",
+                shardId,
+                delayMillis,
+                mergeDebtBytes
+            )
+        );
+        return TimeValue.timeValueMillis(delayMillis);
+    }
+
     public Releasable trackReplicaOperationExpansion(long expandedBytes, boolean forceExecution) {
         // Operations are already tracked by the initial call to #markReplicaStarted.
         // This method only increments the in-flight bytes to account for operation expansion during indexing.
@@ -482,7 +578,10 @@ public class IndexingPressure {
             lowWaterMarkSplits.get(),
             highWaterMarkSplits.get(),
             largeOpsRejections.get(),
-            totalRejectedLargeOpsBytes.get()
+            totalRejectedLargeOpsBytes.get(),
+            mergeDebtRejections.get(),
+            mergeDebtDelays.get(),
+            totalMergeDebtDelayTimeInMillis.get()
         );
     }
 }
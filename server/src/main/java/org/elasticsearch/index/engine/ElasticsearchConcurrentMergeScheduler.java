@@ -104,6 +104,7 @@ public class ElasticsearchConcurrentMergeScheduler extends ConcurrentMergeSchedu
         } finally {
             long tookMS = TimeValue.nsecToMSec(System.nanoTime() - timeNS);
             mergeTracking.mergeFinished(merge, onGoingMerge, tookMS);
+            mergeTracking.mergeDequeued(merge);
 
             afterMerge(onGoingMerge);
         }
@@ -139,6 +140,8 @@ public class ElasticsearchConcurrentMergeScheduler extends ConcurrentMergeSchedu
         thread.setName(
             EsExecutors.threadName(indexSettings, "[" + shardId.getIndexName() + "][" + shardId.id() + "]: " + thread.getName())
         );
+        // merges are never stalled so every merge gets its own thread right away, even if it has to wait for other merges to run
+        mergeTracking.mergeQueued(merge);
         return thread;
     }
 
@@ -521,6 +521,23 @@ public abstract class Engine implements Closeable {
      */
     public abstract IndexResult index(Index index) throws IOException;
 
+    /**
+     * Perform a batch of document index operations on the engine. The default implementation indexes the operations one by
+     * one; engines may override it to hand append-only operations over to Lucene and the translog together.
+     *
+     * @param operations operations to perform
+     * @return an {@link IndexResult} for each operation, in the same order as the operations
+     *
+     * Note: engine level failures (i.e. persistent engine failures) are thrown
+     */
+    public List<IndexResult> indexBatch(List<Index> operations) throws IOException {
+        final List<IndexResult> results = new ArrayList<>(operations.size());
+        for (Index operation : operations) {
+            results.add(index(operation));
+        }
+        return results;
+    }
+
     /**
      * Perform document delete operation on the engine
      * @param delete operation to perform
@@ -121,6 +121,17 @@ public final class EngineConfig {
         }
     }, Property.IndexScope, Property.NodeScope, Property.ServerlessPublic);
 
+    /**
+     * Index setting to keep the live version map in {@link org.elasticsearch.common.util.BigArrays} pages rather than in a
+     * concurrent hash map. This creates far fewer objects per indexed document, which helps update-heavy indices that
+     * accumulate many entries between refreshes. This setting is <b>not</b> realtime updateable.
+     */
+    public static final Setting<Boolean> INDEX_PAGED_VERSION_MAP_SETTING = Setting.boolSetting(
+        "index.engine.paged_version_map",
+        false,
+        Property.IndexScope
+    );
+
     // don't convert to Setting<> and register... we only set this in tests and register via a test plugin
     public static final String USE_COMPOUND_FILE = "index.use_compound_file";
 
@@ -71,7 +71,9 @@ import org.elasticsearch.core.CheckedFunction;
 import org.elasticsearch.core.IOUtils;
 import org.elasticsearch.core.Nullable;
 import org.elasticsearch.core.Releasable;
+import org.elasticsearch.core.Releasables;
 import org.elasticsearch.core.SuppressForbidden;
+import org.elasticsearch.core.TimeValue;
 import org.elasticsearch.core.Tuple;
 import org.elasticsearch.env.Environment;
 import org.elasticsearch.index.IndexMode;
@@ -107,6 +109,7 @@ import org.elasticsearch.threadpool.ThreadPool;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -194,6 +197,15 @@ public class InternalEngine extends Engine {
     private final LastRefreshedCheckpointListener lastRefreshedCheckpointListener;
     private final FlushListeners flushListener;
     private final AsyncIOProcessor<Tuple<Long, Translog.Location>> translogSyncProcessor;
+    /**
+     * How long to wait for more operations before syncing the translog, see {@link IndexSettings#TRANSLOG_GROUP_COMMIT_WINDOW_SETTING}.
+     */
+    private final TimeValue translogGroupCommitWindow;
+    private final Object translogGroupCommitMutex = new Object();
+    /**
+     * The translog sync requests waiting for the group commit window to close, {@code null} if no window is open.
+     */
+    private List<Tuple<Translog.Location, Consumer<Exception>>> pendingTranslogSyncs; // guarded by translogGroupCommitMutex
 
     private final CompletionStatsCache completionStatsCache;
 
@@ -243,7 +255,10 @@ public class InternalEngine extends Engine {
         this.relativeTimeInNanosSupplier = config().getRelativeTimeInNanosSupplier();
         this.lastFlushTimestamp = relativeTimeInNanosSupplier.getAsLong(); // default to creation timestamp
         this.liveVersionMapArchive = createLiveVersionMapArchive();
-        this.versionMap = new LiveVersionMap(liveVersionMapArchive);
+        this.versionMap = new LiveVersionMap(
+            liveVersionMapArchive,
+            engineConfig.getIndexSettings().getValue(EngineConfig.INDEX_PAGED_VERSION_MAP_SETTING)
+        );
         final TranslogDeletionPolicy translogDeletionPolicy = new TranslogDeletionPolicy();
         store.incRef();
         IndexWriter writer = null;
@@ -334,6 +349,7 @@ public class InternalEngine extends Engine {
             completionStatsCache = new CompletionStatsCache(() -> acquireSearcher("completion_stats"));
             this.externalReaderManager.addListener(completionStatsCache);
             this.flushListener = new FlushListeners(logger, engineConfig.getThreadPool().getThreadContext());
+            this.translogGroupCommitWindow = engineConfig.getIndexSettings().getTranslogGroupCommitWindow();
             this.translogSyncProcessor = createTranslogSyncProcessor(logger, engineConfig.getThreadPool().getThreadContext());
             success = true;
         } finally {
@@ -720,9 +736,55 @@ public class InternalEngine extends Engine {
 
     @Override
     public void asyncEnsureTranslogSynced(Translog.Location location, Consumer<Exception> listener) {
+        if (translogGroupCommitWindow.nanos() > 0 && translog.syncNeeded()) {
+            // the first request opens the window and the ones that arrive while it is open share its sync, none of them blocks
+            final Supplier<ThreadContext.StoredContext> storedContext = engineConfig.getThreadPool()
+                .getThreadContext()
+                .newRestorableContext(false);
+            final Consumer<Exception> contextPreservingListener = e -> {
+                try (ThreadContext.StoredContext ignore = storedContext.get()) {
+                    listener.accept(e);
+                }
+            };
+            final boolean openWindow;
+            synchronized (translogGroupCommitMutex) {
+                openWindow = pendingTranslogSyncs == null;
+                if (openWindow) {
+                    pendingTranslogSyncs = new ArrayList<>();
+                }
+                pendingTranslogSyncs.add(new Tuple<>(location, contextPreservingListener));
+            }
+            if (openWindow) {
+                engineConfig.getThreadPool().schedule(new AbstractRunnable() {
+                    @Override
+                    protected void doRun() {
+                        // the first of these syncs the translog up to the last write, so the others find their location durable
+                        for (Tuple<Translog.Location, Consumer<Exception>> pending : drainPendingTranslogSyncs()) {
+                            translogSyncProcessor.put(new Tuple<>(SequenceNumbers.NO_OPS_PERFORMED, pending.v1()), pending.v2());
+                        }
+                    }
+
+                    @Override
+                    public void onFailure(Exception e) {
+                        for (Tuple<Translog.Location, Consumer<Exception>> pending : drainPendingTranslogSyncs()) {
+                            pending.v2().accept(e);
+                        }
+                    }
+                }, translogGroupCommitWindow, engineConfig.getThreadPool().generic());
+            }
+            return;
+        }
         translogSyncProcessor.put(new Tuple<>(SequenceNumbers.NO_OPS_PERFORMED, location), listener);
     }
 
+    private List<Tuple<Translog.Location, Consumer<Exception>>> drainPendingTranslogSyncs() {
+        synchronized (translogGroupCommitMutex) {
+            final List<Tuple<Translog.Location, Consumer<Exception>>> pending = pendingTranslogSyncs;
+            pendingTranslogSyncs = null;
+            return pending == null ? List.of() : pending;
+        }
+    }
+
     @Override
     public void asyncEnsureGlobalCheckpointSynced(long globalCheckpoint, Consumer<Exception> listener) {
         translogSyncProcessor.put(new Tuple<>(globalCheckpoint, Translog.Location.EMPTY), listener);
@@ -1279,6 +1341,181 @@ public class InternalEngine extends Engine {
         }
     }
 
+    /**
+     * Indexes a batch of operations. Batches of append-only operations with auto-generated ids that come in on the primary
+     * are planned one by one like in {@link #index(Index)}, but the documents of the operations that turn out to be appends
+     * are added to Lucene with a single call, and the operations are written to the translog together. Any other batch is
+     * indexed one operation at a time.
+     */
+    @Override
+    public List<IndexResult> indexBatch(List<Index> operations) throws IOException {
+        // with index sorting Lucene keeps the documents of a block together as a parent and its children, so each operation
+        // needs its own block
+        if (operations.size() < 2 || config().getIndexSort() != null || operations.stream().allMatch(this::canIndexInBatch) == false) {
+            return super.indexBatch(operations);
+        }
+        try (var ignored1 = acquireEnsureOpenRef()) {
+            final int size = operations.size();
+            final List<Releasable> locks = new ArrayList<>(size);
+            int reservedDocs = 0;
+            try {
+                // acquire the locks in a consistent order so that concurrent batches can't deadlock; like in index(Index) they are
+                // held until the operations are in Lucene, which is what keeps concurrent retries of these operations safe
+                operations.stream().map(Index::uid).sorted().forEach(uid -> locks.add(versionMap.acquireLock(uid)));
+                try (Releasable indexThrottle = throttle.acquireThrottle()) {
+                    final Index[] indices = new Index[size];
+                    final IndexingStrategy[] plans = new IndexingStrategy[size];
+                    final IndexResult[] results = new IndexResult[size];
+                    final int[] appends = new int[size];
+                    int numAppends = 0;
+                    for (int i = 0; i < size; i++) {
+                        Index index = operations.get(i);
+                        assert assertIncomingSequenceNumber(index.origin(), index.seqNo());
+                        lastWriteNanos = index.startTime();
+                        // see the note about append only optimizations in index(Index)
+                        final IndexingStrategy plan = planIndexingAsPrimary(index);
+                        reservedDocs += plan.reservedDocs;
+                        plans[i] = plan;
+                        if (plan.earlyResultOnPreFlightError.isPresent()) {
+                            indices[i] = index;
+                            results[i] = plan.earlyResultOnPreFlightError.get();
+                            assert results[i].getResultType() == Result.Type.FAILURE : results[i].getResultType();
+                            continue;
+                        }
+                        assert plan.indexIntoLucene : "primary operations without a pre-flight error are indexed into Lucene";
+                        index = new Index(
+                            index.uid(),
+                            index.parsedDoc(),
+                            generateSeqNoForOperationOnPrimary(index),
+                            index.primaryTerm(),
+                            index.version(),
+                            index.versionType(),
+                            index.origin(),
+                            index.startTime(),
+                            index.getAutoGeneratedIdTimestamp(),
+                            index.isRetry(),
+                            index.getIfSeqNo(),
+                            index.getIfPrimaryTerm()
+                        );
+                        indices[i] = index;
+                        if (plan.useLuceneUpdateDocument) {
+                            advanceMaxSeqNoOfUpdatesOnPrimary(index.seqNo());
+                            results[i] = indexIntoLucene(index, plan);
+                        } else {
+                            appends[numAppends++] = i;
+                        }
+                    }
+                    addDocsInBatch(indices, plans, results, appends, numAppends);
+
+                    final List<Translog.Operation> translogOps = new ArrayList<>(size);
+                    final int[] translogSlots = new int[size];
+                    for (int i = 0; i < size; i++) {
+                        final IndexResult indexResult = results[i];
+                        if (indexResult.getResultType() == Result.Type.SUCCESS) {
+                            translogSlots[translogOps.size()] = i;
+                            translogOps.add(new Translog.Index(indices[i], indexResult));
+                        } else if (indexResult.getSeqNo() != SequenceNumbers.UNASSIGNED_SEQ_NO) {
+                            // if we have document failure, record it as a no-op in the translog and Lucene with the generated seq_no
+                            final NoOp noOp = new NoOp(
+                                indexResult.getSeqNo(),
+                                indices[i].primaryTerm(),
+                                indices[i].origin(),
+                                indices[i].startTime(),
+                                indexResult.getFailure().toString()
+                            );
+                            indexResult.setTranslogLocation(innerNoOp(noOp).getTranslogLocation());
+                        }
+                    }
+                    if (translogOps.isEmpty() == false) {
+                        final List<Translog.Location> locations = translog.add(translogOps);
+                        for (int j = 0; j < locations.size(); j++) {
+                            results[translogSlots[j]].setTranslogLocation(locations.get(j));
+                        }
+                    }
+
+                    for (int i = 0; i < size; i++) {
+                        final Index index = indices[i];
+                        final IndexResult indexResult = results[i];
+                        if (plans[i].indexIntoLucene && indexResult.getResultType() == Result.Type.SUCCESS) {
+                            final Translog.Location location = trackTranslogLocation.get() ? indexResult.getTranslogLocation() : null;
+                            versionMap.maybePutIndexUnderLock(
+                                index.uid(),
+                                new IndexVersionValue(location, plans[i].versionForIndexing, index.seqNo(), index.primaryTerm())
+                            );
+                        }
+                        localCheckpointTracker.markSeqNoAsProcessed(indexResult.getSeqNo());
+                        if (indexResult.getTranslogLocation() == null) {
+                            // the operation does not have a sequence number
+                            assert indexResult.getSeqNo() == SequenceNumbers.UNASSIGNED_SEQ_NO;
+                            localCheckpointTracker.markSeqNoAsPersisted(indexResult.getSeqNo());
+                        }
+                        indexResult.setTook(relativeTimeInNanosSupplier.getAsLong() - index.startTime());
+                        indexResult.freeze();
+                    }
+                    return Arrays.asList(results);
+                }
+            } finally {
+                releaseInFlightDocs(reservedDocs);
+                Releasables.close(locks);
+            }
+        } catch (RuntimeException | IOException e) {
+            try {
+                maybeFailEngine("index batch of [" + operations.size() + "] operations", e);
+            } catch (Exception inner) {
+                e.addSuppressed(inner);
+            }
+            throw e;
+        }
+    }
+
+    private boolean canIndexInBatch(Index index) {
+        return index.origin() == Operation.Origin.PRIMARY && index.isRetry() == false && canOptimizeAddDocument(index);
+    }
+
+    /**
+     * Adds the documents of the given append operations to Lucene with a single call. If that hits a document failure, Lucene
+     * marks the documents it already added as deleted, and the operations are retried one by one to find out which one failed.
+     */
+    private void addDocsInBatch(Index[] indices, IndexingStrategy[] plans, IndexResult[] results, int[] appends, int numAppends)
+        throws IOException {
+        if (numAppends == 0) {
+            return;
+        }
+        final List<LuceneDocument> docs = new ArrayList<>();
+        for (int j = 0; j < numAppends; j++) {
+            final Index index = indices[appends[j]];
+            final IndexingStrategy plan = plans[appends[j]];
+            assert plan.indexIntoLucene && plan.useLuceneUpdateDocument == false;
+            assert assertDocDoesNotExist(index, canOptimizeAddDocument(index) == false);
+            index.parsedDoc().updateSeqID(index.seqNo(), index.primaryTerm());
+            index.parsedDoc().version().setLongValue(plan.versionForIndexing);
+            docs.addAll(index.docs());
+        }
+        try {
+            addDocs(docs, indexWriter);
+        } catch (Exception ex) {
+            if (ex instanceof AlreadyClosedException == false && indexWriter.getTragicException() == null) {
+                for (int j = 0; j < numAppends; j++) {
+                    final int i = appends[j];
+                    results[i] = indexIntoLucene(indices[i], plans[i]);
+                }
+                return;
+            }
+            throw ex;
+        }
+        for (int j = 0; j < numAppends; j++) {
+            final Index index = indices[appends[j]];
+            final IndexingStrategy plan = plans[appends[j]];
+            results[appends[j]] = new IndexResult(
+                plan.versionForIndexing,
+                index.primaryTerm(),
+                index.seqNo(),
+                plan.currentNotFoundOrDeleted,
+                index.id()
+            );
+        }
+    }
+
     protected final IndexingStrategy planIndexingAsNonPrimary(Index index) throws IOException {
         assert assertNonPrimaryOrigin(index);
         // needs to maintain the auto_id timestamp in case this replica becomes primary
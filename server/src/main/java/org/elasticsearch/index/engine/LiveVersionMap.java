@@ -29,12 +29,23 @@ public final class LiveVersionMap implements ReferenceManager.RefreshListener, A
 
     private final LiveVersionMapArchive archive;
 
+    private final boolean paged;
+
     LiveVersionMap() {
         this(LiveVersionMapArchive.NOOP_ARCHIVE);
     }
 
     LiveVersionMap(LiveVersionMapArchive archive) {
+        this(archive, false);
+    }
+
+    /**
+     * @param paged whether the current and old maps should be {@link PagedVersionMap}s rather than concurrent hash maps
+     */
+    LiveVersionMap(LiveVersionMapArchive archive, boolean paged) {
         this.archive = archive;
+        this.paged = paged;
+        this.maps = new Maps(paged);
     }
 
     public static final class VersionLookup {
@@ -65,13 +76,13 @@ public final class LiveVersionMap implements ReferenceManager.RefreshListener, A
 
         // Modifies the map of this instance by merging with the given VersionLookup
         public void merge(VersionLookup versionLookup) {
-            long existingEntriesSize = 0;
+            long ramAccounting = 0;
             for (var entry : versionLookup.map.entrySet()) {
-                var existingValue = map.get(entry.getKey());
-                existingEntriesSize += existingValue == null ? 0 : mapEntryBytesUsed(entry.getKey(), existingValue);
+                var existingValue = map.put(entry.getKey(), entry.getValue());
+                ramAccounting += entryBytesUsed(entry.getKey(), entry.getValue());
+                ramAccounting -= existingValue == null ? 0 : entryBytesUsed(entry.getKey(), existingValue);
             }
-            map.putAll(versionLookup.map);
-            adjustRamUsage(versionLookup.ramBytesUsed() - existingEntriesSize);
+            adjustRamUsage(ramAccounting);
             minDeleteTimestamp.accumulateAndGet(versionLookup.minDeleteTimestamp(), Math::min);
         }
 
@@ -80,14 +91,21 @@ public final class LiveVersionMap implements ReferenceManager.RefreshListener, A
             this.map = map;
         }
 
+        static VersionLookup newLookup(boolean paged, int expectedSize) {
+            if (paged) {
+                return new VersionLookup(new PagedVersionMap());
+            }
+            return new VersionLookup(ConcurrentCollections.newConcurrentMapWithAggressiveConcurrency(expectedSize));
+        }
+
         public VersionValue get(BytesRef key) {
             return map.get(key);
         }
 
         VersionValue put(BytesRef key, VersionValue value) {
-            long ramAccounting = mapEntryBytesUsed(key, value);
+            long ramAccounting = entryBytesUsed(key, value);
             VersionValue previousValue = map.put(key, value);
-            ramAccounting += previousValue == null ? 0 : -mapEntryBytesUsed(key, previousValue);
+            ramAccounting += previousValue == null ? 0 : -entryBytesUsed(key, previousValue);
             adjustRamUsage(ramAccounting);
             return previousValue;
         }
@@ -111,7 +129,7 @@ public final class LiveVersionMap implements ReferenceManager.RefreshListener, A
         VersionValue remove(BytesRef uid) {
             VersionValue previousValue = map.remove(uid);
             if (previousValue != null) {
-                adjustRamUsage(-mapEntryBytesUsed(uid, previousValue));
+                adjustRamUsage(-entryBytesUsed(uid, previousValue));
             }
             return previousValue;
         }
@@ -132,13 +150,18 @@ public final class LiveVersionMap implements ReferenceManager.RefreshListener, A
         }
 
         public long ramBytesUsed() {
-            return ramBytesUsed.get();
+            return map instanceof PagedVersionMap pagedMap ? pagedMap.ramBytesUsed() : ramBytesUsed.get();
         }
 
         public static long mapEntryBytesUsed(BytesRef key, VersionValue value) {
             return (BASE_BYTES_PER_BYTESREF + key.bytes.length) + (BASE_BYTES_PER_CHM_ENTRY + value.ramBytesUsed());
         }
 
+        private long entryBytesUsed(BytesRef key, VersionValue value) {
+            // paged maps account for their bytes themselves since removing a key from them doesn't free anything
+            return map instanceof PagedVersionMap ? 0 : mapEntryBytesUsed(key, value);
+        }
+
         // Used only for testing
         Map<BytesRef, VersionValue> getMap() {
             return map;
@@ -157,15 +180,17 @@ public final class LiveVersionMap implements ReferenceManager.RefreshListener, A
         // have the volatile read of the Maps reference to make it visible even across threads.
         boolean needsSafeAccess;
         final boolean previousMapsNeededSafeAccess;
+        final boolean paged;
 
-        Maps(VersionLookup current, VersionLookup old, boolean previousMapsNeededSafeAccess) {
+        Maps(VersionLookup current, VersionLookup old, boolean previousMapsNeededSafeAccess, boolean paged) {
             this.current = current;
             this.old = old;
             this.previousMapsNeededSafeAccess = previousMapsNeededSafeAccess;
+            this.paged = paged;
         }
 
-        Maps() {
-            this(new VersionLookup(ConcurrentCollections.newConcurrentMapWithAggressiveConcurrency()), VersionLookup.EMPTY, false);
+        Maps(boolean paged) {
+            this(VersionLookup.newLookup(paged, 16), VersionLookup.EMPTY, false, paged);
         }
 
         boolean isSafeAccessMode() {
@@ -183,18 +208,14 @@ public final class LiveVersionMap implements ReferenceManager.RefreshListener, A
          * Builds a new map for the refresh transition this should be called in beforeRefresh()
          */
         Maps buildTransitionMap() {
-            return new Maps(
-                new VersionLookup(ConcurrentCollections.newConcurrentMapWithAggressiveConcurrency(current.size())),
-                current,
-                shouldInheritSafeAccess()
-            );
+            return new Maps(VersionLookup.newLookup(paged, current.size()), current, shouldInheritSafeAccess(), paged);
         }
 
         /**
          * similar to `invalidateOldMap` but used only for the `unsafeKeysMap` used for assertions
          */
         Maps invalidateOldMapForAssert() {
-            return new Maps(current, VersionLookup.EMPTY, previousMapsNeededSafeAccess);
+            return new Maps(current, VersionLookup.EMPTY, previousMapsNeededSafeAccess, paged);
         }
 
         /**
@@ -202,7 +223,7 @@ public final class LiveVersionMap implements ReferenceManager.RefreshListener, A
          */
         Maps invalidateOldMap(LiveVersionMapArchive archive) {
             archive.afterRefresh(old);
-            return new Maps(current, VersionLookup.EMPTY, previousMapsNeededSafeAccess);
+            return new Maps(current, VersionLookup.EMPTY, previousMapsNeededSafeAccess, paged);
         }
 
         void put(BytesRef uid, VersionValue version) {
@@ -224,17 +245,17 @@ public final class LiveVersionMap implements ReferenceManager.RefreshListener, A
         }
 
         long ramBytesUsed() {
-            return current.ramBytesUsed.get() + old.ramBytesUsed.get();
+            return current.ramBytesUsed() + old.ramBytesUsed();
         }
     }
 
     // All deletes also go here, and delete "tombstones" are retained after refresh:
     private final Map<BytesRef, DeleteVersionValue> tombstones = ConcurrentCollections.newConcurrentMapWithAggressiveConcurrency();
 
-    private volatile Maps maps = new Maps();
+    private volatile Maps maps;
     // we maintain a second map that only receives the updates that we skip on the actual map (unsafe ops)
     // this map is only maintained if assertions are enabled
-    private volatile Maps unsafeKeysMap = new Maps();
+    private volatile Maps unsafeKeysMap = new Maps(false);
 
     /**
      * Bytes consumed for each BytesRef UID:
@@ -463,7 +484,7 @@ public final class LiveVersionMap implements ReferenceManager.RefreshListener, A
      * Called when this index is closed.
      */
     synchronized void clear() {
-        maps = new Maps();
+        maps = new Maps(paged);
         tombstones.clear();
         // NOTE: we can't zero this here, because a refresh thread could be calling InternalEngine.pruneDeletedTombstones at the same time,
         // and this will lead to an assert trip. Presumably it's fine if our ramBytesUsedForTombstones is non-zero after clear since the
@@ -495,7 +516,7 @@ public final class LiveVersionMap implements ReferenceManager.RefreshListener, A
      */
     long reclaimableRefreshRamBytes() {
         return archive == LiveVersionMapArchive.NOOP_ARCHIVE
-            ? maps.current.ramBytesUsed.get()
+            ? maps.current.ramBytesUsed()
             : maps.ramBytesUsed() + archive.getReclaimableRamBytes();
     }
 
@@ -512,7 +533,7 @@ public final class LiveVersionMap implements ReferenceManager.RefreshListener, A
      * fraction of the Archive entries that are kept around until an ongoing unpromotable refresh is finished.
      */
     long getRefreshingBytes() {
-        return archive == LiveVersionMapArchive.NOOP_ARCHIVE ? maps.old.ramBytesUsed.get() : archive.getRefreshingRamBytes();
+        return archive == LiveVersionMapArchive.NOOP_ARCHIVE ? maps.old.ramBytesUsed() : archive.getRefreshingRamBytes();
     }
 
     /**
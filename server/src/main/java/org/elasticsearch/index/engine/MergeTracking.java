@@ -35,6 +35,7 @@ public class MergeTracking {
     private final CounterMetric currentMerges = new CounterMetric();
     private final CounterMetric currentMergesNumDocs = new CounterMetric();
     private final CounterMetric currentMergesSizeInBytes = new CounterMetric();
+    private final CounterMetric pendingMergesSizeInBytes = new CounterMetric();
     private final CounterMetric totalMergeStoppedTime = new CounterMetric();
     private final CounterMetric totalMergeThrottledTime = new CounterMetric();
 
@@ -50,6 +51,20 @@ public class MergeTracking {
         return readOnlyOnGoingMerges;
     }
 
+    /**
+     * Called when the merge scheduler takes a merge from the index writer, before it gets to run it.
+     */
+    public void mergeQueued(MergePolicy.OneMerge merge) {
+        pendingMergesSizeInBytes.inc(merge.totalBytesSize());
+    }
+
+    /**
+     * Called once a merge that was {@link #mergeQueued queued} is done running or was aborted.
+     */
+    public void mergeDequeued(MergePolicy.OneMerge merge) {
+        pendingMergesSizeInBytes.dec(merge.totalBytesSize());
+    }
+
     public void mergeStarted(OnGoingMerge onGoingMerge) {
         MergePolicy.OneMerge merge = onGoingMerge.getMerge();
         int totalNumDocs = merge.totalNumDocs();
@@ -122,6 +137,7 @@ public class MergeTracking {
             currentMerges.count(),
             currentMergesNumDocs.count(),
             currentMergesSizeInBytes.count(),
+            pendingMergesSizeInBytes.count(),
             totalMergeStoppedTime.count(),
             totalMergeThrottledTime.count(),
             mbPerSecAutoThrottle.getAsDouble()
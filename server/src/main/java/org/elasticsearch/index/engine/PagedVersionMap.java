@@ -0,0 +1,268 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.index.engine;
+
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.common.util.BigArrays;
+import org.elasticsearch.common.util.ByteArray;
+import org.elasticsearch.common.util.BytesRefHash;
+import org.elasticsearch.common.util.IntArray;
+import org.elasticsearch.common.util.LongArray;
+import org.elasticsearch.index.translog.Translog;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A map of _uid to {@link VersionValue} that keeps its keys in an open-addressing {@link BytesRefHash} and its values in
+ * parallel primitive arrays, all allocated through {@link BigArrays}. Compared to a {@link java.util.concurrent.ConcurrentHashMap}
+ * this stores a handful of large pages instead of five objects per entry (the node, the {@link BytesRef}, its {@code byte[]},
+ * the {@link VersionValue} and its {@link Translog.Location}), which matters for the GC when update-heavy indices accumulate
+ * millions of entries between two refreshes.
+ * <p>
+ * Keys are spread over a fixed number of stripes, each guarded by its own lock, so that concurrent indexing into different
+ * ids rarely contends. {@link VersionValue}s are rebuilt on every read. Removing a key only clears its value; the key stays in
+ * the hash until the whole map is dropped, which happens on every refresh. This is why the map accounts for the bytes it uses
+ * itself, see {@link #ramBytesUsed()}: they only grow as new keys are added and nothing is freed by a removal.
+ * <p>
+ * Arrays come from {@link BigArrays#NON_RECYCLING_INSTANCE} and are reclaimed by the GC once the map isn't referenced
+ * anymore. This way a lookup that still holds on to a map that was just dropped by a refresh can safely read it, like
+ * it could with a {@link java.util.concurrent.ConcurrentHashMap}.
+ */
+final class PagedVersionMap extends AbstractMap<BytesRef, VersionValue> {
+
+    private static final int STRIPES = 16;
+
+    private static final byte ABSENT = 0;
+    private static final byte INDEX = 1;
+    private static final byte INDEX_WITH_LOCATION = 2;
+    private static final byte DELETE = 3;
+
+    /**
+     * Bytes used by an entry, on top of the bytes of its key: its slot in the hash table at the default load factor of
+     * {@code 0.6}, its cached hash, the offset of its key, and its value.
+     */
+    static final long BASE_BYTES_PER_ENTRY = (long) (Long.BYTES / 0.6) + Integer.BYTES + Long.BYTES // key
+        + Byte.BYTES + 5 * Long.BYTES + Integer.BYTES; // value
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicLong ramBytesUsed = new AtomicLong();
+
+    PagedVersionMap() {
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Bytes used by an entry with the given key.
+     */
+    static long entryBytesUsed(BytesRef key) {
+        return BASE_BYTES_PER_ENTRY + key.length;
+    }
+
+    @Override
+    public VersionValue get(Object key) {
+        if (key instanceof BytesRef uid) {
+            int code = uid.hashCode();
+            return stripe(code).get(uid, code);
+        }
+        return null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public VersionValue put(BytesRef key, VersionValue value) {
+        int code = key.hashCode();
+        return stripe(code).put(key, code, value);
+    }
+
+    @Override
+    public VersionValue remove(Object key) {
+        if (key instanceof BytesRef uid) {
+            int code = uid.hashCode();
+            return stripe(code).remove(uid, code);
+        }
+        return null;
+    }
+
+    @Override
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * Bytes used by all the keys that were ever added to the map, including the ones that were removed since.
+     */
+    long ramBytesUsed() {
+        return ramBytesUsed.get();
+    }
+
+    /**
+     * A point in time snapshot of the entries of the map.
+     */
+    @Override
+    public Set<Entry<BytesRef, VersionValue>> entrySet() {
+        List<Entry<BytesRef, VersionValue>> entries = new ArrayList<>(size());
+        for (Stripe stripe : stripes) {
+            stripe.collect(entries);
+        }
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<BytesRef, VersionValue>> iterator() {
+                return Collections.unmodifiableList(entries).iterator();
+            }
+
+            @Override
+            public int size() {
+                return entries.size();
+            }
+        };
+    }
+
+    private Stripe stripe(int code) {
+        // BytesRefHash remixes the hash code so using its low bits to pick the stripe doesn't cluster keys within a stripe
+        return stripes[code & (STRIPES - 1)];
+    }
+
+    private final class Stripe {
+        private final BigArrays bigArrays = BigArrays.NON_RECYCLING_INSTANCE;
+        private final BytesRef spare = new BytesRef();
+
+        // lazily allocated since most shards only ever touch a few stripes between two refreshes
+        private BytesRefHash keys;
+        private ByteArray types;
+        private LongArray versions;
+        private LongArray seqNos;
+        private LongArray terms;
+        /** The timestamp of deletes or the translog generation of indexing operations */
+        private LongArray timesOrGenerations;
+        private LongArray translogLocations;
+        private IntArray translogSizes;
+
+        synchronized VersionValue get(BytesRef key, int code) {
+            if (keys == null) {
+                return null;
+            }
+            long id = keys.find(key, code);
+            return id < 0 ? null : read(id);
+        }
+
+        synchronized VersionValue put(BytesRef key, int code, VersionValue value) {
+            if (keys == null) {
+                keys = new BytesRefHash(1, bigArrays);
+                types = bigArrays.newByteArray(1);
+                versions = bigArrays.newLongArray(1, false);
+                seqNos = bigArrays.newLongArray(1, false);
+                terms = bigArrays.newLongArray(1, false);
+                timesOrGenerations = bigArrays.newLongArray(1, false);
+                translogLocations = bigArrays.newLongArray(1, false);
+                translogSizes = bigArrays.newIntArray(1, false);
+            }
+            long id = keys.add(key, code);
+            final VersionValue previous;
+            if (id < 0) {
+                id = -1 - id;
+                previous = read(id);
+            } else {
+                previous = null;
+                ramBytesUsed.addAndGet(entryBytesUsed(key));
+                types = bigArrays.grow(types, id + 1);
+                versions = bigArrays.grow(versions, id + 1);
+                seqNos = bigArrays.grow(seqNos, id + 1);
+                terms = bigArrays.grow(terms, id + 1);
+                timesOrGenerations = bigArrays.grow(timesOrGenerations, id + 1);
+                translogLocations = bigArrays.grow(translogLocations, id + 1);
+                translogSizes = bigArrays.grow(translogSizes, id + 1);
+            }
+            write(id, value);
+            if (previous == null) {
+                size.incrementAndGet();
+            }
+            return previous;
+        }
+
+        synchronized VersionValue remove(BytesRef key, int code) {
+            if (keys == null) {
+                return null;
+            }
+            long id = keys.find(key, code);
+            if (id < 0) {
+                return null;
+            }
+            VersionValue previous = read(id);
+            if (previous != null) {
+                types.set(id, ABSENT);
+                size.decrementAndGet();
+            }
+            return previous;
+        }
+
+        synchronized void collect(List<Entry<BytesRef, VersionValue>> entries) {
+            if (keys == null) {
+                return;
+            }
+            for (long id = 0; id < keys.size(); id++) {
+                VersionValue value = read(id);
+                if (value != null) {
+                    entries.add(new SimpleImmutableEntry<>(BytesRef.deepCopyOf(keys.get(id, spare)), value));
+                }
+            }
+        }
+
+        private VersionValue read(long id) {
+            return switch (types.get(id)) {
+                case ABSENT -> null;
+                case INDEX -> new IndexVersionValue(null, versions.get(id), seqNos.get(id), terms.get(id));
+                case INDEX_WITH_LOCATION -> new IndexVersionValue(
+                    new Translog.Location(timesOrGenerations.get(id), translogLocations.get(id), translogSizes.get(id)),
+                    versions.get(id),
+                    seqNos.get(id),
+                    terms.get(id)
+                );
+                case DELETE -> new DeleteVersionValue(versions.get(id), seqNos.get(id), terms.get(id), timesOrGenerations.get(id));
+                default -> throw new IllegalStateException("unknown version value type [" + types.get(id) + "]");
+            };
+        }
+
+        private void write(long id, VersionValue value) {
+            versions.set(id, value.version);
+            seqNos.set(id, value.seqNo);
+            terms.set(id, value.term);
+            if (value instanceof DeleteVersionValue delete) {
+                types.set(id, DELETE);
+                timesOrGenerations.set(id, delete.time);
+            } else {
+                assert value instanceof IndexVersionValue : value;
+                Translog.Location location = value.getLocation();
+                if (location == null) {
+                    types.set(id, INDEX);
+                } else {
+                    types.set(id, INDEX_WITH_LOCATION);
+                    timesOrGenerations.set(id, location.generation());
+                    translogLocations.set(id, location.translogLocation());
+                    translogSizes.set(id, location.size());
+                }
+            }
+        }
+    }
+}
@@ -9,27 +9,61 @@
 
 package org.elasticsearch.index.engine;
 
+import org.elasticsearch.common.settings.Setting;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
 import org.elasticsearch.core.Nullable;
+import org.elasticsearch.core.TimeValue;
 import org.elasticsearch.index.engine.ThreadPoolMergeScheduler.MergeTask;
+import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.threadpool.Scheduler;
 import org.elasticsearch.threadpool.ThreadPool;
 
-import java.util.Comparator;
+import java.io.Closeable;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.PriorityBlockingQueue;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.LongUnaryOperator;
+import java.util.function.Predicate;
 
 import static org.elasticsearch.index.engine.ThreadPoolMergeScheduler.Schedule.ABORT;
 import static org.elasticsearch.index.engine.ThreadPoolMergeScheduler.Schedule.BACKLOG;
 import static org.elasticsearch.index.engine.ThreadPoolMergeScheduler.Schedule.RUN;
 
-public class ThreadPoolMergeExecutorService {
+public class ThreadPoolMergeExecutorService implements Closeable {
+    /**
+     * The maximum disk write rate of all the running merges that support IO throttling, combined. The rate of the individual merges
+     * is lowered as needed so that their sum stays below it. Unlimited by default.
+     */
+    public static final Setting<ByteSizeValue> MAX_IO_RATE_SETTING = Setting.byteSizeSetting(
+        "indices.merge.scheduler.max_io_rate",
+        ByteSizeValue.MINUS_ONE,
+        Setting.Property.NodeScope
+    );
+    /**
+     * Number of queued search tasks at or above which large running merges are paused, until the search queue drains again.
+     * Disabled by default.
+     */
+    public static final Setting<Integer> SEARCH_PRESSURE_QUEUE_SIZE_SETTING = Setting.intSetting(
+        "indices.merge.scheduler.search_pressure.queue_size",
+        -1,
+        -1,
+        Setting.Property.NodeScope
+    );
+    /**
+     * Estimated size of the merges that are paused under search pressure. Smaller merges, as well as forced merges, always run.
+     */
+    public static final Setting<ByteSizeValue> SEARCH_PRESSURE_MIN_MERGE_SIZE_SETTING = Setting.byteSizeSetting(
+        "indices.merge.scheduler.search_pressure.min_merge_size",
+        ByteSizeValue.ofGb(1),
+        Setting.Property.NodeScope
+    );
+    static final TimeValue SEARCH_PRESSURE_CHECK_INTERVAL = TimeValue.timeValueSeconds(1);
     /**
      * Floor for IO write rate limit of individual merge tasks (we will never go any lower than this)
      */
@@ -45,6 +79,7 @@ public class ThreadPoolMergeExecutorService {
     /**
      * Total number of submitted merge tasks that support IO auto throttling and that have not yet been run (or aborted).
      * This includes merge tasks that are currently running and that are backlogged (by their respective merge schedulers).
+     * {@link #MAX_IO_RATE_SETTING} is shared across all of them.
      */
     private final AtomicInteger ioThrottledMergeTasksCount = new AtomicInteger();
     /**
@@ -53,7 +88,7 @@ public class ThreadPoolMergeExecutorService {
      */
     private final PriorityBlockingQueue<MergeTask> queuedMergeTasks = new PriorityBlockingQueue<>(
         64,
-        Comparator.comparingLong(MergeTask::estimatedMergeSize)
+        ThreadPoolMergeScheduler.MERGE_TASK_PRIORITY
     );
     /**
      * The set of all merge tasks currently being executed by merge threads from the pool.
@@ -65,6 +100,7 @@ public class ThreadPoolMergeExecutorService {
      * across all {@link ThreadPoolMergeScheduler}s that use this instance of the queue.
      */
     private final AtomicIORate targetIORateBytesPerSec = new AtomicIORate(START_IO_RATE.getBytes());
+    private final ThreadPool threadPool;
     private final ExecutorService executorService;
     /**
      * The maximum number of concurrently running merges, given the number of threads in the pool.
@@ -72,23 +108,69 @@ public class ThreadPoolMergeExecutorService {
     private final int maxConcurrentMerges;
     private final int concurrentMergesFloorLimitForThrottling;
     private final int concurrentMergesCeilLimitForThrottling;
+    private final long maxIORateBytesPerSec;
+    private final int searchPressureQueueSize;
+    private final long searchPressureMinMergeSize;
+    private final Predicate<ShardId> isShardSearchActive;
+    /**
+     * The periodic {@link #checkSearchPressure()} task, if search pressure is enabled, which is cancelled on {@link #close()}.
+     */
+    @Nullable
+    private final Scheduler.Cancellable searchPressureCheck;
 
     public static @Nullable ThreadPoolMergeExecutorService maybeCreateThreadPoolMergeExecutorService(
         ThreadPool threadPool,
         Settings settings
+    ) {
+        return maybeCreateThreadPoolMergeExecutorService(threadPool, settings, shardId -> true);
+    }
+
+    /**
+     * @param isShardSearchActive tells whether a shard currently receives searches, in which case its merges run before the merges
+     *                            of shards that are search idle
+     */
+    public static @Nullable ThreadPoolMergeExecutorService maybeCreateThreadPoolMergeExecutorService(
+        ThreadPool threadPool,
+        Settings settings,
+        Predicate<ShardId> isShardSearchActive
     ) {
         if (ThreadPoolMergeScheduler.USE_THREAD_POOL_MERGE_SCHEDULER_SETTING.get(settings)) {
-            return new ThreadPoolMergeExecutorService(threadPool);
+            return new ThreadPoolMergeExecutorService(threadPool, settings, isShardSearchActive);
         } else {
             return null;
         }
     }
 
-    private ThreadPoolMergeExecutorService(ThreadPool threadPool) {
+    private ThreadPoolMergeExecutorService(ThreadPool threadPool, Settings settings, Predicate<ShardId> isShardSearchActive) {
+        this.threadPool = threadPool;
         this.executorService = threadPool.executor(ThreadPool.Names.MERGE);
         this.maxConcurrentMerges = threadPool.info(ThreadPool.Names.MERGE).getMax();
         this.concurrentMergesFloorLimitForThrottling = maxConcurrentMerges * 2;
         this.concurrentMergesCeilLimitForThrottling = maxConcurrentMerges * 4;
+        this.maxIORateBytesPerSec = MAX_IO_RATE_SETTING.get(settings).getBytes();
+        this.searchPressureQueueSize = SEARCH_PRESSURE_QUEUE_SIZE_SETTING.get(settings);
+        this.searchPressureMinMergeSize = SEARCH_PRESSURE_MIN_MERGE_SIZE_SETTING.get(settings).getBytes();
+        this.isShardSearchActive = isShardSearchActive;
+        if (searchPressureQueueSize > 0) {
+            this.searchPressureCheck = threadPool.scheduleWithFixedDelay(
+                this::checkSearchPressure,
+                SEARCH_PRESSURE_CHECK_INTERVAL,
+                threadPool.generic()
+            );
+        } else {
+            this.searchPressureCheck = null;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (searchPressureCheck != null) {
+            searchPressureCheck.cancel();
+        }
+    }
+
+    boolean isShardSearchActive(ShardId shardId) {
+        return isShardSearchActive.test(shardId);
     }
 
     boolean submitMergeTask(MergeTask mergeTask) {
@@ -115,11 +197,10 @@ public class ThreadPoolMergeExecutorService {
                         // For performance reasons, we don't synchronize the updates to targetMBPerSec values with the update of running
                         // merges.
                         if (prevTargetIORateBytesPerSec != newTargetIORateBytesPerSec) {
-                            runningMergeTasks.forEach(runningMergeTask -> {
-                                if (runningMergeTask.supportsIOThrottling()) {
-                                    runningMergeTask.setIORateLimit(newTargetIORateBytesPerSec);
-                                }
-                            });
+                            updateIORateOfRunningMergeTasks(newTargetIORateBytesPerSec);
+                        } else {
+                            // the running merges now have to share the IO budget with one more merge
+                            maybeRebalanceIORateOfRunningMergeTasks();
                         }
                     }
                 );
@@ -190,7 +271,7 @@ public class ThreadPoolMergeExecutorService {
         assert added : "starting merge task [" + mergeTask + "] registered as already running";
         try {
             if (mergeTask.supportsIOThrottling()) {
-                mergeTask.setIORateLimit(targetIORateBytesPerSec.get());
+                mergeTask.setIORateLimit(perMergeTaskIORateBytesPerSec(targetIORateBytesPerSec.get()));
             }
             mergeTask.run();
         } finally {
@@ -198,8 +279,62 @@ public class ThreadPoolMergeExecutorService {
             assert removed : "completed merge task [" + mergeTask + "] not registered as running";
             if (mergeTask.supportsIOThrottling()) {
                 ioThrottledMergeTasksCount.decrementAndGet();
+                maybeRebalanceIORateOfRunningMergeTasks();
+            }
+        }
+    }
+
+    private void updateIORateOfRunningMergeTasks(long targetIORateBytesPerSec) {
+        long ioRateBytesPerSec = perMergeTaskIORateBytesPerSec(targetIORateBytesPerSec);
+        runningMergeTasks.forEach(runningMergeTask -> {
+            if (runningMergeTask.supportsIOThrottling()) {
+                runningMergeTask.setIORateLimit(ioRateBytesPerSec);
+            }
+        });
+    }
+
+    private void maybeRebalanceIORateOfRunningMergeTasks() {
+        if (maxIORateBytesPerSec > 0) {
+            updateIORateOfRunningMergeTasks(targetIORateBytesPerSec.get());
+        }
+    }
+
+    /**
+     * The IO rate of every merge task that supports IO throttling: the auto-throttled target rate, capped so that all the submitted
+     * merges together, running or backlogged, stay within {@link #MAX_IO_RATE_SETTING}.
+     */
+    // exposed for tests
+    long perMergeTaskIORateBytesPerSec(long targetIORateBytesPerSec) {
+        if (maxIORateBytesPerSec <= 0) {
+            return targetIORateBytesPerSec;
+        }
+        long budgetPerMergeTask = maxIORateBytesPerSec / Math.max(1, ioThrottledMergeTasksCount.get());
+        return Math.max(1L, Math.min(targetIORateBytesPerSec, budgetPerMergeTask));
+    }
+
+    /**
+     * Pauses the large running merges while the search thread pool is backed up, so that they don't compete with searches for disk
+     * IO, and resumes them once searches caught up.
+     */
+    // exposed for tests
+    void checkSearchPressure() {
+        final boolean underSearchPressure = searchQueueSize() >= searchPressureQueueSize;
+        runningMergeTasks.forEach(runningMergeTask -> {
+            if (runningMergeTask.supportsIOThrottling() && runningMergeTask.estimatedMergeSize() >= searchPressureMinMergeSize) {
+                if (underSearchPressure) {
+                    runningMergeTask.pause();
+                } else {
+                    runningMergeTask.resume();
+                }
             }
+        });
+    }
+
+    private int searchQueueSize() {
+        if (threadPool.executor(ThreadPool.Names.SEARCH) instanceof ThreadPoolExecutor searchExecutor) {
+            return searchExecutor.getQueue().size();
         }
+        return 0;
     }
 
     private void abortMergeTask(MergeTask mergeTask) {
@@ -210,6 +345,7 @@ public class ThreadPoolMergeExecutorService {
         } finally {
             if (mergeTask.supportsIOThrottling()) {
                 ioThrottledMergeTasksCount.decrementAndGet();
+                maybeRebalanceIORateOfRunningMergeTasks();
             }
         }
     }
@@ -20,6 +20,7 @@ import org.apache.lucene.store.FilterDirectory;
 import org.apache.lucene.store.IOContext;
 import org.apache.lucene.store.IndexOutput;
 import org.apache.lucene.store.RateLimitedIndexOutput;
+import org.apache.lucene.util.ThreadInterruptedException;
 import org.elasticsearch.common.logging.Loggers;
 import org.elasticsearch.common.settings.Setting;
 import org.elasticsearch.common.unit.ByteSizeValue;
@@ -48,15 +49,23 @@ public class ThreadPoolMergeScheduler extends MergeScheduler implements Elastics
         true,
         Setting.Property.NodeScope
     );
+    /**
+     * The order in which merge tasks run, across all the shards of the node: the merges of shards that are being searched go first,
+     * because they help searches the most, then the merges that reduce the segment count the most for the bytes they rewrite.
+     */
+    static final Comparator<MergeTask> MERGE_TASK_PRIORITY = Comparator.comparing(MergeTask::isSearchActive, Comparator.reverseOrder())
+        .thenComparingLong(MergeTask::estimatedMergeSizePerSegmentReduced)
+        .thenComparingLong(MergeTask::estimatedMergeSize);
+    /**
+     * The longest a paused merge waits before checking whether it was aborted.
+     */
+    private static final long MAX_PAUSE_NANOS = TimeUnit.MILLISECONDS.toNanos(250);
     private final ShardId shardId;
     private final MergeSchedulerConfig config;
     private final Logger logger;
     private final MergeTracking mergeTracking;
     private final ThreadPoolMergeExecutorService threadPoolMergeExecutorService;
-    private final PriorityQueue<MergeTask> backloggedMergeTasks = new PriorityQueue<>(
-        16,
-        Comparator.comparingLong(MergeTask::estimatedMergeSize)
-    );
+    private final PriorityQueue<MergeTask> backloggedMergeTasks = new PriorityQueue<>(16, MERGE_TASK_PRIORITY);
     private final Map<MergePolicy.OneMerge, MergeTask> runningMergeTasks = new HashMap<>();
     // set when incoming merges should be throttled (i.e. restrict the indexing rate)
     private final AtomicBoolean shouldThrottleIncomingMerges = new AtomicBoolean();
@@ -165,6 +174,7 @@ public class ThreadPoolMergeScheduler extends MergeScheduler implements Elastics
     boolean submitNewMergeTask(MergeSource mergeSource, MergePolicy.OneMerge merge, MergeTrigger mergeTrigger) {
         try {
             MergeTask mergeTask = newMergeTask(mergeSource, merge, mergeTrigger);
+            mergeTracking.mergeQueued(merge);
             return threadPoolMergeExecutorService.submitMergeTask(mergeTask);
         } finally {
             checkMergeTaskThrottling();
@@ -180,6 +190,7 @@ public class ThreadPoolMergeScheduler extends MergeScheduler implements Elastics
             mergeSource,
             merge,
             isAutoThrottle && config.isAutoThrottle(),
+            threadPoolMergeExecutorService.isShardSearchActive(shardId),
             "Lucene Merge Task #" + submittedMergeTaskCount.incrementAndGet() + " for shard " + shardId
         );
     }
@@ -235,7 +246,8 @@ public class ThreadPoolMergeScheduler extends MergeScheduler implements Elastics
         maybeSignalAllMergesDoneAfterClose();
     }
 
-    private void mergeTaskDone() {
+    private void mergeTaskDone(MergePolicy.OneMerge merge) {
+        mergeTracking.mergeDequeued(merge);
         doneMergeTaskCount.incrementAndGet();
         checkMergeTaskThrottling();
     }
@@ -309,14 +321,24 @@ public class ThreadPoolMergeScheduler extends MergeScheduler implements Elastics
         private final OnGoingMerge onGoingMerge;
         private final MergeRateLimiter rateLimiter;
         private final boolean supportsIOThrottling;
+        private final boolean searchActive;
+        private final int segmentsReduced;
+        private volatile boolean paused;
 
-        MergeTask(MergeSource mergeSource, MergePolicy.OneMerge merge, boolean supportsIOThrottling, String name) {
+        MergeTask(MergeSource mergeSource, MergePolicy.OneMerge merge, boolean supportsIOThrottling, boolean searchActive, String name) {
             this.name = name;
             this.mergeStartTimeNS = new AtomicLong();
             this.mergeSource = mergeSource;
             this.onGoingMerge = new OnGoingMerge(merge);
-            this.rateLimiter = new MergeRateLimiter(merge.getMergeProgress());
+            this.rateLimiter = new MergeRateLimiter(merge.getMergeProgress()) {
+                @Override
+                public long pause(long bytes) throws MergePolicy.MergeAbortedException {
+                    return waitWhilePaused() + super.pause(bytes);
+                }
+            };
             this.supportsIOThrottling = supportsIOThrottling;
+            this.searchActive = searchActive;
+            this.segmentsReduced = Math.max(1, merge.segments.size() - 1);
         }
 
         Schedule schedule() {
@@ -338,6 +360,51 @@ public class ThreadPoolMergeScheduler extends MergeScheduler implements Elastics
             return mergeStartTimeNS.get() > 0L;
         }
 
+        boolean isSearchActive() {
+            return searchActive;
+        }
+
+        /**
+         * Pauses the merge the next time it writes to disk, until {@link #resume()} is called or the merge is aborted.
+         * Merges are never paused once their merge scheduler is closing, so that closing doesn't have to wait for them.
+         */
+        void pause() {
+            synchronized (ThreadPoolMergeScheduler.this) {
+                if (closed == false) {
+                    paused = true;
+                }
+            }
+        }
+
+        void resume() {
+            if (paused) {
+                paused = false;
+                onGoingMerge.getMerge().getMergeProgress().wakeup();
+            }
+        }
+
+        boolean isPaused() {
+            return paused;
+        }
+
+        private long waitWhilePaused() throws MergePolicy.MergeAbortedException {
+            long pausedNS = 0L;
+            MergePolicy.OneMergeProgress mergeProgress = onGoingMerge.getMerge().getMergeProgress();
+            while (paused) {
+                if (mergeProgress.isAborted()) {
+                    throw new MergePolicy.MergeAbortedException("Merge aborted.");
+                }
+                long startNS = System.nanoTime();
+                try {
+                    mergeProgress.pauseNanos(MAX_PAUSE_NANOS, MergePolicy.OneMergeProgress.PauseReason.STOPPED, () -> paused);
+                } catch (InterruptedException e) {
+                    throw new ThreadInterruptedException(e);
+                }
+                pausedNS += System.nanoTime() - startNS;
+            }
+            return pausedNS;
+        }
+
         /**
          * Runs the merge associated to this task. MUST be invoked after {@link #schedule()} returned {@link Schedule#RUN},
          * to confirm that the associated {@link MergeScheduler} assents to run the merge.
@@ -392,7 +459,7 @@ public class ThreadPoolMergeScheduler extends MergeScheduler implements Elastics
                 try {
                     mergeTaskFinishedRunning(this);
                 } finally {
-                    mergeTaskDone();
+                    mergeTaskDone(onGoingMerge.getMerge());
                 }
                 try {
                     // kick-off any follow-up merge
@@ -436,7 +503,7 @@ public class ThreadPoolMergeScheduler extends MergeScheduler implements Elastics
                 if (verbose()) {
                     message(String.format(Locale.ROOT, "merge task %s end abort", this));
                 }
-                mergeTaskDone();
+                mergeTaskDone(onGoingMerge.getMerge());
             }
         }
 
@@ -446,6 +513,13 @@ public class ThreadPoolMergeScheduler extends MergeScheduler implements Elastics
             return onGoingMerge.getMerge().getStoreMergeInfo().estimatedMergeBytes();
         }
 
+        /**
+         * The inverse of the expected benefit of the merge: the bytes it rewrites for every segment that it removes.
+         */
+        long estimatedMergeSizePerSegmentReduced() {
+            return estimatedMergeSize() / segmentsReduced;
+        }
+
         @Override
         public String toString() {
             return name + (onGoingMerge.getMerge().isAborted() ? " (aborted)" : "");
@@ -474,6 +548,8 @@ public class ThreadPoolMergeScheduler extends MergeScheduler implements Elastics
     public void close() throws IOException {
         synchronized (this) {
             closed = true;
+            // running merges must not stay paused, or closing would wait for them until searches calm down
+            runningMergeTasks.values().forEach(MergeTask::resume);
             // enqueue any backlogged merge tasks, because the merge queue assumes that the backlogged tasks are always re-enqueued
             enqueueBackloggedTasks();
             // signal if there aren't any currently running merges
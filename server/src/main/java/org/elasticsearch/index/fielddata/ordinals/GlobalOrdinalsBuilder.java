@@ -11,14 +11,17 @@ package org.elasticsearch.index.fielddata.ordinals;
 
 import org.apache.logging.log4j.Logger;
 import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.FieldInfo;
 import org.apache.lucene.index.FilterLeafReader;
 import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.index.OrdinalMap;
 import org.apache.lucene.index.SortedSetDocValues;
 import org.apache.lucene.index.TermsEnum;
 import org.apache.lucene.util.BytesRef;
 import org.apache.lucene.util.packed.PackedInts;
 import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.elasticsearch.core.Nullable;
 import org.elasticsearch.core.TimeValue;
 import org.elasticsearch.index.fielddata.IndexOrdinalsFieldData;
 import org.elasticsearch.index.fielddata.LeafOrdinalsFieldData;
@@ -26,7 +29,11 @@ import org.elasticsearch.index.fielddata.plain.AbstractLeafOrdinalsFieldData;
 import org.elasticsearch.script.field.ToScriptFieldFactory;
 
 import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Utility class to build global ordinals.
@@ -43,6 +50,22 @@ public enum GlobalOrdinalsBuilder {
         CircuitBreaker breaker,
         Logger logger,
         ToScriptFieldFactory<SortedSetDocValues> toScriptFieldFactory
+    ) throws IOException {
+        return build(indexReader, indexFieldData, breaker, logger, toScriptFieldFactory, new AtomicReference<>());
+    }
+
+    /**
+     * Build global ordinals for the provided {@link IndexReader}. The {@link OrdinalMap} that was built last for the field
+     * is reused if the reader has the same segments, for instance when it was reopened after deletes only, and the provided
+     * reference is updated whenever a new {@link OrdinalMap} is built.
+     */
+    public static IndexOrdinalsFieldData build(
+        final IndexReader indexReader,
+        IndexOrdinalsFieldData indexFieldData,
+        CircuitBreaker breaker,
+        Logger logger,
+        ToScriptFieldFactory<SortedSetDocValues> toScriptFieldFactory,
+        AtomicReference<ReusableOrdinalMap> lastOrdinalMap
     ) throws IOException {
         assert indexReader.leaves().size() > 1;
         long startTimeNS = System.nanoTime();
@@ -53,6 +76,35 @@ public enum GlobalOrdinalsBuilder {
             atomicFD[i] = indexFieldData.load(indexReader.leaves().get(i));
             subs[i] = atomicFD[i].getOrdinalsValues();
         }
+        final List<SegmentKey> segments = segmentKeys(indexReader, indexFieldData.getFieldName());
+        final ReusableOrdinalMap previous = lastOrdinalMap.get();
+        OrdinalMap ordinalMap = segments != null && previous != null ? previous.get(segments) : null;
+        if (ordinalMap == null) {
+            ordinalMap = buildOrdinalMap(subs, breaker);
+            if (segments != null) {
+                lastOrdinalMap.set(new ReusableOrdinalMap(segments, ordinalMap));
+            }
+        }
+        // every cached instance releases the memory of its ordinal map when it is evicted, even if the map is shared
+        final long memorySizeInBytes = ordinalMap.ramBytesUsed();
+        breaker.addWithoutBreaking(memorySizeInBytes);
+
+        TimeValue took = new TimeValue(System.nanoTime() - startTimeNS, TimeUnit.NANOSECONDS);
+        if (logger.isDebugEnabled()) {
+            logger.debug("global-ordinals [{}][{}] took [{}]", indexFieldData.getFieldName(), ordinalMap.getValueCount(), took);
+        }
+        return new GlobalOrdinalsIndexFieldData(
+            indexFieldData.getFieldName(),
+            indexFieldData.getValuesSourceType(),
+            atomicFD,
+            ordinalMap,
+            memorySizeInBytes,
+            toScriptFieldFactory,
+            took
+        );
+    }
+
+    private static OrdinalMap buildOrdinalMap(SortedSetDocValues[] subs, CircuitBreaker breaker) throws IOException {
         final TermsEnum[] termsEnums = new TermsEnum[subs.length];
         final long[] weights = new long[subs.length];
         // we assume that TermsEnum are visited sequentially, so we can share the counter between them
@@ -70,23 +122,48 @@ public enum GlobalOrdinalsBuilder {
             };
             weights[i] = subs[i].getValueCount();
         }
-        final OrdinalMap ordinalMap = OrdinalMap.build(null, termsEnums, weights, PackedInts.DEFAULT);
-        final long memorySizeInBytes = ordinalMap.ramBytesUsed();
-        breaker.addWithoutBreaking(memorySizeInBytes);
+        return OrdinalMap.build(null, termsEnums, weights, PackedInts.DEFAULT);
+    }
 
-        TimeValue took = new TimeValue(System.nanoTime() - startTimeNS, TimeUnit.NANOSECONDS);
-        if (logger.isDebugEnabled()) {
-            logger.debug("global-ordinals [{}][{}] took [{}]", indexFieldData.getFieldName(), ordinalMap.getValueCount(), took);
+    /**
+     * Returns the keys of the segments of the reader, or null if a segment doesn't expose its core.
+     */
+    @Nullable
+    private static List<SegmentKey> segmentKeys(IndexReader indexReader, String field) {
+        final List<SegmentKey> segments = new ArrayList<>(indexReader.leaves().size());
+        for (LeafReaderContext context : indexReader.leaves()) {
+            IndexReader.CacheHelper coreCacheHelper = context.reader().getCoreCacheHelper();
+            if (coreCacheHelper == null) {
+                return null;
+            }
+            FieldInfo fieldInfo = context.reader().getFieldInfos().fieldInfo(field);
+            segments.add(new SegmentKey(coreCacheHelper.getKey(), fieldInfo != null, fieldInfo == null ? -1 : fieldInfo.getDocValuesGen()));
+        }
+        return segments;
+    }
+
+    /**
+     * The values of a field in a segment only change with the core of the segment or with updates of the doc values of the field.
+     */
+    private record SegmentKey(IndexReader.CacheKey core, boolean hasField, long docValuesGen) {}
+
+    /**
+     * The last {@link OrdinalMap} built for a field along with the segments it was built for. The map is only weakly
+     * referenced since its memory is not accounted for anymore once the global ordinals that use it have been evicted.
+     */
+    public static final class ReusableOrdinalMap {
+        private final List<SegmentKey> segments;
+        private final WeakReference<OrdinalMap> ordinalMap;
+
+        private ReusableOrdinalMap(List<SegmentKey> segments, OrdinalMap ordinalMap) {
+            this.segments = segments;
+            this.ordinalMap = new WeakReference<>(ordinalMap);
+        }
+
+        @Nullable
+        private OrdinalMap get(List<SegmentKey> segments) {
+            return this.segments.equals(segments) ? ordinalMap.get() : null;
         }
-        return new GlobalOrdinalsIndexFieldData(
-            indexFieldData.getFieldName(),
-            indexFieldData.getValuesSourceType(),
-            atomicFD,
-            ordinalMap,
-            memorySizeInBytes,
-            toScriptFieldFactory,
-            took
-        );
     }
 
     public static IndexOrdinalsFieldData buildEmpty(
@@ -31,6 +31,7 @@ import org.elasticsearch.search.aggregations.support.ValuesSourceType;
 
 import java.io.IOException;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
 
 public abstract class AbstractIndexOrdinalsFieldData implements IndexOrdinalsFieldData {
     private static final Logger logger = LogManager.getLogger(AbstractIndexOrdinalsFieldData.class);
@@ -40,6 +41,7 @@ public abstract class AbstractIndexOrdinalsFieldData implements IndexOrdinalsFie
     private final IndexFieldDataCache cache;
     protected final CircuitBreakerService breakerService;
     protected final ToScriptFieldFactory<SortedSetDocValues> toScriptFieldFactory;
+    private final AtomicReference<GlobalOrdinalsBuilder.ReusableOrdinalMap> lastOrdinalMap = new AtomicReference<>();
 
     protected AbstractIndexOrdinalsFieldData(
         String fieldName,
@@ -136,7 +138,8 @@ public abstract class AbstractIndexOrdinalsFieldData implements IndexOrdinalsFie
             this,
             breakerService.getBreaker(CircuitBreaker.FIELDDATA),
             logger,
-            toScriptFieldFactory
+            toScriptFieldFactory,
+            lastOrdinalMap
         );
     }
 
@@ -9,6 +9,7 @@
 
 package org.elasticsearch.index.merge;
 
+import org.elasticsearch.TransportVersions;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.io.stream.Writeable;
@@ -29,6 +30,7 @@ public class MergeStats implements Writeable, ToXContentFragment {
     private long current;
     private long currentNumDocs;
     private long currentSizeInBytes;
+    private long pendingSizeInBytes;
 
     /** Total millis that large merges were stopped so that smaller merges would finish. */
     private long totalStoppedTimeInMillis;
@@ -54,6 +56,9 @@ public class MergeStats implements Writeable, ToXContentFragment {
         totalStoppedTimeInMillis = in.readVLong();
         totalThrottledTimeInMillis = in.readVLong();
         totalBytesPerSecAutoThrottle = in.readVLong();
+        if (in.getTransportVersion().onOrAfter(TransportVersions.MERGE_DEBT_BACK_PRESSURE)) {
+            pendingSizeInBytes = in.readVLong();
+        }
     }
 
     @Override
@@ -68,6 +73,7 @@ public class MergeStats implements Writeable, ToXContentFragment {
             && current == that.current
             && currentNumDocs == that.currentNumDocs
             && currentSizeInBytes == that.currentSizeInBytes
+            && pendingSizeInBytes == that.pendingSizeInBytes
             && totalStoppedTimeInMillis == that.totalStoppedTimeInMillis
             && totalThrottledTimeInMillis == that.totalThrottledTimeInMillis
             && totalBytesPerSecAutoThrottle == that.totalBytesPerSecAutoThrottle;
@@ -83,6 +89,7 @@ public class MergeStats implements Writeable, ToXContentFragment {
             current,
             currentNumDocs,
             currentSizeInBytes,
+            pendingSizeInBytes,
             totalStoppedTimeInMillis,
             totalThrottledTimeInMillis,
             totalBytesPerSecAutoThrottle
@@ -97,6 +104,7 @@ public class MergeStats implements Writeable, ToXContentFragment {
         long currentMerges,
         long currentNumDocs,
         long currentSizeInBytes,
+        long pendingSizeInBytes,
         long stoppedTimeMillis,
         long throttledTimeMillis,
         double mbPerSecAutoThrottle
@@ -108,6 +116,7 @@ public class MergeStats implements Writeable, ToXContentFragment {
         this.current += currentMerges;
         this.currentNumDocs += currentNumDocs;
         this.currentSizeInBytes += currentSizeInBytes;
+        this.pendingSizeInBytes += pendingSizeInBytes;
         this.totalStoppedTimeInMillis += stoppedTimeMillis;
         this.totalThrottledTimeInMillis += throttledTimeMillis;
         long bytesPerSecAutoThrottle = (long) (mbPerSecAutoThrottle * 1024 * 1024);
@@ -125,6 +134,7 @@ public class MergeStats implements Writeable, ToXContentFragment {
         this.current += mergeStats.current;
         this.currentNumDocs += mergeStats.currentNumDocs;
         this.currentSizeInBytes += mergeStats.currentSizeInBytes;
+        this.pendingSizeInBytes += mergeStats.pendingSizeInBytes;
 
         addTotals(mergeStats);
     }
@@ -230,12 +240,25 @@ public class MergeStats implements Writeable, ToXContentFragment {
         return ByteSizeValue.ofBytes(currentSizeInBytes);
     }
 
+    /**
+     * The size of the merges that are either running or queued to run, in bytes. This is the merge debt that indexing has built
+     * up and that merging still has to pay back.
+     */
+    public long getPendingSizeInBytes() {
+        return this.pendingSizeInBytes;
+    }
+
+    public ByteSizeValue getPendingSize() {
+        return ByteSizeValue.ofBytes(pendingSizeInBytes);
+    }
+
     @Override
     public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
         builder.startObject(Fields.MERGES);
         builder.field(Fields.CURRENT, current);
         builder.field(Fields.CURRENT_DOCS, currentNumDocs);
         builder.humanReadableField(Fields.CURRENT_SIZE_IN_BYTES, Fields.CURRENT_SIZE, getCurrentSize());
+        builder.humanReadableField(Fields.PENDING_SIZE_IN_BYTES, Fields.PENDING_SIZE, getPendingSize());
         builder.field(Fields.TOTAL, total);
         builder.humanReadableField(Fields.TOTAL_TIME_IN_MILLIS, Fields.TOTAL_TIME, getTotalTime());
         builder.field(Fields.TOTAL_DOCS, totalNumDocs);
@@ -256,6 +279,8 @@ public class MergeStats implements Writeable, ToXContentFragment {
         static final String CURRENT_DOCS = "current_docs";
         static final String CURRENT_SIZE = "current_size";
         static final String CURRENT_SIZE_IN_BYTES = "current_size_in_bytes";
+        static final String PENDING_SIZE = "pending_size";
+        static final String PENDING_SIZE_IN_BYTES = "pending_size_in_bytes";
         static final String TOTAL = "total";
         static final String TOTAL_TIME = "total_time";
         static final String TOTAL_TIME_IN_MILLIS = "total_time_in_millis";
@@ -283,5 +308,8 @@ public class MergeStats implements Writeable, ToXContentFragment {
         out.writeVLong(totalStoppedTimeInMillis);
         out.writeVLong(totalThrottledTimeInMillis);
         out.writeVLong(totalBytesPerSecAutoThrottle);
+        if (out.getTransportVersion().onOrAfter(TransportVersions.MERGE_DEBT_BACK_PRESSURE)) {
+            out.writeVLong(pendingSizeInBytes);
+        }
     }
 }
@@ -33,6 +33,7 @@ import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.action.ActionRunnable;
 import org.elasticsearch.action.admin.indices.flush.FlushRequest;
 import org.elasticsearch.action.admin.indices.forcemerge.ForceMergeRequest;
+import org.elasticsearch.action.index.IndexRequest;
 import org.elasticsearch.action.support.PlainActionFuture;
 import org.elasticsearch.action.support.SubscribableListener;
 import org.elasticsearch.action.support.replication.PendingReplicationActions;
@@ -49,6 +50,7 @@ import org.elasticsearch.common.UUIDs;
 import org.elasticsearch.common.io.stream.BytesStreamOutput;
 import org.elasticsearch.common.lucene.Lucene;
 import org.elasticsearch.common.lucene.index.ElasticsearchDirectoryReader;
+import org.elasticsearch.common.lucene.uid.Versions;
 import org.elasticsearch.common.metrics.CounterMetric;
 import org.elasticsearch.common.metrics.MeanMetric;
 import org.elasticsearch.common.settings.Settings;
@@ -56,6 +58,7 @@ import org.elasticsearch.common.util.BigArrays;
 import org.elasticsearch.common.util.CollectionUtils;
 import org.elasticsearch.common.util.concurrent.AbstractRunnable;
 import org.elasticsearch.common.util.concurrent.EsExecutors;
+import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
 import org.elasticsearch.common.xcontent.XContentHelper;
 import org.elasticsearch.core.Assertions;
 import org.elasticsearch.core.Booleans;
@@ -160,6 +163,7 @@ import java.io.PrintStream;
 import java.nio.channels.ClosedByInterruptException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.EnumSet;
@@ -182,6 +186,7 @@ import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.IntConsumer;
 import java.util.function.LongSupplier;
 import java.util.function.LongUnaryOperator;
 import java.util.function.Supplier;
@@ -189,6 +194,7 @@ import java.util.function.Supplier;
 import static org.elasticsearch.cluster.metadata.DataStream.TIMESERIES_LEAF_READERS_SORTER;
 import static org.elasticsearch.core.Strings.format;
 import static org.elasticsearch.index.seqno.RetentionLeaseActions.RETAIN_ALL;
+import static org.elasticsearch.index.seqno.SequenceNumbers.UNASSIGNED_PRIMARY_TERM;
 import static org.elasticsearch.index.seqno.SequenceNumbers.UNASSIGNED_SEQ_NO;
 
 public class IndexShard extends AbstractIndexShardComponent implements IndicesClusterStateService.Shard {
@@ -949,6 +955,139 @@ public class IndexShard extends AbstractIndexShardComponent implements IndicesCl
         );
     }
 
+    /**
+     * Indexes a batch of documents with auto-generated ids on the primary. The documents are parsed by up to
+     * {@link IndexSettings#BULK_MAX_PARSING_THREADS_SETTING} threads, and the ones that don't require a mapping update are handed over
+     * to the engine together and in order, see {@link Engine#indexBatch(List)}. The batch stops at the first document that requires a
+     * mapping update, so the returned results may only cover a prefix of the given documents; the remaining ones have to be indexed
+     * with {@link #applyIndexOperationOnPrimary}. No document is parsed past the one that stops the batch, except for the ones that
+     * other threads were already parsing, which are discarded.
+     *
+     * @param sources                 the documents to index, which must all have an auto-generated id
+     * @param versions                the version of each document's request, either {@link Versions#MATCH_ANY} or
+     *                                {@link Versions#MATCH_DELETED}
+     * @param autoGeneratedTimestamps the auto-generated id timestamp of each document's request
+     * @return the results of the documents that were indexed, in order
+     */
+    public List<Engine.IndexResult> applyIndexOperationsOnPrimary(
+        List<SourceToParse> sources,
+        long[] versions,
+        long[] autoGeneratedTimestamps
+    ) throws IOException {
+        assert sources.size() == versions.length && sources.size() == autoGeneratedTimestamps.length;
+        final Engine.Operation.Origin origin = Engine.Operation.Origin.PRIMARY;
+        ensureWriteAllowed(origin);
+        final Engine engine = getEngine();
+        final long opPrimaryTerm = getOperationPrimaryTerm();
+        final int numDocs = sources.size();
+        final Engine.Index[] parsedOperations = new Engine.Index[numDocs];
+        final Exception[] parseFailures = new Exception[numDocs];
+        // the first document that requires a mapping update, past which there is no need to parse
+        final AtomicInteger stopAt = new AtomicInteger(numDocs);
+        forEachInParallel(numDocs, indexSettings.getBulkMaxParsingThreads(), i -> {
+            if (i >= stopAt.get()) {
+                return;
+            }
+            final SourceToParse sourceToParse = sources.get(i);
+            assert sourceToParse.id() != null && autoGeneratedTimestamps[i] != IndexRequest.UNSET_AUTO_GENERATED_TIMESTAMP;
+            assert VersionType.INTERNAL.validateVersionForWrites(versions[i]);
+            try {
+                parsedOperations[i] = prepareIndex(
+                    mapperService,
+                    sourceToParse,
+                    UNASSIGNED_SEQ_NO,
+                    opPrimaryTerm,
+                    versions[i],
+                    VersionType.INTERNAL,
+                    origin,
+                    autoGeneratedTimestamps[i],
+                    false,
+                    UNASSIGNED_SEQ_NO,
+                    UNASSIGNED_PRIMARY_TERM,
+                    getRelativeTimeInNanos()
+                );
+                if (parsedOperations[i].parsedDoc().dynamicMappingsUpdate() != null) {
+                    stopAt.accumulateAndGet(i, Math::min);
+                }
+            } catch (Exception e) {
+                parseFailures[i] = e;
+            }
+        });
+
+        final Engine.IndexResult[] results = new Engine.IndexResult[numDocs];
+        final List<Engine.Index> operations = new ArrayList<>(numDocs);
+        final int[] slots = new int[numDocs];
+        int parsed = 0;
+        for (; parsed < numDocs; parsed++) {
+            final Exception e = parseFailures[parsed];
+            if (e != null) {
+                // a document level failure, like in applyIndexOperation
+                verifyNotClosed(e);
+                results[parsed] = new Engine.IndexResult(e, versions[parsed], opPrimaryTerm, UNASSIGNED_SEQ_NO, sources.get(parsed).id());
+            } else if (parsedOperations[parsed].parsedDoc().dynamicMappingsUpdate() != null) {
+                break;
+            } else {
+                slots[operations.size()] = parsed;
+                operations.add(parsedOperations[parsed]);
+            }
+        }
+        if (operations.isEmpty() == false) {
+            final List<Engine.IndexResult> indexResults = index(engine, operations);
+            for (int i = 0; i < indexResults.size(); i++) {
+                results[slots[i]] = indexResults.get(i);
+            }
+        }
+        return Arrays.asList(results).subList(0, parsed);
+    }
+
+    /**
+     * Runs the given task for each index in {@code [0, count)}, on the calling thread and on up to {@code maxThreads - 1} threads of
+     * the write thread pool, and returns once all of them ran. The calling thread takes part in the work, so this completes even if
+     * the write thread pool is busy or rejects the extra tasks. The task must not throw.
+     */
+    private void forEachInParallel(int count, int maxThreads, IntConsumer task) {
+        if (maxThreads <= 1 || count <= 1) {
+            for (int i = 0; i < count; i++) {
+                task.accept(i);
+            }
+            return;
+        }
+        final AtomicInteger next = new AtomicInteger();
+        final CountDownLatch done = new CountDownLatch(count);
+        final Runnable worker = () -> {
+            int i;
+            while ((i = next.getAndIncrement()) < count) {
+                try {
+                    task.accept(i);
+                } finally {
+                    done.countDown();
+                }
+            }
+        };
+        final Executor executor = threadPool.executor(ThreadPool.Names.WRITE);
+        for (int forked = 1; forked < Math.min(maxThreads, count); forked++) {
+            try {
+                executor.execute(worker);
+            } catch (EsRejectedExecutionException e) {
+                break;
+            }
+        }
+        worker.run();
+        // the remaining tasks are already running on other threads, so this doesn't wait for long
+        boolean interrupted = false;
+        while (true) {
+            try {
+                done.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     public Engine.IndexResult applyIndexOperationOnReplica(
         long seqNo,
         long opPrimaryTerm,
@@ -1073,6 +1212,49 @@ public class IndexShard extends AbstractIndexShardComponent implements IndicesCl
         );
     }
 
+    private List<Engine.IndexResult> index(Engine engine, List<Engine.Index> operations) throws IOException {
+        try {
+            final List<Engine.Index> preIndex = new ArrayList<>(operations.size());
+            for (Engine.Index operation : operations) {
+                preIndex.add(indexingOperationListeners.preIndex(shardId, operation));
+            }
+            final List<Engine.IndexResult> results;
+            try {
+                if (logger.isTraceEnabled()) {
+                    logger.trace(
+                        "index batch of [{}] operations allocation-id [{}] operationPrimaryTerm [{}]",
+                        preIndex.size(),
+                        routingEntry().allocationId(),
+                        getOperationPrimaryTerm()
+                    );
+                }
+                results = engine.indexBatch(preIndex);
+            } catch (Exception e) {
+                if (logger.isTraceEnabled()) {
+                    logger.trace(
+                        () -> format(
+                            "index-fail batch of [%s] operations allocation-id [%s] operationPrimaryTerm [%s]",
+                            preIndex.size(),
+                            routingEntry().allocationId(),
+                            getOperationPrimaryTerm()
+                        ),
+                        e
+                    );
+                }
+                for (Engine.Index operation : preIndex) {
+                    indexingOperationListeners.postIndex(shardId, operation, e);
+                }
+                throw e;
+            }
+            for (int i = 0; i < preIndex.size(); i++) {
+                indexingOperationListeners.postIndex(shardId, preIndex.get(i), results.get(i));
+            }
+            return results;
+        } finally {
+            active.set(true);
+        }
+    }
+
     private Engine.IndexResult index(Engine engine, Engine.Index index) throws IOException {
         try {
             final Engine.IndexResult result;
@@ -1417,6 +1599,17 @@ public class IndexShard extends AbstractIndexShardComponent implements IndicesCl
         return engine.getMergeStats();
     }
 
+    /**
+     * The size of the merges that are running or queued to run on this shard, in bytes, or {@code 0} if the engine is closed.
+     */
+    public long pendingMergesSizeInBytes() {
+        final Engine engine = getEngineOrNull();
+        if (engine == null) {
+            return 0L;
+        }
+        return engine.getMergeStats().getPendingSizeInBytes();
+    }
+
     public SegmentsStats segmentStats(boolean includeSegmentFileSizes, boolean includeUnloadedSegments) {
         SegmentsStats segmentsStats = getEngine().segmentsStats(includeSegmentFileSizes, includeUnloadedSegments);
         segmentsStats.addBitsetMemoryInBytes(shardBitsetFilterCache.getMemorySizeInBytes());
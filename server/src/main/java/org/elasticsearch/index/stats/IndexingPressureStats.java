@@ -14,6 +14,7 @@ import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.io.stream.Writeable;
 import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.core.TimeValue;
 import org.elasticsearch.xcontent.ToXContentFragment;
 import org.elasticsearch.xcontent.XContentBuilder;
 
@@ -44,6 +45,11 @@ public class IndexingPressureStats implements Writeable, ToXContentFragment {
     private final long largeOpsRejections;
     private final long totalLargeRejectedOpsBytes;
 
+    /* Primary operations that were delayed or rejected because the merge debt of their shard was too large */
+    private final long mergeDebtRejections;
+    private final long mergeDebtDelays;
+    private final long totalMergeDebtDelayTimeInMillis;
+
     // These fields will be used for additional back-pressure and metrics in the future
     private final long totalCoordinatingOps;
     private final long totalCoordinatingRequests;
@@ -105,6 +111,16 @@ public class IndexingPressureStats implements Writeable, ToXContentFragment {
             largeOpsRejections = -1L;
             totalLargeRejectedOpsBytes = -1L;
         }
+
+        if (in.getTransportVersion().onOrAfter(TransportVersions.MERGE_DEBT_BACK_PRESSURE)) {
+            mergeDebtRejections = in.readVLong();
+            mergeDebtDelays = in.readVLong();
+            totalMergeDebtDelayTimeInMillis = in.readVLong();
+        } else {
+            mergeDebtRejections = -1L;
+            mergeDebtDelays = -1L;
+            totalMergeDebtDelayTimeInMillis = -1L;
+        }
     }
 
     public IndexingPressureStats(
@@ -131,7 +147,10 @@ public class IndexingPressureStats implements Writeable, ToXContentFragment {
         long lowWaterMarkSplits,
         long highWaterMarkSplits,
         long largeOpsRejections,
-        long totalRejectedLargeOpsBytes
+        long totalRejectedLargeOpsBytes,
+        long mergeDebtRejections,
+        long mergeDebtDelays,
+        long totalMergeDebtDelayTimeInMillis
     ) {
         this.totalCombinedCoordinatingAndPrimaryBytes = totalCombinedCoordinatingAndPrimaryBytes;
         this.totalCoordinatingBytes = totalCoordinatingBytes;
@@ -160,6 +179,10 @@ public class IndexingPressureStats implements Writeable, ToXContentFragment {
         this.highWaterMarkSplits = highWaterMarkSplits;
         this.largeOpsRejections = largeOpsRejections;
         this.totalLargeRejectedOpsBytes = totalRejectedLargeOpsBytes;
+
+        this.mergeDebtRejections = mergeDebtRejections;
+        this.mergeDebtDelays = mergeDebtDelays;
+        this.totalMergeDebtDelayTimeInMillis = totalMergeDebtDelayTimeInMillis;
     }
 
     @Override
@@ -197,6 +220,12 @@ public class IndexingPressureStats implements Writeable, ToXContentFragment {
             out.writeVLong(largeOpsRejections);
             out.writeVLong(totalLargeRejectedOpsBytes);
         }
+
+        if (out.getTransportVersion().onOrAfter(TransportVersions.MERGE_DEBT_BACK_PRESSURE)) {
+            out.writeVLong(mergeDebtRejections);
+            out.writeVLong(mergeDebtDelays);
+            out.writeVLong(totalMergeDebtDelayTimeInMillis);
+        }
     }
 
     public long getTotalCombinedCoordinatingAndPrimaryBytes() {
@@ -295,6 +324,18 @@ public class IndexingPressureStats implements Writeable, ToXContentFragment {
         return totalLargeRejectedOpsBytes;
     }
 
+    public long getMergeDebtRejections() {
+        return mergeDebtRejections;
+    }
+
+    public long getMergeDebtDelays() {
+        return mergeDebtDelays;
+    }
+
+    public long getTotalMergeDebtDelayTimeInMillis() {
+        return totalMergeDebtDelayTimeInMillis;
+    }
+
     private static final String COMBINED = "combined_coordinating_and_primary";
     private static final String COMBINED_IN_BYTES = "combined_coordinating_and_primary_in_bytes";
     private static final String COORDINATING = "coordinating";
@@ -312,6 +353,10 @@ public class IndexingPressureStats implements Writeable, ToXContentFragment {
     private static final String LIMIT = "limit";
     private static final String LIMIT_IN_BYTES = "limit_in_bytes";
     private static final String LARGE_OPERATION_REJECTIONS = "large_operation_rejections";
+    private static final String MERGE_DEBT_REJECTIONS = "merge_debt_rejections";
+    private static final String MERGE_DEBT_DELAYS = "merge_debt_delays";
+    private static final String MERGE_DEBT_DELAY_TIME = "merge_debt_delay_time";
+    private static final String MERGE_DEBT_DELAY_TIME_IN_MILLIS = "merge_debt_delay_time_in_millis";
 
     @Override
     public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
@@ -339,6 +384,13 @@ public class IndexingPressureStats implements Writeable, ToXContentFragment {
         builder.field(REPLICA_REJECTIONS, replicaRejections);
         builder.field(PRIMARY_DOCUMENT_REJECTIONS, primaryDocumentRejections);
         builder.field(LARGE_OPERATION_REJECTIONS, largeOpsRejections);
+        builder.field(MERGE_DEBT_REJECTIONS, mergeDebtRejections);
+        builder.field(MERGE_DEBT_DELAYS, mergeDebtDelays);
+        builder.humanReadableField(
+            MERGE_DEBT_DELAY_TIME_IN_MILLIS,
+            MERGE_DEBT_DELAY_TIME,
+            TimeValue.timeValueMillis(totalMergeDebtDelayTimeInMillis)
+        );
         builder.endObject();
         builder.humanReadableField(LIMIT_IN_BYTES, LIMIT, ByteSizeValue.ofBytes(memoryLimit));
         builder.endObject();
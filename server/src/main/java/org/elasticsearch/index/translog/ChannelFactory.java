@@ -8,6 +8,11 @@
  */
 package org.elasticsearch.index.translog;
 
+import org.elasticsearch.core.Nullable;
+import org.elasticsearch.core.PathUtils;
+import org.elasticsearch.nativeaccess.FileWriteback;
+import org.elasticsearch.nativeaccess.NativeAccess;
+
 import java.io.IOException;
 import java.nio.channels.FileChannel;
 import java.nio.file.OpenOption;
@@ -24,4 +29,16 @@ public interface ChannelFactory {
     }
 
     FileChannel open(Path path, OpenOption... options) throws IOException;
+
+    /**
+     * Opens a handle to start writing back the dirty pages of the given file to disk asynchronously, or returns {@code null} if
+     * this isn't supported by the platform or the file system of the path.
+     */
+    @Nullable
+    default FileWriteback openWriteback(Path path) {
+        if (path.getFileSystem() != PathUtils.getDefaultFileSystem()) {
+            return null;
+        }
+        return NativeAccess.instance().openFileWriteback(path);
+    }
 }
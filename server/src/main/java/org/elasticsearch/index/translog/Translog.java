@@ -14,6 +14,7 @@ import org.elasticsearch.TransportVersions;
 import org.elasticsearch.common.Strings;
 import org.elasticsearch.common.UUIDs;
 import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.bytes.ReleasableBytesReference;
 import org.elasticsearch.common.io.DiskIoBufferPool;
 import org.elasticsearch.common.io.stream.BytesStreamOutput;
 import org.elasticsearch.common.io.stream.ReleasableBytesStreamOutput;
@@ -25,6 +26,7 @@ import org.elasticsearch.common.util.BigArrays;
 import org.elasticsearch.core.IOUtils;
 import org.elasticsearch.core.Nullable;
 import org.elasticsearch.core.Releasable;
+import org.elasticsearch.core.Releasables;
 import org.elasticsearch.index.IndexSettings;
 import org.elasticsearch.index.engine.Engine;
 import org.elasticsearch.index.engine.TranslogOperationAsserter;
@@ -105,6 +107,8 @@ public class Translog extends AbstractIndexShardComponent implements IndexShardC
 
     static final Pattern PARSE_STRICT_ID_PATTERN = Pattern.compile("^" + TRANSLOG_FILE_PREFIX + "(\\d+)(\\.tlog)$");
     public static final int DEFAULT_HEADER_SIZE_IN_BYTES = TranslogHeader.headerSizeInBytes(UUIDs.randomBase64UUID());
+    // room for the size, format, checksum and fixed length fields of a serialized operation on top of Operation#estimateSize
+    private static final int OPERATION_HEADER_SIZE_ESTIMATE = 64;
 
     // the list of translog readers is guaranteed to be in order of translog generation
     private final List<TranslogReader> readers = new ArrayList<>();
@@ -587,11 +591,11 @@ public class Translog extends AbstractIndexShardComponent implements IndexShardC
                 primaryTermSupplier.getAsLong(),
                 tragedy,
                 persistedSequenceNumberConsumer,
-                bigArrays,
                 diskIoBufferPool,
                 operationListener,
                 operationAsserter,
-                config.fsync()
+                config.fsync(),
+                indexSettings.isAsyncWriteback()
             );
         } catch (final IOException e) {
             throw new TranslogException(shardId, "failed to create new translog file", e);
@@ -607,29 +611,11 @@ public class Translog extends AbstractIndexShardComponent implements IndexShardC
      * @throws IOException if adding the operation to the translog resulted in an I/O exception
      */
     public Location add(final Operation operation) throws IOException {
-        try (ReleasableBytesStreamOutput out = new ReleasableBytesStreamOutput(bigArrays)) {
-            writeOperationWithSize(out, operation);
-            final BytesReference bytes = out.bytes();
+        try (ReleasableBytesReference bytes = serialize(List.of(operation), null)) {
             readLock.lock();
             try {
                 ensureOpen();
-                if (operation.primaryTerm() > current.getPrimaryTerm()) {
-                    assert false
-                        : "Operation term is newer than the current term; "
-                            + "current term["
-                            + current.getPrimaryTerm()
-                            + "], operation term["
-                            + operation
-                            + "]";
-                    throw new IllegalArgumentException(
-                        "Operation term is newer than the current term; "
-                            + "current term["
-                            + current.getPrimaryTerm()
-                            + "], operation term["
-                            + operation
-                            + "]"
-                    );
-                }
+                ensureTermIsNotNewer(operation);
                 return current.add(bytes, operation.seqNo());
             } finally {
                 readLock.unlock();
@@ -643,6 +629,95 @@ public class Translog extends AbstractIndexShardComponent implements IndexShardC
         }
     }
 
+    /**
+     * Adds a batch of operations to the transaction log. The operations are serialized into a single buffer and handed over to
+     * the current writer at once, which is cheaper than adding them one by one when many small operations are written together.
+     *
+     * @param operations the operations to add
+     * @return the locations of the operations in the translog, in the same order as the operations
+     * @throws IOException if adding the operations to the translog resulted in an I/O exception
+     */
+    public List<Location> add(final List<? extends Operation> operations) throws IOException {
+        final int[] offsets = new int[operations.size() + 1];
+        try (ReleasableBytesReference bytes = serialize(operations, offsets)) {
+            final long[] seqNos = new long[operations.size()];
+            final ReleasableBytesReference[] data = new ReleasableBytesReference[operations.size()];
+            for (int i = 0; i < data.length; i++) {
+                seqNos[i] = operations.get(i).seqNo();
+                data[i] = bytes.retainedSlice(offsets[i], offsets[i + 1] - offsets[i]);
+            }
+            readLock.lock();
+            try {
+                ensureOpen();
+                for (Operation operation : operations) {
+                    ensureTermIsNotNewer(operation);
+                }
+                return Arrays.asList(current.add(data, seqNos));
+            } finally {
+                readLock.unlock();
+                Releasables.close(data);
+            }
+        } catch (final AlreadyClosedException | IOException ex) {
+            closeOnTragicEvent(ex);
+            throw ex;
+        } catch (final Exception ex) {
+            closeOnTragicEvent(ex);
+            throw new TranslogException(shardId, "Failed to write [" + operations.size() + "] operations", ex);
+        }
+    }
+
+    /**
+     * Serializes the given operations into a single buffer, recording where each of them ends in {@code offsets} if not null. The
+     * buffer is retained by the writer until the operations are written to disk rather than copied into the writer's own buffer,
+     * so it is sized upfront from the estimated size of the operations to avoid holding on to a mostly empty page per operation.
+     */
+    private ReleasableBytesReference serialize(List<? extends Operation> operations, @Nullable int[] offsets) throws IOException {
+        long expectedSize = 0;
+        for (Operation operation : operations) {
+            expectedSize += operation.estimateSize() + OPERATION_HEADER_SIZE_ESTIMATE;
+        }
+        final ReleasableBytesStreamOutput out = new ReleasableBytesStreamOutput(
+            Math.toIntExact(Math.min(expectedSize, Integer.MAX_VALUE)),
+            bigArrays
+        );
+        boolean success = false;
+        try {
+            for (int i = 0; i < operations.size(); i++) {
+                writeOperationWithSize(out, operations.get(i));
+                if (offsets != null) {
+                    offsets[i + 1] = Math.toIntExact(out.position());
+                }
+            }
+            final ReleasableBytesReference bytes = new ReleasableBytesReference(out.bytes(), out);
+            success = true;
+            return bytes;
+        } finally {
+            if (success == false) {
+                out.close();
+            }
+        }
+    }
+
+    private void ensureTermIsNotNewer(Operation operation) {
+        if (operation.primaryTerm() > current.getPrimaryTerm()) {
+            assert false
+                : "Operation term is newer than the current term; "
+                    + "current term["
+                    + current.getPrimaryTerm()
+                    + "], operation term["
+                    + operation
+                    + "]";
+            throw new IllegalArgumentException(
+                "Operation term is newer than the current term; "
+                    + "current term["
+                    + current.getPrimaryTerm()
+                    + "], operation term["
+                    + operation
+                    + "]"
+            );
+        }
+    }
+
     /**
      * Tests whether or not the translog generation should be rolled to a new generation. This test
      * is based on the size of the current generation compared to the configured generation
@@ -1964,11 +2039,11 @@ public class Translog extends AbstractIndexShardComponent implements IndexShardC
             seqNo -> {
                 throw new UnsupportedOperationException();
             },
-            BigArrays.NON_RECYCLING_INSTANCE,
             DiskIoBufferPool.INSTANCE,
             TranslogConfig.NOOP_OPERATION_LISTENER,
             TranslogOperationAsserter.DEFAULT,
-            true
+            true,
+            false
         );
         writer.close();
         return uuid;
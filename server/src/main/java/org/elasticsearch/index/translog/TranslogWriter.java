@@ -14,21 +14,22 @@ import org.apache.lucene.util.BytesRef;
 import org.apache.lucene.util.BytesRefIterator;
 import org.elasticsearch.common.bytes.BytesArray;
 import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.bytes.CompositeBytesReference;
 import org.elasticsearch.common.bytes.ReleasableBytesReference;
 import org.elasticsearch.common.io.Channels;
 import org.elasticsearch.common.io.DiskIoBufferPool;
-import org.elasticsearch.common.io.stream.ReleasableBytesStreamOutput;
 import org.elasticsearch.common.unit.ByteSizeValue;
-import org.elasticsearch.common.util.BigArrays;
 import org.elasticsearch.common.util.concurrent.ReleasableLock;
 import org.elasticsearch.core.Assertions;
 import org.elasticsearch.core.IOUtils;
+import org.elasticsearch.core.Nullable;
 import org.elasticsearch.core.Releasables;
 import org.elasticsearch.core.SuppressForbidden;
 import org.elasticsearch.core.Tuple;
 import org.elasticsearch.index.engine.TranslogOperationAsserter;
 import org.elasticsearch.index.seqno.SequenceNumbers;
 import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.nativeaccess.FileWriteback;
 import org.elasticsearch.search.lookup.Source;
 
 import java.io.Closeable;
@@ -51,7 +52,6 @@ public class TranslogWriter extends BaseTranslogReader implements Closeable {
     private final ShardId shardId;
     private final FileChannel checkpointChannel;
     private final Path checkpointPath;
-    private final BigArrays bigArrays;
     // the last checkpoint that was written when the translog was last synced
     private volatile Checkpoint lastSyncedCheckpoint;
     /* the number of translog operations written to this file */
@@ -82,12 +82,18 @@ public class TranslogWriter extends BaseTranslogReader implements Closeable {
     private List<Long> nonFsyncedSequenceNumbers = new ArrayList<>(64);
     private final int forceWriteThreshold;
     private volatile long bufferedBytes;
-    private ReleasableBytesStreamOutput buffer;
+    // the serialized operations that haven't been written to the channel yet, retained rather than copied into a single buffer
+    private List<ReleasableBytesReference> bufferedOps = new ArrayList<>();
 
     private final Map<Long, Tuple<BytesReference, Exception>> seenSequenceNumbers;
 
     private final DiskIoBufferPool diskIoBufferPool;
 
+    @Nullable
+    private final FileWriteback writeback;
+    // the offset up to which writeback of the written operations was started, guarded by the write lock
+    private long writebackOffset;
+
     // package private for testing
     LastModifiedTimeCache lastModifiedTimeCache;
 
@@ -107,11 +113,11 @@ public class TranslogWriter extends BaseTranslogReader implements Closeable {
         TranslogHeader header,
         TragicExceptionHolder tragedy,
         LongConsumer persistedSequenceNumberConsumer,
-        BigArrays bigArrays,
         DiskIoBufferPool diskIoBufferPool,
         OperationListener operationListener,
         TranslogOperationAsserter operationAsserter,
-        boolean fsync
+        boolean fsync,
+        @Nullable FileWriteback writeback
     ) throws IOException {
         super(initialCheckpoint.generation, channel, path, header);
         assert initialCheckpoint.offset == channel.position()
@@ -134,13 +140,14 @@ public class TranslogWriter extends BaseTranslogReader implements Closeable {
         assert initialCheckpoint.trimmedAboveSeqNo == SequenceNumbers.UNASSIGNED_SEQ_NO : initialCheckpoint.trimmedAboveSeqNo;
         this.globalCheckpointSupplier = globalCheckpointSupplier;
         this.persistedSequenceNumberConsumer = persistedSequenceNumberConsumer;
-        this.bigArrays = bigArrays;
         this.diskIoBufferPool = diskIoBufferPool;
         this.seenSequenceNumbers = Assertions.ENABLED ? new HashMap<>() : null;
         this.tragedy = tragedy;
         this.operationListener = operationListener;
         this.operationAsserter = operationAsserter;
         this.fsync = fsync;
+        this.writeback = writeback;
+        this.writebackOffset = initialCheckpoint.offset;
         this.lastModifiedTimeCache = new LastModifiedTimeCache(-1, -1, -1);
     }
 
@@ -158,16 +165,17 @@ public class TranslogWriter extends BaseTranslogReader implements Closeable {
         long primaryTerm,
         TragicExceptionHolder tragedy,
         LongConsumer persistedSequenceNumberConsumer,
-        BigArrays bigArrays,
         DiskIoBufferPool diskIoBufferPool,
         OperationListener operationListener,
         TranslogOperationAsserter operationAsserter,
-        boolean fsync
+        boolean fsync,
+        boolean asyncWriteback
     ) throws IOException {
         final Path checkpointFile = file.getParent().resolve(Translog.CHECKPOINT_FILE_NAME);
 
         final FileChannel channel = channelFactory.open(file);
         FileChannel checkpointChannel = null;
+        FileWriteback writeback = null;
         try {
             checkpointChannel = channelFactory.open(checkpointFile, StandardOpenOption.WRITE);
             final TranslogHeader header = new TranslogHeader(translogUUID, primaryTerm);
@@ -179,6 +187,9 @@ public class TranslogWriter extends BaseTranslogReader implements Closeable {
                 initialMinTranslogGen
             );
             Checkpoint.write(checkpointChannel, checkpointFile, checkpoint, fsync);
+            if (asyncWriteback) {
+                writeback = channelFactory.openWriteback(file);
+            }
             final LongSupplier writerGlobalCheckpointSupplier;
             if (Assertions.ENABLED) {
                 writerGlobalCheckpointSupplier = () -> {
@@ -203,17 +214,17 @@ public class TranslogWriter extends BaseTranslogReader implements Closeable {
                 header,
                 tragedy,
                 persistedSequenceNumberConsumer,
-                bigArrays,
                 diskIoBufferPool,
                 operationListener,
                 operationAsserter,
-                fsync
+                fsync,
+                writeback
             );
         } catch (Exception exception) {
             // if we fail to bake the file-generation into the checkpoint we stick with the file and once we recover and that
             // file exists we remove it. We only apply this logic to the checkpoint.generation+1 any other file with a higher generation
             // is an error condition
-            IOUtils.closeWhileHandlingException(channel, checkpointChannel);
+            IOUtils.closeWhileHandlingException(channel, checkpointChannel, writeback);
             throw exception;
         }
     }
@@ -229,46 +240,73 @@ public class TranslogWriter extends BaseTranslogReader implements Closeable {
 
     /**
      * Add the given bytes to the translog with the specified sequence number; returns the location the bytes were written to.
+     * The bytes are retained until they are written to the channel, so they must not be modified after this call.
      *
      * @param data  the bytes to write
      * @param seqNo the sequence number associated with the operation
      * @return the location the bytes were written to
      * @throws IOException if writing to the translog resulted in an I/O exception
      */
-    public Translog.Location add(final BytesReference data, final long seqNo) throws IOException {
+    public Translog.Location add(final ReleasableBytesReference data, final long seqNo) throws IOException {
+        long bufferedBytesBeforeAdd = this.bufferedBytes;
+        if (bufferedBytesBeforeAdd >= forceWriteThreshold) {
+            writeBufferedOps(Long.MAX_VALUE, bufferedBytesBeforeAdd >= forceWriteThreshold * 4);
+        }
+
+        synchronized (this) {
+            ensureOpen();
+            return addToBuffer(data, seqNo);
+        }
+    }
+
+    /**
+     * Add the given operations to the translog under a single acquisition of the writer's lock; returns the locations the
+     * operations were written to, in the same order. Like {@link #add(ReleasableBytesReference, long)} the bytes are retained until
+     * they are written to the channel.
+     *
+     * @param data   the bytes of each operation
+     * @param seqNos the sequence number associated with each operation
+     * @return the locations the operations were written to
+     * @throws IOException if writing to the translog resulted in an I/O exception
+     */
+    public Translog.Location[] add(final ReleasableBytesReference[] data, final long[] seqNos) throws IOException {
+        assert data.length == seqNos.length : data.length + " != " + seqNos.length;
         long bufferedBytesBeforeAdd = this.bufferedBytes;
         if (bufferedBytesBeforeAdd >= forceWriteThreshold) {
             writeBufferedOps(Long.MAX_VALUE, bufferedBytesBeforeAdd >= forceWriteThreshold * 4);
         }
 
-        final Translog.Location location;
+        final Translog.Location[] locations = new Translog.Location[data.length];
         synchronized (this) {
             ensureOpen();
-            if (buffer == null) {
-                buffer = new ReleasableBytesStreamOutput(bigArrays);
+            for (int i = 0; i < data.length; i++) {
+                locations[i] = addToBuffer(data[i], seqNos[i]);
             }
-            assert bufferedBytes == buffer.size();
-            final long offset = totalOffset;
-            totalOffset += data.length();
-            data.writeTo(buffer);
+        }
+        return locations;
+    }
 
-            assert minSeqNo != SequenceNumbers.NO_OPS_PERFORMED || operationCounter == 0;
-            assert maxSeqNo != SequenceNumbers.NO_OPS_PERFORMED || operationCounter == 0;
+    private Translog.Location addToBuffer(final ReleasableBytesReference data, final long seqNo) throws IOException {
+        assert Thread.holdsLock(this);
+        final long offset = totalOffset;
+        totalOffset += data.length();
+        bufferedOps.add(data.retain());
+        bufferedBytes += data.length();
 
-            minSeqNo = SequenceNumbers.min(minSeqNo, seqNo);
-            maxSeqNo = SequenceNumbers.max(maxSeqNo, seqNo);
+        assert minSeqNo != SequenceNumbers.NO_OPS_PERFORMED || operationCounter == 0;
+        assert maxSeqNo != SequenceNumbers.NO_OPS_PERFORMED || operationCounter == 0;
 
-            nonFsyncedSequenceNumbers.add(seqNo);
+        minSeqNo = SequenceNumbers.min(minSeqNo, seqNo);
+        maxSeqNo = SequenceNumbers.max(maxSeqNo, seqNo);
 
-            operationCounter++;
+        nonFsyncedSequenceNumbers.add(seqNo);
 
-            assert assertNoSeqNumberConflict(seqNo, data);
+        operationCounter++;
 
-            location = new Translog.Location(generation, offset, data.length());
-            operationListener.operationAdded(data, seqNo, location);
-            bufferedBytes = buffer.size();
-        }
+        assert assertNoSeqNumberConflict(seqNo, data);
 
+        final Translog.Location location = new Translog.Location(generation, offset, data.length());
+        operationListener.operationAdded(data, seqNo, location);
         return location;
     }
 
@@ -409,12 +447,12 @@ public class TranslogWriter extends BaseTranslogReader implements Closeable {
                         throw ex;
                     }
                     // If we reached this point, all of the buffered ops should have been flushed successfully.
-                    assert buffer == null;
+                    assert bufferedOps.isEmpty();
                     assert checkChannelPositionWhileHandlingException(totalOffset);
                     assert totalOffset == lastSyncedCheckpoint.offset;
                     if (closed.compareAndSet(false, true)) {
                         try {
-                            checkpointChannel.close();
+                            IOUtils.close(checkpointChannel, writeback);
                         } catch (final Exception ex) {
                             closeWithTragicEvent(ex);
                             throw ex;
@@ -447,7 +485,7 @@ public class TranslogWriter extends BaseTranslogReader implements Closeable {
                         throw new TranslogException(shardId, "exception while syncing before creating a snapshot", e);
                     }
                     // If we reached this point, all of the buffered ops should have been flushed successfully.
-                    assert buffer == null;
+                    assert bufferedOps.isEmpty();
                     assert checkChannelPositionWhileHandlingException(totalOffset);
                     assert totalOffset == lastSyncedCheckpoint.offset;
                     return super.newSnapshot();
@@ -533,6 +571,7 @@ public class TranslogWriter extends BaseTranslogReader implements Closeable {
             try {
                 if (locked != null && offset > getWrittenOffset()) {
                     writeAndReleaseOps(pollOpsToWrite());
+                    startWriteback();
                 }
             } catch (Exception e) {
                 closeWithTragicEvent(e);
@@ -543,11 +582,14 @@ public class TranslogWriter extends BaseTranslogReader implements Closeable {
 
     private synchronized ReleasableBytesReference pollOpsToWrite() {
         ensureOpen();
-        if (this.buffer != null) {
-            ReleasableBytesStreamOutput toWrite = this.buffer;
-            this.buffer = null;
+        if (this.bufferedOps.isEmpty() == false) {
+            final List<ReleasableBytesReference> toWrite = this.bufferedOps;
+            this.bufferedOps = new ArrayList<>();
             this.bufferedBytes = 0;
-            return new ReleasableBytesReference(toWrite.bytes(), toWrite);
+            return new ReleasableBytesReference(
+                CompositeBytesReference.of(toWrite.toArray(BytesReference[]::new)),
+                () -> Releasables.close(toWrite)
+            );
         } else {
             return ReleasableBytesReference.empty();
         }
@@ -562,12 +604,9 @@ public class TranslogWriter extends BaseTranslogReader implements Closeable {
             }
             ByteBuffer ioBuffer = diskIoBufferPool.maybeGetDirectIOBuffer();
             if (ioBuffer == null) {
-                // not using a direct buffer for writes from the current thread so just write without copying to the io buffer
-                BytesRefIterator iterator = toWrite.iterator();
-                BytesRef current;
-                while ((current = iterator.next()) != null) {
-                    Channels.writeToChannel(current.bytes, current.offset, current.length, channel);
-                }
+                // not using a direct buffer for writes from the current thread so just write without copying to the io buffer, with a
+                // gathering write since the buffered operations are made of many small chunks
+                writeToFile(BytesReference.toByteBuffers(toWrite));
                 return;
             }
             BytesRefIterator iterator = toWrite.iterator();
@@ -590,6 +629,22 @@ public class TranslogWriter extends BaseTranslogReader implements Closeable {
         }
     }
 
+    /**
+     * Starts writing back the operations that were written to the channel since the last call, so that they are already on their
+     * way to disk when the translog is synced. Operations written by a sync are fsynced right away so this is only called for
+     * operations that are written ahead of the next sync.
+     */
+    private void startWriteback() throws IOException {
+        assert writeLock.isHeldByCurrentThread();
+        if (writeback != null) {
+            final long writtenOffset = getWrittenOffset();
+            if (writtenOffset > writebackOffset) {
+                writeback.startWriteback(writebackOffset, writtenOffset - writebackOffset);
+                writebackOffset = writtenOffset;
+            }
+        }
+    }
+
     @SuppressForbidden(reason = "Channel#write")
     private void writeToFile(ByteBuffer ioBuffer) throws IOException {
         while (ioBuffer.remaining() > 0) {
@@ -597,6 +652,17 @@ public class TranslogWriter extends BaseTranslogReader implements Closeable {
         }
     }
 
+    @SuppressForbidden(reason = "Channel#write")
+    private void writeToFile(ByteBuffer[] ioBuffers) throws IOException {
+        int offset = 0;
+        while (offset < ioBuffers.length) {
+            channel.write(ioBuffers, offset, ioBuffers.length - offset);
+            while (offset < ioBuffers.length && ioBuffers[offset].hasRemaining() == false) {
+                offset++;
+            }
+        }
+    }
+
     @Override
     protected void readBytes(ByteBuffer targetBuffer, long position) throws IOException {
         try {
@@ -643,11 +709,11 @@ public class TranslogWriter extends BaseTranslogReader implements Closeable {
     public final void close() throws IOException {
         if (closed.compareAndSet(false, true)) {
             synchronized (this) {
-                Releasables.closeWhileHandlingException(buffer);
-                buffer = null;
+                Releasables.closeWhileHandlingException(bufferedOps.toArray(ReleasableBytesReference[]::new));
+                bufferedOps.clear();
                 bufferedBytes = 0;
             }
-            IOUtils.close(checkpointChannel, channel);
+            IOUtils.close(checkpointChannel, channel, writeback);
         }
     }
 
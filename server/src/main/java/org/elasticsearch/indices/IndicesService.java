@@ -295,7 +295,8 @@ public class IndicesService extends AbstractLifecycleComponent
         this.threadPool = builder.threadPool;
         this.threadPoolMergeExecutorService = ThreadPoolMergeExecutorService.maybeCreateThreadPoolMergeExecutorService(
             threadPool,
-            settings
+            settings,
+            this::isShardSearchActive
         );
         this.pluginsService = builder.pluginsService;
         this.nodeEnv = builder.nodeEnv;
@@ -451,6 +452,7 @@ public class IndicesService extends AbstractLifecycleComponent
 
     @Override
     protected void doClose() throws IOException {
+        IOUtils.close(threadPoolMergeExecutorService);
         indicesRefCount.decRef();
     }
 
@@ -593,6 +595,12 @@ public class IndicesService extends AbstractLifecycleComponent
         return indices.get(index.getUUID());
     }
 
+    private boolean isShardSearchActive(ShardId shardId) {
+        final IndexService indexService = indexService(shardId.getIndex());
+        final IndexShard indexShard = indexService == null ? null : indexService.getShardOrNull(shardId.id());
+        return indexShard != null && indexShard.isSearchIdle() == false;
+    }
+
     /**
      * Returns an IndexService for the specified index if exists otherwise a {@link IndexNotFoundException} is thrown.
      */
@@ -9,6 +9,8 @@
 package org.elasticsearch.indices.recovery;
 
 import org.apache.logging.log4j.Logger;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.store.FilterDirectory;
 import org.apache.lucene.store.IOContext;
 import org.apache.lucene.store.IndexOutput;
 import org.apache.lucene.util.BytesRef;
@@ -18,10 +20,14 @@ import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.bytes.ReleasableBytesReference;
 import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
 import org.elasticsearch.core.AbstractRefCounted;
+import org.elasticsearch.core.IOUtils;
+import org.elasticsearch.core.Nullable;
 import org.elasticsearch.core.Releasable;
 import org.elasticsearch.core.Releasables;
 import org.elasticsearch.index.store.Store;
 import org.elasticsearch.index.store.StoreFileMetadata;
+import org.elasticsearch.nativeaccess.FileWriteback;
+import org.elasticsearch.nativeaccess.NativeAccess;
 import org.elasticsearch.transport.Transports;
 
 import java.io.EOFException;
@@ -48,6 +54,7 @@ public class MultiFileWriter extends AbstractRefCounted implements Releasable {
 
     private final ConcurrentMap<String, IndexOutput> openIndexOutputs = ConcurrentCollections.newConcurrentMap();
     private final ConcurrentMap<String, FileChunkWriter> fileChunkWriters = ConcurrentCollections.newConcurrentMap();
+    private final ConcurrentMap<String, ChunkWriteback> chunkWritebacks = ConcurrentCollections.newConcurrentMap();
 
     final Map<String, String> tempFileNames = ConcurrentCollections.newConcurrentMap();
 
@@ -174,6 +181,14 @@ public class MultiFileWriter extends AbstractRefCounted implements Releasable {
         IndexOutput indexOutput;
         if (position == 0) {
             indexOutput = openAndPutIndexOutput(name, fileMetadata, store);
+            final FileWriteback writeback = openWriteback(getTempNameForFile(name));
+            final ChunkWriteback previous = writeback == null
+                ? chunkWritebacks.remove(name)
+                : chunkWritebacks.put(name, new ChunkWriteback(writeback));
+            if (previous != null) {
+                // the file is written from scratch again, the writeback of the previous attempt is of no use any more
+                previous.writeback.close();
+            }
         } else {
             indexOutput = getOpenIndexOutput(name);
         }
@@ -184,7 +199,12 @@ public class MultiFileWriter extends AbstractRefCounted implements Releasable {
             indexOutput.writeBytes(scratch.bytes, scratch.offset, scratch.length);
         }
         indexState.addRecoveredBytesToFile(name, content.length());
+        final ChunkWriteback chunkWriteback = chunkWritebacks.get(name);
         if (indexOutput.getFilePointer() >= fileMetadata.length() || lastChunk) {
+            if (chunkWriteback != null) {
+                chunkWritebacks.remove(name);
+                chunkWriteback.writeback.close();
+            }
             try {
                 Store.verify(indexOutput);
             } finally {
@@ -197,6 +217,11 @@ public class MultiFileWriter extends AbstractRefCounted implements Releasable {
             store.directory().sync(Collections.singleton(temporaryFileName));
             IndexOutput remove = removeOpenIndexOutputs(name);
             assert remove == null || remove == indexOutput; // remove maybe null if we got finished
+        } else if (chunkWriteback != null) {
+            // start writing the chunk to disk now rather than leaving it all to the fsync of the complete file
+            final long filePointer = indexOutput.getFilePointer();
+            chunkWriteback.writeback.startWriteback(chunkWriteback.offset, filePointer - chunkWriteback.offset);
+            chunkWriteback.offset = filePointer;
         }
     }
 
@@ -207,10 +232,21 @@ public class MultiFileWriter extends AbstractRefCounted implements Releasable {
         }
     }
 
+    // package private for testing
+    @Nullable
+    FileWriteback openWriteback(String tempFileName) {
+        if (store.indexSettings().isAsyncWriteback() && FilterDirectory.unwrap(store.directory()) instanceof FSDirectory fsDirectory) {
+            return NativeAccess.instance().openFileWriteback(fsDirectory.getDirectory().resolve(tempFileName));
+        }
+        return null;
+    }
+
     @Override
     protected void closeInternal() {
         Releasables.close(fileChunkWriters.values());
         fileChunkWriters.clear();
+        IOUtils.closeWhileHandlingException(chunkWritebacks.values().stream().map(w -> w.writeback).toList());
+        chunkWritebacks.clear();
         // clean open index outputs
         Iterator<Map.Entry<String, IndexOutput>> iterator = openIndexOutputs.entrySet().iterator();
         while (iterator.hasNext()) {
@@ -238,6 +274,18 @@ public class MultiFileWriter extends AbstractRefCounted implements Releasable {
         store.renameTempFilesSafe(tempFileNames);
     }
 
+    /**
+     * Tracks the offset up to which writeback of a file that is being recovered chunk by chunk was started.
+     */
+    private static final class ChunkWriteback {
+        final FileWriteback writeback;
+        long offset;
+
+        ChunkWriteback(FileWriteback writeback) {
+            this.writeback = writeback;
+        }
+    }
+
     private record FileChunk(StoreFileMetadata md, ReleasableBytesReference content, long position, boolean lastChunk)
         implements
             Releasable {
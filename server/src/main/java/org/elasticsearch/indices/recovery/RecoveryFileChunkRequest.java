@@ -9,16 +9,18 @@
 
 package org.elasticsearch.indices.recovery;
 
+import org.elasticsearch.TransportVersions;
 import org.elasticsearch.common.bytes.ReleasableBytesReference;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.core.RefCounted;
 import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.index.store.StoreFileMetadata;
+import org.elasticsearch.transport.TrailingBytesWriteable;
 
 import java.io.IOException;
 
-public final class RecoveryFileChunkRequest extends RecoveryTransportRequest implements RefCounted {
+public final class RecoveryFileChunkRequest extends RecoveryTransportRequest implements RefCounted, TrailingBytesWriteable {
     private final boolean lastChunk;
     private final long position;
     private final ReleasableBytesReference content;
@@ -33,12 +35,21 @@ public final class RecoveryFileChunkRequest extends RecoveryTransportRequest imp
         position = in.readVLong();
         final long length = in.readVLong();
         final String checksum = in.readString();
-        content = in.readReleasableBytesReference();
-        final String writtenBy = in.readString();
-        metadata = new StoreFileMetadata(name, length, checksum, writtenBy);
-        lastChunk = in.readBoolean();
-        totalTranslogOps = in.readVInt();
-        sourceThrottleTimeInNanos = in.readLong();
+        if (in.getTransportVersion().onOrAfter(TransportVersions.RECOVERY_FILE_CHUNK_CONTENT_LAST)) {
+            final String writtenBy = in.readString();
+            metadata = new StoreFileMetadata(name, length, checksum, writtenBy);
+            lastChunk = in.readBoolean();
+            totalTranslogOps = in.readVInt();
+            sourceThrottleTimeInNanos = in.readLong();
+            content = in.readReleasableBytesReference();
+        } else {
+            content = in.readReleasableBytesReference();
+            final String writtenBy = in.readString();
+            metadata = new StoreFileMetadata(name, length, checksum, writtenBy);
+            lastChunk = in.readBoolean();
+            totalTranslogOps = in.readVInt();
+            sourceThrottleTimeInNanos = in.readLong();
+        }
     }
 
     public RecoveryFileChunkRequest(
@@ -87,16 +98,35 @@ public final class RecoveryFileChunkRequest extends RecoveryTransportRequest imp
 
     @Override
     public void writeTo(StreamOutput out) throws IOException {
+        writeWithoutTrailingBytes(out).writeTo(out);
+    }
+
+    /**
+     * Writes the content of the chunk last so that the transport layer can send it straight from the buffer it was read into
+     * rather than copying it into the message.
+     */
+    @Override
+    public ReleasableBytesReference writeWithoutTrailingBytes(StreamOutput out) throws IOException {
         super.writeTo(out);
         out.writeString(metadata.name());
         out.writeVLong(position);
         out.writeVLong(metadata.length());
         out.writeString(metadata.checksum());
-        out.writeBytesReference(content);
-        out.writeString(metadata.writtenBy());
-        out.writeBoolean(lastChunk);
-        out.writeVInt(totalTranslogOps);
-        out.writeLong(sourceThrottleTimeInNanos);
+        if (out.getTransportVersion().onOrAfter(TransportVersions.RECOVERY_FILE_CHUNK_CONTENT_LAST)) {
+            out.writeString(metadata.writtenBy());
+            out.writeBoolean(lastChunk);
+            out.writeVInt(totalTranslogOps);
+            out.writeLong(sourceThrottleTimeInNanos);
+            out.writeVInt(content.length());
+            return content;
+        } else {
+            out.writeBytesReference(content);
+            out.writeString(metadata.writtenBy());
+            out.writeBoolean(lastChunk);
+            out.writeVInt(totalTranslogOps);
+            out.writeLong(sourceThrottleTimeInNanos);
+            return ReleasableBytesReference.empty();
+        }
     }
 
     @Override
@@ -252,6 +252,19 @@ public class RecoverySettings {
         Property.NodeScope
     );
 
+    /**
+     * Controls the maximum number of files that can be sent concurrently from the source node to the target node. Each file is sent
+     * with up to {@link #INDICES_RECOVERY_MAX_CONCURRENT_FILE_CHUNKS_SETTING} concurrent chunk requests.
+     */
+    public static final Setting<Integer> INDICES_RECOVERY_MAX_CONCURRENT_FILES_SETTING = Setting.intSetting(
+        "indices.recovery.max_concurrent_files",
+        1,
+        1,
+        8,
+        Property.Dynamic,
+        Property.NodeScope
+    );
+
     /**
      * Controls the maximum number of operation chunk requests that can be sent concurrently from the source node to the target node.
      */
@@ -409,6 +422,7 @@ public class RecoverySettings {
 
     private volatile ByteSizeValue maxBytesPerSec;
     private volatile int maxConcurrentFileChunks;
+    private volatile int maxConcurrentFiles;
     private volatile int maxConcurrentOperations;
     private volatile SimpleRateLimiter rateLimiter;
     private volatile TimeValue retryDelayStateSync;
@@ -435,6 +449,7 @@ public class RecoverySettings {
     public RecoverySettings(Settings settings, ClusterSettings clusterSettings) {
         this.retryDelayStateSync = INDICES_RECOVERY_RETRY_DELAY_STATE_SYNC_SETTING.get(settings);
         this.maxConcurrentFileChunks = INDICES_RECOVERY_MAX_CONCURRENT_FILE_CHUNKS_SETTING.get(settings);
+        this.maxConcurrentFiles = INDICES_RECOVERY_MAX_CONCURRENT_FILES_SETTING.get(settings);
         this.maxConcurrentOperations = INDICES_RECOVERY_MAX_CONCURRENT_OPERATIONS_SETTING.get(settings);
         // doesn't have to be fast as nodes are reconnected every 10s by default (see InternalClusterService.ReconnectToNodes)
         // and we want to give the master time to remove a faulty node
@@ -476,6 +491,7 @@ public class RecoverySettings {
             );
         }
         clusterSettings.addSettingsUpdateConsumer(INDICES_RECOVERY_MAX_CONCURRENT_FILE_CHUNKS_SETTING, this::setMaxConcurrentFileChunks);
+        clusterSettings.addSettingsUpdateConsumer(INDICES_RECOVERY_MAX_CONCURRENT_FILES_SETTING, this::setMaxConcurrentFiles);
         clusterSettings.addSettingsUpdateConsumer(INDICES_RECOVERY_MAX_CONCURRENT_OPERATIONS_SETTING, this::setMaxConcurrentOperations);
         clusterSettings.addSettingsUpdateConsumer(INDICES_RECOVERY_RETRY_DELAY_STATE_SYNC_SETTING, this::setRetryDelayStateSync);
         clusterSettings.addSettingsUpdateConsumer(INDICES_RECOVERY_RETRY_DELAY_NETWORK_SETTING, this::setRetryDelayNetwork);
@@ -661,6 +677,14 @@ public class RecoverySettings {
         this.maxConcurrentFileChunks = maxConcurrentFileChunks;
     }
 
+    public int getMaxConcurrentFiles() {
+        return maxConcurrentFiles;
+    }
+
+    private void setMaxConcurrentFiles(int maxConcurrentFiles) {
+        this.maxConcurrentFiles = maxConcurrentFiles;
+    }
+
     public int getMaxConcurrentOperations() {
         return maxConcurrentOperations;
     }
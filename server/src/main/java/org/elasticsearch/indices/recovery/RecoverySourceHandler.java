@@ -20,6 +20,7 @@ import org.apache.lucene.store.RateLimiter;
 import org.apache.lucene.util.ArrayUtil;
 import org.elasticsearch.ExceptionsHelper;
 import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.support.RefCountingListener;
 import org.elasticsearch.action.support.SubscribableListener;
 import org.elasticsearch.action.support.ThreadedActionListener;
 import org.elasticsearch.action.support.replication.ReplicationResponse;
@@ -111,6 +112,7 @@ public class RecoverySourceHandler {
     private final int chunkSizeInBytes;
     private final RecoveryTargetHandler recoveryTarget;
     private final int maxConcurrentFileChunks;
+    private final int maxConcurrentFiles;
     private final int maxConcurrentOperations;
     private final int maxConcurrentSnapshotFileDownloads;
     private final boolean useSnapshots;
@@ -131,6 +133,34 @@ public class RecoverySourceHandler {
         int maxConcurrentSnapshotFileDownloads,
         boolean useSnapshots,
         RecoveryPlannerService recoveryPlannerService
+    ) {
+        this(
+            shard,
+            recoveryTarget,
+            threadPool,
+            request,
+            fileChunkSizeInBytes,
+            maxConcurrentFileChunks,
+            1,
+            maxConcurrentOperations,
+            maxConcurrentSnapshotFileDownloads,
+            useSnapshots,
+            recoveryPlannerService
+        );
+    }
+
+    public RecoverySourceHandler(
+        IndexShard shard,
+        RecoveryTargetHandler recoveryTarget,
+        ThreadPool threadPool,
+        StartRecoveryRequest request,
+        int fileChunkSizeInBytes,
+        int maxConcurrentFileChunks,
+        int maxConcurrentFiles,
+        int maxConcurrentOperations,
+        int maxConcurrentSnapshotFileDownloads,
+        boolean useSnapshots,
+        RecoveryPlannerService recoveryPlannerService
     ) {
         this.shard = shard;
         this.recoveryTarget = recoveryTarget;
@@ -140,6 +170,7 @@ public class RecoverySourceHandler {
         this.logger = Loggers.getLogger(getClass(), request.shardId(), "recover to " + request.targetNode().getName());
         this.chunkSizeInBytes = fileChunkSizeInBytes;
         this.maxConcurrentFileChunks = maxConcurrentFileChunks;
+        this.maxConcurrentFiles = maxConcurrentFiles;
         this.maxConcurrentOperations = maxConcurrentOperations;
         this.maxConcurrentSnapshotFileDownloads = maxConcurrentSnapshotFileDownloads;
         this.useSnapshots = useSnapshots;
@@ -1288,8 +1319,54 @@ public class RecoverySourceHandler {
 
     void sendFiles(Store store, StoreFileMetadata[] files, IntSupplier translogOps, ActionListener<Void> listener) {
         ArrayUtil.timSort(files, Comparator.comparingLong(StoreFileMetadata::length)); // send smallest first
+        final List<List<StoreFileMetadata>> streams = splitIntoStreams(files, maxConcurrentFiles);
+        if (streams.size() == 1) {
+            sendFiles(store, streams.get(0), translogOps, listener);
+        } else {
+            // each stream sends its files over the recovery connections and is written by the target independently of the others,
+            // while the rate limiter of the target handler keeps all of them within the configured recovery bandwidth
+            try (var listeners = new RefCountingListener(listener)) {
+                for (List<StoreFileMetadata> stream : streams) {
+                    sendFiles(store, stream, translogOps, listeners.acquire());
+                }
+            }
+        }
+    }
+
+    /**
+     * Splits the given files, sorted by size, into at most {@code maxStreams} lists of files of about the same total size, each of
+     * them sorted by size.
+     */
+    static List<List<StoreFileMetadata>> splitIntoStreams(StoreFileMetadata[] files, int maxStreams) {
+        final int numStreams = Math.max(1, Math.min(maxStreams, files.length));
+        if (numStreams == 1) {
+            return List.of(Arrays.asList(files));
+        }
+        final List<List<StoreFileMetadata>> streams = new ArrayList<>(numStreams);
+        for (int i = 0; i < numStreams; i++) {
+            streams.add(new ArrayList<>());
+        }
+        // assign the largest files first, each to the stream with the fewest bytes so far
+        final long[] streamSizes = new long[numStreams];
+        for (int i = files.length - 1; i >= 0; i--) {
+            int smallestStream = 0;
+            for (int stream = 1; stream < numStreams; stream++) {
+                if (streamSizes[stream] < streamSizes[smallestStream]) {
+                    smallestStream = stream;
+                }
+            }
+            streams.get(smallestStream).add(files[i]);
+            streamSizes[smallestStream] += files[i].length();
+        }
+        for (List<StoreFileMetadata> stream : streams) {
+            Collections.reverse(stream); // send smallest first
+        }
+        return streams;
+    }
+
+    private void sendFiles(Store store, List<StoreFileMetadata> files, IntSupplier translogOps, ActionListener<Void> listener) {
         // use a smaller buffer than the configured chunk size if we only have files smaller than the chunk size
-        final int bufferSize = files.length == 0 ? 0 : (int) Math.min(chunkSizeInBytes, files[files.length - 1].length());
+        final int bufferSize = files.isEmpty() ? 0 : (int) Math.min(chunkSizeInBytes, files.get(files.size() - 1).length());
         Releasable temporaryStoreRef = acquireStore(store);
         try {
             final Releasable storeRef = temporaryStoreRef;
@@ -1298,7 +1375,7 @@ public class RecoverySourceHandler {
                 threadPool.getThreadContext(),
                 listener,
                 maxConcurrentFileChunks,
-                Arrays.asList(files)
+                files
             ) {
 
                 final Deque<byte[]> buffers = new ConcurrentLinkedDeque<>();
@@ -19,11 +19,14 @@ import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.io.stream.Writeable;
 import org.elasticsearch.common.util.Maps;
 import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
+import org.elasticsearch.index.Index;
+import org.elasticsearch.index.shard.ShardId;
 
 import java.io.IOException;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalDouble;
 import java.util.concurrent.ConcurrentMap;
 
 /**
@@ -51,6 +54,13 @@ public final class ResponseCollectorService implements ClusterStateListener {
                 removeNode(removedNode.getId());
             }
         }
+        if (nodeIdToStats.isEmpty() == false) {
+            for (Index deletedIndex : event.indicesDeleted()) {
+                for (NodeStatistics ns : nodeIdToStats.values()) {
+                    ns.shardResponseTimes.keySet().removeIf(shardId -> shardId.getIndex().equals(deletedIndex));
+                }
+            }
+        }
     }
 
     void removeNode(String nodeId) {
@@ -72,6 +82,36 @@ public final class ResponseCollectorService implements ClusterStateListener {
         });
     }
 
+    /**
+     * Record the response time of a single shard copy on a node. Unlike the node level statistics this is tracked
+     * separately for each shard so we can steer searches away from one busy copy, say a hot shard, even if the node
+     * that holds it is otherwise fast. Only tracked for nodes that already have node level statistics.
+     */
+    public void addShardResponseTime(String nodeId, ShardId shardId, long responseTimeNanos) {
+        NodeStatistics ns = nodeIdToStats.get(nodeId);
+        if (ns != null) {
+            ns.shardResponseTimes.compute(shardId, (id, ewma) -> {
+                if (ewma == null) {
+                    return new ExponentiallyWeightedMovingAverage(ALPHA, responseTimeNanos);
+                }
+                ewma.addValue(responseTimeNanos);
+                return ewma;
+            });
+        }
+    }
+
+    /**
+     * The EWMA of the response time of a single shard copy on a node, if we've seen any responses from it.
+     */
+    public OptionalDouble getShardResponseTime(String nodeId, ShardId shardId) {
+        NodeStatistics ns = nodeIdToStats.get(nodeId);
+        if (ns == null) {
+            return OptionalDouble.empty();
+        }
+        ExponentiallyWeightedMovingAverage ewma = ns.shardResponseTimes.get(shardId);
+        return ewma == null ? OptionalDouble.empty() : OptionalDouble.of(ewma.getAverage());
+    }
+
     public Map<String, ComputedNodeStats> getAllNodeStatistics() {
         final int clientNum = nodeIdToStats.size();
         // Transform the mutable object internally used for accounting into the computed version
@@ -131,6 +171,14 @@ public final class ResponseCollectorService implements ClusterStateListener {
             );
         }
 
+        /**
+         * A copy of these statistics with the response time replaced, used to rank a single shard copy
+         * by its own response time.
+         */
+        public ComputedNodeStats withResponseTime(double responseTime) {
+            return new ComputedNodeStats(nodeId, clientNum, queueSize, responseTime, serviceTime);
+        }
+
         ComputedNodeStats(StreamInput in) throws IOException {
             this.nodeId = in.readString();
             this.clientNum = in.readInt();
@@ -207,6 +255,7 @@ public final class ResponseCollectorService implements ClusterStateListener {
         final ExponentiallyWeightedMovingAverage queueSize;
         final ExponentiallyWeightedMovingAverage responseTime;
         double serviceTime;
+        final ConcurrentMap<ShardId, ExponentiallyWeightedMovingAverage> shardResponseTimes = ConcurrentCollections.newConcurrentMap();
 
         NodeStatistics(
             String nodeId,
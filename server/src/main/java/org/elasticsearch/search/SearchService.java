@@ -24,8 +24,12 @@ import org.elasticsearch.action.ActionRunnable;
 import org.elasticsearch.action.ResolvedIndices;
 import org.elasticsearch.action.search.CanMatchNodeRequest;
 import org.elasticsearch.action.search.CanMatchNodeResponse;
+import org.elasticsearch.action.search.NodeQueryRequest;
+import org.elasticsearch.action.search.NodeQueryResponse;
+import org.elasticsearch.action.search.QueryPhaseResultConsumer;
 import org.elasticsearch.action.search.SearchShardTask;
 import org.elasticsearch.action.search.SearchType;
+import org.elasticsearch.action.support.RefCountingRunnable;
 import org.elasticsearch.action.support.TransportActions;
 import org.elasticsearch.cluster.ProjectState;
 import org.elasticsearch.cluster.metadata.IndexNameExpressionResolver.ResolvedExpression;
@@ -35,6 +39,7 @@ import org.elasticsearch.common.CheckedSupplier;
 import org.elasticsearch.common.UUIDs;
 import org.elasticsearch.common.breaker.CircuitBreaker;
 import org.elasticsearch.common.component.AbstractLifecycleComponent;
+import org.elasticsearch.common.io.stream.DelayableWriteable;
 import org.elasticsearch.common.logging.LoggerMessageFormat;
 import org.elasticsearch.common.lucene.Lucene;
 import org.elasticsearch.common.settings.Setting;
@@ -81,8 +86,10 @@ import org.elasticsearch.script.ScriptService;
 import org.elasticsearch.search.aggregations.AggregationInitializationException;
 import org.elasticsearch.search.aggregations.AggregationReduceContext;
 import org.elasticsearch.search.aggregations.AggregatorFactories;
+import org.elasticsearch.search.aggregations.InternalAggregations;
 import org.elasticsearch.search.aggregations.MultiBucketConsumerService;
 import org.elasticsearch.search.aggregations.SearchContextAggregations;
+import org.elasticsearch.search.aggregations.bucket.filter.SegmentCountCache;
 import org.elasticsearch.search.aggregations.support.AggregationContext;
 import org.elasticsearch.search.aggregations.support.AggregationContext.ProductionAggregationContext;
 import org.elasticsearch.search.builder.PointInTimeBuilder;
@@ -335,6 +342,8 @@ public class SearchService extends AbstractLifecycleComponent implements IndexEv
 
     private final MultiBucketConsumerService multiBucketConsumerService;
 
+    private final SegmentCountCache segmentCountCache;
+
     private final AtomicInteger openScrollContexts = new AtomicInteger();
     private final String sessionId = UUIDs.randomBase64UUID();
 
@@ -392,6 +401,7 @@ public class SearchService extends AbstractLifecycleComponent implements IndexEv
         clusterService.getClusterSettings().addSettingsUpdateConsumer(LOW_LEVEL_CANCELLATION_SETTING, this::setLowLevelCancellation);
 
         enableRewriteAggsToFilterByFilter = ENABLE_REWRITE_AGGS_TO_FILTER_BY_FILTER.get(settings);
+        segmentCountCache = new SegmentCountCache(settings);
         clusterService.getClusterSettings()
             .addSettingsUpdateConsumer(ENABLE_REWRITE_AGGS_TO_FILTER_BY_FILTER, this::setEnableRewriteAggsToFilterByFilter);
 
@@ -632,6 +642,92 @@ public class SearchService extends AbstractLifecycleComponent implements IndexEv
         );
     }
 
+    /**
+     * Executes the query phase for all the shards of the given {@link NodeQueryRequest} that are located on this node. Once all
+     * of them are done their aggregations are partially reduced so that only a single set of aggregations is sent back to the
+     * coordinating node. The aggregations of the shards are accounted for in the request circuit breaker while they are buffered
+     * and reduced, like the coordinating node does in {@link QueryPhaseResultConsumer}.
+     */
+    public void executeQueryPhase(NodeQueryRequest request, SearchShardTask task, ActionListener<NodeQueryResponse> listener) {
+        final List<ShardSearchRequest> shardRequests = request.getShardRequests();
+        final QuerySearchResult[] results = new QuerySearchResult[shardRequests.size()];
+        final Exception[] failures = new Exception[shardRequests.size()];
+        final AtomicLong breakerBytes = new AtomicLong();
+        final Releasable releaseBreakerBytes = () -> circuitBreaker.addWithoutBreaking(-breakerBytes.getAndSet(0));
+        try (var refs = new RefCountingRunnable(() -> {
+            final NodeQueryResponse response = new NodeQueryResponse(results, failures);
+            try {
+                partialReduceAggs(shardRequests.get(0), task, results, breakerBytes);
+            } catch (Exception e) {
+                // the coordinating node never learns about the shard results, free the contexts they kept open for the fetch phase
+                for (int i = 0; i < results.length; i++) {
+                    if (results[i] != null && results[i].getContextId() != null && shardRequests.get(i).readerId() == null) {
+                        freeReaderContext(results[i].getContextId());
+                    }
+                }
+                response.decRef();
+                releaseBreakerBytes.close();
+                listener.onFailure(e);
+                return;
+            }
+            ActionListener.respondAndRelease(ActionListener.releaseAfter(listener, releaseBreakerBytes), response);
+        })) {
+            for (int i = 0; i < shardRequests.size(); i++) {
+                final int index = i;
+                final ShardSearchRequest shardRequest = shardRequests.get(i);
+                shardRequest.setParentTask(request.getParentTask());
+                final ActionListener<SearchPhaseResult> shardListener = ActionListener.releaseAfter(ActionListener.wrap(result -> {
+                    assert result instanceof QuerySearchResult : "expected a query result but got " + result;
+                    final QuerySearchResult queryResult = result.queryResult();
+                    if (queryResult.hasAggs()) {
+                        // a shard whose aggregations trip the breaker fails and is retried on another copy by the coordinating node
+                        final long aggsSize = queryResult.aggregations().getSerializedSize();
+                        circuitBreaker.addEstimateBytesAndMaybeBreak(aggsSize, "<reduce_aggs>");
+                        breakerBytes.addAndGet(aggsSize);
+                    }
+                    result.incRef();
+                    results[index] = queryResult;
+                }, e -> failures[index] = e), refs.acquire());
+                try {
+                    executeQueryPhase(shardRequest, task, shardListener);
+                } catch (Exception e) {
+                    shardListener.onFailure(e);
+                }
+            }
+        }
+    }
+
+    private void partialReduceAggs(ShardSearchRequest request, SearchShardTask task, QuerySearchResult[] results, AtomicLong breakerBytes) {
+        final List<QuerySearchResult> withAggs = new ArrayList<>(results.length);
+        for (QuerySearchResult result : results) {
+            if (result != null && result.isNull() == false && result.aggregations() != null) {
+                withAggs.add(result);
+            }
+        }
+        if (withAggs.size() < 2) {
+            return;
+        }
+        final long estimatedReduceSize = QueryPhaseResultConsumer.estimateRamBytesUsedForReduce(breakerBytes.get());
+        circuitBreaker.addEstimateBytesAndMaybeBreak(estimatedReduceSize, "<reduce_aggs>");
+        breakerBytes.addAndGet(estimatedReduceSize);
+        final List<InternalAggregations> aggs = new ArrayList<>(withAggs.size());
+        for (QuerySearchResult result : withAggs) {
+            try (var shardAggs = result.consumeAggs()) {
+                aggs.add(shardAggs.expand());
+            }
+            // the response may not be serialized if it stays on this node, so the shards must not claim to have aggregations anymore
+            result.aggregations(null);
+        }
+        final AggregationReduceContext reduceContext = aggReduceContextBuilder(task::isCancelled, request.source().aggregations())
+            .forPartialReduction();
+        final InternalAggregations reduced = InternalAggregations.topLevelReduce(aggs, reduceContext);
+        // the coordinating node reduces whatever aggregations it gets, so it's enough to send them along with one of the shards
+        withAggs.get(0).aggregations(reduced);
+        // the shard aggregations are released by now, replace them and the estimate with the size of the reduced aggregations
+        final long reducedSize = DelayableWriteable.getSerializedSize(reduced);
+        circuitBreaker.addWithoutBreaking(reducedSize - breakerBytes.getAndSet(reducedSize));
+    }
+
     private <T extends RefCounted> void ensureAfterSeqNoRefreshed(
         IndexShard shard,
         ShardSearchRequest request,
@@ -1469,6 +1565,7 @@ public class SearchService extends AbstractLifecycleComponent implements IndexEv
                 multiBucketConsumerService.getLimit(),
                 () -> new SubSearchContext(context).parsedQuery(context.parsedQuery()).fetchFieldsContext(context.fetchFieldsContext()),
                 context.bitsetFilterCache(),
+                segmentCountCache,
                 context.indexShard().shardId().hashCode(),
                 context::getRelativeTimeInMillis,
                 context::isCancelled,
@@ -83,6 +83,21 @@ public abstract sealed class AggregationReduceContext permits AggregationReduceC
      */
     public abstract boolean isFinalReduce();
 
+    /**
+     * Returns <code>true</code> iff the current reduce phase merges the results
+     * of the slices of a single shard that were collected concurrently. The
+     * statistics that aggregations compute for the whole shard, like the
+     * background frequencies of {@code significant_terms}, are then the same
+     * in every result and must not be added up.
+     */
+    public abstract boolean isSliceReduce();
+
+    /**
+     * Build a {@linkplain AggregationReduceContext} to merge the results of the
+     * slices of a single shard that were collected concurrently.
+     */
+    public abstract AggregationReduceContext forSliceReduction();
+
     public final BigArrays bigArrays() {
         return bigArrays;
     }
@@ -103,6 +118,14 @@ public abstract sealed class AggregationReduceContext permits AggregationReduceC
         return builder;
     }
 
+    /**
+     * Builders for the sub-aggregations of the agg being processed, or for the
+     * top level aggregations if this context was built for the top level.
+     */
+    protected final AggregatorFactories.Builder subBuilders() {
+        return subBuilders;
+    }
+
     /**
      * The root of the tree of pipeline aggregations for this request.
      */
@@ -141,6 +164,7 @@ public abstract sealed class AggregationReduceContext permits AggregationReduceC
      */
     public static final class ForPartial extends AggregationReduceContext {
         private final IntConsumer multiBucketConsumer;
+        private final boolean isSliceReduce;
 
         public ForPartial(
             BigArrays bigArrays,
@@ -149,8 +173,7 @@ public abstract sealed class AggregationReduceContext permits AggregationReduceC
             AggregatorFactories.Builder builders,
             IntConsumer multiBucketConsumer
         ) {
-            super(bigArrays, scriptService, isCanceled, builders);
-            this.multiBucketConsumer = multiBucketConsumer;
+            this(bigArrays, scriptService, isCanceled, builders, multiBucketConsumer, false);
         }
 
         public ForPartial(
@@ -159,9 +182,34 @@ public abstract sealed class AggregationReduceContext permits AggregationReduceC
             Supplier<Boolean> isCanceled,
             AggregationBuilder builder,
             IntConsumer multiBucketConsumer
+        ) {
+            this(bigArrays, scriptService, isCanceled, builder, multiBucketConsumer, false);
+        }
+
+        private ForPartial(
+            BigArrays bigArrays,
+            ScriptService scriptService,
+            Supplier<Boolean> isCanceled,
+            AggregatorFactories.Builder builders,
+            IntConsumer multiBucketConsumer,
+            boolean isSliceReduce
+        ) {
+            super(bigArrays, scriptService, isCanceled, builders);
+            this.multiBucketConsumer = multiBucketConsumer;
+            this.isSliceReduce = isSliceReduce;
+        }
+
+        private ForPartial(
+            BigArrays bigArrays,
+            ScriptService scriptService,
+            Supplier<Boolean> isCanceled,
+            AggregationBuilder builder,
+            IntConsumer multiBucketConsumer,
+            boolean isSliceReduce
         ) {
             super(bigArrays, scriptService, isCanceled, builder);
             this.multiBucketConsumer = multiBucketConsumer;
+            this.isSliceReduce = isSliceReduce;
         }
 
         @Override
@@ -169,6 +217,20 @@ public abstract sealed class AggregationReduceContext permits AggregationReduceC
             return false;
         }
 
+        @Override
+        public boolean isSliceReduce() {
+            return isSliceReduce;
+        }
+
+        @Override
+        public AggregationReduceContext forSliceReduction() {
+            AggregationBuilder builder = builder();
+            if (builder == null) {
+                return new ForPartial(bigArrays(), scriptService(), isCanceled(), subBuilders(), multiBucketConsumer, true);
+            }
+            return new ForPartial(bigArrays(), scriptService(), isCanceled(), builder, multiBucketConsumer, true);
+        }
+
         @Override
         protected void consumeBucketCountAndMaybeBreak(int size) {
             multiBucketConsumer.accept(size);
@@ -181,7 +243,7 @@ public abstract sealed class AggregationReduceContext permits AggregationReduceC
 
         @Override
         protected AggregationReduceContext forSubAgg(AggregationBuilder sub) {
-            return new ForPartial(bigArrays(), scriptService(), isCanceled(), sub, multiBucketConsumer);
+            return new ForPartial(bigArrays(), scriptService(), isCanceled(), sub, multiBucketConsumer, isSliceReduce);
         }
     }
 
@@ -222,6 +284,16 @@ public abstract sealed class AggregationReduceContext permits AggregationReduceC
             return true;
         }
 
+        @Override
+        public boolean isSliceReduce() {
+            return false;
+        }
+
+        @Override
+        public AggregationReduceContext forSliceReduction() {
+            throw new IllegalStateException("the results of the slices of a shard are never reduced in the final reduction");
+        }
+
         @Override
         protected void consumeBucketCountAndMaybeBreak(int size) {
             multiBucketConsumer.accept(size);
@@ -47,7 +47,9 @@ public class AggregatorCollectorManager implements CollectorManager<AggregatorCo
             // low, we do a partial reduction here.
             final List<InternalAggregations> internalAggregations = new ArrayList<>(collectors.size());
             collectors.forEach(c -> internalAggregations.add(InternalAggregations.from(c.internalAggregations)));
-            internalAggregationsConsumer.accept(InternalAggregations.topLevelReduce(internalAggregations, reduceContextSupplier.get()));
+            internalAggregationsConsumer.accept(
+                InternalAggregations.topLevelReduce(internalAggregations, reduceContextSupplier.get().forSliceReduction())
+            );
         } else if (collectors.size() == 1) {
             internalAggregationsConsumer.accept(InternalAggregations.from(collectors.iterator().next().internalAggregations));
         }
@@ -23,8 +23,10 @@ import org.apache.lucene.search.FieldComparator;
 import org.apache.lucene.search.FieldDoc;
 import org.apache.lucene.search.LeafFieldComparator;
 import org.apache.lucene.search.Pruning;
+import org.apache.lucene.search.Query;
 import org.apache.lucene.search.ScoreMode;
 import org.apache.lucene.search.Scorer;
+import org.apache.lucene.search.ScorerSupplier;
 import org.apache.lucene.search.Sort;
 import org.apache.lucene.search.SortField;
 import org.apache.lucene.search.SortedNumericSelector;
@@ -93,6 +95,9 @@ public final class CompositeAggregator extends BucketsAggregator implements Size
 
     private boolean earlyTerminated;
 
+    private Weight afterValueWeight;
+    private boolean afterValueWeightCreated;
+
     CompositeAggregator(
         String name,
         AggregatorFactories factories,
@@ -495,6 +500,9 @@ public final class CompositeAggregator extends BucketsAggregator implements Size
                 } catch (CollectionTerminatedException e) {
                     return LeafBucketCollector.NO_OP_COLLECTOR;
                 }
+                final DocIdSetIterator afterValueIterator = queue.mayDynamicallyPrune()
+                    ? null
+                    : afterValueIterator(aggCtx.getLeafReaderContext());
                 return new LeafBucketCollector() {
                     @Override
                     public void collect(int doc, long zeroBucket) throws IOException {
@@ -507,7 +515,7 @@ public final class CompositeAggregator extends BucketsAggregator implements Size
                         if (queue.mayDynamicallyPrune()) {
                             return inner.competitiveIterator();
                         } else {
-                            return null;
+                            return afterValueIterator;
                         }
                     }
                 };
@@ -515,6 +523,34 @@ public final class CompositeAggregator extends BucketsAggregator implements Size
         }
     }
 
+    /**
+     * Returns an iterator over the documents of the leaf whose leading source value can produce a bucket after
+     * the after key, {@link DocIdSetIterator#empty()} if there are no such documents or null if all documents
+     * need to be visited. When the index sort cannot be used this lets the search skip the documents that only
+     * produce buckets of the previous pages.
+     */
+    private DocIdSetIterator afterValueIterator(LeafReaderContext ctx) throws IOException {
+        if (afterValueWeightCreated == false) {
+            afterValueWeightCreated = true;
+            Query query = rawAfterKey == null ? null : sources[0].createAfterValueQueryOrNull(sourceConfigs[0].hasScript());
+            if (query != null) {
+                afterValueWeight = searcher().createWeight(searcher().rewrite(query), ScoreMode.COMPLETE_NO_SCORES, 1f);
+            }
+        }
+        if (afterValueWeight == null) {
+            return null;
+        }
+        ScorerSupplier scorerSupplier = afterValueWeight.scorerSupplier(ctx);
+        if (scorerSupplier == null) {
+            return DocIdSetIterator.empty();
+        }
+        if (scorerSupplier.cost() > ctx.reader().maxDoc() / 2) {
+            // most documents are after the after key, skipping the others isn't worth building the iterator
+            return null;
+        }
+        return scorerSupplier.get(Long.MAX_VALUE).iterator();
+    }
+
     /**
      * The first pass selects the top composite buckets from all matching documents.
      */
@@ -302,6 +302,33 @@ class LongValuesSource extends SingleDimensionValuesSource<Long> {
         }
     }
 
+    @Override
+    Query createAfterValueQueryOrNull(boolean hasScript) {
+        if (fieldType == null || fieldType.isIndexed() == false || hasScript || afterValue == null || missingBucket ||
+        // inverse of the natural order
+            reverseMul == -1) {
+            return null;
+        }
+        // Values are rounded down, so a document can only produce a bucket that is greater than or equal
+        // to the after value if one of its values is greater than or equal to the after value.
+        final long lowerValue = afterValue;
+        if (fieldType instanceof NumberFieldMapper.NumberFieldType ft) {
+            return switch (ft.typeName()) {
+                case "long" -> LongPoint.newRangeQuery(fieldType.name(), lowerValue, Long.MAX_VALUE);
+                case "int", "short", "byte" -> IntPoint.newRangeQuery(
+                    fieldType.name(),
+                    (int) Math.min(Math.max(lowerValue, Integer.MIN_VALUE), Integer.MAX_VALUE),
+                    Integer.MAX_VALUE
+                );
+                default -> null;
+            };
+        } else if (fieldType instanceof DateFieldMapper.DateFieldType ft && ft.resolution() == DateFieldMapper.Resolution.MILLISECONDS) {
+            return LongPoint.newRangeQuery(fieldType.name(), lowerValue, Long.MAX_VALUE);
+        } else {
+            return null;
+        }
+    }
+
     @Override
     public void close() {
         Releasables.close(values, bits);
@@ -140,6 +140,16 @@ abstract class SingleDimensionValuesSource<T extends Comparable<T>> implements R
      */
     abstract SortedDocsProducer createSortedDocsProducerOrNull(IndexReader reader, Query query);
 
+    /**
+     * Returns a {@link Query} that matches at least all the documents that can produce a bucket that is
+     * competitive with the after value when this source is the leading source, or null if this source cannot
+     * restrict the documents to visit. Sources whose values are modified by a script cannot be restricted, since
+     * the indexed values don't reflect the values of the source.
+     */
+    Query createAfterValueQueryOrNull(boolean hasScript) {
+        return null;
+    }
+
     /**
      * Returns true if a {@link SortedDocsProducer} should be used to optimize the execution.
      */
@@ -267,8 +267,9 @@ public class FilterByFilterAggregator extends FiltersAggregator {
      */
     private void collectCount(LeafReaderContext ctx, Bits live) throws IOException {
         Counter counter = new Counter(docCountProvider);
+        SegmentCountCache cache = context.segmentCountCache();
         for (int filterOrd = 0; filterOrd < filters().size(); filterOrd++) {
-            incrementBucketDocCount(filterOrd, filters().get(filterOrd).count(ctx, counter, live));
+            incrementBucketDocCount(filterOrd, filters().get(filterOrd).count(ctx, counter, live, cache));
         }
     }
 
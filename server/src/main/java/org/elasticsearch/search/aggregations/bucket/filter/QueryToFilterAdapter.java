@@ -28,6 +28,7 @@ import org.apache.lucene.search.ScorerSupplier;
 import org.apache.lucene.search.Weight;
 import org.apache.lucene.util.Bits;
 import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.core.Nullable;
 import org.elasticsearch.search.aggregations.Aggregator;
 import org.elasticsearch.xcontent.XContentBuilder;
 
@@ -220,6 +221,18 @@ public class QueryToFilterAdapter {
         return counter.readAndReset(ctx);
     }
 
+    /**
+     * Count the number of documents that match this filter in a leaf, reusing the count of a previous request if the
+     * segment hasn't changed since.
+     */
+    long count(LeafReaderContext ctx, FiltersAggregator.Counter counter, Bits live, @Nullable SegmentCountCache cache) throws IOException {
+        // live docs change without changing the core cache key of the segment
+        if (cache == null || live != null || weight().isCacheable(ctx) == false) {
+            return count(ctx, counter, live);
+        }
+        return cache.count(ctx, query, () -> count(ctx, counter, live));
+    }
+
     /**
      * Collect all documents that match this filter in this leaf.
      */
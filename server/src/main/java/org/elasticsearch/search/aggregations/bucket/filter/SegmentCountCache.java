@@ -0,0 +1,110 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.search.aggregations.bucket.filter;
+
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.search.Query;
+import org.elasticsearch.common.cache.Cache;
+import org.elasticsearch.common.cache.CacheBuilder;
+import org.elasticsearch.common.cache.RemovalListener;
+import org.elasticsearch.common.cache.RemovalNotification;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Setting.Property;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
+import org.elasticsearch.core.CheckedSupplier;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Node level cache of the number of documents of a segment that match a filter of a {@link FilterByFilterAggregator}. Segments
+ * never change once they are written, so on mostly static indices only the segments that were refreshed since the last request
+ * have to be counted again, while the {@link org.elasticsearch.indices.IndicesRequestCache} is invalidated on every refresh.
+ * <p>
+ * Entries are keyed on the core cache key of the segment and the query of the filter, which already includes the top level
+ * query. They are dropped when the segment is closed or when the cache is full, least recently used first.
+ */
+public final class SegmentCountCache implements IndexReader.ClosedListener, RemovalListener<SegmentCountCache.Key, Long> {
+
+    /**
+     * The maximum number of counts in the cache. {@code 0} disables the cache.
+     */
+    public static final Setting<Integer> SIZE_SETTING = Setting.intSetting(
+        "search.aggs.segment_count_cache.size",
+        10_000,
+        0,
+        Property.NodeScope
+    );
+
+    private final Cache<Key, Long> cache;
+    private final ConcurrentMap<IndexReader.CacheKey, Set<Key>> keysBySegment = ConcurrentCollections.newConcurrentMap();
+
+    public SegmentCountCache(Settings settings) {
+        final int size = SIZE_SETTING.get(settings);
+        this.cache = size == 0 ? null : CacheBuilder.<Key, Long>builder().setMaximumWeight(size).removalListener(this).build();
+    }
+
+    /**
+     * Returns the number of documents of the segment that match the query, from the cache if possible. The caller is
+     * responsible for only using this if the count can't change as long as the segment is open, i.e. if the segment
+     * doesn't have deleted documents and the query is cacheable on it.
+     */
+    long count(LeafReaderContext ctx, Query query, CheckedSupplier<Long, IOException> counter) throws IOException {
+        final IndexReader.CacheHelper cacheHelper = ctx.reader().getCoreCacheHelper();
+        if (cache == null || cacheHelper == null) {
+            return counter.get();
+        }
+        final Key key = new Key(cacheHelper.getKey(), query);
+        final Long cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        final long count = counter.get();
+        keysBySegment.computeIfAbsent(key.segment(), segment -> {
+            cacheHelper.addClosedListener(this);
+            return ConcurrentCollections.newConcurrentSet();
+        }).add(key);
+        cache.put(key, count);
+        return count;
+    }
+
+    @Override
+    public void onClose(IndexReader.CacheKey segment) {
+        final Set<Key> keys = keysBySegment.remove(segment);
+        if (keys != null) {
+            for (Key key : keys) {
+                cache.invalidate(key);
+            }
+        }
+    }
+
+    @Override
+    public void onRemoval(RemovalNotification<Key, Long> notification) {
+        if (notification.getRemovalReason() == RemovalNotification.RemovalReason.REPLACED) {
+            return;
+        }
+        final Set<Key> keys = keysBySegment.get(notification.getKey().segment());
+        if (keys != null) {
+            keys.remove(notification.getKey());
+        }
+    }
+
+    /**
+     * The number of counts in the cache.
+     */
+    int count() {
+        return cache == null ? 0 : cache.count();
+    }
+
+    record Key(IndexReader.CacheKey segment, Query query) {}
+}
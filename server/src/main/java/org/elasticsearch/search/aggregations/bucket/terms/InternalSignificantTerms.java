@@ -203,9 +203,12 @@ public abstract class InternalSignificantTerms<A extends InternalSignificantTerm
                     throw AggregationErrors.reduceTypeMismatch(referenceAgg.getName(), Optional.empty());
                 }
                 // Compute the overall result set size and the corpus size using the
-                // top-level Aggregations from each shard
+                // top-level Aggregations from each shard. The slices of a shard share
+                // the corpus of the shard so it must only be counted once.
                 globalSubsetSize += terms.getSubsetSize();
-                globalSupersetSize += terms.getSupersetSize();
+                globalSupersetSize = reduceContext.isSliceReduce()
+                    ? Math.max(globalSupersetSize, terms.getSupersetSize())
+                    : globalSupersetSize + terms.getSupersetSize();
                 for (B bucket : terms.getBuckets()) {
                     ReducerAndExtraInfo<B> reducerAndExtraInfo = buckets.get(bucket.getKeyAsString());
                     if (reducerAndExtraInfo == null) {
@@ -222,7 +225,9 @@ public abstract class InternalSignificantTerms<A extends InternalSignificantTerm
                     }
                     reducerAndExtraInfo.reducer.accept(bucket);
                     reducerAndExtraInfo.subsetDf[0] += bucket.subsetDf;
-                    reducerAndExtraInfo.supersetDf[0] += bucket.supersetDf;
+                    reducerAndExtraInfo.supersetDf[0] = reduceContext.isSliceReduce()
+                        ? Math.max(reducerAndExtraInfo.supersetDf[0], bucket.supersetDf)
+                        : reducerAndExtraInfo.supersetDf[0] + bucket.supersetDf;
                 }
             }
 
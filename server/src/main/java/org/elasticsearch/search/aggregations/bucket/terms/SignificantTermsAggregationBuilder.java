@@ -141,6 +141,23 @@ public class SignificantTermsAggregationBuilder extends ValuesSourceAggregationB
 
     @Override
     public boolean supportsParallelCollection(ToLongFunction<String> fieldCardinalityResolver) {
+        if (bucketCountThresholds.getMinDocCount() == 0 || bucketCountThresholds.getShardMinDocCount() > 1) {
+            // the slices would either collect the zero buckets of every segment or drop the terms that are only
+            // frequent enough once the slices of the shard are merged
+            return false;
+        }
+        /*
+         * Like for the terms aggregation we only parallelize if the cardinality of the field is lower than the shard
+         * size, so that the slices don't have to down-select buckets whose score is based on a part of the shard only.
+         */
+        String globalOrdinals = SignificantTermsAggregatorFactory.ExecutionMode.GLOBAL_ORDINALS.toString();
+        if (script() == null && (executionHint == null || executionHint.equals(globalOrdinals))) {
+            long cardinality = fieldCardinalityResolver.applyAsLong(field());
+            BucketCountThresholds adjusted = SignificantTermsAggregatorFactory.adjustBucketCountThresholds(bucketCountThresholds);
+            if (cardinality != -1 && cardinality < adjusted.getShardSize()) {
+                return super.supportsParallelCollection(fieldCardinalityResolver);
+            }
+        }
         return false;
     }
 
@@ -261,10 +261,11 @@ public class SignificantTermsAggregatorFactory extends ValuesSourceAggregatorFac
         };
     }
 
-    @Override
-    protected Aggregator doCreateInternal(Aggregator parent, CardinalityUpperBound cardinality, Map<String, Object> metadata)
-        throws IOException {
-        BucketCountThresholds bucketCountThresholds = new BucketCountThresholds(this.bucketCountThresholds);
+    /**
+     * Returns the bucket count thresholds used on the shards, with the default shard size resolved.
+     */
+    static BucketCountThresholds adjustBucketCountThresholds(BucketCountThresholds original) {
+        BucketCountThresholds bucketCountThresholds = new BucketCountThresholds(original);
         if (bucketCountThresholds.getShardSize() == SignificantTermsAggregationBuilder.DEFAULT_BUCKET_COUNT_THRESHOLDS.shardSize()) {
             // The user has not made a shardSize selection .
             // Use default heuristic to avoid any wrong-ranking caused by
@@ -280,6 +281,13 @@ public class SignificantTermsAggregatorFactory extends ValuesSourceAggregatorFac
             // at that early stage.
             bucketCountThresholds.setShardSize(2 * BucketUtils.suggestShardSideQueueSize(bucketCountThresholds.getRequiredSize()));
         }
+        return bucketCountThresholds;
+    }
+
+    @Override
+    protected Aggregator doCreateInternal(Aggregator parent, CardinalityUpperBound cardinality, Map<String, Object> metadata)
+        throws IOException {
+        BucketCountThresholds bucketCountThresholds = adjustBucketCountThresholds(this.bucketCountThresholds);
         SamplingContext samplingContext = getSamplingContext().orElse(SamplingContext.NONE);
         // If min_doc_count and shard_min_doc_count is provided, we do not support them being larger than 1
         // This is because we cannot be sure about their relative scale when sampled
@@ -41,6 +41,7 @@ import org.elasticsearch.search.aggregations.AggregationExecutionContext;
 import org.elasticsearch.search.aggregations.Aggregator;
 import org.elasticsearch.search.aggregations.BucketCollector;
 import org.elasticsearch.search.aggregations.bucket.filter.FilterByFilterAggregator;
+import org.elasticsearch.search.aggregations.bucket.filter.SegmentCountCache;
 import org.elasticsearch.search.internal.SubSearchContext;
 import org.elasticsearch.search.lookup.SearchLookup;
 import org.elasticsearch.search.profile.aggregation.AggregationProfiler;
@@ -248,6 +249,12 @@ public abstract class AggregationContext implements Releasable {
     public abstract BitsetFilterCache bitsetFilterCache();
     // TODO it is unclear why we can't just use the IndexSearcher which already caches
 
+    /**
+     * Get the cache of per segment filter counts or {@code null} if counts shouldn't be cached.
+     */
+    @Nullable
+    public abstract SegmentCountCache segmentCountCache();
+
     /**
      * Build a collector for sorted values specialized for aggregations.
      */
@@ -346,6 +353,7 @@ public abstract class AggregationContext implements Releasable {
         private final int maxBuckets;
         private final Supplier<SubSearchContext> subSearchContextBuilder;
         private final BitsetFilterCache bitsetFilterCache;
+        private final SegmentCountCache segmentCountCache;
         private final int randomSeed;
         private final LongSupplier relativeTimeInMillis;
         private final Supplier<Boolean> isCancelled;
@@ -367,6 +375,7 @@ public abstract class AggregationContext implements Releasable {
             int maxBuckets,
             Supplier<SubSearchContext> subSearchContextBuilder,
             BitsetFilterCache bitsetFilterCache,
+            @Nullable SegmentCountCache segmentCountCache,
             int randomSeed,
             LongSupplier relativeTimeInMillis,
             Supplier<Boolean> isCancelled,
@@ -401,6 +410,7 @@ public abstract class AggregationContext implements Releasable {
             this.maxBuckets = maxBuckets;
             this.subSearchContextBuilder = subSearchContextBuilder;
             this.bitsetFilterCache = bitsetFilterCache;
+            this.segmentCountCache = segmentCountCache;
             this.randomSeed = randomSeed;
             this.relativeTimeInMillis = relativeTimeInMillis;
             this.isCancelled = isCancelled;
@@ -561,6 +571,11 @@ public abstract class AggregationContext implements Releasable {
             return bitsetFilterCache;
         }
 
+        @Override
+        public SegmentCountCache segmentCountCache() {
+            return segmentCountCache;
+        }
+
         @Override
         public BucketedSort buildBucketedSort(SortBuilder<?> sort, int bucketSize, BucketedSort.ExtraData extra) throws IOException {
             return sort.buildBucketedSort(context, bigArrays, bucketSize, extra);
@@ -25,12 +25,16 @@ public class Compression {
 
     public enum Scheme {
         LZ4,
-        DEFLATE;
+        DEFLATE,
+        ZSTD;
 
         static final int HEADER_LENGTH = 4;
         private static final byte[] DEFLATE_HEADER = new byte[] { 'D', 'F', 'L', '\0' };
         private static final byte[] LZ4_HEADER = new byte[] { 'L', 'Z', '4', '\0' };
+        private static final byte[] ZSTD_HEADER = new byte[] { 'Z', 'S', 'T', '\0' };
         private static final int LZ4_BLOCK_SIZE;
+        private static final int ZSTD_BLOCK_SIZE;
+        private static final int ZSTD_LEVEL = 3;
         private static final boolean USE_FORKED_LZ4;
 
         static {
@@ -45,6 +49,17 @@ public class Compression {
                 LZ4_BLOCK_SIZE = 64 * 1024;
             }
 
+            String zstdBlockSizeString = System.getProperty("es.transport.compression.zstd_block_size");
+            if (zstdBlockSizeString != null) {
+                int zstdBlockSize = Integer.parseInt(zstdBlockSizeString);
+                if (zstdBlockSize < 1024 || zstdBlockSize > ZstdBlockOutputStream.MAX_BLOCK_SIZE) {
+                    throw new IllegalArgumentException("zstd_block_size must be >= 1KB and <= 1MB");
+                }
+                ZSTD_BLOCK_SIZE = zstdBlockSize;
+            } else {
+                ZSTD_BLOCK_SIZE = 256 * 1024;
+            }
+
             USE_FORKED_LZ4 = Booleans.parseBoolean(System.getProperty("es.compression.use_forked_lz4", "true"));
         }
 
@@ -66,6 +81,15 @@ public class Compression {
             }
         }
 
+        public static boolean isZstd(BytesReference bytes) {
+            byte firstByte = bytes.get(0);
+            if (firstByte != Scheme.ZSTD_HEADER[0]) {
+                return false;
+            } else {
+                return validateHeader(bytes, ZSTD_HEADER);
+            }
+        }
+
         private static boolean validateHeader(BytesReference bytes, byte[] header) {
             for (int i = 1; i < Compression.Scheme.HEADER_LENGTH; ++i) {
                 if (bytes.get(i) != header[i]) {
@@ -93,6 +117,11 @@ public class Compression {
             }
             return new ReuseBuffersLZ4BlockOutputStream(outputStream, LZ4_BLOCK_SIZE, lz4Compressor);
         }
+
+        public static OutputStream zstdOutputStream(OutputStream outputStream) throws IOException {
+            outputStream.write(ZSTD_HEADER);
+            return new ZstdBlockOutputStream(outputStream, ZSTD_BLOCK_SIZE, ZSTD_LEVEL);
+        }
     }
 
     public enum Enabled {
@@ -57,9 +57,8 @@ abstract class OutboundMessage extends NetworkMessage {
         final ReleasableBytesReference zeroCopyBuffer;
         try {
             stream.setTransportVersion(version);
-            if (message instanceof BytesTransportRequest bRequest) {
-                bRequest.writeThin(stream);
-                zeroCopyBuffer = bRequest.bytes;
+            if (compress == false && message instanceof TrailingBytesWriteable trailingBytesWriteable) {
+                zeroCopyBuffer = trailingBytesWriteable.writeWithoutTrailingBytes(stream);
             } else if (message instanceof RemoteTransportException) {
                 stream.writeException((RemoteTransportException) message);
                 zeroCopyBuffer = ReleasableBytesReference.empty();
@@ -97,6 +96,8 @@ abstract class OutboundMessage extends NetworkMessage {
             );
         } else if (compressionScheme == Compression.Scheme.LZ4) {
             return new OutputStreamStreamOutput(Compression.Scheme.lz4OutputStream(Streams.noCloseStream(bytesStream)));
+        } else if (compressionScheme == Compression.Scheme.ZSTD) {
+            return new OutputStreamStreamOutput(Compression.Scheme.zstdOutputStream(Streams.noCloseStream(bytesStream)));
         } else {
             throw new IllegalArgumentException("Invalid compression scheme: " + compressionScheme);
         }
@@ -15,6 +15,7 @@ import org.apache.lucene.util.BytesRef;
 import org.elasticsearch.Build;
 import org.elasticsearch.ElasticsearchException;
 import org.elasticsearch.TransportVersion;
+import org.elasticsearch.TransportVersions;
 import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.action.support.ThreadedActionListener;
 import org.elasticsearch.cluster.node.DiscoveryNode;
@@ -325,7 +326,14 @@ public abstract class TcpTransport extends AbstractLifecycleComponent implements
                 || (compress == Compression.Enabled.INDEXING_DATA
                     && request instanceof RawIndexingDataTransportRequest
                     && ((RawIndexingDataTransportRequest) request).isRawIndexingData());
-            return shouldCompress ? compressionScheme : null;
+            if (shouldCompress == false) {
+                return null;
+            }
+            if (compressionScheme == Compression.Scheme.ZSTD && version.before(TransportVersions.TRANSPORT_COMPRESSION_ZSTD)) {
+                // older nodes cannot decompress zstd, fall back to the default scheme
+                return Compression.Scheme.LZ4;
+            }
+            return compressionScheme;
         }
 
         @Override
@@ -0,0 +1,30 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.transport;
+
+import org.elasticsearch.common.bytes.ReleasableBytesReference;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.io.stream.Writeable;
+
+import java.io.IOException;
+
+/**
+ * A {@link Writeable} whose serialized form ends with a large buffer that the network layer can send as-is, after the rest of
+ * the message, rather than copying it into its own buffers first.
+ */
+public interface TrailingBytesWriteable extends Writeable {
+
+    /**
+     * Writes everything but the trailing bytes to the given stream and returns them. Writing the returned bytes to the stream
+     * right after this call must produce the same bytes as {@link #writeTo(StreamOutput)}. Returns an empty reference if
+     * everything has been written, e.g. because the trailing bytes aren't supported by the stream's transport version.
+     */
+    ReleasableBytesReference writeWithoutTrailingBytes(StreamOutput out) throws IOException;
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.transport;
+
+import org.apache.lucene.util.ArrayUtil;
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.common.util.ByteUtils;
+import org.elasticsearch.nativeaccess.CloseableByteBuffer;
+import org.elasticsearch.nativeaccess.NativeAccess;
+import org.elasticsearch.nativeaccess.Zstd;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Compresses data into independent blocks of up to {@code blockSize} bytes using ZStandard. Each block is written as its
+ * compressed length and its decompressed length, both as big-endian ints, followed by the compressed bytes. A block with
+ * both lengths set to {@code 0} marks the end of the stream. See {@link ZstdTransportDecompressor} for the reading side.
+ * <p>
+ * Data is buffered on heap and only copied to native memory for compression once a block is complete, in buffers that are
+ * sized to the block. This keeps small messages, which are the vast majority of transport messages, cheap to compress.
+ */
+final class ZstdBlockOutputStream extends OutputStream {
+
+    static final int BLOCK_HEADER_LENGTH = 4 + // compressed length
+        4; // decompressed length
+
+    static final int MAX_BLOCK_SIZE = 1 << 20;
+
+    private final OutputStream out;
+    private final int blockSize;
+    private final int level;
+    private final NativeAccess nativeAccess;
+    private final Zstd zstd;
+    private final byte[] blockHeader = new byte[BLOCK_HEADER_LENGTH];
+
+    private byte[] buffer = BytesRef.EMPTY_BYTES;
+    private int count;
+    private boolean closed;
+
+    ZstdBlockOutputStream(OutputStream out, int blockSize, int level) {
+        assert blockSize > 0 && blockSize <= MAX_BLOCK_SIZE : blockSize;
+        this.out = out;
+        this.blockSize = blockSize;
+        this.level = level;
+        this.nativeAccess = NativeAccess.instance();
+        this.zstd = nativeAccess.getZstd();
+        if (zstd == null) {
+            throw new IllegalStateException("cannot use the [zstd] transport compression scheme because native access is not available");
+        }
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+        if (count == blockSize) {
+            flushBlock();
+        }
+        ensureCapacity(count + 1);
+        buffer[count++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        while (len > 0) {
+            if (count == blockSize) {
+                flushBlock();
+            }
+            int toCopy = Math.min(len, blockSize - count);
+            ensureCapacity(count + toCopy);
+            System.arraycopy(b, off, buffer, count, toCopy);
+            count += toCopy;
+            off += toCopy;
+            len -= toCopy;
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        flushBlock();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed == false) {
+            try {
+                flushBlock();
+                writeBlockHeader(0, 0);
+                out.flush();
+            } finally {
+                closed = true;
+                buffer = null;
+                out.close();
+            }
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("This output stream is closed");
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.min(blockSize, ArrayUtil.oversize(capacity, Byte.BYTES)));
+        }
+    }
+
+    private void flushBlock() throws IOException {
+        if (count == 0) {
+            return;
+        }
+        try (
+            CloseableByteBuffer src = nativeAccess.newBuffer(count);
+            CloseableByteBuffer dest = nativeAccess.newBuffer(zstd.compressBound(count))
+        ) {
+            src.buffer().put(buffer, 0, count).flip();
+            final int compressedLength = zstd.compress(dest, src, level);
+            writeBlockHeader(compressedLength, count);
+            // the block has been copied to native memory, so the buffer can be used to copy the compressed bytes back
+            for (int written = 0; written < compressedLength;) {
+                final int numBytes = Math.min(buffer.length, compressedLength - written);
+                dest.buffer().get(buffer, 0, numBytes);
+                out.write(buffer, 0, numBytes);
+                written += numBytes;
+            }
+        }
+        count = 0;
+    }
+
+    private void writeBlockHeader(int compressedLength, int decompressedLength) throws IOException {
+        ByteUtils.writeIntBE(compressedLength, blockHeader, 0);
+        ByteUtils.writeIntBE(decompressedLength, blockHeader, 4);
+        out.write(blockHeader, 0, BLOCK_HEADER_LENGTH);
+    }
+}
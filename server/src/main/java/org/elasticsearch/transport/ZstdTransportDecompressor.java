@@ -0,0 +1,201 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.transport;
+
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.BytesRefIterator;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.recycler.Recycler;
+import org.elasticsearch.nativeaccess.CloseableByteBuffer;
+import org.elasticsearch.nativeaccess.NativeAccess;
+import org.elasticsearch.nativeaccess.Zstd;
+
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Decompresses the blocks written by {@link ZstdBlockOutputStream}. Blocks are only decompressed once all of their compressed
+ * bytes are available, straight from native memory into the decompressed pages.
+ */
+public class ZstdTransportDecompressor extends TransportDecompressor {
+
+    private enum State {
+        INIT_BLOCK,
+        DECOMPRESS_DATA,
+        FINISHED,
+        CORRUPTED
+    }
+
+    private final NativeAccess nativeAccess;
+    private final Zstd zstd;
+    private final int maxCompressedLength;
+
+    private State currentState = State.INIT_BLOCK;
+
+    /**
+     * Compressed length of current incoming block.
+     */
+    private int compressedLength;
+
+    /**
+     * Decompressed length of current incoming block.
+     */
+    private int decompressedLength;
+
+    public ZstdTransportDecompressor(Recycler<BytesRef> recycler) {
+        super(recycler);
+        this.nativeAccess = NativeAccess.instance();
+        this.zstd = nativeAccess.getZstd();
+        if (zstd == null) {
+            throw new IllegalStateException("cannot decompress [zstd] transport messages because native access is not available");
+        }
+        this.maxCompressedLength = zstd.compressBound(ZstdBlockOutputStream.MAX_BLOCK_SIZE);
+    }
+
+    @Override
+    public Compression.Scheme getScheme() {
+        return Compression.Scheme.ZSTD;
+    }
+
+    @Override
+    public int decompress(BytesReference bytesReference) throws IOException {
+        int bytesConsumed = 0;
+        if (hasSkippedHeader == false) {
+            hasSkippedHeader = true;
+            int esHeaderLength = Compression.Scheme.HEADER_LENGTH;
+            bytesReference = bytesReference.slice(esHeaderLength, bytesReference.length() - esHeaderLength);
+            bytesConsumed += esHeaderLength;
+        }
+
+        while (true) {
+            int consumed = decodeBlock(bytesReference);
+            bytesConsumed += consumed;
+            int newLength = bytesReference.length() - consumed;
+            if (consumed > 0 && newLength > 0) {
+                bytesReference = bytesReference.slice(consumed, newLength);
+            } else {
+                break;
+            }
+        }
+
+        return bytesConsumed;
+    }
+
+    private int decodeBlock(BytesReference reference) throws IOException {
+        try {
+            switch (currentState) {
+                case INIT_BLOCK:
+                    if (reference.length() < ZstdBlockOutputStream.BLOCK_HEADER_LENGTH) {
+                        return 0;
+                    }
+                    int compressedLength = reference.getInt(0);
+                    int decompressedLength = reference.getInt(4);
+                    if (compressedLength < 0 || compressedLength > maxCompressedLength) {
+                        throw new IllegalStateException(
+                            String.format(
+                                Locale.ROOT,
+                                "invalid compressedLength: %d (expected: 0-%d)",
+                                compressedLength,
+                                maxCompressedLength
+                            )
+                        );
+                    }
+                    if (decompressedLength < 0 || decompressedLength > ZstdBlockOutputStream.MAX_BLOCK_SIZE) {
+                        throw new IllegalStateException(
+                            String.format(
+                                Locale.ROOT,
+                                "invalid decompressedLength: %d (expected: 0-%d)",
+                                decompressedLength,
+                                ZstdBlockOutputStream.MAX_BLOCK_SIZE
+                            )
+                        );
+                    }
+                    if ((decompressedLength == 0) != (compressedLength == 0)) {
+                        throw new IllegalStateException(
+                            String.format(
+                                Locale.ROOT,
+                                "stream corrupted: compressedLength(%d) and decompressedLength(%d) mismatch",
+                                compressedLength,
+                                decompressedLength
+                            )
+                        );
+                    }
+                    if (decompressedLength == 0) {
+                        currentState = State.FINISHED;
+                    } else {
+                        this.compressedLength = compressedLength;
+                        this.decompressedLength = decompressedLength;
+                        currentState = State.DECOMPRESS_DATA;
+                    }
+                    return ZstdBlockOutputStream.BLOCK_HEADER_LENGTH;
+                case DECOMPRESS_DATA:
+                    if (reference.length() < this.compressedLength) {
+                        return 0;
+                    }
+                    decompressBlock(reference);
+                    currentState = State.INIT_BLOCK;
+                    return this.compressedLength;
+                case FINISHED:
+                    return 0;
+                case CORRUPTED:
+                    throw new IllegalStateException("ZSTD stream corrupted.");
+                default:
+                    throw new IllegalStateException();
+            }
+        } catch (IOException | RuntimeException e) {
+            currentState = State.CORRUPTED;
+            throw e;
+        }
+    }
+
+    private void decompressBlock(BytesReference reference) throws IOException {
+        try (
+            CloseableByteBuffer src = nativeAccess.newBuffer(compressedLength);
+            CloseableByteBuffer dest = nativeAccess.newBuffer(decompressedLength)
+        ) {
+            BytesRefIterator iterator = reference.slice(0, compressedLength).iterator();
+            BytesRef ref;
+            while ((ref = iterator.next()) != null) {
+                src.buffer().put(ref.bytes, ref.offset, ref.length);
+            }
+            src.buffer().flip();
+
+            final int decompressed = zstd.decompress(dest, src);
+            if (decompressed != decompressedLength) {
+                throw new IllegalStateException(
+                    String.format(
+                        Locale.ROOT,
+                        "stream corrupted: expected %d decompressed bytes but got %d",
+                        decompressedLength,
+                        decompressed
+                    )
+                );
+            }
+
+            int bytesToCopy = decompressedLength;
+            while (bytesToCopy > 0) {
+                maybeAddNewPage();
+                final Recycler.V<BytesRef> page = pages.getLast();
+                int toCopy = Math.min(bytesToCopy, pageLength - pageOffset);
+                dest.buffer().get(page.v().bytes, page.v().offset + pageOffset, toCopy);
+                pageOffset += toCopy;
+                bytesToCopy -= toCopy;
+            }
+        }
+    }
+
+    /**
+     * Returns {@code true} if and only if the end of the compressed stream
+     * has been reached.
+     */
+    public boolean isClosed() {
+        return currentState == State.FINISHED;
+    }
+}
@@ -11,7 +11,9 @@ package org.elasticsearch.action.bulk;
 
 import org.elasticsearch.ElasticsearchException;
 import org.elasticsearch.ElasticsearchStatusException;
+import org.elasticsearch.ExceptionsHelper;
 import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.ActionListenerResponseHandler;
 import org.elasticsearch.action.DocWriteRequest;
 import org.elasticsearch.action.DocWriteResponse;
 import org.elasticsearch.action.LatchedActionListener;
@@ -19,26 +21,41 @@ import org.elasticsearch.action.delete.DeleteRequest;
 import org.elasticsearch.action.delete.DeleteResponse;
 import org.elasticsearch.action.index.IndexRequest;
 import org.elasticsearch.action.index.IndexResponse;
+import org.elasticsearch.action.support.ActionFilters;
 import org.elasticsearch.action.support.ActionTestUtils;
 import org.elasticsearch.action.support.WriteRequest.RefreshPolicy;
+import org.elasticsearch.action.support.replication.TransportReplicationAction;
 import org.elasticsearch.action.support.replication.TransportWriteAction.WritePrimaryResult;
 import org.elasticsearch.action.update.UpdateHelper;
 import org.elasticsearch.action.update.UpdateRequest;
 import org.elasticsearch.action.update.UpdateResponse;
 import org.elasticsearch.client.internal.Requests;
+import org.elasticsearch.cluster.ClusterState;
+import org.elasticsearch.cluster.action.index.MappingUpdatedAction;
+import org.elasticsearch.cluster.action.shard.ShardStateAction;
 import org.elasticsearch.cluster.metadata.IndexMetadata;
+import org.elasticsearch.cluster.project.TestProjectResolvers;
+import org.elasticsearch.cluster.routing.ShardRouting;
+import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.common.compress.CompressedXContent;
 import org.elasticsearch.common.lucene.uid.Versions;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.util.concurrent.EsExecutors;
 import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
+import org.elasticsearch.core.Releasable;
+import org.elasticsearch.core.TimeValue;
+import org.elasticsearch.index.IndexService;
 import org.elasticsearch.index.IndexSettings;
 import org.elasticsearch.index.IndexVersion;
+import org.elasticsearch.index.IndexingPressure;
 import org.elasticsearch.index.VersionType;
 import org.elasticsearch.index.bulk.stats.BulkStats;
 import org.elasticsearch.index.bulk.stats.ShardBulkStats;
 import org.elasticsearch.index.engine.Engine;
 import org.elasticsearch.index.engine.VersionConflictEngineException;
 import org.elasticsearch.index.mapper.DocumentMapper;
+import org.elasticsearch.index.mapper.DocumentParsingException;
 import org.elasticsearch.index.mapper.MapperService;
 import org.elasticsearch.index.mapper.Mapping;
 import org.elasticsearch.index.mapper.MappingLookup;
@@ -47,13 +64,19 @@ import org.elasticsearch.index.mapper.RootObjectMapper;
 import org.elasticsearch.index.shard.IndexShard;
 import org.elasticsearch.index.shard.IndexShardTestCase;
 import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.index.stats.IndexingPressureStats;
 import org.elasticsearch.index.translog.Translog;
+import org.elasticsearch.indices.EmptySystemIndices;
+import org.elasticsearch.indices.IndicesService;
 import org.elasticsearch.plugins.internal.DocumentParsingProvider;
 import org.elasticsearch.plugins.internal.XContentMeteringParserDecorator;
 import org.elasticsearch.rest.RestStatus;
+import org.elasticsearch.test.transport.CapturingTransport;
 import org.elasticsearch.threadpool.TestThreadPool;
 import org.elasticsearch.threadpool.ThreadPool;
 import org.elasticsearch.threadpool.ThreadPool.Names;
+import org.elasticsearch.transport.TransportService;
+import org.elasticsearch.xcontent.XContentType;
 import org.mockito.MockingDetails;
 import org.mockito.Mockito;
 import org.mockito.stubbing.Stubbing;
@@ -64,7 +87,11 @@ import java.util.concurrent.BrokenBarrierException;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.CyclicBarrier;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
+import static org.elasticsearch.action.support.replication.ClusterStateCreationUtils.stateWithActivePrimary;
+import static org.elasticsearch.test.ClusterServiceUtils.createClusterService;
+import static org.elasticsearch.test.ClusterServiceUtils.setState;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.not;
@@ -72,14 +99,17 @@ import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.Matchers.arrayWithSize;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -92,6 +122,12 @@ public class TransportShardBulkActionTests extends IndexShardTestCase {
     private final ShardId shardId = new ShardId("index", "_na_", 0);
     private final Settings idxSettings = indexSettings(IndexVersion.current(), 1, 0).build();
 
+    private static final Settings MERGE_DEBT_SETTINGS = Settings.builder()
+        .put(IndexingPressure.MERGE_DEBT_DELAY_THRESHOLD.getKey(), "1kb")
+        .put(IndexingPressure.MERGE_DEBT_REJECT_THRESHOLD.getKey(), "2kb")
+        .put(IndexingPressure.MERGE_DEBT_MAX_DELAY.getKey(), "200ms")
+        .build();
+
     private IndexMetadata indexMetadata(String mapping) {
         IndexMetadata.Builder builder = IndexMetadata.builder("index").settings(idxSettings).primaryTerm(0, 1);
         if (mapping != null) {
@@ -824,6 +860,108 @@ public class TransportShardBulkActionTests extends IndexShardTestCase {
         assertThat(failure.getStatus(), equalTo(RestStatus.INTERNAL_SERVER_ERROR));
     }
 
+    public void testAppendOnlyBatchSize() throws Exception {
+        int batchSize = randomIntBetween(0, 5);
+        Settings settings = batchSize == 0
+            ? Settings.EMPTY
+            : Settings.builder().put(IndexSettings.BULK_APPEND_ONLY_BATCH_SIZE_SETTING.getKey(), batchSize).build();
+        IndexShard shard = newStartedShard(true, settings);
+        BulkItemRequest[] items = new BulkItemRequest[randomIntBetween(2, 10)];
+        for (int i = 0; i < items.length; i++) {
+            IndexRequest indexRequest = new IndexRequest("index").source(Requests.INDEX_CONTENT_TYPE, "foo", "bar");
+            indexRequest.autoGenerateId();
+            items[i] = new BulkItemRequest(i, indexRequest);
+        }
+        BulkShardRequest bulkShardRequest = new BulkShardRequest(shardId, RefreshPolicy.NONE, items);
+        BulkPrimaryExecutionContext context = new BulkPrimaryExecutionContext(bulkShardRequest, shard);
+
+        boolean executed = TransportShardBulkAction.executeAppendOnlyBatch(context, DocumentParsingProvider.EMPTY_INSTANCE);
+        // batching is disabled by default and batches of a single item are executed like any other item
+        int expectedExecuted = batchSize < 2 ? 0 : Math.min(batchSize, items.length);
+        assertThat(executed, equalTo(expectedExecuted > 0));
+        for (int i = 0; i < items.length; i++) {
+            if (i < expectedExecuted) {
+                assertFalse(items[i].getPrimaryResponse().isFailed());
+            } else {
+                assertThat(items[i].getPrimaryResponse(), nullValue());
+            }
+        }
+        assertThat(context.hasMoreOperationsToExecute(), equalTo(expectedExecuted < items.length));
+        closeShards(shard);
+    }
+
+    public void testExecuteAppendOnlyBatchUpToMappingUpdate() throws Exception {
+        IndexShard shard = newStartedShard(
+            true,
+            Settings.builder().put(IndexSettings.BULK_APPEND_ONLY_BATCH_SIZE_SETTING.getKey(), randomIntBetween(4, 1024)).build()
+        );
+        indexDoc(shard, "_doc", "0", "{\"a\":0}");
+
+        // the second document fails to parse and the fourth one adds a field, which requires a mapping update
+        String[] sources = new String[] {
+            "{\"a\":1}",
+            "{\"a\":\"not a number\"}",
+            "{\"a\":3}",
+            "{\"a\":4,\"b\":4}",
+            "{\"a\":5}",
+            "{\"a\":6}" };
+        BulkItemRequest[] items = new BulkItemRequest[sources.length];
+        for (int i = 0; i < sources.length; i++) {
+            IndexRequest indexRequest = new IndexRequest("index").source(sources[i], XContentType.JSON);
+            indexRequest.autoGenerateId();
+            items[i] = new BulkItemRequest(i, indexRequest);
+        }
+        BulkShardRequest bulkShardRequest = new BulkShardRequest(shardId, RefreshPolicy.NONE, items);
+        BulkPrimaryExecutionContext context = new BulkPrimaryExecutionContext(bulkShardRequest, shard);
+
+        assertFalse(TransportShardBulkAction.executeAppendOnlyBatch(context, DocumentParsingProvider.EMPTY_INSTANCE));
+        // the batch completed the items before the mapping update, including the one that failed to parse
+        assertTrue(context.isInitial());
+        assertSame(items[3].request(), context.getCurrent());
+        assertFalse(items[0].getPrimaryResponse().isFailed());
+        assertTrue(items[1].getPrimaryResponse().isFailed());
+        assertThat(items[1].getPrimaryResponse().getFailure().getCause(), instanceOf(DocumentParsingException.class));
+        assertThat(items[1].getPrimaryResponse().getFailure().getStatus(), equalTo(RestStatus.BAD_REQUEST));
+        assertFalse(items[2].getPrimaryResponse().isFailed());
+        for (int i = 3; i < items.length; i++) {
+            assertThat(items[i].getPrimaryResponse(), nullValue());
+        }
+        assertNotNull(context.getLocationToSync());
+
+        // the item that requires the mapping update and the ones after it are executed like the rest of the request
+        AtomicInteger mappingUpdates = new AtomicInteger();
+        MappingUpdatePerformer mappingUpdater = (update, id, listener) -> {
+            mappingUpdates.incrementAndGet();
+            updateMappings(shard, IndexMetadata.builder(shard.indexSettings().getIndexMetadata()).putMapping(update.toString()).build());
+            listener.onResponse(null);
+        };
+        while (context.hasMoreOperationsToExecute()) {
+            if (TransportShardBulkAction.executeAppendOnlyBatch(context, DocumentParsingProvider.EMPTY_INSTANCE)) {
+                continue;
+            }
+            TransportShardBulkAction.executeBulkItemRequest(
+                context,
+                null,
+                threadPool::absoluteTimeInMillis,
+                mappingUpdater,
+                (listener, mappingVersion) -> listener.onResponse(null),
+                ASSERTING_DONE_LISTENER,
+                DocumentParsingProvider.EMPTY_INSTANCE
+            );
+        }
+        assertThat(mappingUpdates.get(), equalTo(1));
+        for (int i = 0; i < items.length; i++) {
+            BulkItemResponse response = items[i].getPrimaryResponse();
+            assertThat(response.getItemId(), equalTo(i));
+            assertThat(response.getId(), equalTo(items[i].request().id()));
+            assertThat(response.isFailed(), equalTo(i == 1));
+        }
+
+        shard.refresh("test");
+        assertDocCount(shard, items.length);
+        closeShards(shard);
+    }
+
     public void testTranslogPositionToSync() throws Exception {
         IndexShard shard = newStartedShard(true);
 
@@ -1235,6 +1373,121 @@ public class TransportShardBulkActionTests extends IndexShardTestCase {
         verify(mapperService, times(2)).merge(any(), any(CompressedXContent.class), any());
     }
 
+    public void testMergeDebtDelaysPrimaryAction() throws Exception {
+        final IndexingPressure indexingPressure = new IndexingPressure(MERGE_DEBT_SETTINGS);
+        final IndexShard primary = mock(IndexShard.class);
+        final AtomicLong permitRequestedNanos = new AtomicLong();
+        final AtomicLong primaryBytesOnPermit = new AtomicLong();
+        doAnswer(invocation -> {
+            permitRequestedNanos.set(System.nanoTime());
+            primaryBytesOnPermit.set(indexingPressure.stats().getCurrentPrimaryBytes());
+            ActionListener<Releasable> onAcquired = invocation.getArgument(0);
+            onAcquired.onFailure(new ElasticsearchException("simulated"));
+            return null;
+        }).when(primary).acquirePrimaryOperationPermit(any(), any(), anyBoolean());
+
+        final long startNanos = System.nanoTime();
+        // a merge debt at the reject threshold gets the longest delay
+        final Throwable failure = sendPrimaryRequestWithMergeDebt(indexingPressure, primary, ByteSizeValue.ofKb(2).getBytes());
+        assertThat(failure.getMessage(), equalTo("simulated"));
+
+        // the operation permit was only requested once the delay was over, and the request held its bytes while it waited
+        final TimeValue maxDelay = IndexingPressure.MERGE_DEBT_MAX_DELAY.get(MERGE_DEBT_SETTINGS);
+        assertThat(permitRequestedNanos.get() - startNanos, greaterThanOrEqualTo(maxDelay.nanos()));
+        assertThat(primaryBytesOnPermit.get(), greaterThan(0L));
+        final IndexingPressureStats stats = indexingPressure.stats();
+        assertThat(stats.getCurrentPrimaryBytes(), equalTo(0L));
+        assertThat(stats.getMergeDebtDelays(), equalTo(1L));
+        assertThat(stats.getMergeDebtRejections(), equalTo(0L));
+    }
+
+    public void testMergeDebtRejectsPrimaryAction() throws Exception {
+        final IndexingPressure indexingPressure = new IndexingPressure(MERGE_DEBT_SETTINGS);
+        final IndexShard primary = mock(IndexShard.class);
+
+        final Throwable failure = sendPrimaryRequestWithMergeDebt(indexingPressure, primary, ByteSizeValue.ofKb(2).getBytes() + 1);
+        assertThat(failure, instanceOf(EsRejectedExecutionException.class));
+
+        verify(primary, never()).acquirePrimaryOperationPermit(any(), any(), anyBoolean());
+        final IndexingPressureStats stats = indexingPressure.stats();
+        assertThat(stats.getTotalPrimaryBytes(), greaterThan(0L));
+        assertThat(stats.getCurrentPrimaryBytes(), equalTo(0L));
+        assertThat(stats.getMergeDebtRejections(), equalTo(1L));
+        assertThat(stats.getMergeDebtDelays(), equalTo(0L));
+    }
+
+    /**
+     * Sends a primary bulk request to a mocked primary with the given merge debt through the transport layer, so that it is accounted
+     * for in indexing pressure like any other primary request, and returns the failure it completes with.
+     */
+    private Throwable sendPrimaryRequestWithMergeDebt(IndexingPressure indexingPressure, IndexShard primary, long mergeDebtBytes) {
+        final ClusterService clusterService = createClusterService(threadPool);
+        final TransportService transportService = new CapturingTransport().createTransportService(
+            clusterService.getSettings(),
+            threadPool,
+            TransportService.NOOP_TRANSPORT_INTERCEPTOR,
+            x -> clusterService.localNode(),
+            null,
+            Collections.emptySet()
+        );
+        try {
+            transportService.start();
+            transportService.acceptIncomingRequests();
+            final ClusterState state = stateWithActivePrimary("index", true, 0);
+            setState(clusterService, state);
+            final ShardRouting primaryRouting = state.getRoutingTable().index("index").shard(0).primaryShard();
+            final long primaryTerm = state.metadata().getProject().index("index").primaryTerm(0);
+
+            when(primary.shardId()).thenReturn(primaryRouting.shardId());
+            when(primary.routingEntry()).thenReturn(primaryRouting);
+            when(primary.getPendingPrimaryTerm()).thenReturn(primaryTerm);
+            when(primary.pendingMergesSizeInBytes()).thenReturn(mergeDebtBytes);
+            final IndexService indexService = mock(IndexService.class);
+            when(indexService.getShardOrNull(0)).thenReturn(primary);
+            when(indexService.getShard(0)).thenReturn(primary);
+            final IndicesService indicesService = mock(IndicesService.class);
+            when(indicesService.indexService(any())).thenReturn(indexService);
+            when(indicesService.indexServiceSafe(any())).thenReturn(indexService);
+
+            new TransportShardBulkAction(
+                Settings.EMPTY,
+                transportService,
+                clusterService,
+                indicesService,
+                threadPool,
+                new ShardStateAction(clusterService, transportService, null, null, threadPool),
+                mock(MappingUpdatedAction.class),
+                mock(UpdateHelper.class),
+                new ActionFilters(Collections.emptySet()),
+                indexingPressure,
+                EmptySystemIndices.INSTANCE,
+                TestProjectResolvers.DEFAULT_PROJECT_ONLY,
+                DocumentParsingProvider.EMPTY_INSTANCE
+            );
+
+            BulkItemRequest[] items = new BulkItemRequest[] {
+                new BulkItemRequest(0, new IndexRequest("index").id("id").source(Requests.INDEX_CONTENT_TYPE, "field", "value")) };
+            final var request = new TransportReplicationAction.ConcreteShardRequest<>(
+                new BulkShardRequest(primaryRouting.shardId(), RefreshPolicy.NONE, items),
+                primaryRouting.allocationId().getId(),
+                primaryTerm
+            );
+            final Exception e = safeAwaitFailure(
+                BulkShardResponse.class,
+                l -> transportService.sendRequest(
+                    transportService.getLocalNode(),
+                    TransportShardBulkAction.ACTION_NAME + "[p]",
+                    request,
+                    new ActionListenerResponseHandler<>(l, BulkShardResponse::new, EsExecutors.DIRECT_EXECUTOR_SERVICE)
+                )
+            );
+            return ExceptionsHelper.unwrapCause(e);
+        } finally {
+            clusterService.close();
+            transportService.close();
+        }
+    }
+
     private IndexShard mockShard(IndexSettings indexSettings, MapperService mapperService) {
         IndexShard shard = mock(IndexShard.class);
         when(shard.shardId()).thenReturn(shardId);
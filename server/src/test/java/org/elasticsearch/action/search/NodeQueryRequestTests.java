@@ -0,0 +1,62 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.action.search;
+
+import org.elasticsearch.action.OriginalIndices;
+import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.search.AbstractSearchTestCase;
+import org.elasticsearch.search.internal.AliasFilter;
+import org.elasticsearch.search.internal.ShardSearchRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.equalTo;
+
+public class NodeQueryRequestTests extends AbstractSearchTestCase {
+
+    public void testSerialization() throws Exception {
+        SearchRequest searchRequest = createSearchRequest();
+        int numShards = randomIntBetween(1, 10);
+        List<ShardSearchRequest> shards = new ArrayList<>(numShards);
+        for (int i = 0; i < numShards; i++) {
+            shards.add(
+                new ShardSearchRequest(
+                    new OriginalIndices(searchRequest),
+                    searchRequest,
+                    new ShardId(randomAlphaOfLengthBetween(2, 10), randomAlphaOfLengthBetween(2, 10), randomInt()),
+                    i,
+                    numShards,
+                    AliasFilter.EMPTY,
+                    1.0f,
+                    randomNonNegativeLong(),
+                    randomBoolean() ? null : randomAlphaOfLengthBetween(3, 10)
+                )
+            );
+        }
+        NodeQueryRequest request = new NodeQueryRequest(shards);
+        NodeQueryRequest deserialized = copyWriteable(request, namedWriteableRegistry, NodeQueryRequest::new);
+        assertArrayEquals(request.indices(), deserialized.indices());
+        assertThat(deserialized.indicesOptions(), equalTo(request.indicesOptions()));
+        assertThat(deserialized.getDescription(), equalTo(request.getDescription()));
+        assertThat(deserialized.getShardRequests().size(), equalTo(numShards));
+        for (int i = 0; i < numShards; i++) {
+            ShardSearchRequest shard = shards.get(i);
+            ShardSearchRequest deserializedShard = deserialized.getShardRequests().get(i);
+            assertThat(deserializedShard.shardId(), equalTo(shard.shardId()));
+            assertThat(deserializedShard.shardRequestIndex(), equalTo(shard.shardRequestIndex()));
+            assertThat(deserializedShard.numberOfShards(), equalTo(shard.numberOfShards()));
+            assertThat(deserializedShard.getClusterAlias(), equalTo(shard.getClusterAlias()));
+            assertThat(deserializedShard.nowInMillis(), equalTo(shard.nowInMillis()));
+            assertArrayEquals(shard.indices(), deserializedShard.indices());
+            assertThat(deserializedShard.source(), equalTo(shard.source()));
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.action.search;
+
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TotalHits;
+import org.elasticsearch.ElasticsearchException;
+import org.elasticsearch.action.OriginalIndicesTests;
+import org.elasticsearch.common.UUIDs;
+import org.elasticsearch.common.io.stream.NamedWriteableRegistry;
+import org.elasticsearch.common.lucene.search.TopDocsAndMaxScore;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.search.DocValueFormat;
+import org.elasticsearch.search.SearchModule;
+import org.elasticsearch.search.SearchShardTarget;
+import org.elasticsearch.search.aggregations.InternalAggregations;
+import org.elasticsearch.search.aggregations.InternalAggregationsTests;
+import org.elasticsearch.search.internal.AliasFilter;
+import org.elasticsearch.search.internal.ShardSearchContextId;
+import org.elasticsearch.search.internal.ShardSearchRequest;
+import org.elasticsearch.search.query.QuerySearchResult;
+import org.elasticsearch.test.ESTestCase;
+
+import static java.util.Collections.emptyList;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+public class NodeQueryResponseTests extends ESTestCase {
+
+    private final NamedWriteableRegistry namedWriteableRegistry = new NamedWriteableRegistry(
+        new SearchModule(Settings.EMPTY, emptyList()).getNamedWriteables()
+    );
+
+    private static QuerySearchResult createQuerySearchResult(int shardIndex, int numShards) {
+        ShardId shardId = new ShardId("index", "uuid", shardIndex);
+        ShardSearchRequest shardSearchRequest = new ShardSearchRequest(
+            OriginalIndicesTests.randomOriginalIndices(),
+            new SearchRequest(),
+            shardId,
+            shardIndex,
+            numShards,
+            AliasFilter.EMPTY,
+            1.0f,
+            randomNonNegativeLong(),
+            null
+        );
+        QuerySearchResult result = new QuerySearchResult(
+            new ShardSearchContextId(UUIDs.base64UUID(), randomLong()),
+            new SearchShardTarget("node", shardId, null),
+            shardSearchRequest
+        );
+        TopDocs topDocs = new TopDocs(new TotalHits(randomLongBetween(0, Long.MAX_VALUE), TotalHits.Relation.EQUAL_TO), new ScoreDoc[0]);
+        result.topDocs(new TopDocsAndMaxScore(topDocs, randomBoolean() ? Float.NaN : randomFloat()), new DocValueFormat[0]);
+        if (randomBoolean()) {
+            result.aggregations(InternalAggregationsTests.createTestInstance());
+        }
+        return result;
+    }
+
+    public void testSerialization() throws Exception {
+        int numShards = randomIntBetween(1, 10);
+        QuerySearchResult[] results = new QuerySearchResult[numShards];
+        Exception[] failures = new Exception[numShards];
+        for (int i = 0; i < numShards; i++) {
+            if (randomBoolean()) {
+                results[i] = createQuerySearchResult(i, numShards);
+            } else {
+                failures[i] = new ElasticsearchException("failure on shard [" + i + "]");
+            }
+        }
+        NodeQueryResponse response = new NodeQueryResponse(results, failures);
+        try {
+            NodeQueryResponse deserialized = copyWriteable(response, namedWriteableRegistry, NodeQueryResponse::new);
+            try {
+                assertThat(deserialized.size(), equalTo(numShards));
+                for (int i = 0; i < numShards; i++) {
+                    QuerySearchResult result = response.getResult(i);
+                    QuerySearchResult deserializedResult = deserialized.getResult(i);
+                    if (result == null) {
+                        assertThat(deserializedResult, nullValue());
+                        assertThat(deserialized.getFailure(i).getMessage(), equalTo(failures[i].getMessage()));
+                        continue;
+                    }
+                    assertThat(deserialized.getFailure(i), nullValue());
+                    assertThat(deserializedResult.getContextId().getId(), equalTo(result.getContextId().getId()));
+                    assertThat(deserializedResult.topDocs().topDocs.totalHits, equalTo(result.topDocs().topDocs.totalHits));
+                    assertThat(deserializedResult.hasAggs(), equalTo(result.hasAggs()));
+                    if (deserializedResult.hasAggs()) {
+                        // the aggregations stay serialized until the coordinating node reduces them
+                        assertTrue(deserializedResult.aggregations().isSerialized());
+                        InternalAggregations aggs = result.getAggs().expand();
+                        InternalAggregations deserializedAggs = deserializedResult.getAggs().expand();
+                        assertEquals(aggs.asList(), deserializedAggs.asList());
+                    }
+                }
+            } finally {
+                deserialized.decRef();
+            }
+        } finally {
+            response.decRef();
+        }
+    }
+}
@@ -12,20 +12,34 @@ import org.elasticsearch.TransportVersion;
 import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.action.OriginalIndices;
 import org.elasticsearch.action.support.ActionTestUtils;
+import org.elasticsearch.action.support.PlainActionFuture;
 import org.elasticsearch.cluster.ClusterState;
 import org.elasticsearch.cluster.node.DiscoveryNode;
 import org.elasticsearch.cluster.node.DiscoveryNodeUtils;
+import org.elasticsearch.cluster.node.VersionInformation;
 import org.elasticsearch.cluster.routing.RecoverySource;
 import org.elasticsearch.cluster.routing.ShardRouting;
 import org.elasticsearch.cluster.routing.UnassignedInfo;
 import org.elasticsearch.common.UUIDs;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.util.concurrent.DeterministicTaskQueue;
+import org.elasticsearch.common.util.concurrent.EsExecutors;
+import org.elasticsearch.core.TimeValue;
 import org.elasticsearch.index.Index;
 import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.search.SearchHits;
 import org.elasticsearch.search.SearchPhaseResult;
+import org.elasticsearch.search.SearchShardTarget;
 import org.elasticsearch.search.internal.AliasFilter;
 import org.elasticsearch.search.internal.ShardSearchContextId;
+import org.elasticsearch.tasks.TaskCancelHelper;
+import org.elasticsearch.tasks.TaskCancellationService;
+import org.elasticsearch.tasks.TaskId;
+import org.elasticsearch.tasks.TaskManager;
 import org.elasticsearch.test.ESTestCase;
+import org.elasticsearch.test.transport.MockTransportService;
+import org.elasticsearch.threadpool.TestThreadPool;
+import org.elasticsearch.threadpool.ThreadPool;
 import org.elasticsearch.transport.Transport;
 import org.elasticsearch.transport.TransportException;
 import org.elasticsearch.transport.TransportRequest;
@@ -50,6 +64,7 @@ import java.util.concurrent.atomic.AtomicReference;
 import static org.elasticsearch.common.util.concurrent.ConcurrentCollections.newConcurrentMap;
 import static org.elasticsearch.common.util.concurrent.ConcurrentCollections.newConcurrentSet;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 
@@ -623,6 +638,335 @@ public class SearchAsyncActionTests extends ESTestCase {
         }
     }
 
+    public void testHedgeShardRequests() throws Exception {
+        SearchRequest request = new SearchRequest();
+        request.allowPartialSearchResults(false);
+        int numShards = randomIntBetween(1, 10);
+        DiscoveryNode primaryNode = DiscoveryNodeUtils.create("node_1");
+        DiscoveryNode replicaNode = DiscoveryNodeUtils.create("node_2");
+        List<SearchShardIterator> shardsIter = getShardsIter(
+            "idx",
+            new OriginalIndices(new String[] { "idx" }, SearchRequest.DEFAULT_INDICES_OPTIONS),
+            numShards,
+            true,
+            primaryNode,
+            replicaNode
+        );
+        AtomicReference<SearchResponse> searchResponse = new AtomicReference<>();
+        Set<ShardSearchContextId> freedContexts = newConcurrentSet();
+        SearchTask searchTask = new SearchTask(0, "n/a", "n/a", () -> "test", null, Collections.emptyMap());
+        AtomicInteger copyTaskIds = new AtomicInteger();
+        Set<SearchTask> registeredCopyTasks = newConcurrentSet();
+        Set<SearchTask> cancelledCopyTasks = newConcurrentSet();
+        SearchTransportService transportService = new SearchTransportService(null, null, null) {
+            @Override
+            public void sendFreeContext(
+                Transport.Connection connection,
+                ShardSearchContextId contextId,
+                ActionListener<SearchFreeContextResponse> listener
+            ) {
+                assertTrue(freedContexts.add(contextId));
+            }
+
+            @Override
+            public SearchTask registerShardCopyTask(SearchTask parentTask, SearchShardTarget shard) {
+                assertSame(searchTask, parentTask);
+                SearchTask copyTask = shardCopyTask(copyTaskIds.incrementAndGet(), parentTask);
+                assertTrue(registeredCopyTasks.add(copyTask));
+                return copyTask;
+            }
+
+            @Override
+            public void cancelShardCopyTask(SearchTask task, String reason) {
+                assertTrue(cancelledCopyTasks.add(task));
+            }
+
+            @Override
+            public void unregisterShardCopyTask(SearchTask task) {
+                assertTrue(registeredCopyTasks.remove(task));
+            }
+        };
+        Map<String, Transport.Connection> lookup = new HashMap<>();
+        lookup.put(primaryNode.getId(), new MockConnection(primaryNode));
+        lookup.put(replicaNode.getId(), new MockConnection(replicaNode));
+        Map<String, AliasFilter> aliasFilters = Collections.singletonMap("_na_", AliasFilter.EMPTY);
+        AtomicInteger contextIdGenerator = new AtomicInteger(0);
+        Map<ShardId, Runnable> stalled = new ConcurrentHashMap<>();
+        Set<SearchTask> stalledCopyTasks = newConcurrentSet();
+        CountDownLatch latch = new CountDownLatch(1);
+        ThreadPool threadPool = new TestThreadPool(getTestName());
+        try (var results = new ArraySearchPhaseResults<TestSearchPhaseResult>(shardsIter.size())) {
+            AbstractSearchAsyncAction<TestSearchPhaseResult> asyncAction = new AbstractSearchAsyncAction<>(
+                "test",
+                logger,
+                null,
+                transportService,
+                (cluster, node) -> lookup.get(node),
+                aliasFilters,
+                Collections.emptyMap(),
+                EsExecutors.DIRECT_EXECUTOR_SERVICE,
+                request,
+                ActionTestUtils.assertNoFailureListener(searchResponse::set),
+                shardsIter,
+                new TransportSearchAction.SearchTimeProvider(0, 0, () -> 0),
+                ClusterState.EMPTY_STATE,
+                searchTask,
+                results,
+                request.getMaxConcurrentShardRequests(),
+                SearchResponse.Clusters.EMPTY
+            ) {
+                @Override
+                protected void executePhaseOnShard(
+                    SearchShardIterator shardIt,
+                    Transport.Connection connection,
+                    SearchActionListener<TestSearchPhaseResult> listener
+                ) {
+                    throw new AssertionError("hedged shard requests are sent under their copy task");
+                }
+
+                @Override
+                protected void executePhaseOnShard(
+                    SearchShardIterator shardIt,
+                    Transport.Connection connection,
+                    SearchActionListener<TestSearchPhaseResult> listener,
+                    SearchTask parentTask
+                ) {
+                    assertTrue(registeredCopyTasks.contains(parentTask));
+                    Runnable respond = () -> {
+                        TestSearchPhaseResult result = new TestSearchPhaseResult(
+                            new ShardSearchContextId(UUIDs.randomBase64UUID(), contextIdGenerator.incrementAndGet()),
+                            connection.getNode()
+                        );
+                        try {
+                            listener.onResponse(result);
+                        } finally {
+                            result.decRef();
+                        }
+                    };
+                    // the first copy of every shard never answers in time
+                    if (stalled.putIfAbsent(shardIt.shardId(), respond) == null) {
+                        stalledCopyTasks.add(parentTask);
+                    } else {
+                        new Thread(respond).start();
+                    }
+                }
+
+                @Override
+                protected SearchPhase getNextPhase() {
+                    return new SearchPhase("test") {
+                        @Override
+                        protected void run() {
+                            latch.countDown();
+                        }
+                    };
+                }
+            };
+            asyncAction.hedgeShardRequestsAfter(TimeValue.timeValueMillis(randomIntBetween(0, 10)), threadPool);
+            asyncAction.start();
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+            assertThat(stalled.size(), equalTo(numShards));
+            assertThat(freedContexts, empty());
+            // the requests to the stalled copies are cancelled as the hedged copies won
+            assertBusy(() -> assertThat(cancelledCopyTasks, equalTo(stalledCopyTasks)));
+            assertThat(registeredCopyTasks, equalTo(stalledCopyTasks));
+
+            // the stalled copies finally answer, their contexts are released
+            stalled.values().forEach(Runnable::run);
+            assertThat(freedContexts.size(), equalTo(numShards));
+            assertThat(registeredCopyTasks, empty());
+
+            asyncAction.sendSearchResponse(SearchResponseSections.EMPTY_WITH_TOTAL_HITS, null);
+            assertNotNull(searchResponse.get());
+            assertThat(searchResponse.get().getFailedShards(), equalTo(0));
+            assertThat(searchResponse.get().getSuccessfulShards(), equalTo(numShards));
+        } finally {
+            terminate(threadPool);
+        }
+    }
+
+    public void testNoHedgedShardRequestsOnceTheSearchIsCancelled() {
+        SearchRequest request = new SearchRequest();
+        int numShards = randomIntBetween(1, 10);
+        DiscoveryNode primaryNode = DiscoveryNodeUtils.create("node_1");
+        DiscoveryNode replicaNode = DiscoveryNodeUtils.create("node_2");
+        List<SearchShardIterator> shardsIter = getShardsIter(
+            "idx",
+            new OriginalIndices(new String[] { "idx" }, SearchRequest.DEFAULT_INDICES_OPTIONS),
+            numShards,
+            true,
+            primaryNode,
+            replicaNode
+        );
+        SearchTask searchTask = new SearchTask(0, "n/a", "n/a", () -> "test", null, Collections.emptyMap());
+        AtomicInteger copyTaskIds = new AtomicInteger();
+        SearchTransportService transportService = new SearchTransportService(null, null, null) {
+            @Override
+            public SearchTask registerShardCopyTask(SearchTask parentTask, SearchShardTarget shard) {
+                return shardCopyTask(copyTaskIds.incrementAndGet(), parentTask);
+            }
+
+            @Override
+            public void unregisterShardCopyTask(SearchTask task) {}
+        };
+        Map<String, Transport.Connection> lookup = new HashMap<>();
+        lookup.put(primaryNode.getId(), new MockConnection(primaryNode));
+        lookup.put(replicaNode.getId(), new MockConnection(replicaNode));
+        AtomicInteger numRequests = new AtomicInteger();
+        DeterministicTaskQueue deterministicTaskQueue = new DeterministicTaskQueue();
+        try (var results = new ArraySearchPhaseResults<TestSearchPhaseResult>(shardsIter.size())) {
+            AbstractSearchAsyncAction<TestSearchPhaseResult> asyncAction = new AbstractSearchAsyncAction<>(
+                "test",
+                logger,
+                null,
+                transportService,
+                (cluster, node) -> lookup.get(node),
+                Collections.singletonMap("_na_", AliasFilter.EMPTY),
+                Collections.emptyMap(),
+                EsExecutors.DIRECT_EXECUTOR_SERVICE,
+                request,
+                ActionListener.noop(),
+                shardsIter,
+                new TransportSearchAction.SearchTimeProvider(0, 0, () -> 0),
+                ClusterState.EMPTY_STATE,
+                searchTask,
+                results,
+                request.getMaxConcurrentShardRequests(),
+                SearchResponse.Clusters.EMPTY
+            ) {
+                @Override
+                protected void executePhaseOnShard(
+                    SearchShardIterator shardIt,
+                    Transport.Connection connection,
+                    SearchActionListener<TestSearchPhaseResult> listener
+                ) {
+                    // no copy ever answers
+                    numRequests.incrementAndGet();
+                }
+
+                @Override
+                protected SearchPhase getNextPhase() {
+                    throw new AssertionError("no shard answers");
+                }
+            };
+            asyncAction.hedgeShardRequestsAfter(TimeValue.timeValueMillis(randomIntBetween(0, 10)), deterministicTaskQueue.getThreadPool());
+            asyncAction.start();
+            assertThat(numRequests.get(), equalTo(numShards));
+            TaskCancelHelper.cancel(searchTask, "test");
+            deterministicTaskQueue.runAllTasks();
+            assertThat(numRequests.get(), equalTo(numShards));
+        }
+    }
+
+    public void testCancellingTheSearchCancelsTheHedgedShardCopyTasks() throws Exception {
+        SearchRequest request = new SearchRequest();
+        int numShards = randomIntBetween(1, 10);
+        DiscoveryNode primaryNode = DiscoveryNodeUtils.create("node_1");
+        DiscoveryNode replicaNode = DiscoveryNodeUtils.create("node_2");
+        List<SearchShardIterator> shardsIter = getShardsIter(
+            "idx",
+            new OriginalIndices(new String[] { "idx" }, SearchRequest.DEFAULT_INDICES_OPTIONS),
+            numShards,
+            true,
+            primaryNode,
+            replicaNode
+        );
+        Map<String, Transport.Connection> lookup = new HashMap<>();
+        lookup.put(primaryNode.getId(), new MockConnection(primaryNode));
+        lookup.put(replicaNode.getId(), new MockConnection(replicaNode));
+        Set<SearchTask> copyTasks = newConcurrentSet();
+        ThreadPool threadPool = new TestThreadPool(getTestName());
+        try (
+            var transportService = MockTransportService.createNewService(
+                Settings.EMPTY,
+                VersionInformation.CURRENT,
+                TransportVersion.current(),
+                threadPool
+            );
+            var results = new ArraySearchPhaseResults<TestSearchPhaseResult>(shardsIter.size())
+        ) {
+            TaskManager taskManager = transportService.getTaskManager();
+            taskManager.setTaskCancellationService(new TaskCancellationService(transportService));
+            transportService.start();
+            transportService.acceptIncomingRequests();
+            SearchTask searchTask = (SearchTask) taskManager.register("transport", TransportSearchAction.NAME, request);
+            AbstractSearchAsyncAction<TestSearchPhaseResult> asyncAction = new AbstractSearchAsyncAction<>(
+                "test",
+                logger,
+                null,
+                new SearchTransportService(transportService, null, null),
+                (cluster, node) -> lookup.get(node),
+                Collections.singletonMap("_na_", AliasFilter.EMPTY),
+                Collections.emptyMap(),
+                EsExecutors.DIRECT_EXECUTOR_SERVICE,
+                request,
+                ActionListener.noop(),
+                shardsIter,
+                new TransportSearchAction.SearchTimeProvider(0, 0, () -> 0),
+                ClusterState.EMPTY_STATE,
+                searchTask,
+                results,
+                request.getMaxConcurrentShardRequests(),
+                SearchResponse.Clusters.EMPTY
+            ) {
+                @Override
+                protected void executePhaseOnShard(
+                    SearchShardIterator shardIt,
+                    Transport.Connection connection,
+                    SearchActionListener<TestSearchPhaseResult> listener
+                ) {
+                    throw new AssertionError("hedged shard requests are sent under their copy task");
+                }
+
+                @Override
+                protected void executePhaseOnShard(
+                    SearchShardIterator shardIt,
+                    Transport.Connection connection,
+                    SearchActionListener<TestSearchPhaseResult> listener,
+                    SearchTask parentTask
+                ) {
+                    // no copy ever answers
+                    assertTrue(copyTasks.add(parentTask));
+                }
+
+                @Override
+                protected SearchPhase getNextPhase() {
+                    throw new AssertionError("no shard answers");
+                }
+            };
+            asyncAction.hedgeShardRequestsAfter(TimeValue.timeValueMillis(randomIntBetween(0, 10)), threadPool);
+            asyncAction.start();
+            // both copies of every shard are queried
+            assertBusy(() -> assertThat(copyTasks.size(), equalTo(2 * numShards)));
+            for (SearchTask copyTask : copyTasks) {
+                assertThat(copyTask.getParentTaskId(), equalTo(new TaskId(transportService.getLocalNode().getId(), searchTask.getId())));
+                assertFalse(copyTask.isCancelled());
+            }
+
+            PlainActionFuture<Void> cancellationFuture = new PlainActionFuture<>();
+            taskManager.cancelTaskAndDescendants(searchTask, "test", false, cancellationFuture);
+            cancellationFuture.actionGet(TimeValue.timeValueSeconds(10));
+            // the ban on the search task reaches the copy tasks and through them the shard requests sent under them
+            assertBusy(() -> {
+                for (SearchTask copyTask : copyTasks) {
+                    assertTrue("copy task " + copyTask.getId() + " should be cancelled", copyTask.isCancelled());
+                }
+            });
+        } finally {
+            terminate(threadPool);
+        }
+    }
+
+    private static SearchTask shardCopyTask(long id, SearchTask parentTask) {
+        return new SearchTask(
+            id,
+            "transport",
+            SearchTransportService.SHARD_COPY_TASK_NAME,
+            () -> "shard copy",
+            new TaskId("node", parentTask.getId()),
+            Collections.emptyMap()
+        );
+    }
+
     public void testSkipUnavailableSearchShards() throws InterruptedException {
         SearchRequest request = new SearchRequest();
         request.allowPartialSearchResults(true);
@@ -720,6 +720,59 @@ public class SearchPhaseControllerTests extends ESTestCase {
         }
     }
 
+    public void testConsumerWithAggsOnSomeResults() throws Exception {
+        // the shards of a node level query phase send their partially reduced aggregations along with just one of them
+        int numShards = randomIntBetween(2, 20);
+        int bufferSize = randomIntBetween(2, 5);
+        SearchRequest request = randomSearchRequest();
+        request.source(new SearchSourceBuilder().aggregation(new MaxAggregationBuilder("test")));
+        request.setBatchedReduceSize(bufferSize);
+        int withAggs = randomIntBetween(0, numShards - 1);
+        double expectedMax = Double.NEGATIVE_INFINITY;
+        CountDownLatch latch = new CountDownLatch(numShards);
+        try (
+            SearchPhaseResults<SearchPhaseResult> consumer = searchPhaseController.newSearchPhaseResults(
+                fixedExecutor,
+                new NoopCircuitBreaker(CircuitBreaker.REQUEST),
+                () -> false,
+                SearchProgressListener.NOOP,
+                request,
+                numShards,
+                exc -> {}
+            )
+        ) {
+            for (int i = 0; i < numShards; i++) {
+                QuerySearchResult result = new QuerySearchResult(
+                    new ShardSearchContextId("", i),
+                    new SearchShardTarget("node", new ShardId("a", "b", i), null),
+                    null
+                );
+                try {
+                    result.topDocs(
+                        new TopDocsAndMaxScore(new TopDocs(new TotalHits(0, TotalHits.Relation.EQUAL_TO), new ScoreDoc[0]), Float.NaN),
+                        new DocValueFormat[0]
+                    );
+                    if (i == withAggs || randomBoolean()) {
+                        double value = randomDouble();
+                        expectedMax = Math.max(expectedMax, value);
+                        InternalAggregations aggs = InternalAggregations.from(
+                            singletonList(new Max("test", value, DocValueFormat.RAW, emptyMap()))
+                        );
+                        result.aggregations(aggs);
+                    }
+                    result.setShardIndex(i);
+                    consumer.consumeResult(result, latch::countDown);
+                } finally {
+                    result.decRef();
+                }
+            }
+            latch.await();
+            SearchPhaseController.ReducedQueryPhase reduce = consumer.reduce();
+            Max max = (Max) reduce.aggregations().asList().get(0);
+            assertEquals(expectedMax, max.value(), 0.0D);
+        }
+    }
+
     public void testConsumerConcurrently() throws Exception {
         int expectedNumResults = randomIntBetween(1, 100);
         int bufferSize = randomIntBetween(2, 200);
@@ -468,4 +468,34 @@ public class OperationRoutingTests extends ESTestCase {
         terminate(threadPool);
     }
 
+    public void testARSShardLevelStats() throws Exception {
+        ProjectId projectId = randomProjectIdOrDefault();
+        String[] indexNames = new String[] { "test0" };
+        ClusterState state = ClusterStateCreationUtils.stateWithAssignedPrimariesAndReplicas(projectId, indexNames, 1, 1);
+        ProjectState project = state.projectState(projectId);
+        ShardId shardId = new ShardId(project.metadata().index("test0").getIndex(), 0);
+        OperationRouting opRouting = new OperationRouting(
+            Settings.EMPTY,
+            new ClusterSettings(Settings.EMPTY, ClusterSettings.BUILT_IN_CLUSTER_SETTINGS)
+        );
+        opRouting.setUseAdaptiveReplicaSelection(true);
+        TestThreadPool threadPool = new TestThreadPool("test");
+        ClusterService clusterService = ClusterServiceUtils.createClusterService(threadPool);
+        ResponseCollectorService collector = new ResponseCollectorService(clusterService);
+
+        // node_0 is a little faster overall
+        collector.addNodeStatistics("node_0", 1, TimeValue.timeValueMillis(50).nanos(), TimeValue.timeValueMillis(40).nanos());
+        collector.addNodeStatistics("node_1", 1, TimeValue.timeValueMillis(60).nanos(), TimeValue.timeValueMillis(40).nanos());
+        List<ShardIterator> groupIterator = opRouting.searchShards(project, indexNames, null, null, collector, new HashMap<>());
+        assertThat(groupIterator.get(0).nextOrNull().currentNodeId(), equalTo("node_0"));
+
+        // but its copy of this shard is hot, so we should use the other copy
+        collector.addShardResponseTime("node_0", shardId, TimeValue.timeValueMillis(500).nanos());
+        collector.addShardResponseTime("node_1", shardId, TimeValue.timeValueMillis(60).nanos());
+        groupIterator = opRouting.searchShards(project, indexNames, null, null, collector, new HashMap<>());
+        assertThat(groupIterator.get(0).nextOrNull().currentNodeId(), equalTo("node_1"));
+
+        IOUtils.close(clusterService);
+        terminate(threadPool);
+    }
 }
@@ -288,6 +288,46 @@ public class IndexSettingsTests extends ESTestCase {
         assertEquals(Translog.Durability.REQUEST, settings.getTranslogDurability()); // test default
     }
 
+    public void testTranslogGroupCommitWindow() {
+        IndexMetadata metadata = newIndexMeta("index", Settings.EMPTY);
+        assertEquals(TimeValue.ZERO, new IndexSettings(metadata, Settings.EMPTY).getTranslogGroupCommitWindow()); // test default
+
+        Settings nodeSettings = Settings.builder().put(IndexSettings.TRANSLOG_GROUP_COMMIT_WINDOW_SETTING.getKey(), "2ms").build();
+        assertEquals(TimeValue.timeValueMillis(2), new IndexSettings(metadata, nodeSettings).getTranslogGroupCommitWindow());
+
+        IllegalArgumentException e = expectThrows(
+            IllegalArgumentException.class,
+            () -> IndexSettings.TRANSLOG_GROUP_COMMIT_WINDOW_SETTING.get(
+                Settings.builder().put(IndexSettings.TRANSLOG_GROUP_COMMIT_WINDOW_SETTING.getKey(), "1s").build()
+            )
+        );
+        assertThat(e.getMessage(), containsString("indices.translog.group_commit_window"));
+    }
+
+    public void testBulkMaxParsingThreads() {
+        IndexMetadata metadata = newIndexMeta("index", Settings.EMPTY);
+        assertEquals(1, new IndexSettings(metadata, Settings.EMPTY).getBulkMaxParsingThreads()); // test default
+
+        Settings nodeSettings = Settings.builder().put(IndexSettings.BULK_MAX_PARSING_THREADS_SETTING.getKey(), 4).build();
+        assertEquals(4, new IndexSettings(metadata, nodeSettings).getBulkMaxParsingThreads());
+
+        IllegalArgumentException e = expectThrows(
+            IllegalArgumentException.class,
+            () -> IndexSettings.BULK_MAX_PARSING_THREADS_SETTING.get(
+                Settings.builder().put(IndexSettings.BULK_MAX_PARSING_THREADS_SETTING.getKey(), 0).build()
+            )
+        );
+        assertThat(e.getMessage(), containsString("indices.bulk.max_parsing_threads"));
+    }
+
+    public void testAsyncWriteback() {
+        IndexMetadata metadata = newIndexMeta("index", Settings.EMPTY);
+        assertFalse(new IndexSettings(metadata, Settings.EMPTY).isAsyncWriteback()); // test default
+
+        Settings nodeSettings = Settings.builder().put(IndexSettings.ASYNC_WRITEBACK_SETTING.getKey(), true).build();
+        assertTrue(new IndexSettings(metadata, nodeSettings).isAsyncWriteback());
+    }
+
     public void testIsWarmerEnabled() {
         IndexMetadata metadata = newIndexMeta(
             "index",
@@ -13,6 +13,8 @@ import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
 import org.elasticsearch.core.Releasable;
+import org.elasticsearch.core.TimeValue;
+import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.index.stats.IndexingPressureStats;
 import org.elasticsearch.test.ESTestCase;
 import org.hamcrest.Matchers;
@@ -337,4 +339,54 @@ public class IndexingPressureTests extends ESTestCase {
         }
         assertEquals(0, indexingPressure.stats().getCurrentCoordinatingBytes());
     }
+
+    public void testMergeDebtIsIgnoredByDefault() {
+        IndexingPressure indexingPressure = new IndexingPressure(settings);
+        ShardId shardId = new ShardId("index", "uuid", 0);
+        assertEquals(TimeValue.ZERO, indexingPressure.checkMergeDebt(shardId, Long.MAX_VALUE, false));
+        assertEquals(0L, indexingPressure.stats().getMergeDebtDelays());
+        assertEquals(0L, indexingPressure.stats().getMergeDebtRejections());
+    }
+
+    public void testMergeDebtDelaysAndRejections() {
+        IndexingPressure indexingPressure = new IndexingPressure(
+            Settings.builder()
+                .put(IndexingPressure.MERGE_DEBT_DELAY_THRESHOLD.getKey(), "1MB")
+                .put(IndexingPressure.MERGE_DEBT_REJECT_THRESHOLD.getKey(), "3MB")
+                .put(IndexingPressure.MERGE_DEBT_MAX_DELAY.getKey(), "1s")
+                .build()
+        );
+        ShardId shardId = new ShardId("index", "uuid", 0);
+        long mb = ByteSizeValue.ofMb(1).getBytes();
+
+        assertEquals(TimeValue.ZERO, indexingPressure.checkMergeDebt(shardId, randomLongBetween(0, mb), false));
+        assertEquals(TimeValue.timeValueMillis(500), indexingPressure.checkMergeDebt(shardId, 2 * mb, false));
+        assertEquals(TimeValue.timeValueSeconds(1), indexingPressure.checkMergeDebt(shardId, 3 * mb, false));
+        assertEquals(2L, indexingPressure.stats().getMergeDebtDelays());
+        assertEquals(1500L, indexingPressure.stats().getTotalMergeDebtDelayTimeInMillis());
+
+        EsRejectedExecutionException e = expectThrows(
+            EsRejectedExecutionException.class,
+            () -> indexingPressure.checkMergeDebt(shardId, 3 * mb + 1, false)
+        );
+        assertThat(e.getMessage(), Matchers.containsString("max_merge_debt_bytes=" + 3 * mb));
+        assertEquals(1L, indexingPressure.stats().getMergeDebtRejections());
+
+        // forced operations are neither delayed nor rejected
+        assertEquals(TimeValue.ZERO, indexingPressure.checkMergeDebt(shardId, randomLongBetween(mb + 1, Long.MAX_VALUE), true));
+        assertEquals(2L, indexingPressure.stats().getMergeDebtDelays());
+        assertEquals(1L, indexingPressure.stats().getMergeDebtRejections());
+    }
+
+    public void testMergeDebtDelaysWithoutRejections() {
+        IndexingPressure indexingPressure = new IndexingPressure(
+            Settings.builder().put(IndexingPressure.MERGE_DEBT_DELAY_THRESHOLD.getKey(), "1MB").build()
+        );
+        ShardId shardId = new ShardId("index", "uuid", 0);
+        long mb = ByteSizeValue.ofMb(1).getBytes();
+        // without a reject threshold, the delay reaches its maximum at twice the delay threshold
+        assertEquals(TimeValue.timeValueMillis(500), indexingPressure.checkMergeDebt(shardId, mb + mb / 2, false));
+        assertEquals(TimeValue.timeValueSeconds(1), indexingPressure.checkMergeDebt(shardId, Long.MAX_VALUE, false));
+        assertEquals(0L, indexingPressure.stats().getMergeDebtRejections());
+    }
 }
@@ -160,6 +160,7 @@ import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.CyclicBarrier;
 import java.util.concurrent.Phaser;
@@ -201,6 +202,7 @@ import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.emptyArray;
 import static org.hamcrest.Matchers.emptyIterable;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.everyItem;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.hasEntry;
@@ -1265,6 +1267,52 @@ public class InternalEngineTests extends EngineTestCase {
         checker.run();
     }
 
+    public void testConcurrentWritersShareTheGroupCommitSync() throws Exception {
+        IOUtils.close(engine, store);
+        final TimeValue window = TimeValue.timeValueMillis(500);
+        final IndexSettings indexSettings = IndexSettingsModule.newIndexSettings(
+            defaultSettings.getIndex(),
+            defaultSettings.getSettings(),
+            Settings.builder().put(IndexSettings.TRANSLOG_GROUP_COMMIT_WINDOW_SETTING.getKey(), window).build()
+        );
+        store = createStore();
+        engine = createEngine(indexSettings, store, createTempDir(), newMergePolicy());
+        final int numWriters = randomIntBetween(2, 8);
+        final CountDownLatch synced = new CountDownLatch(numWriters);
+        final List<Exception> failures = new CopyOnWriteArrayList<>();
+        final List<Boolean> syncNeededOnNotification = new CopyOnWriteArrayList<>();
+        final long startNanos = System.nanoTime();
+        startInParallel(numWriters, i -> {
+            try {
+                ParsedDocument doc = testParsedDocument(Integer.toString(i), null, testDocumentWithTextField(), SOURCE, null);
+                Engine.IndexResult result = engine.index(indexForDoc(doc));
+                // returns right away, the listener is called once the window closes and the translog is synced
+                engine.asyncEnsureTranslogSynced(result.getTranslogLocation(), e -> {
+                    if (e != null) {
+                        failures.add(e);
+                    }
+                    syncNeededOnNotification.add(engine.isTranslogSyncNeeded());
+                    synced.countDown();
+                });
+            } catch (IOException e) {
+                throw new AssertionError(e);
+            }
+        });
+        final long notifiedBeforeWindowClosed = numWriters - synced.getCount();
+        final boolean syncNeededBeforeWindowClosed = engine.isTranslogSyncNeeded();
+        final boolean allWritesInWindow = System.nanoTime() - startNanos < window.nanos();
+        assertTrue(synced.await(10, TimeUnit.SECONDS));
+        assertThat(failures, empty());
+        assertFalse(engine.isTranslogSyncNeeded());
+        if (allWritesInWindow) {
+            // nothing is synced until the window closes...
+            assertThat(notifiedBeforeWindowClosed, equalTo(0L));
+            assertTrue(syncNeededBeforeWindowClosed);
+            // ...and then a single sync covers the writes of all writers, so every one of them finds the translog fully synced
+            assertThat(syncNeededOnNotification, everyItem(equalTo(false)));
+        }
+    }
+
     public void testSyncedFlushSurvivesEngineRestart() throws IOException {
         final AtomicLong globalCheckpoint = new AtomicLong(SequenceNumbers.NO_OPS_PERFORMED);
         IOUtils.close(store, engine);
@@ -4381,6 +4429,44 @@ public class InternalEngineTests extends EngineTestCase {
         }
     }
 
+    public void testIndexBatchOfAppendOnlyOperations() throws IOException {
+        int numDocs = randomIntBetween(2, 100);
+        List<Engine.Index> operations = new ArrayList<>();
+        for (int i = 0; i < numDocs; i++) {
+            final ParsedDocument doc = testParsedDocument(
+                Integer.toString(i),
+                null,
+                testDocumentWithTextField(),
+                new BytesArray("{}".getBytes(Charset.defaultCharset())),
+                null
+            );
+            operations.add(appendOnlyPrimary(doc, false, i));
+        }
+        List<Engine.IndexResult> results = engine.indexBatch(operations);
+        assertEquals(numDocs, results.size());
+        Set<Long> seqNos = new HashSet<>();
+        for (int i = 0; i < numDocs; i++) {
+            Engine.IndexResult result = results.get(i);
+            assertEquals(Engine.Result.Type.SUCCESS, result.getResultType());
+            assertEquals(operations.get(i).id(), result.getId());
+            assertEquals(1L, result.getVersion());
+            assertTrue(result.isCreated());
+            assertNotNull(result.getTranslogLocation());
+            assertTrue(seqNos.add(result.getSeqNo()));
+        }
+        assertEquals(numDocs - 1, engine.getProcessedLocalCheckpoint());
+        assertEquals(numDocs, getTranslog(engine).totalOperations());
+        assertLuceneOperations(engine, numDocs, 0, 0);
+
+        // a retry of an operation of the batch must not add a second copy of the document
+        Engine.Index operation = randomFrom(operations);
+        engine.index(appendOnlyPrimary(operation.parsedDoc(), true, operation.getAutoGeneratedIdTimestamp(), false));
+        engine.refresh("test");
+        try (Engine.Searcher searcher = engine.acquireSearcher("test")) {
+            assertEquals(numDocs, searcher.count(new MatchAllDocsQuery()));
+        }
+    }
+
     public void testEngineMaxTimestampIsInitialized() throws IOException {
 
         final AtomicLong globalCheckpoint = new AtomicLong(SequenceNumbers.NO_OPS_PERFORMED);
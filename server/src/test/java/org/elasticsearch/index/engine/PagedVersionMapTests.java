@@ -0,0 +1,158 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.index.engine;
+
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.core.Releasable;
+import org.elasticsearch.test.ESTestCase;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import static org.elasticsearch.index.engine.LiveVersionMapTestUtils.randomIndexVersionValue;
+import static org.elasticsearch.index.engine.LiveVersionMapTestUtils.uid;
+import static org.hamcrest.Matchers.equalTo;
+
+public class PagedVersionMapTests extends ESTestCase {
+
+    public void testRandomOperations() {
+        PagedVersionMap map = new PagedVersionMap();
+        Map<BytesRef, VersionValue> expected = new HashMap<>();
+        List<BytesRef> keys = new ArrayList<>();
+        int numKeys = randomIntBetween(10, 500);
+        for (int i = 0; i < numKeys; i++) {
+            keys.add(uid(randomIdentifier()));
+        }
+        for (int i = 0; i < 5000; i++) {
+            BytesRef key = randomFrom(keys);
+            switch (randomIntBetween(0, 2)) {
+                case 0 -> {
+                    VersionValue value = randomBoolean()
+                        ? randomIndexVersionValue()
+                        : new DeleteVersionValue(randomNonNegativeLong(), randomNonNegativeLong(), randomNonNegativeLong(), randomLong());
+                    assertEquals(expected.put(key, value), map.put(key, value));
+                }
+                case 1 -> assertEquals(expected.remove(key), map.remove(key));
+                case 2 -> assertEquals(expected.get(key), map.get(key));
+                default -> throw new AssertionError();
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        assertThat(new HashMap<>(map), equalTo(expected));
+    }
+
+    public void testConcurrentPuts() throws InterruptedException {
+        PagedVersionMap map = new PagedVersionMap();
+        int numThreads = randomIntBetween(2, 8);
+        int keysPerThread = randomIntBetween(100, 1000);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        Thread[] threads = new Thread[numThreads];
+        for (int t = 0; t < numThreads; t++) {
+            final int thread = t;
+            threads[t] = new Thread(() -> {
+                safeAwait(startLatch);
+                for (int i = 0; i < keysPerThread; i++) {
+                    map.put(uid(thread + "_" + i), new IndexVersionValue(null, i, i, thread));
+                }
+            });
+            threads[t].start();
+        }
+        startLatch.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(numThreads * keysPerThread, map.size());
+        for (int t = 0; t < numThreads; t++) {
+            for (int i = 0; i < keysPerThread; i++) {
+                assertEquals(new IndexVersionValue(null, i, i, t), map.get(uid(t + "_" + i)));
+            }
+        }
+    }
+
+    public void testRamBytesUsed() {
+        PagedVersionMap map = new PagedVersionMap();
+        assertEquals(0, map.ramBytesUsed());
+        List<BytesRef> keys = new ArrayList<>();
+        long expected = 0;
+        int numKeys = randomIntBetween(1, 100);
+        for (int i = 0; i < numKeys; i++) {
+            BytesRef key = uid(Integer.toString(i));
+            keys.add(key);
+            map.put(key, randomIndexVersionValue());
+            expected += PagedVersionMap.entryBytesUsed(key);
+        }
+        assertEquals(expected, map.ramBytesUsed());
+
+        // the value of an existing key is overwritten in place
+        map.put(randomFrom(keys), randomIndexVersionValue());
+        assertEquals(expected, map.ramBytesUsed());
+
+        // removing a key doesn't free anything, its bytes stay in the hash until the map is dropped
+        BytesRef removed = randomFrom(keys);
+        assertNotNull(map.remove(removed));
+        assertEquals(numKeys - 1, map.size());
+        assertEquals(expected, map.ramBytesUsed());
+
+        // so putting it back doesn't use more bytes either
+        map.put(removed, randomIndexVersionValue());
+        assertEquals(expected, map.ramBytesUsed());
+    }
+
+    public void testLiveVersionMapKeepsAccountingForDeletedKeys() throws IOException {
+        LiveVersionMap map = new LiveVersionMap(LiveVersionMapArchive.NOOP_ARCHIVE, true);
+        map.enforceSafeAccess();
+        BytesRef uid = uid("1");
+        IndexVersionValue indexed = randomIndexVersionValue();
+        try (Releasable r = map.acquireLock(uid)) {
+            map.putIndexUnderLock(uid, indexed);
+        }
+        assertEquals(PagedVersionMap.entryBytesUsed(uid), map.ramBytesUsedForRefresh());
+        try (Releasable r = map.acquireLock(uid)) {
+            map.putDeleteUnderLock(uid, new DeleteVersionValue(indexed.version + 1, indexed.seqNo + 1, indexed.term, 1));
+        }
+        // the delete goes to the tombstones but the key of the removed entry is only released by the next refresh
+        assertEquals(PagedVersionMap.entryBytesUsed(uid), map.ramBytesUsedForRefresh());
+        map.beforeRefresh();
+        map.afterRefresh(randomBoolean());
+        assertEquals(0, map.ramBytesUsedForRefresh());
+    }
+
+    public void testLiveVersionMapWithPagedMaps() throws IOException {
+        LiveVersionMap map = new LiveVersionMap(LiveVersionMapArchive.NOOP_ARCHIVE, true);
+        map.enforceSafeAccess();
+        BytesRef uid = uid("1");
+        IndexVersionValue indexed = randomIndexVersionValue();
+        try (Releasable r = map.acquireLock(uid)) {
+            map.putIndexUnderLock(uid, indexed);
+            assertEquals(indexed, map.getUnderLock(uid));
+        }
+        long ramBytesUsed = map.ramBytesUsed();
+        assertThat(ramBytesUsed, equalTo(PagedVersionMap.entryBytesUsed(uid)));
+
+        map.beforeRefresh();
+        try (Releasable r = map.acquireLock(uid)) {
+            // still visible in the old map while refreshing
+            assertEquals(indexed, map.getUnderLock(uid));
+        }
+        assertEquals(ramBytesUsed, map.getRefreshingBytes());
+        map.afterRefresh(randomBoolean());
+        try (Releasable r = map.acquireLock(uid)) {
+            assertNull(map.getUnderLock(uid));
+            DeleteVersionValue deleted = new DeleteVersionValue(indexed.version + 1, indexed.seqNo + 1, indexed.term, 1);
+            map.putDeleteUnderLock(uid, deleted);
+            assertEquals(deleted, map.getUnderLock(uid));
+        }
+        assertEquals(0, map.reclaimableRefreshRamBytes());
+    }
+}
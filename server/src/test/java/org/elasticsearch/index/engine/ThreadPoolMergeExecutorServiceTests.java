@@ -10,6 +10,7 @@
 package org.elasticsearch.index.engine;
 
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
 import org.elasticsearch.common.util.concurrent.DeterministicTaskQueue;
 import org.elasticsearch.common.util.concurrent.EsExecutors;
@@ -19,6 +20,7 @@ import org.elasticsearch.test.ESTestCase;
 import org.elasticsearch.threadpool.TestThreadPool;
 import org.elasticsearch.threadpool.ThreadPool;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -48,7 +50,9 @@ import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -663,6 +667,129 @@ public class ThreadPoolMergeExecutorServiceTests extends ESTestCase {
         }
     }
 
+    public void testMergeTasksOfSearchActiveShardsRunFirst() {
+        List<MergeTask> mergeTasks = new ArrayList<>();
+        int mergeTaskCount = randomIntBetween(2, 20);
+        for (int i = 0; i < mergeTaskCount; i++) {
+            MergeTask mergeTask = mock(MergeTask.class);
+            when(mergeTask.isSearchActive()).thenReturn(randomBoolean());
+            when(mergeTask.estimatedMergeSizePerSegmentReduced()).thenReturn(randomLongBetween(0, 10));
+            when(mergeTask.estimatedMergeSize()).thenReturn(randomLongBetween(0, 100));
+            mergeTasks.add(mergeTask);
+        }
+        PriorityQueue<MergeTask> queue = new PriorityQueue<>(ThreadPoolMergeScheduler.MERGE_TASK_PRIORITY);
+        queue.addAll(mergeTasks);
+        MergeTask previous = queue.poll();
+        while (queue.isEmpty() == false) {
+            MergeTask next = queue.poll();
+            if (previous.isSearchActive() == next.isSearchActive()) {
+                assertThat(previous.estimatedMergeSizePerSegmentReduced(), lessThanOrEqualTo(next.estimatedMergeSizePerSegmentReduced()));
+            } else {
+                // all the merges of search-active shards run before the others
+                assertTrue(previous.isSearchActive());
+            }
+            previous = next;
+        }
+    }
+
+    public void testIORateOfMergeTasksIsCappedByMaxIORate() {
+        DeterministicTaskQueue mergeExecutorTaskQueue = new DeterministicTaskQueue();
+        long maxIORate = randomLongBetween(MIN_IO_RATE.getBytes(), MAX_IO_RATE.getBytes());
+        ThreadPoolMergeExecutorService threadPoolMergeExecutorService = ThreadPoolMergeExecutorService
+            .maybeCreateThreadPoolMergeExecutorService(
+                mergeExecutorTaskQueue.getThreadPool(),
+                Settings.builder().put(ThreadPoolMergeExecutorService.MAX_IO_RATE_SETTING.getKey(), maxIORate + "b").build()
+            );
+        assertNotNull(threadPoolMergeExecutorService);
+        assertThat(threadPoolMergeExecutorService.perMergeTaskIORateBytesPerSec(maxIORate - 1), equalTo(maxIORate - 1));
+        assertThat(threadPoolMergeExecutorService.perMergeTaskIORateBytesPerSec(maxIORate + 1), equalTo(maxIORate));
+
+        ThreadPoolMergeExecutorService unlimited = getThreadPoolMergeExecutorService(mergeExecutorTaskQueue.getThreadPool());
+        assertThat(unlimited.perMergeTaskIORateBytesPerSec(maxIORate + 1), equalTo(maxIORate + 1));
+    }
+
+    public void testLargeMergesArePausedUnderSearchPressure() throws Exception {
+        int searchPressureQueueSize = randomIntBetween(1, 5);
+        ByteSizeValue minMergeSize = ByteSizeValue.ofMb(randomIntBetween(1, 100));
+        Settings settings = Settings.builder()
+            .put(ThreadPoolMergeScheduler.USE_THREAD_POOL_MERGE_SCHEDULER_SETTING.getKey(), true)
+            .put(EsExecutors.NODE_PROCESSORS_SETTING.getKey(), randomIntBetween(3, 5))
+            .put(ThreadPoolMergeExecutorService.SEARCH_PRESSURE_QUEUE_SIZE_SETTING.getKey(), searchPressureQueueSize)
+            .put(ThreadPoolMergeExecutorService.SEARCH_PRESSURE_MIN_MERGE_SIZE_SETTING.getKey(), minMergeSize.getBytes() + "b")
+            .put("thread_pool.search.size", 1)
+            .build();
+        try (
+            TestThreadPool testThreadPool = new TestThreadPool("test", settings);
+            ThreadPoolMergeExecutorService threadPoolMergeExecutorService = ThreadPoolMergeExecutorService
+                .maybeCreateThreadPoolMergeExecutorService(testThreadPool, settings)
+        ) {
+            CountDownLatch runMergesLatch = new CountDownLatch(1);
+            // a large merge, a small merge, and a large merge that doesn't support IO throttling (e.g. a forced merge)
+            MergeTask largeMergeTask = runningMergeTask(true, minMergeSize.getBytes() + randomLongBetween(0, 1024), runMergesLatch);
+            MergeTask smallMergeTask = runningMergeTask(true, randomLongBetween(0, minMergeSize.getBytes() - 1), runMergesLatch);
+            MergeTask forcedMergeTask = runningMergeTask(false, minMergeSize.getBytes() + randomLongBetween(0, 1024), runMergesLatch);
+            for (MergeTask mergeTask : List.of(largeMergeTask, smallMergeTask, forcedMergeTask)) {
+                assertTrue(threadPoolMergeExecutorService.submitMergeTask(mergeTask));
+            }
+            assertBusy(() -> assertThat(threadPoolMergeExecutorService.getRunningMergeTasks().size(), is(3)));
+            InOrder inOrder = inOrder(largeMergeTask);
+            // no search pressure
+            threadPoolMergeExecutorService.checkSearchPressure();
+            verify(largeMergeTask, never()).pause();
+            // block the single search thread and back up the search queue
+            CountDownLatch searchLatch = new CountDownLatch(1);
+            ThreadPoolExecutor searchExecutor = (ThreadPoolExecutor) testThreadPool.executor(ThreadPool.Names.SEARCH);
+            searchExecutor.execute(() -> safeAwait(searchLatch));
+            for (int i = 0; i < searchPressureQueueSize; i++) {
+                searchExecutor.execute(() -> {});
+            }
+            assertBusy(() -> assertThat(searchExecutor.getQueue().size(), is(searchPressureQueueSize)));
+            threadPoolMergeExecutorService.checkSearchPressure();
+            inOrder.verify(largeMergeTask, atLeastOnce()).pause();
+            verify(smallMergeTask, never()).pause();
+            verify(forcedMergeTask, never()).pause();
+            // searches caught up
+            searchLatch.countDown();
+            assertBusy(() -> assertThat(searchExecutor.getQueue().size(), is(0)));
+            threadPoolMergeExecutorService.checkSearchPressure();
+            inOrder.verify(largeMergeTask, atLeastOnce()).resume();
+            runMergesLatch.countDown();
+            assertBusy(() -> assertTrue(threadPoolMergeExecutorService.allDone()));
+        }
+    }
+
+    public void testSearchPressureCheckIsCancelledOnClose() {
+        DeterministicTaskQueue deterministicTaskQueue = new DeterministicTaskQueue();
+        ThreadPoolMergeExecutorService threadPoolMergeExecutorService = ThreadPoolMergeExecutorService
+            .maybeCreateThreadPoolMergeExecutorService(
+                deterministicTaskQueue.getThreadPool(),
+                Settings.builder()
+                    .put(ThreadPoolMergeExecutorService.SEARCH_PRESSURE_QUEUE_SIZE_SETTING.getKey(), randomIntBetween(1, 100))
+                    .build()
+            );
+        assertNotNull(threadPoolMergeExecutorService);
+        // the search pressure check is rescheduled periodically
+        assertTrue(deterministicTaskQueue.hasDeferredTasks());
+        deterministicTaskQueue.advanceTime();
+        deterministicTaskQueue.runAllRunnableTasks();
+        assertTrue(deterministicTaskQueue.hasDeferredTasks());
+        threadPoolMergeExecutorService.close();
+        deterministicTaskQueue.runAllTasks();
+        assertFalse(deterministicTaskQueue.hasAnyTasks());
+    }
+
+    private static MergeTask runningMergeTask(boolean supportsIOThrottling, long estimatedMergeSize, CountDownLatch runLatch) {
+        MergeTask mergeTask = mock(MergeTask.class);
+        when(mergeTask.supportsIOThrottling()).thenReturn(supportsIOThrottling);
+        when(mergeTask.estimatedMergeSize()).thenReturn(estimatedMergeSize);
+        when(mergeTask.schedule()).thenReturn(RUN);
+        doAnswer(mock -> {
+            safeAwait(runLatch);
+            return null;
+        }).when(mergeTask).run();
+        return mergeTask;
+    }
+
     static ThreadPoolMergeExecutorService getThreadPoolMergeExecutorService(ThreadPool threadPool) {
         ThreadPoolMergeExecutorService threadPoolMergeExecutorService = ThreadPoolMergeExecutorService
             .maybeCreateThreadPoolMergeExecutorService(
@@ -9,6 +9,7 @@
 
 package org.elasticsearch.index.engine;
 
+import org.apache.lucene.index.CodecReader;
 import org.apache.lucene.index.MergePolicy;
 import org.apache.lucene.index.MergePolicy.OneMerge;
 import org.apache.lucene.index.MergeScheduler.MergeSource;
@@ -50,6 +51,7 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
 
 public class ThreadPoolMergeSchedulerTests extends ESTestCase {
 
@@ -68,7 +70,7 @@ public class ThreadPoolMergeSchedulerTests extends ESTestCase {
             int mergeCount = randomIntBetween(2, 10);
             for (int i = 0; i < mergeCount; i++) {
                 MergeSource mergeSource = mock(MergeSource.class);
-                OneMerge oneMerge = mock(OneMerge.class);
+                OneMerge oneMerge = mockOneMerge();
                 when(oneMerge.getStoreMergeInfo()).thenReturn(getNewMergeInfo(randomLongBetween(1L, 10L)));
                 when(oneMerge.getMergeProgress()).thenReturn(new MergePolicy.OneMergeProgress());
                 when(mergeSource.getNextMerge()).thenReturn(oneMerge, (OneMerge) null);
@@ -109,7 +111,7 @@ public class ThreadPoolMergeSchedulerTests extends ESTestCase {
         int mergeCount = mergeExecutorThreadCount + randomIntBetween(1, 5);
         for (int i = 0; i < mergeCount; i++) {
             MergeSource mergeSource = mock(MergeSource.class);
-            OneMerge oneMerge = mock(OneMerge.class);
+            OneMerge oneMerge = mockOneMerge();
             when(oneMerge.getStoreMergeInfo()).thenReturn(getNewMergeInfo(randomLongBetween(1L, 10L)));
             when(oneMerge.getMergeProgress()).thenReturn(new MergePolicy.OneMergeProgress());
             when(mergeSource.getNextMerge()).thenReturn(oneMerge, (OneMerge) null);
@@ -144,7 +146,7 @@ public class ThreadPoolMergeSchedulerTests extends ESTestCase {
         int mergeCount = mergeExecutorThreadCount + randomIntBetween(2, 10);
         for (int i = 0; i < mergeCount; i++) {
             MergeSource mergeSource = mock(MergeSource.class);
-            OneMerge oneMerge = mock(OneMerge.class);
+            OneMerge oneMerge = mockOneMerge();
             when(oneMerge.getStoreMergeInfo()).thenReturn(getNewMergeInfo(randomLongBetween(1L, 10L)));
             when(oneMerge.getMergeProgress()).thenReturn(new MergePolicy.OneMergeProgress());
             when(mergeSource.getNextMerge()).thenReturn(oneMerge, (OneMerge) null);
@@ -192,7 +194,7 @@ public class ThreadPoolMergeSchedulerTests extends ESTestCase {
                 )
             ) {
                 MergeSource mergeSource = mock(MergeSource.class);
-                OneMerge firstMerge = mock(OneMerge.class);
+                OneMerge firstMerge = mockOneMerge();
                 when(firstMerge.getStoreMergeInfo()).thenReturn(getNewMergeInfo(randomLongBetween(1L, 10L)));
                 when(firstMerge.getMergeProgress()).thenReturn(new MergePolicy.OneMergeProgress());
                 // at least one followup merge + null (i.e. no more followups)
@@ -200,7 +202,7 @@ public class ThreadPoolMergeSchedulerTests extends ESTestCase {
                 OneMerge[] followUpMerges = new OneMerge[followUpMergeCount];
                 followUpMerges[followUpMergeCount - 1] = null;
                 for (int i = 0; i < followUpMergeCount - 1; i++) {
-                    OneMerge oneMerge = mock(OneMerge.class);
+                    OneMerge oneMerge = mockOneMerge();
                     when(oneMerge.getStoreMergeInfo()).thenReturn(getNewMergeInfo(randomLongBetween(1L, 10L)));
                     when(oneMerge.getMergeProgress()).thenReturn(new MergePolicy.OneMergeProgress());
                     followUpMerges[i] = oneMerge;
@@ -267,7 +269,7 @@ public class ThreadPoolMergeSchedulerTests extends ESTestCase {
                 Semaphore runMergeSemaphore = new Semaphore(0);
                 for (int i = 0; i < mergeCount; i++) {
                     MergeSource mergeSource = mock(MergeSource.class);
-                    OneMerge oneMerge = mock(OneMerge.class);
+                    OneMerge oneMerge = mockOneMerge();
                     when(oneMerge.getStoreMergeInfo()).thenReturn(getNewMergeInfo(randomLongBetween(1L, 10L)));
                     when(oneMerge.getMergeProgress()).thenReturn(new MergePolicy.OneMergeProgress());
                     when(mergeSource.getNextMerge()).thenReturn(oneMerge, (OneMerge) null);
@@ -348,7 +350,7 @@ public class ThreadPoolMergeSchedulerTests extends ESTestCase {
             ) {
                 CountDownLatch mergeDoneLatch = new CountDownLatch(1);
                 MergeSource mergeSource = mock(MergeSource.class);
-                OneMerge oneMerge = mock(OneMerge.class);
+                OneMerge oneMerge = mockOneMerge();
                 when(oneMerge.getStoreMergeInfo()).thenReturn(getNewMergeInfo(randomLongBetween(1L, 10L)));
                 when(oneMerge.getMergeProgress()).thenReturn(new MergePolicy.OneMergeProgress());
                 when(mergeSource.getNextMerge()).thenReturn(oneMerge, (OneMerge) null);
@@ -401,7 +403,7 @@ public class ThreadPoolMergeSchedulerTests extends ESTestCase {
         IndexSettings indexSettings = IndexSettingsModule.newIndexSettings("index", settings);
         ThreadPoolMergeExecutorService threadPoolMergeExecutorService = mock(ThreadPoolMergeExecutorService.class);
         MergePolicy.OneMergeProgress oneMergeProgress = new MergePolicy.OneMergeProgress();
-        OneMerge oneMerge = mock(OneMerge.class);
+        OneMerge oneMerge = mockOneMerge();
         when(oneMerge.getStoreMergeInfo()).thenReturn(getNewMergeInfo(randomNonNegativeLong()));
         when(oneMerge.getMergeProgress()).thenReturn(oneMergeProgress);
         MergeSource mergeSource = mock(MergeSource.class);
@@ -428,7 +430,7 @@ public class ThreadPoolMergeSchedulerTests extends ESTestCase {
         }
         IndexSettings indexSettings = IndexSettingsModule.newIndexSettings("index", settingsBuilder.build());
         MergePolicy.OneMergeProgress oneMergeProgress = new MergePolicy.OneMergeProgress();
-        OneMerge oneMerge = mock(OneMerge.class);
+        OneMerge oneMerge = mockOneMerge();
         // forced merge with a set number of segments
         when(oneMerge.getStoreMergeInfo()).thenReturn(getNewMergeInfo(randomNonNegativeLong(), randomNonNegativeInt()));
         when(oneMerge.getMergeProgress()).thenReturn(oneMergeProgress);
@@ -486,6 +488,12 @@ public class ThreadPoolMergeSchedulerTests extends ESTestCase {
         }
     }
 
+    private static OneMerge mockOneMerge() {
+        // go through the constructor of merges of codec readers, which doesn't need actual segments, so that the merge's final fields
+        // (notably the segments it merges) are set like for any other merge
+        return mock(OneMerge.class, withSettings().useConstructor((Object) new CodecReader[0]));
+    }
+
     private static MergeInfo getNewMergeInfo(long estimatedMergeBytes) {
         return getNewMergeInfo(estimatedMergeBytes, randomFrom(-1, randomNonNegativeInt()));
     }
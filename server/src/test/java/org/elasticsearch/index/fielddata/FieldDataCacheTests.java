@@ -18,13 +18,16 @@ import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
 import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.index.NoMergePolicy;
+import org.apache.lucene.index.OrdinalMap;
 import org.apache.lucene.index.SortedSetDocValues;
+import org.apache.lucene.index.Term;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.util.BytesRef;
 import org.elasticsearch.common.breaker.CircuitBreaker;
 import org.elasticsearch.common.breaker.CircuitBreakingException;
 import org.elasticsearch.common.breaker.NoopCircuitBreaker;
 import org.elasticsearch.common.lucene.index.ElasticsearchDirectoryReader;
+import org.elasticsearch.core.IOUtils;
 import org.elasticsearch.index.fielddata.plain.PagedBytesIndexFieldData;
 import org.elasticsearch.index.fielddata.plain.SortedSetOrdinalsIndexFieldData;
 import org.elasticsearch.index.mapper.TextFieldMapper;
@@ -128,6 +131,47 @@ public class FieldDataCacheTests extends ESTestCase {
         dir.close();
     }
 
+    public void testGlobalOrdinalsReuseOrdinalMapOfSameSegments() throws Exception {
+        Directory dir = newDirectory();
+        IndexWriterConfig iwc = new IndexWriterConfig(null);
+        iwc.setMergePolicy(NoMergePolicy.INSTANCE);
+        IndexWriter iw = new IndexWriter(dir, iwc);
+        int numDocs = scaledRandomIntBetween(32, 128);
+        for (int i = 1; i <= numDocs; i++) {
+            Document doc = new Document();
+            doc.add(new SortedSetDocValuesField("field1", new BytesRef(String.valueOf(i))));
+            doc.add(new StringField("id", String.valueOf(i), Field.Store.NO));
+            iw.addDocument(doc);
+            if (i % 24 == 0) {
+                iw.commit();
+            }
+        }
+        iw.commit();
+        DirectoryReader ir = ElasticsearchDirectoryReader.wrap(DirectoryReader.open(iw), new ShardId("_index", "_na_", 0));
+        SortedSetOrdinalsIndexFieldData fieldData = createSortedDV("field1", new DummyAccountingFieldDataCache());
+        OrdinalMap ordinalMap = fieldData.loadGlobal(ir).getOrdinalMap();
+        assertNotNull(ordinalMap);
+
+        // deletes don't change the segments
+        iw.deleteDocuments(new Term("id", String.valueOf(randomIntBetween(1, numDocs))));
+        DirectoryReader withDeletes = DirectoryReader.openIfChanged(ir, iw);
+        assertNotNull(withDeletes);
+        assertSame(ordinalMap, fieldData.loadGlobal(withDeletes).getOrdinalMap());
+
+        // a new segment requires a new ordinal map
+        Document doc = new Document();
+        doc.add(new SortedSetDocValuesField("field1", new BytesRef("new")));
+        iw.addDocument(doc);
+        DirectoryReader withNewSegment = DirectoryReader.openIfChanged(withDeletes, iw);
+        assertNotNull(withNewSegment);
+        OrdinalMap newOrdinalMap = fieldData.loadGlobal(withNewSegment).getOrdinalMap();
+        assertNotSame(ordinalMap, newOrdinalMap);
+        assertThat(newOrdinalMap.getValueCount(), equalTo(ordinalMap.getValueCount() + 1));
+
+        iw.close();
+        IOUtils.close(ir, withDeletes, withNewSegment, dir);
+    }
+
     private SortedSetOrdinalsIndexFieldData createSortedDV(String fieldName, IndexFieldDataCache indexFieldDataCache) {
         return new SortedSetOrdinalsIndexFieldData(
             indexFieldDataCache,
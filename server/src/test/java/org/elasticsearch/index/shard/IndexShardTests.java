@@ -55,6 +55,7 @@ import org.elasticsearch.common.UUIDs;
 import org.elasticsearch.common.bytes.BytesArray;
 import org.elasticsearch.common.io.stream.BytesStreamOutput;
 import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.lucene.uid.Versions;
 import org.elasticsearch.common.settings.IndexScopedSettings;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.unit.ByteSizeValue;
@@ -75,6 +76,7 @@ import org.elasticsearch.env.NodeEnvironment;
 import org.elasticsearch.index.IndexModule;
 import org.elasticsearch.index.IndexSettings;
 import org.elasticsearch.index.IndexVersion;
+import org.elasticsearch.index.VersionType;
 import org.elasticsearch.index.codec.CodecService;
 import org.elasticsearch.index.engine.CommitStats;
 import org.elasticsearch.index.engine.DocIdSeqNoAndSource;
@@ -121,6 +123,7 @@ import org.elasticsearch.indices.recovery.PeerRecoveryTargetService;
 import org.elasticsearch.indices.recovery.RecoveryFailedException;
 import org.elasticsearch.indices.recovery.RecoveryState;
 import org.elasticsearch.indices.recovery.RecoveryTarget;
+import org.elasticsearch.plugins.internal.XContentMeteringParserDecorator;
 import org.elasticsearch.repositories.IndexId;
 import org.elasticsearch.snapshots.Snapshot;
 import org.elasticsearch.snapshots.SnapshotId;
@@ -135,6 +138,7 @@ import org.elasticsearch.threadpool.ThreadPool;
 import org.elasticsearch.xcontent.NamedXContentRegistry;
 import org.elasticsearch.xcontent.XContentBuilder;
 import org.elasticsearch.xcontent.XContentFactory;
+import org.elasticsearch.xcontent.XContentParser;
 import org.elasticsearch.xcontent.XContentType;
 import org.junit.Assert;
 
@@ -5093,6 +5097,183 @@ public class IndexShardTests extends IndexShardTestCase {
         closeShards(shard);
     }
 
+    public void testApplyIndexOperationsOnPrimaryAcrossMappingUpdate() throws IOException {
+        IndexShard shard = newStartedShard(true);
+        indexDoc(shard, "_doc", "0", "{\"a\":0}");
+        int numDocs = 7;
+        List<SourceToParse> sources = new ArrayList<>();
+        AtomicInteger[] parses = new AtomicInteger[numDocs];
+        for (int i = 0; i < numDocs; i++) {
+            parses[i] = new AtomicInteger();
+            // the third document adds a field, so it requires a mapping update
+            String source = i == 2 ? "{\"a\":2,\"b\":2}" : "{\"a\":" + i + "}";
+            sources.add(countingSource(UUIDs.base64UUID(), source, parses[i]));
+        }
+        long[] versions = new long[numDocs];
+        Arrays.fill(versions, Versions.MATCH_ANY);
+        long[] autoGeneratedTimestamps = new long[numDocs];
+        Arrays.fill(autoGeneratedTimestamps, System.currentTimeMillis());
+
+        List<Engine.IndexResult> results = shard.applyIndexOperationsOnPrimary(sources, versions, autoGeneratedTimestamps);
+        assertCreated(results, 2);
+        // nothing is parsed past the document that requires a mapping update
+        assertThat(Arrays.stream(parses).map(AtomicInteger::get).toList(), equalTo(List.of(1, 1, 1, 0, 0, 0, 0)));
+
+        // the document that requires a mapping update is indexed on its own
+        Engine.IndexResult result = indexOnPrimary(shard, sources.get(2), autoGeneratedTimestamps[2]);
+        assertThat(result.getResultType(), equalTo(Engine.Result.Type.MAPPING_UPDATE_REQUIRED));
+        updateMappings(
+            shard,
+            IndexMetadata.builder(shard.indexSettings().getIndexMetadata()).putMapping(result.getRequiredMappingUpdate().toString()).build()
+        );
+        assertTrue(indexOnPrimary(shard, sources.get(2), autoGeneratedTimestamps[2]).isCreated());
+
+        // and the batch resumes after it, parsing each of the remaining documents once
+        results = shard.applyIndexOperationsOnPrimary(
+            sources.subList(3, numDocs),
+            Arrays.copyOfRange(versions, 3, numDocs),
+            Arrays.copyOfRange(autoGeneratedTimestamps, 3, numDocs)
+        );
+        assertCreated(results, numDocs - 3);
+        assertThat(Arrays.stream(parses, 3, numDocs).map(AtomicInteger::get).toList(), equalTo(List.of(1, 1, 1, 1)));
+
+        shard.refresh("test");
+        assertDocCount(shard, numDocs + 1);
+        closeShards(shard);
+    }
+
+    public void testApplyIndexOperationsOnPrimaryWithParseFailures() throws IOException {
+        IndexShard shard = newStartedShard(true);
+        indexDoc(shard, "_doc", "0", "{\"a\":0}");
+        int numDocs = randomIntBetween(2, 10);
+        boolean[] failsToParse = new boolean[numDocs];
+        failsToParse[randomInt(numDocs - 1)] = true;
+        List<SourceToParse> sources = new ArrayList<>();
+        int numFailures = 0;
+        for (int i = 0; i < numDocs; i++) {
+            failsToParse[i] |= rarely();
+            numFailures += failsToParse[i] ? 1 : 0;
+            String source = failsToParse[i] ? "{\"a\":\"not a number\"}" : "{\"a\":" + i + "}";
+            sources.add(new SourceToParse(UUIDs.base64UUID(), new BytesArray(source), XContentType.JSON));
+        }
+        long[] versions = new long[numDocs];
+        Arrays.fill(versions, Versions.MATCH_ANY);
+        long[] autoGeneratedTimestamps = new long[numDocs];
+        Arrays.fill(autoGeneratedTimestamps, System.currentTimeMillis());
+
+        List<Engine.IndexResult> results = shard.applyIndexOperationsOnPrimary(sources, versions, autoGeneratedTimestamps);
+        // the documents that fail to parse don't stop the batch, and they never get a seq_no
+        assertThat(results.size(), equalTo(numDocs));
+        for (int i = 0; i < numDocs; i++) {
+            Engine.IndexResult result = results.get(i);
+            assertThat(result.getId(), equalTo(sources.get(i).id()));
+            if (failsToParse[i]) {
+                assertThat(result.getResultType(), equalTo(Engine.Result.Type.FAILURE));
+                assertThat(result.getFailure(), instanceOf(DocumentParsingException.class));
+                assertThat(result.getSeqNo(), equalTo(UNASSIGNED_SEQ_NO));
+            } else {
+                assertThat(result.getResultType(), equalTo(Engine.Result.Type.SUCCESS));
+                assertTrue(result.isCreated());
+            }
+        }
+        assertThat(shard.seqNoStats().getMaxSeqNo(), equalTo((long) numDocs - numFailures));
+
+        shard.refresh("test");
+        assertDocCount(shard, numDocs - numFailures + 1);
+        closeShards(shard);
+    }
+
+    public void testApplyIndexOperationsOnPrimaryFallsBackToPerDocumentIndexing() throws IOException {
+        IndexShard shard = newStartedShard(true);
+        updateMappings(
+            shard,
+            IndexMetadata.builder(shard.indexSettings().getIndexMetadata())
+                .putMapping("{ \"properties\": { \"text\": { \"type\": \"text\", \"analyzer\": \"keyword\" }}}")
+                .build()
+        );
+        int numDocs = randomIntBetween(2, 10);
+        int failingDoc = randomInt(numDocs - 1);
+        List<SourceToParse> sources = new ArrayList<>();
+        for (int i = 0; i < numDocs; i++) {
+            // the keyword analyzer turns the whole value into a single term, so this document parses fine but Lucene rejects it
+            // when the documents of the batch are added, which makes the engine index the documents of the batch one by one
+            String text = i == failingDoc ? randomAlphaOfLength(IndexWriter.MAX_TERM_LENGTH + 1) : "text " + i;
+            sources.add(new SourceToParse(UUIDs.base64UUID(), new BytesArray("{\"text\":\"" + text + "\"}"), XContentType.JSON));
+        }
+        long[] versions = new long[numDocs];
+        Arrays.fill(versions, Versions.MATCH_ANY);
+        long[] autoGeneratedTimestamps = new long[numDocs];
+        Arrays.fill(autoGeneratedTimestamps, System.currentTimeMillis());
+
+        List<Engine.IndexResult> results = shard.applyIndexOperationsOnPrimary(sources, versions, autoGeneratedTimestamps);
+        assertThat(results.size(), equalTo(numDocs));
+        Set<Long> seqNos = new HashSet<>();
+        for (int i = 0; i < numDocs; i++) {
+            Engine.IndexResult result = results.get(i);
+            assertThat(result.getId(), equalTo(sources.get(i).id()));
+            if (i == failingDoc) {
+                assertThat(result.getResultType(), equalTo(Engine.Result.Type.FAILURE));
+                assertThat(result.getFailure(), instanceOf(IllegalArgumentException.class));
+                assertThat(result.getFailure().getMessage(), containsString("immense term"));
+            } else {
+                assertThat(result.getResultType(), equalTo(Engine.Result.Type.SUCCESS));
+                assertTrue(result.isCreated());
+            }
+            // the failed document keeps the seq_no it was given, and is recorded as a no-op
+            assertTrue(seqNos.add(result.getSeqNo()));
+            assertNotNull(result.getTranslogLocation());
+        }
+        assertThat(shard.seqNoStats().getMaxSeqNo(), equalTo((long) numDocs - 1));
+
+        // the documents that Lucene added before it hit the failure were deleted, and are only indexed once
+        shard.refresh("test");
+        assertDocCount(shard, numDocs - 1);
+        assertThat(
+            getShardDocUIDs(shard),
+            equalTo(IntStream.range(0, numDocs).filter(i -> i != failingDoc).mapToObj(i -> sources.get(i).id()).collect(Collectors.toSet()))
+        );
+        // the document failure did not fail the engine
+        assertTrue(indexDoc(shard, "_doc", "after").isCreated());
+        closeShards(shard);
+    }
+
+    private static SourceToParse countingSource(String id, String source, AtomicInteger parses) {
+        XContentMeteringParserDecorator countingDecorator = new XContentMeteringParserDecorator() {
+            @Override
+            public long meteredDocumentSize() {
+                return UNKNOWN_SIZE;
+            }
+
+            @Override
+            public XContentParser decorate(XContentParser xContentParser) {
+                parses.incrementAndGet();
+                return xContentParser;
+            }
+        };
+        return new SourceToParse(id, new BytesArray(source), XContentType.JSON, null, Map.of(), true, countingDecorator);
+    }
+
+    private static Engine.IndexResult indexOnPrimary(IndexShard shard, SourceToParse source, long autoGeneratedTimestamp)
+        throws IOException {
+        return shard.applyIndexOperationOnPrimary(
+            Versions.MATCH_ANY,
+            VersionType.INTERNAL,
+            source,
+            UNASSIGNED_SEQ_NO,
+            0,
+            autoGeneratedTimestamp,
+            false
+        );
+    }
+
+    private static void assertCreated(List<Engine.IndexResult> results, int expectedCount) {
+        assertThat(results.size(), equalTo(expectedCount));
+        for (Engine.IndexResult result : results) {
+            assertThat(result.getResultType(), equalTo(Engine.Result.Type.SUCCESS));
+            assertTrue(result.isCreated());
+        }
+    }
+
     public void testShardExposesWriteLoadStats() throws Exception {
         final IndexShard primary = newStartedShard(
             true,
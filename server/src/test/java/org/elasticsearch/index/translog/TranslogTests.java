@@ -64,6 +64,7 @@ import org.elasticsearch.index.seqno.LocalCheckpointTrackerTests;
 import org.elasticsearch.index.seqno.SequenceNumbers;
 import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.index.translog.Translog.Location;
+import org.elasticsearch.nativeaccess.FileWriteback;
 import org.elasticsearch.plugins.internal.XContentMeteringParserDecorator;
 import org.elasticsearch.test.ESTestCase;
 import org.elasticsearch.test.IndexSettingsModule;
@@ -87,6 +88,7 @@ import java.nio.file.CopyOption;
 import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.nio.file.InvalidPathException;
+import java.nio.file.OpenOption;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.util.ArrayDeque;
@@ -1387,6 +1389,33 @@ public class TranslogTests extends ESTestCase {
         IOUtils.close(writer);
     }
 
+    public void testTranslogWriterRetainsBufferedOperationsUntilWritten() throws IOException {
+        final TranslogWriter writer = translog.createWriter(translog.currentFileGeneration() + 1);
+        final int numOps = randomIntBetween(1, 100);
+        final AtomicInteger released = new AtomicInteger();
+        final List<byte[]> written = new ArrayList<>();
+        for (int i = 0; i < numOps; i++) {
+            final byte[] bytes = randomByteArrayOfLength(randomIntBetween(1, 64));
+            written.add(bytes);
+            try (ReleasableBytesReference data = new ReleasableBytesReference(new BytesArray(bytes), released::incrementAndGet)) {
+                writer.add(data, i);
+            }
+        }
+        // the writer holds on to the operations rather than copying them
+        assertEquals(0, released.get());
+        writer.sync();
+        assertEquals(numOps, released.get());
+
+        long position = writer.getFirstOperationOffset();
+        for (byte[] bytes : written) {
+            final ByteBuffer buffer = ByteBuffer.allocate(bytes.length);
+            writer.readBytes(buffer, position);
+            assertArrayEquals(bytes, buffer.array());
+            position += bytes.length;
+        }
+        IOUtils.close(writer);
+    }
+
     public void testTranslogWriterCanFlushInAddOrReadCall() throws IOException {
         Path tempDir = createTempDir();
         final TranslogConfig temp = getTranslogConfig(tempDir);
@@ -4120,4 +4149,111 @@ public class TranslogTests extends ESTestCase {
             assertTrue("sync needs to happen", translog.ensureSynced(location, SequenceNumbers.UNASSIGNED_SEQ_NO));
         }
     }
+
+    public void testAsyncWriteback() throws IOException {
+        // the platform may not support writeback, and it may fail to start it for a range
+        final boolean supported = randomBoolean();
+        final boolean startWritebackFails = supported && randomBoolean();
+        final Map<Path, List<long[]>> writebackRanges = ConcurrentCollections.newConcurrentMap();
+        final Set<Path> closedWritebacks = ConcurrentCollections.newConcurrentSet();
+        final ChannelFactory channelFactory = new ChannelFactory() {
+            @Override
+            public FileChannel open(Path path, OpenOption... options) throws IOException {
+                return FileChannel.open(path, options);
+            }
+
+            @Override
+            public FileWriteback openWriteback(Path path) {
+                if (supported == false) {
+                    return null;
+                }
+                final List<long[]> ranges = new CopyOnWriteArrayList<>();
+                assertNull(writebackRanges.put(path, ranges));
+                return new FileWriteback() {
+                    @Override
+                    public boolean startWriteback(long offset, long length) {
+                        assertFalse(closedWritebacks.contains(path));
+                        ranges.add(new long[] { offset, length });
+                        return startWritebackFails == false;
+                    }
+
+                    @Override
+                    public void close() {
+                        assertTrue(closedWritebacks.add(path));
+                    }
+                };
+            }
+        };
+        final Path translogDir = createTempDir();
+        final TranslogConfig config = new TranslogConfig(
+            shardId,
+            translogDir,
+            IndexSettingsModule.newIndexSettings(
+                shardId.getIndex(),
+                Settings.EMPTY,
+                Settings.builder().put(IndexSettings.ASYNC_WRITEBACK_SETTING.getKey(), true).build()
+            ),
+            NON_RECYCLING_INSTANCE,
+            ByteSizeValue.of(1, ByteSizeUnit.KB),
+            randomBoolean() ? DiskIoBufferPool.INSTANCE : RANDOMIZING_IO_BUFFERS,
+            TranslogConfig.NOOP_OPERATION_LISTENER,
+            true
+        );
+        final String translogUUID = Translog.createEmptyTranslog(
+            config.getTranslogPath(),
+            SequenceNumbers.NO_OPS_PERFORMED,
+            shardId,
+            channelFactory,
+            primaryTerm.get()
+        );
+        final List<Translog.Operation> ops = new ArrayList<>();
+        final Path currentFile;
+        try (
+            Translog translog = new Translog(
+                config,
+                translogUUID,
+                new TranslogDeletionPolicy(),
+                () -> SequenceNumbers.NO_OPS_PERFORMED,
+                primaryTerm::get,
+                getPersistedSeqNoConsumer(),
+                TranslogOperationAsserter.DEFAULT
+            ) {
+                @Override
+                ChannelFactory getChannelFactory() {
+                    return channelFactory;
+                }
+            }
+        ) {
+            currentFile = translog.location().resolve(Translog.getFilename(translog.currentFileGeneration()));
+            // many more operations than fit in the write buffer, so that most of them are written ahead of the sync
+            final int numOps = randomIntBetween(50, 200);
+            for (int i = 0; i < numOps; i++) {
+                addToTranslogAndList(translog, ops, indexOp(randomUUID(), i, primaryTerm.get(), randomAlphaOfLength(between(100, 300))));
+            }
+            if (supported) {
+                // the operations written ahead of the sync are written back in order, each of them once
+                final List<long[]> ranges = writebackRanges.get(currentFile);
+                assertNotNull(ranges);
+                assertThat(ranges, not(empty()));
+                long end = ranges.get(0)[0];
+                for (long[] range : ranges) {
+                    assertThat(range[0], equalTo(end));
+                    assertThat(range[1], greaterThan(0L));
+                    end = range[0] + range[1];
+                }
+                assertThat(end, lessThanOrEqualTo(Files.size(currentFile)));
+            }
+            translog.sync();
+            // whether writeback started or not, it doesn't change what is written and synced
+            try (Translog.Snapshot snapshot = translog.newSnapshot()) {
+                assertThat(snapshot, SnapshotMatchers.equalsTo(ops));
+            }
+        }
+        if (supported) {
+            assertThat(closedWritebacks, hasItem(currentFile));
+            assertThat(closedWritebacks, equalTo(writebackRanges.keySet()));
+        } else {
+            assertThat(writebackRanges.keySet(), empty());
+        }
+    }
 }
@@ -16,16 +16,23 @@ import org.apache.lucene.store.ByteBuffersIndexOutput;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.IOContext;
 import org.apache.lucene.tests.util.TestUtil;
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.bytes.ReleasableBytesReference;
 import org.elasticsearch.index.IndexVersion;
 import org.elasticsearch.index.shard.IndexShard;
 import org.elasticsearch.index.shard.IndexShardTestCase;
 import org.elasticsearch.index.store.Store;
 import org.elasticsearch.index.store.StoreFileMetadata;
+import org.elasticsearch.nativeaccess.FileWriteback;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
 
+import static org.hamcrest.Matchers.equalTo;
 import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -89,10 +96,93 @@ public class MultiFileWriterTests extends IndexShardTestCase {
         verify(directorySpy).sync(Collections.singleton("temp_file"));
     }
 
+    public void testStartsWritebackOfChunksAcrossRetries() throws IOException {
+        var file = createFile("file");
+        int length = file.bytes.length;
+        List<Integer> chunkStarts = new ArrayList<>(randomSubsetOf(between(1, 7), IntStream.range(1, length).boxed().toList()));
+        chunkStarts.add(0);
+        Collections.sort(chunkStarts);
+        int lastChunkStart = chunkStarts.get(chunkStarts.size() - 1);
+
+        // the first attempt to recover the file fails part way through
+        var failedWritebacks = new ArrayList<RecordingWriteback>();
+        var failedWriter = createMultiFileWriter("failed_", failedWritebacks);
+        int failedAfter = between(1, chunkStarts.size() - 1);
+        for (int i = 0; i < failedAfter; i++) {
+            writeChunk(failedWriter, file, chunkStarts, i);
+        }
+        failedWriter.close();
+        assertThat(failedWritebacks.size(), equalTo(1));
+        assertTrue(failedWritebacks.get(0).closed);
+
+        // the retry receives the chunks out of order, but they are written and written back in order
+        var writebacks = new ArrayList<RecordingWriteback>();
+        var writer = createMultiFileWriter("retry_", writebacks);
+        List<Integer> chunks = new ArrayList<>(IntStream.range(0, chunkStarts.size()).boxed().toList());
+        Collections.shuffle(chunks, random());
+        for (int chunk : chunks) {
+            writeChunk(writer, file, chunkStarts, chunk);
+        }
+        assertThat(writebacks.size(), equalTo(1));
+        RecordingWriteback writeback = writebacks.get(0);
+        assertTrue(writeback.closed);
+        // every chunk but the last one is written back, the last one is left to the fsync of the complete file
+        long offset = 0;
+        for (long[] range : writeback.ranges) {
+            assertThat(range[0], equalTo(offset));
+            offset += range[1];
+        }
+        assertThat(offset, equalTo((long) lastChunkStart));
+        verify(directorySpy).sync(Collections.singleton("retry_file"));
+        writer.close();
+    }
+
+    private static void writeChunk(MultiFileWriter writer, FileAndMetadata file, List<Integer> chunkStarts, int chunk)
+        throws IOException {
+        int start = chunkStarts.get(chunk);
+        boolean lastChunk = chunk == chunkStarts.size() - 1;
+        int end = lastChunk ? file.bytes.length : chunkStarts.get(chunk + 1);
+        var content = ReleasableBytesReference.wrap(new BytesArray(file.bytes, start, end - start));
+        try {
+            writer.writeFileChunk(file.metadata, start, content, lastChunk);
+        } finally {
+            content.decRef();
+        }
+    }
+
     private MultiFileWriter createMultiFileWriter(boolean verifyOutput) {
         return new MultiFileWriter(store, mock(RecoveryState.Index.class), "temp_", logger, verifyOutput);
     }
 
+    private MultiFileWriter createMultiFileWriter(String tempFilePrefix, List<RecordingWriteback> writebacks) {
+        return new MultiFileWriter(store, mock(RecoveryState.Index.class), tempFilePrefix, logger, true) {
+            @Override
+            FileWriteback openWriteback(String tempFileName) {
+                var writeback = new RecordingWriteback();
+                writebacks.add(writeback);
+                return writeback;
+            }
+        };
+    }
+
+    private static class RecordingWriteback implements FileWriteback {
+        final List<long[]> ranges = new ArrayList<>();
+        boolean closed;
+
+        @Override
+        public boolean startWriteback(long offset, long length) {
+            assertFalse("writeback started after close", closed);
+            ranges.add(new long[] { offset, length });
+            return true;
+        }
+
+        @Override
+        public void close() {
+            assertFalse("closed twice", closed);
+            closed = true;
+        }
+    }
+
     private record FileAndMetadata(byte[] bytes, StoreFileMetadata metadata) {}
 
     private static FileAndMetadata createFile(String name) throws IOException {
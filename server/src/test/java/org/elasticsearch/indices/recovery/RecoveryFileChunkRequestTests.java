@@ -0,0 +1,77 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.indices.recovery;
+
+import org.apache.lucene.util.Version;
+import org.elasticsearch.TransportVersion;
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.bytes.ReleasableBytesReference;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.index.store.StoreFileMetadata;
+import org.elasticsearch.test.ESTestCase;
+import org.elasticsearch.test.TransportVersionUtils;
+
+import java.io.IOException;
+
+import static org.hamcrest.Matchers.equalTo;
+
+public class RecoveryFileChunkRequestTests extends ESTestCase {
+
+    public void testSerialization() throws IOException {
+        final TransportVersion version = TransportVersionUtils.randomCompatibleVersion(random());
+        final RecoveryFileChunkRequest outRequest = randomRequest();
+        final RecoveryFileChunkRequest inRequest = copyWriteable(outRequest, writableRegistry(), RecoveryFileChunkRequest::new, version);
+        assertThat(inRequest.shardId(), equalTo(outRequest.shardId()));
+        assertThat(inRequest.recoveryId(), equalTo(outRequest.recoveryId()));
+        assertThat(inRequest.requestSeqNo(), equalTo(outRequest.requestSeqNo()));
+        assertThat(inRequest.name(), equalTo(outRequest.name()));
+        assertThat(inRequest.length(), equalTo(outRequest.length()));
+        assertThat(inRequest.metadata().checksum(), equalTo(outRequest.metadata().checksum()));
+        assertThat(inRequest.metadata().writtenBy(), equalTo(outRequest.metadata().writtenBy()));
+        assertThat(inRequest.position(), equalTo(outRequest.position()));
+        assertThat(inRequest.content(), equalTo(outRequest.content()));
+        assertThat(inRequest.lastChunk(), equalTo(outRequest.lastChunk()));
+        assertThat(inRequest.totalTranslogOps(), equalTo(outRequest.totalTranslogOps()));
+        assertThat(inRequest.sourceThrottleTimeInNanos(), equalTo(outRequest.sourceThrottleTimeInNanos()));
+    }
+
+    public void testWriteWithoutTrailingBytes() throws IOException {
+        final TransportVersion version = TransportVersionUtils.randomCompatibleVersion(random());
+        final RecoveryFileChunkRequest request = randomRequest();
+        try (BytesStreamOutput expected = new BytesStreamOutput(); BytesStreamOutput actual = new BytesStreamOutput()) {
+            expected.setTransportVersion(version);
+            actual.setTransportVersion(version);
+            request.writeTo(expected);
+            request.writeWithoutTrailingBytes(actual).writeTo(actual);
+            assertThat(actual.bytes(), equalTo(expected.bytes()));
+        }
+    }
+
+    private static RecoveryFileChunkRequest randomRequest() {
+        final byte[] content = randomByteArrayOfLength(between(0, 1024));
+        return new RecoveryFileChunkRequest(
+            randomNonNegativeLong(),
+            randomNonNegativeLong(),
+            new ShardId(randomAlphaOfLength(10), randomAlphaOfLength(10), between(0, 10)),
+            new StoreFileMetadata(
+                randomAlphaOfLength(10),
+                randomLongBetween(content.length, Long.MAX_VALUE),
+                randomAlphaOfLength(8),
+                Version.LATEST.toString()
+            ),
+            randomNonNegativeLong(),
+            ReleasableBytesReference.wrap(new BytesArray(content)),
+            randomBoolean(),
+            between(0, 1000),
+            randomNonNegativeLong()
+        );
+    }
+}
@@ -92,6 +92,7 @@ import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -122,6 +123,7 @@ import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
@@ -217,6 +219,7 @@ public class RecoverySourceHandlerTests extends MapperServiceTestCase {
             between(1, 5),
             between(1, 5),
             between(1, 5),
+            between(1, 5),
             false,
             recoveryPlannerService
         );
@@ -233,6 +236,43 @@ public class RecoverySourceHandlerTests extends MapperServiceTestCase {
         IOUtils.close(reader, store, multiFileWriter, targetStore);
     }
 
+    public void testSplitFilesIntoStreams() {
+        final StoreFileMetadata[] files = new StoreFileMetadata[between(0, 50)];
+        for (int i = 0; i < files.length; i++) {
+            files[i] = new StoreFileMetadata(
+                "file-" + i,
+                randomLongBetween(1, ByteSizeUnit.MB.toBytes(100)),
+                "checksum",
+                org.apache.lucene.util.Version.LATEST.toString()
+            );
+        }
+        Arrays.sort(files, Comparator.comparingLong(StoreFileMetadata::length));
+        final int maxStreams = between(1, 8);
+        final List<List<StoreFileMetadata>> streams = RecoverySourceHandler.splitIntoStreams(files, maxStreams);
+        assertThat(streams, hasSize(Math.max(1, Math.min(maxStreams, files.length))));
+
+        final List<StoreFileMetadata> allFiles = new ArrayList<>();
+        long largestFile = 0;
+        long smallestStream = Long.MAX_VALUE;
+        long largestStream = 0;
+        for (List<StoreFileMetadata> stream : streams) {
+            long streamSize = 0;
+            for (int i = 0; i < stream.size(); i++) {
+                if (i > 0) {
+                    assertThat("smallest files are sent first", stream.get(i - 1).length(), lessThanOrEqualTo(stream.get(i).length()));
+                }
+                streamSize += stream.get(i).length();
+                largestFile = Math.max(largestFile, stream.get(i).length());
+            }
+            allFiles.addAll(stream);
+            smallestStream = Math.min(smallestStream, streamSize);
+            largestStream = Math.max(largestStream, streamSize);
+        }
+        assertThat(new HashSet<>(allFiles), equalTo(new HashSet<>(Arrays.asList(files))));
+        assertThat(allFiles, hasSize(files.length));
+        assertThat("streams are balanced up to the size of a single file", largestStream - smallestStream, lessThanOrEqualTo(largestFile));
+    }
+
     public StartRecoveryRequest getStartRecoveryRequest() {
         Store.MetadataSnapshot metadataSnapshot = randomBoolean()
             ? Store.MetadataSnapshot.EMPTY
@@ -18,6 +18,7 @@ import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.common.settings.ClusterSettings;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.transport.TransportAddress;
+import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.test.ESTestCase;
 import org.elasticsearch.threadpool.TestThreadPool;
 import org.elasticsearch.threadpool.ThreadPool;
@@ -139,4 +140,21 @@ public class ResponseCollectorServiceTests extends ESTestCase {
         assertTrue(nodeStats.containsKey("node1"));
         assertFalse(nodeStats.containsKey("node2"));
     }
+
+    public void testShardResponseTime() {
+        ShardId shardId = new ShardId("index", "_na_", 0);
+        collector.addShardResponseTime("node1", shardId, 100);
+        assertTrue("only tracked for nodes with node level statistics", collector.getShardResponseTime("node1", shardId).isEmpty());
+
+        collector.addNodeStatistics("node1", 1, 100, 10);
+        collector.addShardResponseTime("node1", shardId, 100);
+        assertThat(collector.getShardResponseTime("node1", shardId).getAsDouble(), equalTo(100.0));
+        collector.addShardResponseTime("node1", shardId, 200);
+        assertThat(collector.getShardResponseTime("node1", shardId).getAsDouble(), equalTo(130.0));
+        assertTrue(collector.getShardResponseTime("node1", new ShardId("index", "_na_", 1)).isEmpty());
+        assertTrue(collector.getShardResponseTime("node2", shardId).isEmpty());
+
+        collector.removeNode("node1");
+        assertTrue(collector.getShardResponseTime("node1", shardId).isEmpty());
+    }
 }
@@ -28,6 +28,8 @@ import org.elasticsearch.action.OriginalIndices;
 import org.elasticsearch.action.admin.cluster.settings.ClusterUpdateSettingsResponse;
 import org.elasticsearch.action.search.ClearScrollRequest;
 import org.elasticsearch.action.search.ClosePointInTimeRequest;
+import org.elasticsearch.action.search.NodeQueryRequest;
+import org.elasticsearch.action.search.NodeQueryResponse;
 import org.elasticsearch.action.search.OpenPointInTimeRequest;
 import org.elasticsearch.action.search.SearchPhaseController;
 import org.elasticsearch.action.search.SearchPhaseExecutionException;
@@ -49,6 +51,7 @@ import org.elasticsearch.cluster.routing.ShardRoutingState;
 import org.elasticsearch.cluster.routing.TestShardRouting;
 import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.common.UUIDs;
+import org.elasticsearch.common.breaker.CircuitBreaker;
 import org.elasticsearch.common.breaker.CircuitBreakingException;
 import org.elasticsearch.common.breaker.NoopCircuitBreaker;
 import org.elasticsearch.common.bytes.BytesArray;
@@ -75,6 +78,7 @@ import org.elasticsearch.index.shard.IndexShard;
 import org.elasticsearch.index.shard.SearchOperationListener;
 import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.indices.IndicesService;
+import org.elasticsearch.indices.breaker.CircuitBreakerService;
 import org.elasticsearch.indices.settings.InternalOrPrivateSettingsPlugin;
 import org.elasticsearch.plugins.Plugin;
 import org.elasticsearch.plugins.SearchPlugin;
@@ -86,9 +90,11 @@ import org.elasticsearch.script.ScriptType;
 import org.elasticsearch.search.SearchService.ResultsType;
 import org.elasticsearch.search.aggregations.AggregationBuilders;
 import org.elasticsearch.search.aggregations.AggregationReduceContext;
+import org.elasticsearch.search.aggregations.InternalAggregations;
 import org.elasticsearch.search.aggregations.MultiBucketConsumerService;
 import org.elasticsearch.search.aggregations.bucket.filter.FiltersAggregationBuilder;
 import org.elasticsearch.search.aggregations.bucket.global.GlobalAggregationBuilder;
+import org.elasticsearch.search.aggregations.bucket.terms.StringTerms;
 import org.elasticsearch.search.aggregations.bucket.terms.TermsAggregationBuilder;
 import org.elasticsearch.search.aggregations.support.AggregationContext;
 import org.elasticsearch.search.aggregations.support.ValueType;
@@ -139,6 +145,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
@@ -150,6 +157,7 @@ import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.IntConsumer;
@@ -173,6 +181,7 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.CoreMatchers.startsWith;
 import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.not;
 import static org.mockito.Mockito.mock;
 
@@ -2420,6 +2429,78 @@ public class SearchServiceSingleNodeTests extends ESSingleNodeTestCase {
         client().clearScroll(clearScrollRequest);
     }
 
+    public void testExecuteNodeQueryPhase() throws Exception {
+        int numShards = randomIntBetween(2, 5);
+        assertAcked(indicesAdmin().prepareCreate("index").setSettings(indexSettings(numShards, 0)).setMapping("value", "type=keyword"));
+        int numDocs = randomIntBetween(1, 50);
+        Map<String, Long> expectedCounts = new HashMap<>();
+        for (int i = 0; i < numDocs; i++) {
+            String value = randomFrom("a", "b", "c");
+            expectedCounts.merge(value, 1L, Long::sum);
+            prepareIndex("index").setSource("value", value).get();
+        }
+        indicesAdmin().prepareRefresh("index").get();
+
+        final SearchService service = getInstanceFromNode(SearchService.class);
+        final IndexService indexService = getInstanceFromNode(IndicesService.class).indexServiceSafe(resolveIndex("index"));
+        final CircuitBreaker breaker = getInstanceFromNode(CircuitBreakerService.class).getBreaker(CircuitBreaker.REQUEST);
+        final long usedBefore = breaker.getUsed();
+        SearchRequest searchRequest = new SearchRequest().allowPartialSearchResults(true)
+            .source(new SearchSourceBuilder().size(0).aggregation(AggregationBuilders.terms("values").field("value")));
+        List<ShardSearchRequest> shardRequests = new ArrayList<>(numShards);
+        for (int i = 0; i < numShards; i++) {
+            shardRequests.add(
+                new ShardSearchRequest(
+                    OriginalIndices.NONE,
+                    searchRequest,
+                    indexService.getShard(i).shardId(),
+                    i,
+                    numShards,
+                    AliasFilter.EMPTY,
+                    1.0f,
+                    -1,
+                    null
+                )
+            );
+        }
+        SearchShardTask task = new SearchShardTask(123L, "", "", "", null, emptyMap());
+        PlainActionFuture<NodeQueryResponse> future = new PlainActionFuture<>();
+        AtomicLong usedOnResponse = new AtomicLong();
+        service.executeQueryPhase(new NodeQueryRequest(shardRequests), task, future.delegateFailure((l, response) -> {
+            usedOnResponse.set(breaker.getUsed());
+            response.incRef();
+            l.onResponse(response);
+        }));
+        NodeQueryResponse response = future.get();
+        // the aggregations are accounted for in the breaker until the response is sent
+        assertThat(usedOnResponse.get(), greaterThan(usedBefore));
+        try {
+            assertThat(response.size(), equalTo(numShards));
+            long totalHits = 0;
+            InternalAggregations aggs = null;
+            for (int i = 0; i < numShards; i++) {
+                assertNull(response.getFailure(i));
+                QuerySearchResult result = response.getResult(i);
+                totalHits += result.getTotalHits().value();
+                if (result.hasAggs()) {
+                    assertNull("the aggregations are only sent along with a single shard", aggs);
+                    aggs = result.consumeAggs().expand();
+                }
+            }
+            assertThat(totalHits, equalTo((long) numDocs));
+            assertNotNull(aggs);
+            StringTerms terms = aggs.get("values");
+            Map<String, Long> counts = new HashMap<>();
+            for (StringTerms.Bucket bucket : terms.getBuckets()) {
+                counts.put(bucket.getKeyAsString(), bucket.getDocCount());
+            }
+            assertThat(counts, equalTo(expectedCounts));
+        } finally {
+            response.decRef();
+        }
+        assertBusy(() -> assertThat(breaker.getUsed(), equalTo(usedBefore)));
+    }
+
     public void testWaitOnRefresh() throws ExecutionException, InterruptedException {
         createIndex("index");
         final SearchService service = getInstanceFromNode(SearchService.class);
@@ -337,7 +337,7 @@ public class AggregatorFactoriesTests extends ESTestCase {
         {
             AggregatorFactories.Builder builder = new AggregatorFactories.Builder();
             builder.addAggregator(new SignificantTermsAggregationBuilder("name"));
-            assertFalse(builder.supportsParallelCollection(randomCardinality));
+            assertFalse(builder.supportsParallelCollection(name -> randomLongBetween(50, 200)));
         }
         {
             AggregatorFactories.Builder builder = new AggregatorFactories.Builder();
@@ -105,6 +105,43 @@ public class SignificantTermsTests extends BaseAggregationTestCase<SignificantTe
         return factory;
     }
 
+    public void testSupportsParallelCollection() {
+        {
+            SignificantTermsAggregationBuilder terms = new SignificantTermsAggregationBuilder("terms").executionHint("map");
+            assertFalse(terms.supportsParallelCollection(field -> randomIntBetween(-1, 100)));
+        }
+        {
+            SignificantTermsAggregationBuilder terms = new SignificantTermsAggregationBuilder("terms").executionHint("global_ordinals");
+            assertTrue(terms.supportsParallelCollection(field -> 0));
+        }
+        {
+            SignificantTermsAggregationBuilder terms = new SignificantTermsAggregationBuilder("terms");
+            assertFalse(terms.supportsParallelCollection(field -> -1));
+        }
+        {
+            // the default shard size of a significant_terms aggregation with the default size is 50
+            SignificantTermsAggregationBuilder terms = new SignificantTermsAggregationBuilder("terms");
+            assertTrue(terms.supportsParallelCollection(field -> randomIntBetween(0, 49)));
+            assertFalse(terms.supportsParallelCollection(field -> randomIntBetween(50, 100)));
+        }
+        {
+            SignificantTermsAggregationBuilder terms = new SignificantTermsAggregationBuilder("terms");
+            terms.shardSize(10);
+            assertTrue(terms.supportsParallelCollection(field -> randomIntBetween(1, 9)));
+            assertFalse(terms.supportsParallelCollection(field -> randomIntBetween(10, 100)));
+        }
+        {
+            SignificantTermsAggregationBuilder terms = new SignificantTermsAggregationBuilder("terms");
+            terms.minDocCount(0);
+            assertFalse(terms.supportsParallelCollection(field -> randomIntBetween(1, 100)));
+        }
+        {
+            SignificantTermsAggregationBuilder terms = new SignificantTermsAggregationBuilder("terms");
+            terms.shardMinDocCount(randomLongBetween(2, 10));
+            assertFalse(terms.supportsParallelCollection(field -> randomIntBetween(1, 100)));
+        }
+    }
+
     static SignificanceHeuristic getSignificanceHeuristic() {
         SignificanceHeuristic significanceHeuristic = null;
         switch (randomInt(5)) {
@@ -22,17 +22,27 @@ import org.apache.lucene.document.StringField;
 import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexWriterConfig;
 import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.index.LogDocMergePolicy;
 import org.apache.lucene.index.NoMergePolicy;
 import org.apache.lucene.index.Term;
+import org.apache.lucene.search.ConstantScoreScorer;
+import org.apache.lucene.search.ConstantScoreWeight;
+import org.apache.lucene.search.DocIdSetIterator;
 import org.apache.lucene.search.FieldExistsQuery;
+import org.apache.lucene.search.FilterDocIdSetIterator;
+import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.MatchAllDocsQuery;
 import org.apache.lucene.search.Query;
+import org.apache.lucene.search.QueryVisitor;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.ScorerSupplier;
 import org.apache.lucene.search.Sort;
 import org.apache.lucene.search.SortField;
 import org.apache.lucene.search.SortedNumericSortField;
 import org.apache.lucene.search.SortedSetSortField;
 import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.Weight;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.tests.analysis.MockAnalyzer;
 import org.apache.lucene.tests.index.RandomIndexWriter;
@@ -61,6 +71,11 @@ import org.elasticsearch.index.mapper.SeqNoFieldMapper;
 import org.elasticsearch.index.mapper.TimeSeriesIdFieldMapper;
 import org.elasticsearch.index.mapper.Uid;
 import org.elasticsearch.index.query.MatchAllQueryBuilder;
+import org.elasticsearch.script.MockScriptEngine;
+import org.elasticsearch.script.Script;
+import org.elasticsearch.script.ScriptModule;
+import org.elasticsearch.script.ScriptService;
+import org.elasticsearch.script.ScriptType;
 import org.elasticsearch.search.DocValueFormat;
 import org.elasticsearch.search.aggregations.AggregationBuilder;
 import org.elasticsearch.search.aggregations.AggregationBuilders;
@@ -106,11 +121,13 @@ import java.util.Set;
 import java.util.TreeMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import static org.elasticsearch.search.aggregations.bucket.nested.NestedAggregatorTests.nestedObject;
 import static org.elasticsearch.test.MapMatcher.assertMap;
@@ -124,9 +141,13 @@ import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.hamcrest.Matchers.nullValue;
 
 public class CompositeAggregatorTests extends AggregatorTestCase {
+    private static final String SHIFT_VALUE_SCRIPT = "shift_value";
+    private static final long SHIFT_MILLIS = 50_000;
+
     private static MappedFieldType[] FIELD_TYPES;
     private List<ObjectMapper> objectMappers;
     private Sort indexSort;
@@ -170,6 +191,16 @@ public class CompositeAggregatorTests extends AggregatorTestCase {
         return reader;
     }
 
+    @Override
+    protected ScriptService getMockScriptService() {
+        MockScriptEngine engine = new MockScriptEngine(
+            MockScriptEngine.NAME,
+            Map.of(SHIFT_VALUE_SCRIPT, vars -> ((Number) vars.get("_value")).longValue() + SHIFT_MILLIS),
+            Map.of()
+        );
+        return new ScriptService(Settings.EMPTY, Map.of(engine.getType(), engine), ScriptModule.CORE_CONTEXTS, () -> 1L);
+    }
+
     public void testUnmappedFieldWithTerms() throws Exception {
 
         final List<Map<String, List<Object>>> dataset = new ArrayList<>();
@@ -3029,6 +3060,179 @@ public class CompositeAggregatorTests extends AggregatorTestCase {
         );
     }
 
+    public void testAfterKeyOfLeadingNumericSourceSkipsDocuments() throws Exception {
+        final int numDocs = 500;
+        try (Directory directory = newDirectory()) {
+            try (RandomIndexWriter indexWriter = new RandomIndexWriter(random(), directory)) {
+                Document document = new Document();
+                for (int i = 0; i < numDocs; i++) {
+                    document.clear();
+                    addToDocument(i, document, createDocument("long", (long) (i % 50), "keyword", "k" + (i % 3)));
+                    indexWriter.addDocument(document);
+                }
+            }
+            try (DirectoryReader indexReader = DirectoryReader.open(directory)) {
+                // not a match all query, so that the leading source can't produce the documents sorted by its values
+                VisitCountingQuery query = new VisitCountingQuery();
+                Map<String, Object> afterKey = null;
+                int numBuckets = 0;
+                long totalDocCount = 0;
+                int lastPageVisits = 0;
+                int lastPageUnoptimizedVisits = 0;
+                while (true) {
+                    query.visited.set(0);
+                    InternalComposite result = searchAndReduce(
+                        indexReader,
+                        new AggTestConfig(compositeOnLongAndKeyword(false, afterKey), FIELD_TYPES).withQuery(query)
+                    );
+                    int visits = query.visited.get();
+                    // a missing bucket on the leading source disables skipping the documents before the after key
+                    query.visited.set(0);
+                    InternalComposite unoptimized = searchAndReduce(
+                        indexReader,
+                        new AggTestConfig(compositeOnLongAndKeyword(true, afterKey), FIELD_TYPES).withQuery(query)
+                    );
+                    int unoptimizedVisits = query.visited.get();
+
+                    assertThat(bucketKeysAndCounts(result), equalTo(bucketKeysAndCounts(unoptimized)));
+                    assertThat(visits, lessThanOrEqualTo(unoptimizedVisits));
+                    if (result.getBuckets().isEmpty()) {
+                        break;
+                    }
+                    numBuckets += result.getBuckets().size();
+                    totalDocCount += result.getBuckets().stream().mapToLong(InternalComposite.InternalBucket::getDocCount).sum();
+                    afterKey = result.afterKey();
+                    lastPageVisits = visits;
+                    lastPageUnoptimizedVisits = unoptimizedVisits;
+                }
+                assertThat(numBuckets, equalTo(150));
+                assertThat(totalDocCount, equalTo((long) numDocs));
+                // the last page only needs the documents whose leading value is at least 46, less than a tenth of them
+                assertThat(lastPageUnoptimizedVisits, greaterThanOrEqualTo(numDocs));
+                assertThat(lastPageVisits, lessThan(lastPageUnoptimizedVisits / 2));
+            }
+        }
+    }
+
+    public void testAfterKeyOfLeadingSourceWithValueScript() throws Exception {
+        final int numDocs = 100;
+        try (Directory directory = newDirectory()) {
+            try (RandomIndexWriter indexWriter = new RandomIndexWriter(random(), directory)) {
+                Document document = new Document();
+                for (int i = 0; i < numDocs; i++) {
+                    document.clear();
+                    addToDocument(document, createDocument("date", i * 1000L));
+                    indexWriter.addDocument(document);
+                }
+            }
+            try (DirectoryReader indexReader = DirectoryReader.open(directory)) {
+                // the script moves the values of the leading source above the indexed ones, so documents whose indexed value is
+                // before the after key can still produce the buckets of the next pages
+                Map<String, Object> afterKey = null;
+                List<Long> keys = new ArrayList<>();
+                while (true) {
+                    CompositeAggregationBuilder builder = new CompositeAggregationBuilder(
+                        "name",
+                        List.of(
+                            new DateHistogramValuesSourceBuilder("date").field("date")
+                                .script(new Script(ScriptType.INLINE, MockScriptEngine.NAME, SHIFT_VALUE_SCRIPT, Map.of()))
+                                .fixedInterval(DateHistogramInterval.seconds(1))
+                        )
+                    ).aggregateAfter(afterKey).size(10);
+                    // not a match all query, so that the leading source can't produce the documents sorted by its values
+                    InternalComposite result = searchAndReduce(
+                        indexReader,
+                        new AggTestConfig(builder, FIELD_TYPES).withQuery(new VisitCountingQuery())
+                    );
+                    if (result.getBuckets().isEmpty()) {
+                        break;
+                    }
+                    for (InternalComposite.InternalBucket bucket : result.getBuckets()) {
+                        assertThat(bucket.getDocCount(), equalTo(1L));
+                        keys.add((Long) bucket.getKey().get("date"));
+                    }
+                    afterKey = result.afterKey();
+                }
+                assertThat(keys, equalTo(LongStream.range(0, numDocs).mapToObj(i -> i * 1000 + SHIFT_MILLIS).toList()));
+            }
+        }
+    }
+
+    private static CompositeAggregationBuilder compositeOnLongAndKeyword(boolean missingBucket, Map<String, Object> afterKey) {
+        return new CompositeAggregationBuilder(
+            "name",
+            List.of(
+                new TermsValuesSourceBuilder("long").field("long").missingBucket(missingBucket),
+                new TermsValuesSourceBuilder("keyword").field("keyword")
+            )
+        ).aggregateAfter(afterKey).size(10);
+    }
+
+    private static List<String> bucketKeysAndCounts(InternalComposite result) {
+        return result.getBuckets().stream().map(bucket -> bucket.getKeyAsString() + "=" + bucket.getDocCount()).toList();
+    }
+
+    /**
+     * Matches all documents and counts the ones that the search visits.
+     */
+    private static class VisitCountingQuery extends Query {
+        private final AtomicInteger visited = new AtomicInteger();
+
+        @Override
+        public Weight createWeight(IndexSearcher searcher, ScoreMode scoreMode, float boost) {
+            return new ConstantScoreWeight(this, boost) {
+                @Override
+                public ScorerSupplier scorerSupplier(LeafReaderContext context) {
+                    DocIdSetIterator iterator = new FilterDocIdSetIterator(DocIdSetIterator.all(context.reader().maxDoc())) {
+                        @Override
+                        public int nextDoc() throws IOException {
+                            return count(super.nextDoc());
+                        }
+
+                        @Override
+                        public int advance(int target) throws IOException {
+                            return count(super.advance(target));
+                        }
+                    };
+                    return new DefaultScorerSupplier(new ConstantScoreScorer(score(), scoreMode, iterator));
+                }
+
+                @Override
+                public boolean isCacheable(LeafReaderContext ctx) {
+                    // the cached doc id sets would hide the visits
+                    return false;
+                }
+            };
+        }
+
+        private int count(int doc) {
+            if (doc != DocIdSetIterator.NO_MORE_DOCS) {
+                visited.incrementAndGet();
+            }
+            return doc;
+        }
+
+        @Override
+        public String toString(String field) {
+            return "VisitCountingQuery";
+        }
+
+        @Override
+        public void visit(QueryVisitor visitor) {
+            visitor.visitLeaf(this);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return this == obj;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this);
+        }
+    }
+
     public void testIndexSortWithDuplicate() throws Exception {
         final List<Map<String, List<Object>>> dataset = new ArrayList<>();
         dataset.addAll(
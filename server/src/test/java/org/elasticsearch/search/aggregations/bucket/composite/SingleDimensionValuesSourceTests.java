@@ -9,6 +9,7 @@
 
 package org.elasticsearch.search.aggregations.bucket.composite;
 
+import org.apache.lucene.document.IntPoint;
 import org.apache.lucene.document.LongPoint;
 import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.LeafReader;
@@ -258,6 +259,48 @@ public class SingleDimensionValuesSourceTests extends ESTestCase {
         }
     }
 
+    public void testLongAfterValueQuery() {
+        MappedFieldType number = new NumberFieldMapper.NumberFieldType("number", NumberFieldMapper.NumberType.LONG);
+        LongValuesSource source = longValuesSource(number, false, 1);
+        assertNull(source.createAfterValueQueryOrNull(false));
+        source.setAfter(42L);
+        assertEquals(LongPoint.newRangeQuery("number", 42L, Long.MAX_VALUE), source.createAfterValueQueryOrNull(false));
+        // a value script can move the values of the source away from the indexed ones
+        assertNull(source.createAfterValueQueryOrNull(true));
+
+        MappedFieldType integer = new NumberFieldMapper.NumberFieldType("integer", NumberFieldMapper.NumberType.INTEGER);
+        source = longValuesSource(integer, false, 1);
+        source.setAfter(Long.MAX_VALUE);
+        assertEquals(IntPoint.newRangeQuery("integer", Integer.MAX_VALUE, Integer.MAX_VALUE), source.createAfterValueQueryOrNull(false));
+
+        LongValuesSource sourceWithMissing = longValuesSource(number, true, 1);
+        sourceWithMissing.setAfter(42L);
+        assertNull(sourceWithMissing.createAfterValueQueryOrNull(false));
+
+        LongValuesSource sourceRev = longValuesSource(number, false, -1);
+        sourceRev.setAfter(42L);
+        assertNull(sourceRev.createAfterValueQueryOrNull(false));
+
+        MappedFieldType notIndexed = new NumberFieldMapper.NumberFieldType("number", NumberFieldMapper.NumberType.LONG, false);
+        LongValuesSource sourceNotIndexed = longValuesSource(notIndexed, false, 1);
+        sourceNotIndexed.setAfter(42L);
+        assertNull(sourceNotIndexed.createAfterValueQueryOrNull(false));
+    }
+
+    private static LongValuesSource longValuesSource(MappedFieldType fieldType, boolean missingBucket, int reverseMul) {
+        return new LongValuesSource(
+            BigArrays.NON_RECYCLING_INSTANCE,
+            fieldType,
+            context -> null,
+            value -> value,
+            DocValueFormat.RAW,
+            missingBucket,
+            MissingOrder.DEFAULT,
+            1,
+            reverseMul
+        );
+    }
+
     private static IndexReader mockIndexReader(int maxDoc, int numDocs) {
         IndexReader reader = mock(LeafReader.class);
         when(reader.hasDeletions()).thenReturn(maxDoc - numDocs > 0);
@@ -0,0 +1,119 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.search.aggregations.bucket.filter;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.NoMergePolicy;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.Directory;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.test.ESTestCase;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.equalTo;
+
+public class SegmentCountCacheTests extends ESTestCase {
+
+    public void testCountsAreCachedPerSegmentAndQuery() throws IOException {
+        SegmentCountCache cache = new SegmentCountCache(Settings.EMPTY);
+        try (Directory dir = newDirectory(); IndexWriter writer = newWriter(dir)) {
+            addDocs(writer, 10);
+            writer.commit();
+            AtomicInteger computed = new AtomicInteger();
+            Query foo = new TermQuery(new Term("field", "foo"));
+            Query bar = new TermQuery(new Term("field", "bar"));
+            try (DirectoryReader reader = DirectoryReader.open(dir)) {
+                LeafReaderContext leaf = reader.leaves().get(0);
+                assertThat(cache.count(leaf, foo, () -> countWith(computed, 3)), equalTo(3L));
+                assertThat(cache.count(leaf, foo, () -> countWith(computed, 4)), equalTo(3L));
+                assertThat(cache.count(leaf, bar, () -> countWith(computed, 5)), equalTo(5L));
+                assertThat(computed.get(), equalTo(2));
+                assertThat(cache.count(), equalTo(2));
+
+                // a reopened reader shares the segments that haven't changed
+                addDocs(writer, 5);
+                writer.commit();
+                try (DirectoryReader reopened = DirectoryReader.openIfChanged(reader)) {
+                    assertNotNull(reopened);
+                    for (LeafReaderContext reopenedLeaf : reopened.leaves()) {
+                        cache.count(reopenedLeaf, foo, () -> countWith(computed, 1));
+                    }
+                    assertThat(
+                        "only the segments that weren't counted yet are counted",
+                        computed.get(),
+                        equalTo(2 + reopened.leaves().size() - 1)
+                    );
+                }
+            }
+            assertThat("closing the segments invalidates their counts", cache.count(), equalTo(0));
+        }
+    }
+
+    public void testDisabled() throws IOException {
+        SegmentCountCache cache = new SegmentCountCache(Settings.builder().put(SegmentCountCache.SIZE_SETTING.getKey(), 0).build());
+        try (Directory dir = newDirectory(); IndexWriter writer = newWriter(dir)) {
+            addDocs(writer, 10);
+            writer.commit();
+            AtomicInteger computed = new AtomicInteger();
+            Query query = new TermQuery(new Term("field", "foo"));
+            try (DirectoryReader reader = DirectoryReader.open(dir)) {
+                LeafReaderContext leaf = reader.leaves().get(0);
+                assertThat(cache.count(leaf, query, () -> countWith(computed, 3)), equalTo(3L));
+                assertThat(cache.count(leaf, query, () -> countWith(computed, 4)), equalTo(4L));
+                assertThat(computed.get(), equalTo(2));
+                assertThat(cache.count(), equalTo(0));
+            }
+        }
+    }
+
+    public void testEvictsLeastRecentlyUsed() throws IOException {
+        SegmentCountCache cache = new SegmentCountCache(Settings.builder().put(SegmentCountCache.SIZE_SETTING.getKey(), 2).build());
+        try (Directory dir = newDirectory(); IndexWriter writer = newWriter(dir)) {
+            addDocs(writer, 10);
+            writer.commit();
+            try (DirectoryReader reader = DirectoryReader.open(dir)) {
+                LeafReaderContext leaf = reader.leaves().get(0);
+                for (int i = 0; i < 5; i++) {
+                    final long count = i;
+                    cache.count(leaf, new TermQuery(new Term("field", "value" + i)), () -> count);
+                }
+                assertThat(cache.count(), equalTo(2));
+            }
+            assertThat(cache.count(), equalTo(0));
+        }
+    }
+
+    private static IndexWriter newWriter(Directory dir) throws IOException {
+        // no merges so that segments are shared between readers
+        return new IndexWriter(dir, newIndexWriterConfig().setMergePolicy(NoMergePolicy.INSTANCE));
+    }
+
+    private static long countWith(AtomicInteger computed, long count) {
+        computed.incrementAndGet();
+        return count;
+    }
+
+    private static void addDocs(IndexWriter writer, int numDocs) throws IOException {
+        for (int i = 0; i < numDocs; i++) {
+            Document doc = new Document();
+            doc.add(new StringField("field", randomFrom("foo", "bar"), Field.Store.NO));
+            writer.addDocument(doc);
+        }
+    }
+}
@@ -12,7 +12,10 @@ package org.elasticsearch.search.aggregations.bucket.terms;
 import org.apache.lucene.util.BytesRef;
 import org.elasticsearch.common.util.Maps;
 import org.elasticsearch.search.DocValueFormat;
+import org.elasticsearch.search.aggregations.AggregationReduceContext;
+import org.elasticsearch.search.aggregations.InternalAggregation;
 import org.elasticsearch.search.aggregations.InternalAggregations;
+import org.elasticsearch.search.aggregations.bucket.terms.heuristic.JLHScore;
 import org.elasticsearch.search.aggregations.bucket.terms.heuristic.SignificanceHeuristic;
 
 import java.util.ArrayList;
@@ -22,6 +25,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import static org.hamcrest.Matchers.equalTo;
+
 public class SignificantStringTermsTests extends InternalSignificantTermsTestCase {
 
     @Override
@@ -59,6 +64,62 @@ public class SignificantStringTermsTests extends InternalSignificantTermsTestCas
         );
     }
 
+    public void testSliceReduceCountsTheShardBackgroundOnce() {
+        SignificanceHeuristic heuristic = new JLHScore();
+        long supersetSize = randomLongBetween(100, 1000);
+        int supersetDf = randomIntBetween(50, 100);
+        int numSlices = randomIntBetween(2, 5);
+        long subsetSize = 0;
+        long subsetDf = 0;
+        List<InternalAggregation> slices = new ArrayList<>(numSlices);
+        for (int i = 0; i < numSlices; i++) {
+            int sliceSubsetDf = randomIntBetween(1, 10);
+            long sliceSubsetSize = sliceSubsetDf + randomIntBetween(0, 10);
+            subsetDf += sliceSubsetDf;
+            subsetSize += sliceSubsetSize;
+            SignificantStringTerms.Bucket bucket = new SignificantStringTerms.Bucket(
+                new BytesRef("term"),
+                sliceSubsetDf,
+                supersetDf,
+                InternalAggregations.EMPTY,
+                DocValueFormat.RAW,
+                0
+            );
+            bucket.updateScore(heuristic, sliceSubsetSize, supersetSize);
+            slices.add(
+                new SignificantStringTerms(
+                    "terms",
+                    10,
+                    1L,
+                    null,
+                    DocValueFormat.RAW,
+                    sliceSubsetSize,
+                    supersetSize,
+                    heuristic,
+                    List.of(bucket)
+                )
+            );
+        }
+        AggregationReduceContext.Builder reduceContext = mockReduceContext(new SignificantTermsAggregationBuilder("terms"));
+
+        AggregationReduceContext sliceReduceContext = reduceContext.forPartialReduction().forSliceReduction();
+        assertTrue(sliceReduceContext.isSliceReduce());
+        SignificantStringTerms reduced = (SignificantStringTerms) reduce(slices, sliceReduceContext);
+        // the slices collect different documents of the shard so their subsets add up...
+        assertThat(reduced.getSubsetSize(), equalTo(subsetSize));
+        // ...but they all report the background of the whole shard, which must only be counted once
+        assertThat(reduced.getSupersetSize(), equalTo(supersetSize));
+        assertThat(reduced.getBuckets().size(), equalTo(1));
+        assertThat(reduced.getBuckets().get(0).getSubsetDf(), equalTo(subsetDf));
+        assertThat(reduced.getBuckets().get(0).getSupersetDf(), equalTo((long) supersetDf));
+
+        // the results of different shards have different backgrounds, which add up
+        reduced = (SignificantStringTerms) reduce(slices, reduceContext.forPartialReduction());
+        assertThat(reduced.getSubsetSize(), equalTo(subsetSize));
+        assertThat(reduced.getSupersetSize(), equalTo(numSlices * supersetSize));
+        assertThat(reduced.getBuckets().get(0).getSupersetDf(), equalTo((long) numSlices * supersetDf));
+    }
+
     @Override
     protected InternalSignificantTerms<?, ?> mutateInstance(InternalSignificantTerms<?, ?> instance) {
         if (instance instanceof SignificantStringTerms stringTerms) {
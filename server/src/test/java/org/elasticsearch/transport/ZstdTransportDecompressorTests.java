@@ -0,0 +1,155 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.transport;
+
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.bytes.CompositeBytesReference;
+import org.elasticsearch.common.bytes.ReleasableBytesReference;
+import org.elasticsearch.common.io.Streams;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.io.stream.OutputStreamStreamOutput;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.recycler.Recycler;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.util.MockPageCacheRecycler;
+import org.elasticsearch.core.Releasables;
+import org.elasticsearch.test.ESTestCase;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.lessThan;
+
+public class ZstdTransportDecompressorTests extends ESTestCase {
+
+    private final Recycler<BytesRef> recycler = new BytesRefRecycler(new MockPageCacheRecycler(Settings.EMPTY));
+
+    public void testSimpleCompression() throws IOException {
+        try (BytesStreamOutput output = new BytesStreamOutput()) {
+            byte randomByte = randomByte();
+            try (OutputStream zstdStream = Compression.Scheme.zstdOutputStream(org.elasticsearch.core.Streams.noCloseStream(output))) {
+                zstdStream.write(randomByte);
+            }
+
+            BytesReference bytes = output.bytes();
+            assertTrue(Compression.Scheme.isZstd(bytes));
+
+            try (ZstdTransportDecompressor decompressor = new ZstdTransportDecompressor(recycler)) {
+                int bytesConsumed = decompressor.decompress(bytes);
+                assertEquals(bytes.length(), bytesConsumed);
+                assertTrue(decompressor.isClosed());
+                ReleasableBytesReference releasableBytesReference = decompressor.pollDecompressedPage(true);
+                assertEquals(1, releasableBytesReference.length());
+                assertEquals(randomByte, releasableBytesReference.get(0));
+                releasableBytesReference.close();
+            }
+        }
+    }
+
+    public void testMultiBlockCompression() throws IOException {
+        // more than a single block of data
+        int intsToWrite = 100000;
+        BytesReference bytes = compressInts(intsToWrite);
+        try (ZstdTransportDecompressor decompressor = new ZstdTransportDecompressor(recycler)) {
+            int bytesConsumed = decompressor.decompress(bytes);
+            assertEquals(bytes.length(), bytesConsumed);
+            assertTrue(decompressor.isClosed());
+            assertDecompressedInts(decompressor, intsToWrite);
+        }
+    }
+
+    public void testIncrementalMultiBlockCompression() throws IOException {
+        int intsToWrite = 100000;
+        BytesReference bytes = compressInts(intsToWrite);
+        try (ZstdTransportDecompressor decompressor = new ZstdTransportDecompressor(recycler)) {
+            int split1 = (int) (bytes.length() * 0.3);
+            int split2 = (int) (bytes.length() * 0.65);
+            BytesReference inbound1 = bytes.slice(0, split1);
+            BytesReference inbound2 = bytes.slice(split1, split2 - split1);
+            BytesReference inbound3 = bytes.slice(split2, bytes.length() - split2);
+
+            int bytesConsumed1 = decompressor.decompress(inbound1);
+            BytesReference next = CompositeBytesReference.of(inbound1.slice(bytesConsumed1, inbound1.length() - bytesConsumed1), inbound2);
+            int bytesConsumed2 = decompressor.decompress(next);
+            BytesReference next2 = CompositeBytesReference.of(next.slice(bytesConsumed2, next.length() - bytesConsumed2), inbound3);
+            int bytesConsumed3 = decompressor.decompress(next2);
+            assertEquals(bytes.length(), bytesConsumed1 + bytesConsumed2 + bytesConsumed3);
+            assertTrue(decompressor.isClosed());
+            assertDecompressedInts(decompressor, intsToWrite);
+        }
+    }
+
+    public void testCorruptedBlockHeader() throws IOException {
+        BytesReference bytes = compressInts(randomIntBetween(1, 1000));
+        byte[] corrupted = BytesReference.toBytes(bytes);
+        // the compressed length of the first block comes right after the scheme header
+        corrupted[Compression.Scheme.HEADER_LENGTH] = (byte) 0xFF;
+        try (ZstdTransportDecompressor decompressor = new ZstdTransportDecompressor(recycler)) {
+            expectThrows(IllegalStateException.class, () -> decompressor.decompress(new BytesArray(corrupted)));
+        }
+    }
+
+    private static BytesReference compressInts(int intsToWrite) throws IOException {
+        try (BytesStreamOutput output = new BytesStreamOutput()) {
+            try (
+                StreamOutput zstdStream = new OutputStreamStreamOutput(
+                    Compression.Scheme.zstdOutputStream(Streams.flushOnCloseStream(output))
+                )
+            ) {
+                for (int i = 0; i < intsToWrite; ++i) {
+                    zstdStream.writeInt(expectedInt(i));
+                }
+            }
+            BytesReference bytes = output.copyBytes();
+            if (intsToWrite >= 1000) {
+                // Since 200 / 255 data is repeated, we should get a compression ratio of at least 50%
+                assertThat(bytes.length(), lessThan(intsToWrite * 4 / 2));
+            }
+            return bytes;
+        }
+    }
+
+    private static void assertDecompressedInts(ZstdTransportDecompressor decompressor, int intsToWrite) throws IOException {
+        List<ReleasableBytesReference> polledReferences = new ArrayList<>();
+        ReleasableBytesReference page;
+        while ((page = decompressor.pollDecompressedPage(false)) != null) {
+            polledReferences.add(page);
+        }
+        polledReferences.add(decompressor.pollDecompressedPage(true));
+        assertNull(decompressor.pollDecompressedPage(true));
+
+        try {
+            BytesReference composite = CompositeBytesReference.of(polledReferences.toArray(new BytesReference[0]));
+            assertEquals(intsToWrite * 4, composite.length());
+            StreamInput streamInput = composite.streamInput();
+            for (int i = 0; i < intsToWrite; ++i) {
+                assertEquals(expectedInt(i), streamInput.readInt());
+            }
+        } finally {
+            Releasables.close(polledReferences);
+        }
+    }
+
+    private static int expectedInt(int i) {
+        int lowByte = (i & 0xFF);
+        if (lowByte < 128) {
+            return 0;
+        } else if (lowByte < 200) {
+            return 1;
+        } else {
+            return i;
+        }
+    }
+}
@@ -444,6 +444,7 @@ public abstract class AggregatorTestCase extends ESTestCase {
                 breakerService.getBreaker(CircuitBreaker.REQUEST)
             ),
             bitsetFilterCache,
+            null,
             randomInt(),
             () -> 0L,
             isCancelled,
@@ -210,6 +210,11 @@ final class BytesRefBlockHash extends BlockHash {
         }
     }
 
+    @Override
+    public int numKeys() {
+        return Math.toIntExact(hash.size()) + (seenNull ? 1 : 0);
+    }
+
     @Override
     public IntVector nonEmpty() {
         return IntVector.range(seenNull ? 0 : 1, Math.toIntExact(hash.size() + 1), blockFactory);
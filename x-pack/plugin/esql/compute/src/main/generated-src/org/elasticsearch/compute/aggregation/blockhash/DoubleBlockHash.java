@@ -147,6 +147,11 @@ final class DoubleBlockHash extends BlockHash {
         return new DoubleBlock[] { blockFactory.newDoubleArrayVector(keys, keys.length).asBlock() };
     }
 
+    @Override
+    public int numKeys() {
+        return Math.toIntExact(hash.size()) + (seenNull ? 1 : 0);
+    }
+
     @Override
     public IntVector nonEmpty() {
         return IntVector.range(seenNull ? 0 : 1, Math.toIntExact(hash.size() + 1), blockFactory);
@@ -145,6 +145,11 @@ final class IntBlockHash extends BlockHash {
         return new IntBlock[] { blockFactory.newIntArrayVector(keys, keys.length).asBlock() };
     }
 
+    @Override
+    public int numKeys() {
+        return Math.toIntExact(hash.size()) + (seenNull ? 1 : 0);
+    }
+
     @Override
     public IntVector nonEmpty() {
         return IntVector.range(seenNull ? 0 : 1, Math.toIntExact(hash.size() + 1), blockFactory);
@@ -147,6 +147,11 @@ final class LongBlockHash extends BlockHash {
         return new LongBlock[] { blockFactory.newLongArrayVector(keys, keys.length).asBlock() };
     }
 
+    @Override
+    public int numKeys() {
+        return Math.toIntExact(hash.size()) + (seenNull ? 1 : 0);
+    }
+
     @Override
     public IntVector nonEmpty() {
         return IntVector.range(seenNull ? 0 : 1, Math.toIntExact(hash.size() + 1), blockFactory);
@@ -8,16 +8,32 @@
 package org.elasticsearch.compute.data;
 
 import org.apache.lucene.util.RamUsageEstimator;
+import org.elasticsearch.common.util.DoubleArray;
 
 /**
  * Builder for {@link DoubleVector}s that never grows. Prefer this to
  * {@link DoubleVectorBuilder} if you know the precise size up front because
  * it's faster.
+ * <p>
+ *     Vectors that would take more than {@link BlockFactory#maxPrimitiveArrayBytes()}
+ *     are written straight into {@link DoubleBigArrayVector}s so large vectors, like the
+ *     keys and results of aggregations with many groups, come from recycled pages rather
+ *     than being allocated as one big array on the heap.
+ * </p>
  * This class is generated. Edit {@code X-VectorFixedBuilder.java.st} instead.
  */
 public final class DoubleVectorFixedBuilder implements DoubleVector.FixedBuilder {
     private final BlockFactory blockFactory;
+    /**
+     * Values of small vectors, {@code null} if we're building into {@link #bigValues}.
+     */
     private final double[] values;
+    /**
+     * Values of vectors larger than {@link BlockFactory#maxPrimitiveArrayBytes()}, {@code null}
+     * if we're building into {@link #values}. This is tracked by the breaker in {@link BlockFactory#bigArrays()}.
+     */
+    private final DoubleArray bigValues;
+    private final int size;
     private final long preAdjustedBytes;
     /**
      * The next value to write into. {@code -1} means the vector has already
@@ -28,21 +44,38 @@ public final class DoubleVectorFixedBuilder implements DoubleVector.FixedBuilder
     private boolean closed;
 
     DoubleVectorFixedBuilder(int size, BlockFactory blockFactory) {
-        preAdjustedBytes = ramBytesUsed(size);
-        blockFactory.adjustBreaker(preAdjustedBytes);
         this.blockFactory = blockFactory;
-        this.values = new double[size];
+        this.size = size;
+        long arrayBytes = ramBytesUsed(size);
+        if (size > 1 && arrayBytes > blockFactory.maxPrimitiveArrayBytes()) {
+            preAdjustedBytes = 0;
+            values = null;
+            bigValues = blockFactory.bigArrays().newDoubleArray(size, false);
+        } else {
+            preAdjustedBytes = arrayBytes;
+            blockFactory.adjustBreaker(preAdjustedBytes);
+            bigValues = null;
+            values = new double[size];
+        }
     }
 
     @Override
     public DoubleVectorFixedBuilder appendDouble(double value) {
-        values[nextIndex++] = value;
+        if (values != null) {
+            values[nextIndex++] = value;
+        } else {
+            bigValues.set(nextIndex++, value);
+        }
         return this;
     }
 
     @Override
     public DoubleVectorFixedBuilder appendDouble(int idx, double value) {
-        values[idx] = value;
+        if (values != null) {
+            values[idx] = value;
+        } else {
+            bigValues.set(idx, value);
+        }
         return this;
     }
 
@@ -56,7 +89,7 @@ public final class DoubleVectorFixedBuilder implements DoubleVector.FixedBuilder
 
     @Override
     public long estimatedBytes() {
-        return ramBytesUsed(values.length);
+        return values != null ? ramBytesUsed(size) : bigValues.ramBytesUsed();
     }
 
     @Override
@@ -65,11 +98,15 @@ public final class DoubleVectorFixedBuilder implements DoubleVector.FixedBuilder
             throw new IllegalStateException("already closed");
         }
         closed = true;
+        if (bigValues != null) {
+            // The breaker was adjusted when the big array was allocated and the vector takes it over
+            return new DoubleBigArrayVector(bigValues, size, blockFactory);
+        }
         DoubleVector vector;
-        if (values.length == 1) {
+        if (size == 1) {
             vector = blockFactory.newConstantDoubleBlockWith(values[0], 1, preAdjustedBytes).asVector();
         } else {
-            vector = blockFactory.newDoubleArrayVector(values, values.length, preAdjustedBytes);
+            vector = blockFactory.newDoubleArrayVector(values, size, preAdjustedBytes);
         }
         assert vector.ramBytesUsed() == preAdjustedBytes : "fixed Builders should estimate the exact ram bytes used";
         return vector;
@@ -81,6 +118,9 @@ public final class DoubleVectorFixedBuilder implements DoubleVector.FixedBuilder
             // If nextIndex < 0 we've already built the vector
             closed = true;
             blockFactory.adjustBreaker(-preAdjustedBytes);
+            if (bigValues != null) {
+                bigValues.close();
+            }
         }
     }
 
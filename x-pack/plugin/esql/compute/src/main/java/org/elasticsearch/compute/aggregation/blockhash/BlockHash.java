@@ -97,6 +97,12 @@ public abstract class BlockHash implements Releasable, SeenGroupIds {
      */
     public abstract Block[] getKeys();
 
+    /**
+     * The number of keys inserted by {@link #add}. This is the number of rows
+     * returned by {@link #getKeys()} and the number of positions in {@link #nonEmpty()}.
+     */
+    public abstract int numKeys();
+
     /**
      * The grouping ids that are not empty. We use this because some block hashes reserve
      * space for grouping ids and then don't end up using them. For example,
@@ -149,6 +149,11 @@ final class BytesRefLongBlockHash extends BlockHash {
         return new SeenGroupIds.Range(0, Math.toIntExact(finalHash.size())).seenGroupIds(bigArrays);
     }
 
+    @Override
+    public int numKeys() {
+        return Math.toIntExact(finalHash.size());
+    }
+
     @Override
     public IntVector nonEmpty() {
         return IntVector.range(0, Math.toIntExact(finalHash.size()), blockFactory);
@@ -109,6 +109,11 @@ public class CategorizeBlockHash extends BlockHash {
         return new Block[] { aggregatorMode.isOutputPartial() ? buildIntermediateBlock() : buildFinalBlock() };
     }
 
+    @Override
+    public int numKeys() {
+        return categorizer.getCategoryCount() + (seenNull ? 1 : 0);
+    }
+
     @Override
     public IntVector nonEmpty() {
         return IntVector.range(seenNull ? 0 : 1, categorizer.getCategoryCount() + 1, blockFactory);
@@ -148,6 +148,11 @@ public class CategorizePackedValuesBlockHash extends BlockHash {
         return keys;
     }
 
+    @Override
+    public int numKeys() {
+        return packedValuesBlockHash.numKeys();
+    }
+
     @Override
     public IntVector nonEmpty() {
         return packedValuesBlockHash.nonEmpty();
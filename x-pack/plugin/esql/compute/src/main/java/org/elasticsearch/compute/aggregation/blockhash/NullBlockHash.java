@@ -59,6 +59,11 @@ final class NullBlockHash extends BlockHash {
         return new Block[] { blockFactory.newConstantNullBlock(seenNull ? 1 : 0) };
     }
 
+    @Override
+    public int numKeys() {
+        return seenNull ? 1 : 0;
+    }
+
     @Override
     public IntVector nonEmpty() {
         return blockFactory.newConstantIntVector(0, seenNull ? 1 : 0);
@@ -401,6 +401,11 @@ final class PackedValuesBlockHash extends BlockHash {
         }
     }
 
+    @Override
+    public int numKeys() {
+        return Math.toIntExact(bytesRefHash.size());
+    }
+
     @Override
     public IntVector nonEmpty() {
         return IntVector.range(0, Math.toIntExact(bytesRefHash.size()), blockFactory);
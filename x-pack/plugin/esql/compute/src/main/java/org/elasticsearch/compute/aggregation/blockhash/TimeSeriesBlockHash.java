@@ -114,6 +114,11 @@ public final class TimeSeriesBlockHash extends BlockHash {
         return new Block[] { tsidHashes.asBlock(), timestampIntervals.asBlock() };
     }
 
+    @Override
+    public int numKeys() {
+        return Math.toIntExact(intervalHash.size());
+    }
+
     @Override
     public IntVector nonEmpty() {
         long endExclusive = intervalHash.size();
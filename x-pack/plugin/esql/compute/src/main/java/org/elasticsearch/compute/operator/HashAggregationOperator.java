@@ -44,8 +44,20 @@ public class HashAggregationOperator implements Operator {
         AggregatorMode aggregatorMode,
         List<GroupingAggregator.Factory> aggregators,
         int maxPageSize,
+        int partialEmitKeysThreshold,
+        double partialEmitUniquenessThreshold,
         AnalysisRegistry analysisRegistry
     ) implements OperatorFactory {
+        public HashAggregationOperatorFactory(
+            List<BlockHash.GroupSpec> groups,
+            AggregatorMode aggregatorMode,
+            List<GroupingAggregator.Factory> aggregators,
+            int maxPageSize,
+            AnalysisRegistry analysisRegistry
+        ) {
+            this(groups, aggregatorMode, aggregators, maxPageSize, Integer.MAX_VALUE, 1.0, analysisRegistry);
+        }
+
         @Override
         public Operator get(DriverContext driverContext) {
             if (groups.stream().anyMatch(BlockHash.GroupSpec::isCategorize)) {
@@ -61,9 +73,17 @@ public class HashAggregationOperator implements Operator {
                     driverContext
                 );
             }
+            /*
+             * Only the INITIAL phase may flush its groups early. Its output is intermediate
+             * state that a later phase merges by key anyway, so emitting the same key more
+             * than once is fine there. All other phases must see every key exactly once.
+             */
+            boolean canEmitPartialResults = aggregatorMode == AggregatorMode.INITIAL;
             return new HashAggregationOperator(
                 aggregators,
                 () -> BlockHash.build(groups, driverContext.blockFactory(), maxPageSize, false),
+                canEmitPartialResults ? partialEmitKeysThreshold : Integer.MAX_VALUE,
+                partialEmitUniquenessThreshold,
                 driverContext
             );
         }
@@ -80,13 +100,36 @@ public class HashAggregationOperator implements Operator {
 
     private boolean finished;
     private Page output;
+    private boolean finalOutputPending;
 
-    private final BlockHash blockHash;
+    private final Supplier<BlockHash> blockHashSupplier;
+    private BlockHash blockHash;
 
+    private final List<GroupingAggregator.Factory> aggregatorFactories;
     private final List<GroupingAggregator> aggregators;
 
     private final DriverContext driverContext;
 
+    /**
+     * Once the hash holds at least this many keys we consider flushing the intermediate
+     * state early. {@link Integer#MAX_VALUE} disables early flushing.
+     */
+    private final int partialEmitKeysThreshold;
+    /**
+     * Minimum ratio of keys to rows received since the last flush for an early flush to
+     * kick in. When most rows land in an existing group holding the keys is cheap and
+     * we keep them; when nearly every row is a new key the hash only grows, so we flush.
+     */
+    private final double partialEmitUniquenessThreshold;
+    /**
+     * Count of rows added to the current hash, reset on every early flush.
+     */
+    private long rowsAddedSinceLastEmit;
+    /**
+     * Count of pages emitted before {@link #finish} because the hash grew too large.
+     */
+    private int partialPagesEmitted;
+
     /**
      * Nanoseconds this operator has spent hashing grouping keys.
      */
@@ -108,20 +151,43 @@ public class HashAggregationOperator implements Operator {
      */
     private long rowsEmitted;
 
+    public HashAggregationOperator(
+        List<GroupingAggregator.Factory> aggregators,
+        Supplier<BlockHash> blockHash,
+        DriverContext driverContext
+    ) {
+        this(aggregators, blockHash, Integer.MAX_VALUE, 1.0, driverContext);
+    }
+
+    /**
+     * Build.
+     * @param partialEmitKeysThreshold number of keys at which the operator may emit its
+     *                                 intermediate state and start over with an empty hash.
+     *                                 Only valid if the output of this operator is merged by
+     *                                 another aggregation. {@link Integer#MAX_VALUE} disables it.
+     * @param partialEmitUniquenessThreshold minimum ratio of keys to rows received for the
+     *                                       early emit to kick in
+     */
     @SuppressWarnings("this-escape")
     public HashAggregationOperator(
         List<GroupingAggregator.Factory> aggregators,
         Supplier<BlockHash> blockHash,
+        int partialEmitKeysThreshold,
+        double partialEmitUniquenessThreshold,
         DriverContext driverContext
     ) {
+        if (partialEmitKeysThreshold <= 0) {
+            throw new IllegalArgumentException("partialEmitKeysThreshold must be positive but was [" + partialEmitKeysThreshold + "]");
+        }
+        this.blockHashSupplier = blockHash;
+        this.aggregatorFactories = aggregators;
         this.aggregators = new ArrayList<>(aggregators.size());
+        this.partialEmitKeysThreshold = partialEmitKeysThreshold;
+        this.partialEmitUniquenessThreshold = partialEmitUniquenessThreshold;
         this.driverContext = driverContext;
         boolean success = false;
         try {
-            this.blockHash = blockHash.get();
-            for (GroupingAggregator.Factory a : aggregators) {
-                this.aggregators.add(a.apply(driverContext));
-            }
+            initHashAndAggregators();
             success = true;
         } finally {
             if (success == false) {
@@ -130,9 +196,16 @@ public class HashAggregationOperator implements Operator {
         }
     }
 
+    private void initHashAndAggregators() {
+        this.blockHash = blockHashSupplier.get();
+        for (GroupingAggregator.Factory a : aggregatorFactories) {
+            this.aggregators.add(a.apply(driverContext));
+        }
+    }
+
     @Override
     public boolean needsInput() {
-        return finished == false;
+        return finished == false && output == null;
     }
 
     @Override
@@ -196,7 +269,37 @@ public class HashAggregationOperator implements Operator {
             page.releaseBlocks();
             pagesProcessed++;
             rowsReceived += page.getPositionCount();
+            rowsAddedSinceLastEmit += page.getPositionCount();
+        }
+        if (shouldEmitPartialResultsEarly()) {
+            emitPartialResults();
+        }
+    }
+
+    /**
+     * Should we flush the keys and intermediate state we've collected so far? We do this
+     * for high cardinality groupings where the hash barely reduces the input but keeps
+     * growing until it trips the circuit breaker. The next phase merges them back together.
+     */
+    private boolean shouldEmitPartialResultsEarly() {
+        if (rowsAddedSinceLastEmit == 0) {
+            return false;
+        }
+        int numKeys = blockHash.numKeys();
+        if (numKeys < partialEmitKeysThreshold) {
+            return false;
         }
+        return (double) numKeys / rowsAddedSinceLastEmit >= partialEmitUniquenessThreshold;
+    }
+
+    private void emitPartialResults() {
+        output = buildOutput();
+        partialPagesEmitted++;
+        Releasables.close(blockHash, () -> Releasables.close(aggregators));
+        blockHash = null;
+        aggregators.clear();
+        rowsAddedSinceLastEmit = 0;
+        initHashAndAggregators();
     }
 
     @Override
@@ -206,6 +309,10 @@ public class HashAggregationOperator implements Operator {
             rowsEmitted += p.getPositionCount();
         }
         output = null;
+        if (finalOutputPending) {
+            finalOutputPending = false;
+            output = buildOutput();
+        }
         return p;
     }
 
@@ -215,6 +322,15 @@ public class HashAggregationOperator implements Operator {
             return;
         }
         finished = true;
+        if (output != null) {
+            // An early flush is still waiting to be picked up. Emit whatever was collected after it next.
+            finalOutputPending = rowsAddedSinceLastEmit > 0;
+        } else if (partialPagesEmitted == 0 || rowsAddedSinceLastEmit > 0) {
+            output = buildOutput();
+        }
+    }
+
+    private Page buildOutput() {
         Block[] blocks = null;
         IntVector selected = null;
         boolean success = false;
@@ -230,8 +346,9 @@ public class HashAggregationOperator implements Operator {
                 aggregator.evaluate(blocks, offset, selected, driverContext);
                 offset += aggBlockCounts[i];
             }
-            output = new Page(blocks);
+            Page page = new Page(blocks);
             success = true;
+            return page;
         } finally {
             // selected should always be closed
             if (selected != null) {
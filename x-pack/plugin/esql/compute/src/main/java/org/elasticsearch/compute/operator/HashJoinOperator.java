@@ -0,0 +1,394 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0; you may not use this file except in compliance with the Elastic License
+ * 2.0.
+ */
+
+package org.elasticsearch.compute.operator;
+
+import org.apache.lucene.util.RamUsageEstimator;
+import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.elasticsearch.common.util.BigArrays;
+import org.elasticsearch.common.util.IntArray;
+import org.elasticsearch.compute.aggregation.GroupingAggregatorFunction;
+import org.elasticsearch.compute.aggregation.blockhash.BlockHash;
+import org.elasticsearch.compute.data.Block;
+import org.elasticsearch.compute.data.BlockFactory;
+import org.elasticsearch.compute.data.ElementType;
+import org.elasticsearch.compute.data.IntBlock;
+import org.elasticsearch.compute.data.IntVector;
+import org.elasticsearch.compute.data.Page;
+import org.elasticsearch.core.Releasable;
+import org.elasticsearch.core.ReleasableIterator;
+import org.elasticsearch.core.Releasables;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Performs a {@code LEFT JOIN} of incoming "left hand" pages against a "right hand"
+ * table. The right hand keys are loaded into a {@link BlockHash} once, when the operator
+ * is built, and each left hand page is then joined by looking up all of its keys in the
+ * hash at once rather than running a query per row.
+ * <p>
+ *     Each left hand row is output once for every right hand row with the same key or
+ *     once, with {@code null}s for all right hand values, if there isn't any. Rows with
+ *     a {@code null} or multivalued key never match. The right hand keys must be single
+ *     valued, but may contain duplicates.
+ * </p>
+ * <p>
+ *     The hash, the chains of right hand rows sharing a key, and the matches of each left hand
+ *     page are tracked by the circuit breaker.
+ * </p>
+ */
+public class HashJoinOperator extends AbstractPageMappingToIteratorOperator {
+    /**
+     * Factory for {@link HashJoinOperator}. The {@link Block}s it receives
+     * are never closed, so we need to build them from a non-tracking factory.
+     * @param rightKeys the keys of the "right hand" table
+     * @param rightValues the values of the "right hand" table appended to each joined row
+     * @param leftKeyChannels the channels in the "left hand" pages matched against {@code rightKeys}
+     * @param maxPageSize maximum number of rows in each output page
+     */
+    public record Factory(Block[] rightKeys, Block[] rightValues, int[] leftKeyChannels, int maxPageSize) implements OperatorFactory {
+        public Factory {
+            if (rightKeys.length < 1) {
+                throw new IllegalArgumentException("expected [rightKeys] to be non-empty");
+            }
+            if (rightKeys.length != leftKeyChannels.length) {
+                throw new IllegalArgumentException(
+                    "expected as many left key channels as right keys but [" + leftKeyChannels.length + "] != [" + rightKeys.length + "]"
+                );
+            }
+            int positions = rightKeys[0].getPositionCount();
+            for (Block key : rightKeys) {
+                checkPositions(positions, key);
+                switch (key.elementType()) {
+                    case NULL, BOOLEAN, INT, LONG, DOUBLE, BYTES_REF -> {
+                    }
+                    default -> throw new IllegalArgumentException("unsupported key element type [" + key.elementType() + "]");
+                }
+                if (key.doesHaveMultivaluedFields()) {
+                    throw new IllegalArgumentException("only single valued keys are supported");
+                }
+            }
+            for (Block value : rightValues) {
+                checkPositions(positions, value);
+            }
+            if (maxPageSize < 1) {
+                throw new IllegalArgumentException("maxPageSize must be positive but was [" + maxPageSize + "]");
+            }
+        }
+
+        private static void checkPositions(int positions, Block block) {
+            if (positions != block.getPositionCount()) {
+                throw new IllegalArgumentException(
+                    "right hand blocks must have the same number of positions but [" + positions + "] != [" + block.getPositionCount() + "]"
+                );
+            }
+        }
+
+        @Override
+        public Operator get(DriverContext driverContext) {
+            return new HashJoinOperator(driverContext.blockFactory(), rightKeys, rightValues, leftKeyChannels, maxPageSize);
+        }
+
+        @Override
+        public String describe() {
+            return "HashJoinOperator[leftKeys="
+                + Arrays.toString(leftKeyChannels)
+                + ", rightPositions="
+                + rightKeys[0].getPositionCount()
+                + ", rightValues="
+                + rightValues.length
+                + "]";
+        }
+    }
+
+    private final BlockFactory blockFactory;
+    private final ElementType[] keyTypes;
+    private final Block[] rightValues;
+    private final int[] leftKeyChannels;
+    private final int maxPageSize;
+
+    private final BlockHash hash;
+    /**
+     * One more than the first right hand row for each group id in the {@link #hash},
+     * {@code 0} if there isn't any.
+     */
+    private IntArray firstRow;
+    /**
+     * One more than the next right hand row with the same key as the row at each
+     * index, {@code 0} if there isn't any.
+     */
+    private final IntArray nextRow;
+
+    @SuppressWarnings("this-escape")
+    public HashJoinOperator(BlockFactory blockFactory, Block[] rightKeys, Block[] rightValues, int[] leftKeyChannels, int maxPageSize) {
+        this.blockFactory = blockFactory;
+        this.keyTypes = new ElementType[rightKeys.length];
+        this.rightValues = rightValues;
+        this.leftKeyChannels = leftKeyChannels;
+        this.maxPageSize = maxPageSize;
+
+        List<BlockHash.GroupSpec> groups = new ArrayList<>(rightKeys.length);
+        for (int k = 0; k < rightKeys.length; k++) {
+            keyTypes[k] = rightKeys[k].elementType();
+            groups.add(new BlockHash.GroupSpec(k, keyTypes[k]));
+        }
+        BigArrays bigArrays = blockFactory.bigArrays();
+        int rightPositions = rightKeys[0].getPositionCount();
+        ChainBuilder chains = null;
+        boolean success = false;
+        try {
+            if (groups.size() == 1) {
+                hash = BlockHash.build(groups, blockFactory, maxPageSize, false);
+            } else {
+                // the specialized multi-key hashes don't support lookup
+                hash = BlockHash.buildPackedValuesBlockHash(
+                    groups,
+                    blockFactory,
+                    (int) BlockFactory.DEFAULT_MAX_BLOCK_PRIMITIVE_ARRAY_SIZE.getBytes()
+                );
+            }
+            firstRow = bigArrays.newIntArray(1, true);
+            nextRow = bigArrays.newIntArray(rightPositions, true);
+            chains = new ChainBuilder(bigArrays, rightKeys);
+            hash.add(new Page(rightKeys), chains);
+            success = true;
+        } finally {
+            Releasables.close(chains);
+            if (success == false) {
+                close();
+            }
+        }
+    }
+
+    /**
+     * Links each right hand row to the chain of rows sharing its key, in the order they appear.
+     */
+    private class ChainBuilder implements GroupingAggregatorFunction.AddInput {
+        private final BigArrays bigArrays;
+        private final Block[] keys;
+        /**
+         * One more than the last right hand row seen for each group id.
+         */
+        private IntArray lastRow;
+
+        ChainBuilder(BigArrays bigArrays, Block[] keys) {
+            this.bigArrays = bigArrays;
+            this.keys = keys;
+            this.lastRow = bigArrays.newIntArray(1, true);
+        }
+
+        @Override
+        public void add(int positionOffset, IntBlock groupIds) {
+            for (int p = 0; p < groupIds.getPositionCount(); p++) {
+                int first = groupIds.getFirstValueIndex(p);
+                int end = first + groupIds.getValueCount(p);
+                for (int i = first; i < end; i++) {
+                    addRow(positionOffset + p, groupIds.getInt(i));
+                }
+            }
+        }
+
+        @Override
+        public void add(int positionOffset, IntVector groupIds) {
+            for (int p = 0; p < groupIds.getPositionCount(); p++) {
+                addRow(positionOffset + p, groupIds.getInt(p));
+            }
+        }
+
+        private void addRow(int row, int groupId) {
+            for (Block key : keys) {
+                if (key.isNull(row)) {
+                    // null never matches so there's no need to remember the row
+                    return;
+                }
+            }
+            firstRow = bigArrays.grow(firstRow, groupId + 1);
+            lastRow = bigArrays.grow(lastRow, groupId + 1);
+            int last = lastRow.get(groupId);
+            if (last == 0) {
+                firstRow.set(groupId, row + 1);
+            } else {
+                nextRow.set(last - 1, row + 1);
+            }
+            lastRow.set(groupId, row + 1);
+        }
+
+        @Override
+        public void close() {
+            lastRow.close();
+        }
+    }
+
+    @Override
+    protected ReleasableIterator<Page> receive(Page page) {
+        Matches matches = null;
+        Page keys = null;
+        boolean success = false;
+        try {
+            for (int k = 0; k < leftKeyChannels.length; k++) {
+                ElementType leftType = page.getBlock(leftKeyChannels[k]).elementType();
+                if (leftType != keyTypes[k] && leftType != ElementType.NULL) {
+                    throw new IllegalArgumentException(
+                        "left key [" + leftKeyChannels[k] + "] is [" + leftType + "] but the right key is [" + keyTypes[k] + "]"
+                    );
+                }
+            }
+            matches = new Matches(blockFactory.breaker(), page.getPositionCount());
+            keys = page.projectBlocks(leftKeyChannels);
+            lookup(keys, matches);
+            success = true;
+        } finally {
+            if (keys != null) {
+                keys.releaseBlocks();
+            }
+            if (success == false) {
+                Releasables.closeExpectNoException(matches, page::releaseBlocks);
+            }
+        }
+        return new JoinedPages(page, matches);
+    }
+
+    private void lookup(Page keys, Matches matches) {
+        try (ReleasableIterator<IntBlock> groupIds = hash.lookup(keys, BlockFactory.DEFAULT_MAX_BLOCK_PRIMITIVE_ARRAY_SIZE)) {
+            int position = 0;
+            while (groupIds.hasNext()) {
+                try (IntBlock chunk = groupIds.next()) {
+                    for (int p = 0; p < chunk.getPositionCount(); p++) {
+                        int row = 0;
+                        if (chunk.getValueCount(p) == 1) {
+                            int groupId = chunk.getInt(chunk.getFirstValueIndex(p));
+                            row = groupId < firstRow.size() ? firstRow.get(groupId) : 0;
+                        }
+                        if (row == 0) {
+                            matches.add(position, -1);
+                        }
+                        while (row != 0) {
+                            matches.add(position, row - 1);
+                            row = nextRow.get(row - 1);
+                        }
+                        position++;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Pairs of left hand position and the right hand row it joins to, {@code -1} if none.
+     * The arrays are tracked by the circuit breaker until the joined pages are released.
+     */
+    private static class Matches implements Releasable {
+        private final CircuitBreaker breaker;
+        private int[] left = new int[0];
+        private int[] right = new int[0];
+        private int count;
+        private long reservedBytes;
+
+        Matches(CircuitBreaker breaker, int expectedSize) {
+            this.breaker = breaker;
+            grow(expectedSize);
+        }
+
+        void add(int leftPosition, int rightRow) {
+            if (count == left.length) {
+                grow(Math.max(count + 1, count + (count >> 1)));
+            }
+            left[count] = leftPosition;
+            right[count] = rightRow;
+            count++;
+        }
+
+        private void grow(int newSize) {
+            long newBytes = 2 * RamUsageEstimator.alignObjectSize(
+                RamUsageEstimator.NUM_BYTES_ARRAY_HEADER + (long) Integer.BYTES * newSize
+            );
+            breaker.addEstimateBytesAndMaybeBreak(newBytes, "hash join");
+            left = Arrays.copyOf(left, newSize);
+            right = Arrays.copyOf(right, newSize);
+            breaker.addWithoutBreaking(-reservedBytes);
+            reservedBytes = newBytes;
+        }
+
+        @Override
+        public void close() {
+            breaker.addWithoutBreaking(-reservedBytes);
+            reservedBytes = 0;
+        }
+    }
+
+    private class JoinedPages implements ReleasableIterator<Page> {
+        private final Page leftHand;
+        private final Matches matches;
+        private int offset;
+
+        JoinedPages(Page leftHand, Matches matches) {
+            this.leftHand = leftHand;
+            this.matches = matches;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return offset < matches.count;
+        }
+
+        @Override
+        public Page next() {
+            int end = Math.min(offset + maxPageSize, matches.count);
+            int[] leftPositions = Arrays.copyOfRange(matches.left, offset, end);
+            Block[] blocks = new Block[leftHand.getBlockCount() + rightValues.length];
+            try {
+                int b = 0;
+                while (b < leftHand.getBlockCount()) {
+                    blocks[b] = leftHand.getBlock(b).filter(leftPositions);
+                    b++;
+                }
+                for (Block values : rightValues) {
+                    blocks[b++] = rightHandBlock(values, offset, end);
+                }
+                Page result = new Page(blocks);
+                blocks = null;
+                offset = end;
+                return result;
+            } finally {
+                if (blocks != null) {
+                    Releasables.closeExpectNoException(blocks);
+                }
+            }
+        }
+
+        private Block rightHandBlock(Block values, int start, int end) {
+            try (Block.Builder builder = values.elementType().newBlockBuilder(end - start, blockFactory)) {
+                for (int i = start; i < end; i++) {
+                    int row = matches.right[i];
+                    if (row < 0) {
+                        builder.appendNull();
+                    } else {
+                        builder.copyFrom(values, row, row + 1);
+                    }
+                }
+                return builder.build();
+            }
+        }
+
+        @Override
+        public void close() {
+            Releasables.closeExpectNoException(matches, leftHand::releaseBlocks);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "HashJoinOperator[" + hash + ", leftKeys=" + Arrays.toString(leftKeyChannels) + "]";
+    }
+
+    @Override
+    public void close() {
+        Releasables.close(super::close, hash, firstRow, nextRow);
+    }
+}
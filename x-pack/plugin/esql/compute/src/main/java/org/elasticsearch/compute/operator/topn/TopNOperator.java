@@ -177,7 +177,7 @@ public class TopNOperator implements Operator, Accountable {
             writeValues(position, destination.values);
         }
 
-        private void writeKey(int position, Row row) {
+        void writeKey(int position, Row row) {
             int orderByCompositeKeyCurrentPosition = 0;
             for (int i = 0; i < keyFactories.length; i++) {
                 int valueAsBytesSize = keyFactories[i].extractor.writeKey(row.keys, position);
@@ -187,7 +187,7 @@ public class TopNOperator implements Operator, Accountable {
             }
         }
 
-        private void writeValues(int position, BreakingBytesRefBuilder values) {
+        void writeValues(int position, BreakingBytesRefBuilder values) {
             for (ValueExtractor e : valueExtractors) {
                 e.writeValue(values, position);
             }
@@ -377,12 +377,22 @@ public class TopNOperator implements Operator, Accountable {
                     spare.keys.clear();
                     spare.values.clear();
                 }
-                rowFiller.row(i, spare);
+                rowFiller.writeKey(i, spare);
 
                 // When rows are very long, appending the values one by one can lead to lots of allocations.
                 // To avoid this, pre-allocate at least as much size as in the last seen row.
                 // Let the pre-allocation size decay in case we only have 1 huge row and smaller rows otherwise.
                 spareKeysPreAllocSize = Math.max(spare.keys.length(), spareKeysPreAllocSize / 2);
+
+                /*
+                 * Once the queue is full most rows don't make it in. The key alone decides
+                 * that so we don't bother encoding the values for rows that would be dropped.
+                 * That saves encoding every column of wide rows just to throw it away.
+                 */
+                if (inputQueue.isCompetitive(spare) == false) {
+                    continue;
+                }
+                rowFiller.writeValues(i, spare.values);
                 spareValuesPreAllocSize = Math.max(spare.values.length(), spareValuesPreAllocSize / 2);
 
                 spare = inputQueue.insertWithOverflow(spare);
@@ -576,7 +586,7 @@ public class TopNOperator implements Operator, Accountable {
         return breaker;
     }
 
-    private static class Queue extends PriorityQueue<Row> implements Accountable {
+    static class Queue extends PriorityQueue<Row> implements Accountable {
         private static final long SHALLOW_SIZE = RamUsageEstimator.shallowSizeOfInstance(Queue.class);
         private final int maxSize;
 
@@ -590,6 +600,14 @@ public class TopNOperator implements Operator, Accountable {
             return compareRows(r1, r2) < 0;
         }
 
+        /**
+         * Would {@link #insertWithOverflow} keep {@code row}? Mirrors its logic without modifying the queue,
+         * so rows that tie with the {@link #top()} aren't competitive either.
+         */
+        boolean isCompetitive(Row row) {
+            return size() < maxSize || (size() > 0 && lessThan(top(), row));
+        }
+
         @Override
         public String toString() {
             return size() + "/" + maxSize;
@@ -22,6 +22,7 @@ import org.elasticsearch.test.ESTestCase;
 import java.util.ArrayList;
 import java.util.List;
 
+import static org.hamcrest.Matchers.endsWith;
 import static org.hamcrest.Matchers.equalTo;
 
 public class VectorFixedBuilderTests extends ESTestCase {
@@ -79,6 +80,67 @@ public class VectorFixedBuilderTests extends ESTestCase {
         assertThat(blockFactory.breaker().getUsed(), equalTo(0L));
     }
 
+    public void testBuildBigArrays() {
+        BigArrays bigArrays = new MockBigArrays(PageCacheRecycler.NON_RECYCLING_INSTANCE, ByteSizeValue.ofGb(1)).withCircuitBreaking();
+        BlockFactory blockFactory = new BlockFactory(
+            bigArrays.breakerService().getBreaker(CircuitBreaker.REQUEST),
+            bigArrays,
+            ByteSizeValue.ofBytes(between(1, 100))
+        );
+        int size = between(1_000, 50_000);
+        try (Vector.Builder builder = vectorBuilder(size, blockFactory)) {
+            RandomBlock random = RandomBlock.randomBlock(elementType, size, false, 1, 1, 0, 0);
+            fill(builder, random.block().asVector());
+            try (Vector built = builder.build()) {
+                assertThat(built.getClass().getSimpleName(), endsWith("BigArrayVector"));
+                assertThat(built, equalTo(random.block().asVector()));
+                assertThat(blockFactory.breaker().getUsed(), equalTo(built.ramBytesUsed()));
+            }
+            assertThat(blockFactory.breaker().getUsed(), equalTo(0L));
+        }
+        assertThat(blockFactory.breaker().getUsed(), equalTo(0L));
+    }
+
+    public void testBuildOnEachPath() {
+        BigArrays bigArrays = new MockBigArrays(PageCacheRecycler.NON_RECYCLING_INSTANCE, ByteSizeValue.ofGb(1)).withCircuitBreaking();
+        BlockFactory blockFactory = new BlockFactory(
+            bigArrays.breakerService().getBreaker(CircuitBreaker.REQUEST),
+            bigArrays,
+            ByteSizeValue.ofKb(1)
+        );
+        // a few values fit in a primitive array, thousands of them don't
+        int smallSize = between(2, 10);
+        int bigSize = between(10_000, 20_000);
+        try (Vector small = buildRandom(smallSize, blockFactory); Vector big = buildRandom(bigSize, blockFactory)) {
+            assertThat(small.getClass().getSimpleName(), endsWith("ArrayVector"));
+            assertFalse(small.getClass().getSimpleName().endsWith("BigArrayVector"));
+            assertThat(big.getClass().getSimpleName(), endsWith("BigArrayVector"));
+            assertThat(blockFactory.breaker().getUsed(), equalTo(small.ramBytesUsed() + big.ramBytesUsed()));
+        }
+        assertThat(blockFactory.breaker().getUsed(), equalTo(0L));
+    }
+
+    private Vector buildRandom(int size, BlockFactory blockFactory) {
+        try (Vector.Builder builder = vectorBuilder(size, blockFactory)) {
+            RandomBlock random = RandomBlock.randomBlock(elementType, size, false, 1, 1, 0, 0);
+            fill(builder, random.block().asVector());
+            Vector built = builder.build();
+            assertThat(built, equalTo(random.block().asVector()));
+            return built;
+        }
+    }
+
+    public void testCloseBigArraysWithoutBuilding() {
+        BigArrays bigArrays = new MockBigArrays(PageCacheRecycler.NON_RECYCLING_INSTANCE, ByteSizeValue.ofGb(1)).withCircuitBreaking();
+        BlockFactory blockFactory = new BlockFactory(
+            bigArrays.breakerService().getBreaker(CircuitBreaker.REQUEST),
+            bigArrays,
+            ByteSizeValue.ofBytes(1)
+        );
+        vectorBuilder(1_000, blockFactory).close();
+        assertThat(blockFactory.breaker().getUsed(), equalTo(0L));
+    }
+
     public void testDoubleBuild() {
         BlockFactory blockFactory = BlockFactoryTests.blockFactory(ByteSizeValue.ofGb(1));
         try (Vector.Builder builder = vectorBuilder(10, blockFactory)) {
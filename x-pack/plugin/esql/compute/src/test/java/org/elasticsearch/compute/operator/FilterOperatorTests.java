@@ -126,4 +126,30 @@ public class FilterOperatorTests extends OperatorTestCase {
         results.forEach(Page::releaseBlocks);
         assertThat(context.breaker().getUsed(), equalTo(0L));
     }
+
+    public void testConstantMask() {
+        DriverContext context = driverContext();
+        boolean value = randomBoolean();
+        List<Page> input = CannedSourceOperator.collectPages(simpleInput(context.blockFactory(), between(1, 1000)));
+        int inputPositions = input.stream().mapToInt(Page::getPositionCount).sum();
+        List<Page> results = drive(
+            new FilterOperator.FilterOperatorFactory(
+                dvrCtx -> new EvalOperator.ExpressionEvaluator() {
+                    @Override
+                    public Block eval(Page page) {
+                        return dvrCtx.blockFactory().newConstantBooleanBlockWith(value, page.getPositionCount());
+                    }
+
+                    @Override
+                    public void close() {}
+                }
+            ).get(context),
+            input.iterator(),
+            context
+        );
+        int outputPositions = results.stream().mapToInt(Page::getPositionCount).sum();
+        assertThat(outputPositions, equalTo(value ? inputPositions : 0));
+        results.forEach(Page::releaseBlocks);
+        assertThat(context.breaker().getUsed(), equalTo(0L));
+    }
 }
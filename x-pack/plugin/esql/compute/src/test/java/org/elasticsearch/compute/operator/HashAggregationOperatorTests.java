@@ -20,6 +20,9 @@ import org.elasticsearch.compute.data.BlockFactory;
 import org.elasticsearch.compute.data.ElementType;
 import org.elasticsearch.compute.data.LongBlock;
 import org.elasticsearch.compute.data.Page;
+import org.elasticsearch.compute.test.BlockTestUtils;
+import org.elasticsearch.compute.test.CannedSourceOperator;
+import org.elasticsearch.compute.test.TestBlockFactory;
 import org.elasticsearch.core.Tuple;
 import org.hamcrest.Matcher;
 
@@ -64,6 +67,55 @@ public class HashAggregationOperatorTests extends ForkingOperatorTestCase {
         );
     }
 
+    public void testPartialEmit() {
+        DriverContext driverContext = driverContext();
+        List<Page> input = CannedSourceOperator.collectPages(simpleInput(driverContext.blockFactory(), between(1_000, 10_000)));
+        List<Page> origInput = BlockTestUtils.deepCopyOf(input, TestBlockFactory.getNonBreakingInstance());
+        int inputPages = input.size();
+
+        // Every page holds at least one key so we flush after each of them
+        HashAggregationOperator initial = (HashAggregationOperator) partialEmittingWithMode(AggregatorMode.INITIAL, 1, 0.0).get(
+            driverContext
+        );
+        List<Page> partials = drive(initial, input.iterator(), driverContext);
+        assertThat(partials, hasSize(inputPages));
+
+        List<Page> results = drive(simpleWithMode(AggregatorMode.FINAL).get(driverContext), partials.iterator(), driverContext);
+        assertSimpleOutput(origInput, results);
+        assertDriverContext(driverContext);
+    }
+
+    public void testPartialEmitHighUniquenessThreshold() {
+        DriverContext driverContext = driverContext();
+        List<Page> input = CannedSourceOperator.collectPages(simpleInput(driverContext.blockFactory(), between(1_000, 10_000)));
+        List<Page> origInput = BlockTestUtils.deepCopyOf(input, TestBlockFactory.getNonBreakingInstance());
+
+        // There are only 5 groups so the hash is effective and we never flush early
+        HashAggregationOperator initial = (HashAggregationOperator) partialEmittingWithMode(AggregatorMode.INITIAL, 1, 1.0).get(
+            driverContext
+        );
+        List<Page> partials = drive(initial, input.iterator(), driverContext);
+        assertThat(partials, hasSize(1));
+
+        List<Page> results = drive(simpleWithMode(AggregatorMode.FINAL).get(driverContext), partials.iterator(), driverContext);
+        assertSimpleOutput(origInput, results);
+        assertDriverContext(driverContext);
+    }
+
+    private Operator.OperatorFactory partialEmittingWithMode(AggregatorMode mode, int keysThreshold, double uniquenessThreshold) {
+        HashAggregationOperator.HashAggregationOperatorFactory simple = (HashAggregationOperator.HashAggregationOperatorFactory)
+            simpleWithMode(mode);
+        return new HashAggregationOperator.HashAggregationOperatorFactory(
+            simple.groups(),
+            simple.aggregatorMode(),
+            simple.aggregators(),
+            simple.maxPageSize(),
+            keysThreshold,
+            uniquenessThreshold,
+            null
+        );
+    }
+
     @Override
     protected Matcher<String> expectedDescriptionOfSimple() {
         return equalTo("HashAggregationOperator[mode = <not-needed>, aggs = sum of longs, max of longs]");
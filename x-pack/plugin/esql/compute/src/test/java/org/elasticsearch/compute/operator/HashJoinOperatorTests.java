@@ -0,0 +1,222 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0; you may not use this file except in compliance with the Elastic License
+ * 2.0.
+ */
+
+package org.elasticsearch.compute.operator;
+
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.compute.data.Block;
+import org.elasticsearch.compute.data.BlockFactory;
+import org.elasticsearch.compute.data.BytesRefBlock;
+import org.elasticsearch.compute.data.LongBlock;
+import org.elasticsearch.compute.data.Page;
+import org.elasticsearch.compute.test.BlockTestUtils;
+import org.elasticsearch.compute.test.CannedSourceOperator;
+import org.elasticsearch.compute.test.OperatorTestCase;
+import org.elasticsearch.compute.test.SequenceLongBlockSourceOperator;
+import org.elasticsearch.compute.test.TestBlockFactory;
+import org.elasticsearch.core.Tuple;
+import org.hamcrest.Matcher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.elasticsearch.compute.test.BlockTestUtils.valuesAtPositions;
+import static org.hamcrest.Matchers.equalTo;
+
+public class HashJoinOperatorTests extends OperatorTestCase {
+    @Override
+    protected SourceOperator simpleInput(BlockFactory blockFactory, int size) {
+        return new SequenceLongBlockSourceOperator(blockFactory, LongStream.range(0, size).map(l -> randomFrom(1, 7, 14, 20)));
+    }
+
+    @Override
+    protected void assertSimpleOutput(List<Page> input, List<Page> results) {
+        assertSimpleOutput(input, results, 0, 1);
+    }
+
+    /**
+     * Checks the output of joining against {@link #simple}. Each key {@code k} in the input
+     * joins to {@code k * 10} and {@code 7} joins to {@code 71} as well.
+     */
+    private void assertSimpleOutput(List<Page> input, List<Page> results, int keyChannel, int outputChannel) {
+        List<List<Object>> expected = new ArrayList<>();
+        for (Page page : input) {
+            LongBlock keys = page.getBlock(keyChannel);
+            for (int p = 0; p < keys.getPositionCount(); p++) {
+                long key = keys.getLong(keys.getFirstValueIndex(p));
+                switch ((int) key) {
+                    case 1, 14 -> expected.add(Arrays.asList(key, key * 10));
+                    case 7 -> {
+                        expected.add(Arrays.asList(key, 70L));
+                        expected.add(Arrays.asList(key, 71L));
+                    }
+                    default -> expected.add(Arrays.asList(key, null));
+                }
+            }
+        }
+        List<List<Object>> actual = new ArrayList<>();
+        for (Page page : results) {
+            LongBlock keys = page.getBlock(keyChannel);
+            LongBlock values = page.getBlock(outputChannel);
+            for (int p = 0; p < page.getPositionCount(); p++) {
+                Long value = values.isNull(p) ? null : values.getLong(values.getFirstValueIndex(p));
+                actual.add(Arrays.asList(keys.getLong(keys.getFirstValueIndex(p)), value));
+            }
+        }
+        assertThat(actual, equalTo(expected));
+    }
+
+    @Override
+    protected Operator.OperatorFactory simple() {
+        BlockFactory blockFactory = TestBlockFactory.getNonBreakingInstance();
+        return new HashJoinOperator.Factory(
+            new Block[] { blockFactory.newLongArrayVector(new long[] { 1, 7, 14, 7 }, 4).asBlock() },
+            new Block[] { blockFactory.newLongArrayVector(new long[] { 10, 70, 140, 71 }, 4).asBlock() },
+            new int[] { 0 },
+            randomPageSize()
+        );
+    }
+
+    @Override
+    protected Matcher<String> expectedDescriptionOfSimple() {
+        return equalTo("HashJoinOperator[leftKeys=[0], rightPositions=4, rightValues=1]");
+    }
+
+    @Override
+    protected Matcher<String> expectedToStringOfSimple() {
+        return equalTo("HashJoinOperator[LongBlockHash{channel=0, entries=3, seenNull=false}, leftKeys=[0]]");
+    }
+
+    public void testSelectBlocks() {
+        DriverContext context = driverContext();
+        List<Page> input = CannedSourceOperator.collectPages(
+            new TupleBlockSourceOperator(
+                context.blockFactory(),
+                LongStream.range(0, 1000).mapToObj(l -> Tuple.tuple(randomLong(), randomFrom(1L, 7L, 14L, 20L)))
+            )
+        );
+        List<Page> clonedInput = BlockTestUtils.deepCopyOf(input, TestBlockFactory.getNonBreakingInstance());
+        BlockFactory blockFactory = TestBlockFactory.getNonBreakingInstance();
+        List<Page> results = drive(
+            new HashJoinOperator.Factory(
+                new Block[] { blockFactory.newLongArrayVector(new long[] { 1, 7, 14, 7 }, 4).asBlock() },
+                new Block[] { blockFactory.newLongArrayVector(new long[] { 10, 70, 140, 71 }, 4).asBlock() },
+                new int[] { 1 },
+                randomPageSize()
+            ).get(context),
+            input.iterator(),
+            context
+        );
+        assertSimpleOutput(clonedInput, results, 1, 2);
+    }
+
+    public void testNullKeysNeverMatch() {
+        DriverContext context = driverContext();
+        BlockFactory blockFactory = TestBlockFactory.getNonBreakingInstance();
+        Block rightKeys;
+        try (BytesRefBlock.Builder builder = blockFactory.newBytesRefBlockBuilder(3)) {
+            builder.appendBytesRef(new BytesRef("a"));
+            builder.appendNull();
+            builder.appendBytesRef(new BytesRef("b"));
+            rightKeys = builder.build();
+        }
+        Block rightValues = blockFactory.newLongArrayVector(new long[] { 1, 2, 3 }, 3).asBlock();
+        Page left;
+        try (BytesRefBlock.Builder builder = context.blockFactory().newBytesRefBlockBuilder(3)) {
+            builder.appendNull();
+            builder.appendBytesRef(new BytesRef("b"));
+            builder.appendBytesRef(new BytesRef("c"));
+            left = new Page(builder.build());
+        }
+        List<Page> results = drive(
+            new HashJoinOperator.Factory(new Block[] { rightKeys }, new Block[] { rightValues }, new int[] { 0 }, 100).get(context),
+            List.of(left).iterator(),
+            context
+        );
+        assertThat(results.size(), equalTo(1));
+        Page result = results.get(0);
+        assertThat(valuesAtPositions(result.getBlock(1), 0, 3), equalTo(Arrays.asList(null, List.of(3L), null)));
+        result.releaseBlocks();
+    }
+
+    public void testMultipleKeys() {
+        DriverContext context = driverContext();
+        BlockFactory blockFactory = TestBlockFactory.getNonBreakingInstance();
+        Block[] rightKeys = new Block[] {
+            bytesRefs(blockFactory, "a", "a", "b", "a"),
+            bytesRefs(blockFactory, "x", "y", "x", "x") };
+        Block rightValues = blockFactory.newLongArrayVector(new long[] { 1, 2, 3, 4 }, 4).asBlock();
+        Page left = new Page(bytesRefs(context.blockFactory(), "a", "b", "a", "b"), bytesRefs(context.blockFactory(), "x", "y", "y", "x"));
+        List<Page> results = drive(
+            new HashJoinOperator.Factory(rightKeys, new Block[] { rightValues }, new int[] { 0, 1 }, 100).get(context),
+            List.of(left).iterator(),
+            context
+        );
+        assertThat(results.size(), equalTo(1));
+        Page result = results.get(0);
+        assertThat(result.getPositionCount(), equalTo(5));
+        assertThat(
+            valuesAtPositions(result.getBlock(2), 0, 5),
+            equalTo(Arrays.asList(List.of(1L), List.of(4L), null, List.of(2L), List.of(3L)))
+        );
+        result.releaseBlocks();
+    }
+
+    public void testMixedTypeKeys() {
+        DriverContext context = driverContext();
+        BlockFactory blockFactory = TestBlockFactory.getNonBreakingInstance();
+        Block[] rightKeys = new Block[] {
+            bytesRefs(blockFactory, "a", "a", "b", "a"),
+            blockFactory.newLongArrayVector(new long[] { 1, 2, 1, 1 }, 4).asBlock() };
+        Block rightValues = blockFactory.newLongArrayVector(new long[] { 10, 20, 30, 40 }, 4).asBlock();
+        Page left;
+        try (LongBlock.Builder builder = context.blockFactory().newLongBlockBuilder(4)) {
+            builder.appendLong(1);
+            builder.appendLong(2);
+            builder.appendLong(2);
+            builder.appendNull();
+            left = new Page(bytesRefs(context.blockFactory(), "a", "b", "a", "a"), builder.build());
+        }
+        List<Page> results = drive(
+            new HashJoinOperator.Factory(rightKeys, new Block[] { rightValues }, new int[] { 0, 1 }, 100).get(context),
+            List.of(left).iterator(),
+            context
+        );
+        assertThat(results.size(), equalTo(1));
+        Page result = results.get(0);
+        assertThat(result.getPositionCount(), equalTo(5));
+        assertThat(
+            valuesAtPositions(result.getBlock(2), 0, 5),
+            equalTo(Arrays.asList(List.of(10L), List.of(40L), null, List.of(20L), null))
+        );
+        result.releaseBlocks();
+    }
+
+    public void testLeftKeyOfAnotherType() {
+        DriverContext context = driverContext();
+        BlockFactory blockFactory = TestBlockFactory.getNonBreakingInstance();
+        Block rightKeys = blockFactory.newLongArrayVector(new long[] { 1, 2 }, 2).asBlock();
+        Block rightValues = blockFactory.newLongArrayVector(new long[] { 10, 20 }, 2).asBlock();
+        var factory = new HashJoinOperator.Factory(new Block[] { rightKeys }, new Block[] { rightValues }, new int[] { 0 }, 100);
+        try (Operator op = factory.get(context)) {
+            Page left = new Page(bytesRefs(context.blockFactory(), "a"));
+            Exception e = expectThrows(IllegalArgumentException.class, () -> op.addInput(left));
+            assertThat(e.getMessage(), equalTo("left key [0] is [BYTES_REF] but the right key is [LONG]"));
+        }
+    }
+
+    private static Block bytesRefs(BlockFactory blockFactory, String... values) {
+        try (BytesRefBlock.Builder builder = blockFactory.newBytesRefBlockBuilder(values.length)) {
+            for (String value : values) {
+                builder.appendBytesRef(new BytesRef(value));
+            }
+            return builder.build();
+        }
+    }
+}
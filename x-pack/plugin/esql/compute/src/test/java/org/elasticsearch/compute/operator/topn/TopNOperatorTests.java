@@ -34,6 +34,7 @@ import org.elasticsearch.compute.test.SequenceLongBlockSourceOperator;
 import org.elasticsearch.compute.test.TestBlockBuilder;
 import org.elasticsearch.compute.test.TestBlockFactory;
 import org.elasticsearch.compute.test.TestDriverFactory;
+import org.elasticsearch.core.Releasables;
 import org.elasticsearch.core.Tuple;
 import org.elasticsearch.indices.CrankyCircuitBreakerService;
 import org.elasticsearch.test.ESTestCase;
@@ -79,6 +80,7 @@ import static org.elasticsearch.core.Tuple.tuple;
 import static org.elasticsearch.test.ListMatcher.matchesList;
 import static org.elasticsearch.test.MapMatcher.assertMap;
 import static org.hamcrest.Matchers.both;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.hasSize;
@@ -461,6 +463,47 @@ public class TopNOperatorTests extends OperatorTestCase {
         return row;
     }
 
+    public void testTiesAndNonCompetitiveRowsAreSkipped() {
+        boolean asc = randomBoolean();
+        BlockFactory blockFactory = blockFactory();
+        Page page = new Page(blockFactory.newLongArrayVector(new long[] { 0, 1, 2, 3 }, 4).asBlock());
+        TopNOperator.Queue queue = new TopNOperator.Queue(2);
+        List<TopNOperator.Row> rows = new ArrayList<>();
+        try {
+            for (int p = 0; p < page.getPositionCount(); p++) {
+                rows.add(row(LONG, DEFAULT_SORTABLE, 0, asc, false, page, p));
+            }
+            // the queue is full with 1 and 2, so its top is 2 when ascending and 1 when descending
+            assertTrue(queue.isCompetitive(rows.get(1)));
+            queue.add(rows.get(1));
+            assertTrue(queue.isCompetitive(rows.get(2)));
+            queue.add(rows.get(2));
+            TopNOperator.Row best = rows.get(asc ? 0 : 3);
+            TopNOperator.Row worst = rows.get(asc ? 3 : 0);
+            TopNOperator.Row tie = queue.top();
+            assertTrue(queue.isCompetitive(best));
+            assertFalse(queue.isCompetitive(worst));
+            assertFalse(queue.isCompetitive(tie));
+        } finally {
+            Releasables.close(rows);
+            page.releaseBlocks();
+        }
+
+        // rows that tie with the top of a full queue are dropped, so the first rows seen win
+        List<Tuple<Long, Long>> values = List.of(tuple(1L, 0L), tuple(5L, 1L), tuple(5L, 2L), tuple(5L, 3L), tuple(5L, 4L));
+        assertThat(
+            topNTwoColumns(
+                driverContext(),
+                values,
+                3,
+                List.of(LONG, LONG),
+                List.of(DEFAULT_SORTABLE, DEFAULT_UNSORTABLE),
+                List.of(new TopNOperator.SortOrder(0, true, false))
+            ),
+            containsInAnyOrder(tuple(1L, 0L), tuple(5L, 1L), tuple(5L, 2L))
+        );
+    }
+
     public void testTopNTwoColumns() {
         List<Tuple<Long, Long>> values = Arrays.asList(tuple(1L, 1L), tuple(1L, 2L), tuple(null, null), tuple(null, 1L), tuple(1L, null));
         assertThat(
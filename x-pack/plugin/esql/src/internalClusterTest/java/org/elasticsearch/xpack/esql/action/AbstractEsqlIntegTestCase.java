@@ -221,6 +221,10 @@ public abstract class AbstractEsqlIntegTestCase extends ESIntegTestCase {
             if (randomBoolean()) {
                 settings.put("node_level_reduction", randomBoolean());
             }
+            if (randomBoolean()) {
+                settings.put("partial_aggregation_emit_keys_threshold", randomIntBetween(1, 1000));
+                settings.put("partial_aggregation_emit_uniqueness_threshold", randomDoubleBetween(0.0, 1.0, true));
+            }
         }
         return new QueryPragmas(settings.build());
     }
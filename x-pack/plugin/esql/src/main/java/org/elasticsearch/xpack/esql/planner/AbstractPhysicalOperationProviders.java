@@ -187,6 +187,8 @@ public abstract class AbstractPhysicalOperationProviders implements PhysicalOper
                     aggregatorMode,
                     aggregatorFactories,
                     context.pageSize(aggregateExec.estimatedRowSize()),
+                    context.queryPragmas().partialAggregationEmitKeysThreshold(),
+                    context.queryPragmas().partialAggregationEmitUniquenessThreshold(),
                     analysisRegistry
                 );
             }
@@ -71,6 +71,19 @@ public final class QueryPragmas implements Writeable {
         MappedFieldType.FieldExtractPreference.NONE
     );
 
+    /**
+     * Number of keys a data node's grouping aggregation collects before it may flush its
+     * intermediate state early and start over with an empty hash.
+     */
+    public static final Setting<Integer> PARTIAL_AGGREGATION_EMIT_KEYS_THRESHOLD = //
+        Setting.intSetting("partial_aggregation_emit_keys_threshold", 100_000, 1);
+
+    /**
+     * Minimum ratio of keys to rows received for the early flush to kick in.
+     */
+    public static final Setting<Double> PARTIAL_AGGREGATION_EMIT_UNIQUENESS_THRESHOLD = //
+        Setting.doubleSetting("partial_aggregation_emit_uniqueness_threshold", 0.1, 0.0, 1.0);
+
     public static final QueryPragmas EMPTY = new QueryPragmas(Settings.EMPTY);
 
     private final Settings settings;
@@ -176,6 +189,23 @@ public final class QueryPragmas implements Writeable {
         return FIELD_EXTRACT_PREFERENCE.get(settings);
     }
 
+    /**
+     * Number of keys a data node's grouping aggregation collects before it may flush its
+     * intermediate state early. High cardinality groupings barely shrink the input but the
+     * hash keeps growing, so flushing it to the node level reduction bounds memory per driver.
+     */
+    public int partialAggregationEmitKeysThreshold() {
+        return PARTIAL_AGGREGATION_EMIT_KEYS_THRESHOLD.get(settings);
+    }
+
+    /**
+     * Minimum ratio of keys to rows received since the last flush for the early flush of a
+     * grouping aggregation to kick in. See {@link #partialAggregationEmitKeysThreshold()}.
+     */
+    public double partialAggregationEmitUniquenessThreshold() {
+        return PARTIAL_AGGREGATION_EMIT_UNIQUENESS_THRESHOLD.get(settings);
+    }
+
     public boolean isEmpty() {
         return settings.isEmpty();
     }
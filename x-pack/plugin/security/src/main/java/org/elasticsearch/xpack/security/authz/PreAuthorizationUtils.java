@@ -43,6 +43,7 @@ public final class PreAuthorizationUtils {
             SearchTransportService.FREE_CONTEXT_ACTION_NAME,
             SearchTransportService.DFS_ACTION_NAME,
             SearchTransportService.QUERY_ACTION_NAME,
+            SearchTransportService.QUERY_NODE_ACTION_NAME,
             SearchTransportService.QUERY_ID_ACTION_NAME,
             SearchTransportService.FETCH_ID_ACTION_NAME,
             SearchTransportService.RANK_FEATURE_SHARD_ACTION_NAME,